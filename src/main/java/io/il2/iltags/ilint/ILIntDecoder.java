@@ -35,6 +35,7 @@ import static io.il2.iltags.ilint.ILIntBase.*;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * This class contains static methods used to decode ILInt values.
@@ -75,6 +76,18 @@ public class ILIntDecoder {
 		for (byte b : body) {
 			u = (u << 8) | (b & 0xFF);
 		}
+		return fromBody(u);
+	}
+
+	/**
+	 * Converts the big endian value of the body of an ILInt into the encoded
+	 * value.
+	 * 
+	 * @param u The value of the body.
+	 * @return The encoded value.
+	 * @throws IllegalArgumentException If the value overflows.
+	 */
+	private static long fromBody(long u) throws IllegalArgumentException {
 		if (Long.compareUnsigned(u, MAX_BODY_VALUE) > 0) {
 			throw new IllegalArgumentException("Overflow.");
 		}
@@ -95,9 +108,73 @@ public class ILIntDecoder {
 			return (long) header;
 		}
 		int size = sizeFromHeader(header);
-		byte[] body = new byte[size - 1];
-		reader.readFully(body);
-		return decodeBody(body);
+		long u = 0;
+		for (int i = 1; i < size; i++) {
+			u = (u << 8) | reader.readUnsignedByte();
+		}
+		return fromBody(u);
+	}
+
+	/**
+	 * Decodes an unsigned ILInt stored in a byte array. The size of the encoded
+	 * value can be determined by sizeFromHeader(int).
+	 * 
+	 * @param buff   The byte array.
+	 * @param offset The offset of the ILInt.
+	 * @return The unsigned decoded value.
+	 * @throws IllegalArgumentException If the ILInt format is invalid or if it is
+	 *                                  truncated.
+	 * @since 2026.10.19
+	 */
+	public static long decode(byte[] buff, int offset) throws IllegalArgumentException {
+		return decode(buff, null, offset, buff.length);
+	}
+
+	/**
+	 * Decodes an unsigned ILInt stored in a ByteBuffer without changing its
+	 * position. The size of the encoded value can be determined by
+	 * sizeFromHeader(int).
+	 * 
+	 * @param buff   The buffer.
+	 * @param offset The absolute offset of the ILInt.
+	 * @return The unsigned decoded value.
+	 * @throws IllegalArgumentException If the ILInt format is invalid or if it is
+	 *                                  truncated.
+	 * @since 2026.10.19
+	 */
+	public static long decode(ByteBuffer buff, int offset) throws IllegalArgumentException {
+		if (buff.hasArray()) {
+			int base = buff.arrayOffset();
+			if ((offset < 0) || (offset >= buff.limit())) {
+				throw new IndexOutOfBoundsException();
+			}
+			return decode(buff.array(), null, base + offset, base + buff.limit());
+		}
+		return decode(null, buff, offset, buff.limit());
+	}
+
+	/**
+	 * Decodes an ILInt from either a byte array or a buffer. Exactly one of them
+	 * must be provided and the offsets are relative to it.
+	 */
+	private static long decode(byte[] array, ByteBuffer buff, int offset, int end) throws IllegalArgumentException {
+		int header = byteAt(array, buff, offset) & 0xFF;
+		if (header < ILINT_BASE) {
+			return (long) header;
+		}
+		int size = sizeFromHeader(header);
+		if (size > end - offset) {
+			throw new IllegalArgumentException("Truncated ILInt.");
+		}
+		long u = 0;
+		for (int i = offset + 1; i < offset + size; i++) {
+			u = (u << 8) | (byteAt(array, buff, i) & 0xFF);
+		}
+		return fromBody(u);
+	}
+
+	private static byte byteAt(byte[] array, ByteBuffer buff, int index) {
+		return (array != null) ? array[index] : buff.get(index);
 	}
 
 	/**
@@ -111,6 +111,31 @@ public class ILIntEncoder {
 		}
 	}
 
+	/**
+	 * Encodes the given unsigned 64-bit integer into a byte array. The array must
+	 * have at least encodedSize(u) bytes after the offset.
+	 * 
+	 * @param u      The value to encode.
+	 * @param buff   The byte array.
+	 * @param offset The offset where the value will be written.
+	 * @return The number of bytes used.
+	 * @since 2026.10.19
+	 */
+	public static int encode(long u, byte[] buff, int offset) {
+		int encodedSize = encodedSize(u);
+		if (encodedSize == 1) {
+			buff[offset] = (byte) u;
+		} else {
+			buff[offset] = (byte) (ILINT_BASE + encodedSize - 2);
+			u -= ILINT_BASE64;
+			for (int i = offset + encodedSize - 1; i > offset; i--) {
+				buff[i] = (byte) u;
+				u = u >>> 8;
+			}
+		}
+		return encodedSize;
+	}
+
 	/**
 	 * Encodes the given signed 64-bit integer using the signed ILInt format.
 	 * 
@@ -0,0 +1,136 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.io;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class implements a ByteBufferDataInput over a byte array that is shared
+ * with the values read from it. Tags deserialized from this input may keep
+ * views into the backing array instead of copies of their values.
+ * 
+ * <p>
+ * The backing array is referenced by the deserialized tags until they are
+ * detached, thus it must not be modified while they are in use.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class ArenaDataInput extends ByteBufferDataInput {
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param source The source of data. It must be backed by an accessible array.
+	 * @throws IllegalArgumentException If the source is not backed by an
+	 *                                  accessible array.
+	 */
+	public ArenaDataInput(ByteBuffer source) {
+		super(checkSource(source));
+	}
+
+	/**
+	 * Create a new instance of this class.
+	 * 
+	 * @param data   The data to be read.
+	 * @param offs   The initial offset.
+	 * @param length The length of the data.
+	 */
+	public ArenaDataInput(byte[] data, int offs, int length) {
+		this(ByteBuffer.wrap(data, offs, length));
+	}
+
+	/**
+	 * Create a new instance of this class.
+	 * 
+	 * @param data The data to be read.
+	 */
+	public ArenaDataInput(byte[] data) {
+		this(data, 0, data.length);
+	}
+
+	private static ByteBuffer checkSource(ByteBuffer source) {
+		if (!source.hasArray()) {
+			throw new IllegalArgumentException("The source must be backed by an accessible array.");
+		}
+		return source;
+	}
+
+	/**
+	 * Returns the backing array.
+	 * 
+	 * @return The backing array.
+	 */
+	public byte[] getArray() {
+		return source.array();
+	}
+
+	/**
+	 * Skips the next bytes of the given input and returns their offset in the
+	 * backing array. The input must read from this instance, directly or through
+	 * LimitedDataInput instances, so the limits of all of them are updated.
+	 * 
+	 * @param in   The input that reads from this instance.
+	 * @param size The number of bytes.
+	 * @return The offset of the first byte in the backing array.
+	 * @throws IOException If there is not enough data.
+	 */
+	public int skipView(DataInput in, int size) throws IOException {
+		int offset = source.arrayOffset() + source.position();
+		if (in.skipBytes(size) != size) {
+			throw new EOFException("End of data.");
+		}
+		return offset;
+	}
+
+	/**
+	 * Returns the ArenaDataInput behind the given input. It looks through the
+	 * sources of LimitedDataInput instances.
+	 * 
+	 * @param in The input.
+	 * @return The ArenaDataInput or null if the input does not read from one.
+	 */
+	public static ArenaDataInput of(DataInput in) {
+		while (in instanceof LimitedDataInput) {
+			in = ((LimitedDataInput) in).getSource();
+		}
+		if (in instanceof ArenaDataInput) {
+			return (ArenaDataInput) in;
+		} else {
+			return null;
+		}
+	}
+}
@@ -51,7 +51,7 @@ import java.io.IOException;
  */
 public class LimitedDataInput implements DataInput {
 
-	protected final DataInput source;
+	protected DataInput source;
 
 	protected int size;
 
@@ -60,6 +60,45 @@ public class LimitedDataInput implements DataInput {
 		this.size = size;
 	}
 
+	/**
+	 * Resets this instance so it can be reused to read from another source.
+	 * 
+	 * @param source The new source.
+	 * @param size   The number of bytes that can be read from the source.
+	 * @since 2026.10.19
+	 */
+	public void reset(DataInput source, int size) {
+		this.source = source;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the source of this instance.
+	 * 
+	 * @return The source.
+	 * @since 2026.10.19
+	 */
+	public DataInput getSource() {
+		return source;
+	}
+
+	/**
+	 * Returns a LimitedDataInput that limits the source to the given size. If the
+	 * source is already a LimitedDataInput with exactly the given number of bytes
+	 * remaining, it is returned as is instead of being wrapped again.
+	 * 
+	 * @param source The source.
+	 * @param size   The number of bytes that can be read from the source.
+	 * @return The limited data input.
+	 * @since 2026.10.19
+	 */
+	public static LimitedDataInput limit(DataInput source, int size) {
+		if ((source instanceof LimitedDataInput) && (((LimitedDataInput) source).remaining() == size)) {
+			return (LimitedDataInput) source;
+		}
+		return new LimitedDataInput(source, size);
+	}
+
 	protected void updateRead(int size) throws EOFException {
 		if (this.size < size) {
 			throw new EOFException("End of data.");
@@ -36,10 +36,19 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import io.il2.iltags.io.ByteBufferDataOutput;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 /**
  * This abstract class implements the basic functionality of the tags.
  * 
+ * <p>
+ * Instances of this class can be frozen by calling freeze(). Frozen tags are
+ * read-only and keep a copy of their own serialization, thus they can be
+ * serialized with a single bulk copy and shared among threads without any
+ * further synchronization. Subclasses must call checkModifiable() before any
+ * change in their state.
+ * </p>
+ * 
  * @author Fabio Jun Takada Chino
  * @since 2022.05.27
  */
@@ -47,6 +56,8 @@ public abstract class AbstractILTag implements ILTag {
 
 	private final long tagId;
 
+	private volatile TagImage image;
+
 	/**
 	 * Creates a new instance of this class.
 	 * 
@@ -73,18 +84,31 @@ public abstract class AbstractILTag implements ILTag {
 
 	@Override
 	public long getTagSize() {
+		TagImage img = this.image;
+		if (img != null) {
+			return img.getTagSize();
+		}
 		long valueSize = this.getValueSize();
 		return ILTagHeader.getSerializedSize(getTagID(), valueSize) + valueSize;
 	}
 
 	@Override
 	public void serialize(DataOutput out) throws IOException, ILTagException {
-		ILTagHeader.serialize(getTagID(), getValueSize(), out);
-		serializeValue(out);
+		TagImage img = this.image;
+		if (img != null) {
+			img.writeTo(out);
+		} else {
+			ILTagHeader.serialize(getTagID(), getValueSize(), out);
+			serializeValue(out);
+		}
 	}
 
 	@Override
 	public byte[] toBytes() throws ILTagException {
+		TagImage img = this.image;
+		if (img != null) {
+			return img.toBytes();
+		}
 		ILTagUtils.assertTagSizeLimit(getValueSize());
 		long size = getTagSize();
 		ByteBuffer buff = ByteBuffer.allocate((int) size);
@@ -96,4 +120,285 @@ public abstract class AbstractILTag implements ILTag {
 		}
 		return buff.array();
 	}
+
+	/**
+	 * Freezes this tag and all its inner tags. Once frozen, this tag cannot be
+	 * modified anymore and its serialization is cached. Calling this method on a
+	 * frozen tag has no effect.
+	 * 
+	 * @throws ILTagException If the tag cannot be serialized.
+	 */
+	public void freeze() throws ILTagException {
+		if (this.image == null) {
+			freezeInnerTags();
+			byte[] bytes = toBytes();
+			this.image = new TagImage(bytes, getValueSize());
+		}
+	}
+
+	/**
+	 * Returns true if this tag is frozen.
+	 * 
+	 * @return true if this tag is frozen or false otherwise.
+	 */
+	public boolean isFrozen() {
+		return this.image != null;
+	}
+
+	/**
+	 * Freezes the inner tags of this tag. It is called by freeze() before the
+	 * serialization of this tag is cached. Tags that contain other tags must
+	 * override this method. The default implementation does nothing.
+	 * 
+	 * @throws ILTagException If one of the inner tags cannot be serialized.
+	 */
+	protected void freezeInnerTags() throws ILTagException {
+	}
+
+	/**
+	 * Freezes the given tag if it is an instance of AbstractILTag. It does
+	 * nothing otherwise.
+	 * 
+	 * @param tag The tag. It may be null.
+	 * @throws ILTagException If the tag cannot be serialized.
+	 */
+	protected static void freezeTag(ILTag tag) throws ILTagException {
+		if (tag instanceof AbstractILTag) {
+			((AbstractILTag) tag).freeze();
+		}
+	}
+
+	/**
+	 * Detaches this tag and all its inner tags from the input they were
+	 * deserialized from. Tags deserialized from an
+	 * io.il2.iltags.io.ArenaDataInput may keep views into its backing array;
+	 * this method copies those values out so the tag can outlive the array.
+	 * Tags that contain other tags or may hold views must override this method.
+	 * The default implementation does nothing.
+	 * 
+	 * @since 2026.10.19
+	 */
+	public void detach() {
+	}
+
+	/**
+	 * Detaches the given tag if it is an instance of AbstractILTag. It does
+	 * nothing otherwise.
+	 * 
+	 * @param tag The tag. It may be null.
+	 * @since 2026.10.19
+	 */
+	protected static void detachTag(ILTag tag) {
+		if (tag instanceof AbstractILTag) {
+			((AbstractILTag) tag).detach();
+		}
+	}
+
+	/**
+	 * Resets this tag to the state of a newly created instance, allowing its
+	 * reuse. Inner tags are discarded but they are not reset. Subclasses that hold
+	 * state must override this method and call super.reset().
+	 * 
+	 * @throws UnsupportedOperationException If the tag is frozen.
+	 * @since 2026.10.19
+	 */
+	public void reset() {
+		checkModifiable();
+	}
+
+	/**
+	 * Verifies if this tag can be modified. It must be called before any change
+	 * in the state of the tag.
+	 * 
+	 * @throws UnsupportedOperationException If the tag is frozen.
+	 */
+	protected void checkModifiable() {
+		if (this.image != null) {
+			throw new UnsupportedOperationException("This tag is frozen.");
+		}
+	}
+
+	/**
+	 * Returns the size of the value cached by freeze().
+	 * 
+	 * @return The size of the value or -1 if this tag is not frozen.
+	 */
+	protected long getCachedValueSize() {
+		TagImage img = this.image;
+		if (img != null) {
+			return img.getValueSize();
+		} else {
+			return -1;
+		}
+	}
+
+	/**
+	 * Tags are equal if they are instances of the same class with the same tag id
+	 * and the same value as defined by valueEquals(AbstractILTag). Frozen tags are
+	 * compared by their serialization.
+	 * 
+	 * <p>
+	 * Tags of different classes are never equal, even if they are serialized to
+	 * the same bytes. For instance, a LazyILTagArrayTag is not equal to an
+	 * ILTagArrayTag with the same inner tags, and neither are the containers that
+	 * hold them. Use SerializedTagComparator to compare tags by their
+	 * serialization regardless of their classes.
+	 * </p>
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if ((obj == null) || (obj.getClass() != this.getClass())) {
+			return false;
+		}
+		AbstractILTag other = (AbstractILTag) obj;
+		if (this.tagId != other.tagId) {
+			return false;
+		}
+		TagImage img = this.image;
+		TagImage otherImg = other.image;
+		if ((img != null) && (otherImg != null)) {
+			return img.sameBytes(otherImg);
+		}
+		return valueEquals(other);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(tagId) + valueHashCode();
+	}
+
+	/**
+	 * Compares the value of this tag with the value of another tag of the same
+	 * class and tag id. Implementations must be consistent with the
+	 * serialization, thus two values of the same class are equal if and only if
+	 * they are serialized to the same bytes. The default implementation considers
+	 * equal only frozen tags with the same serialization, thus subclasses are
+	 * expected to override it together with valueHashCode().
+	 * 
+	 * @param other The other tag. It is never this instance.
+	 * @return true if the values are equal.
+	 * @since 2026.10.19
+	 */
+	protected boolean valueEquals(AbstractILTag other) {
+		return false;
+	}
+
+	/**
+	 * Computes the hash code of the value. It must be consistent with
+	 * valueEquals(AbstractILTag). The default implementation uses the hash of
+	 * the serialization of frozen tags and the identity hash code of the other
+	 * tags.
+	 * 
+	 * @return The hash code of the value.
+	 * @since 2026.10.19
+	 */
+	protected int valueHashCode() {
+		TagImage img = this.image;
+		if (img != null) {
+			return img.getHash();
+		} else {
+			return System.identityHashCode(this);
+		}
+	}
+
+	/**
+	 * Compares two inner tags. A null inner tag is equal to the standard null tag
+	 * because both are serialized in the same way.
+	 * 
+	 * @param a The first tag. It may be null.
+	 * @param b The second tag. It may be null.
+	 * @return true if the tags are equal.
+	 * @since 2026.10.19
+	 */
+	protected static boolean tagEquals(ILTag a, ILTag b) {
+		if (a == b) {
+			return true;
+		}
+		if ((a == null) || (a.getTagID() == TagID.IL_NULL_TAG_ID)) {
+			return (b == null) || (b.getTagID() == TagID.IL_NULL_TAG_ID);
+		}
+		return a.equals(b);
+	}
+
+	/**
+	 * Computes the hash code of an inner tag. It is consistent with
+	 * tagEquals(ILTag, ILTag).
+	 * 
+	 * @param tag The tag. It may be null.
+	 * @return The hash code.
+	 * @since 2026.10.19
+	 */
+	protected static int tagHashCode(ILTag tag) {
+		if ((tag == null) || (tag.getTagID() == TagID.IL_NULL_TAG_ID)) {
+			return 0;
+		}
+		return tag.hashCode();
+	}
+
+	/**
+	 * Estimates the amount of heap retained by this tag and its inner tags. Shared
+	 * instances, such as flyweights and the inputs of views, are counted at each
+	 * reference.
+	 * 
+	 * @since 2026.10.19
+	 */
+	@Override
+	public long estimateRetainedSize() {
+		return estimateOwnRetainedSize() + estimateInnerTagsRetainedSize();
+	}
+
+	/**
+	 * Estimates the amount of heap retained by this tag, excluding its inner tags.
+	 * It includes the cached serialization of frozen tags.
+	 * 
+	 * @since 2026.10.19
+	 */
+	@Override
+	public long estimateOwnRetainedSize() {
+		long size = HeapSizeUtils.align(HeapSizeUtils.OBJECT_HEADER_SIZE + 8 + HeapSizeUtils.REFERENCE_SIZE
+				+ estimateValueRetainedSize());
+		TagImage img = this.image;
+		if (img != null) {
+			size += img.estimateRetainedSize();
+		}
+		return size;
+	}
+
+	/**
+	 * Estimates the heap used by the fields declared by the subclasses and by the
+	 * objects they hold, excluding the inner tags. The result is added to the size
+	 * of the fields of this class before the alignment, thus the sizes of the
+	 * objects held must already be aligned. The default implementation returns 0.
+	 * 
+	 * @return The estimated size in bytes.
+	 * @since 2026.10.19
+	 */
+	protected long estimateValueRetainedSize() {
+		return 0;
+	}
+
+	/**
+	 * Estimates the heap retained by the inner tags. The default implementation
+	 * returns 0.
+	 * 
+	 * @return The estimated size in bytes.
+	 * @since 2026.10.19
+	 */
+	protected long estimateInnerTagsRetainedSize() {
+		return 0;
+	}
+
+	/**
+	 * Estimates the heap retained by an inner tag.
+	 * 
+	 * @param tag The tag. It may be null.
+	 * @return The estimated size in bytes or 0 if the tag is null.
+	 * @since 2026.10.19
+	 */
+	protected static long estimateTagRetainedSize(ILTag tag) {
+		return (tag != null) ? tag.estimateRetainedSize() : 0;
+	}
 }
@@ -34,6 +34,8 @@ package io.il2.iltags.tags;
 import java.io.DataInput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.List;
 
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.io.LimitedDataInput;
@@ -47,20 +49,68 @@ import io.il2.iltags.io.LimitedDataInput;
  */
 public abstract class AbstractTagFactory implements ILTagFactory {
 
+	private volatile DecodeLimits decodeLimits = DecodeLimits.UNLIMITED;
+
+	private final ThreadLocal<DecodeState> decodeState = new ThreadLocal<DecodeState>() {
+		@Override
+		protected DecodeState initialValue() {
+			return new DecodeState();
+		}
+	};
+
+	@Override
+	public DecodeLimits getDecodeLimits() {
+		return this.decodeLimits;
+	}
+
+	/**
+	 * Sets the limits enforced by this factory. The depth and the size of the
+	 * outermost tag are checked by this class before the values are read, while
+	 * the other limits are checked by the tags themselves.
+	 * 
+	 * @param decodeLimits The new limits.
+	 * @since 2026.10.19
+	 */
+	public void setDecodeLimits(DecodeLimits decodeLimits) {
+		if (decodeLimits == null) {
+			throw new IllegalArgumentException("The limits cannot be null.");
+		}
+		this.decodeLimits = decodeLimits;
+	}
+
+	/**
+	 * The depth is only tracked while the limits are not DecodeLimits.UNLIMITED.
+	 */
+	@Override
+	public int getDecodeDepth() {
+		if (this.decodeLimits == DecodeLimits.UNLIMITED) {
+			return 0;
+		}
+		return this.decodeState.get().depth;
+	}
+
 	@Override
 	public ILTag fromBytes(byte[] bytes) throws ILTagException {
-		ByteBuffer buff = ByteBuffer.wrap(bytes);
-		ByteBufferDataInput in = new ByteBufferDataInput(buff);
-		ILTag tag;
+		return fromBytes(bytes, 0, bytes.length);
+	}
+
+	@Override
+	public int deserializeAll(ByteBuffer buff, List<? super ILTag> tags) throws ILTagException {
+		ByteBuffer view = buff.duplicate();
+		ByteBufferDataInput in = new ByteBufferDataInput(view);
+		ILTagHeader header = new ILTagHeader();
+		int count = 0;
 		try {
-			tag = deserialize(in);
+			while (view.hasRemaining()) {
+				ILTagUtils.readHeader(in, header);
+				tags.add(deserializeTag(header.tagId, header.valueSize, in));
+				count++;
+			}
 		} catch (IOException e) {
-			throw new CorruptedTagException("Unable to deserialize the tag.", e);
-		}
-		if (buff.hasRemaining()) {
-			throw new CorruptedTagException("Too many bytes.");
+			throw new CorruptedTagException(String.format("Unable to deserialize the tag %1$d.", count), e);
 		}
-		return tag;
+		buff.position(view.position());
+		return count;
 	}
 
 	/**
@@ -75,45 +125,289 @@ public abstract class AbstractTagFactory implements ILTagFactory {
 	 */
 	protected void deserializeValue(ILTag tag, long valueSize, DataInput in)
 			throws IOException, CorruptedTagException, ILTagException {
+		DecodeLimits limits = this.decodeLimits;
+		if (limits == DecodeLimits.UNLIMITED) {
+			deserializeValueCore(tag, valueSize, in);
+			return;
+		}
+		// Inner tags are deserialized by nested calls on the same thread.
+		DecodeState state = this.decodeState.get();
+		if (state.depth == 0) {
+			limits.checkTotalBytes(valueSize);
+		}
+		limits.checkDepth(state.depth + 1);
+		state.depth++;
+		try {
+			deserializeValueCore(tag, valueSize, in);
+		} finally {
+			state.depth--;
+		}
+	}
+
+	private void deserializeValueCore(ILTag tag, long valueSize, DataInput in) throws IOException, ILTagException {
 		if (valueSize >= 0) {
-			LimitedDataInput limited = new LimitedDataInput(in, (int) valueSize);
-			tag.deserializeValue(this, valueSize, limited);
-			if (limited.hasRemaining()) {
-				throw new CorruptedTagException(
-						String.format("Value deserialization error. Only %1$d bytes used out of %2$d.",
-								limited.remaining(), valueSize));
+			DecodeContext context = DecodeContext.of(in);
+			if (context == null) {
+				deserializeLimitedValue(tag, valueSize, new LimitedDataInput(in, (int) valueSize));
+			} else {
+				LimitedDataInput limited = context.push(in, (int) valueSize);
+				try {
+					deserializeLimitedValue(tag, valueSize, limited);
+				} finally {
+					context.pop();
+				}
 			}
 		} else {
 			tag.deserializeValue(this, valueSize, in);
 		}
 	}
 
+	private void deserializeLimitedValue(ILTag tag, long valueSize, LimitedDataInput limited)
+			throws IOException, ILTagException {
+		tag.deserializeValue(this, valueSize, limited);
+		if (limited.hasRemaining()) {
+			throw new CorruptedTagException("Value deserialization error. Only %1$d bytes used out of %2$d.",
+					limited.remaining(), valueSize);
+		}
+	}
+
+	/**
+	 * Reads the header using the shared header of the context bound to the input,
+	 * if any.
+	 */
+	private static ILTagHeader readHeader(DataInput in) throws IOException, ILTagException {
+		DecodeContext context = DecodeContext.of(in);
+		if (context == null) {
+			return ILTagUtils.readHeader(in);
+		} else {
+			return context.readHeader(in);
+		}
+	}
+
+	/**
+	 * Creates and deserializes the tag whose header has already been read. All
+	 * deserialization methods of this class end up here, thus subclasses may
+	 * override it in order to change how the tag instances are obtained.
+	 * 
+	 * <p>
+	 * If getMemoryBudget() is not 0, the heap retained by the tags created here,
+	 * as estimated by io.il2.iltags.tags.ILTag.estimateOwnRetainedSize(), is
+	 * accounted over the whole deserialization and it fails as soon as the budget
+	 * is exceeded. The value size of the tags that are not containers is also
+	 * checked before the value is read, thus large values are rejected before
+	 * their allocation. This check caps the serialized size of those values, which
+	 * may be slightly larger than the heap they retain. Containers are only
+	 * accounted once their inner tags are known, since those may be shared
+	 * instances that are not accounted for.
+	 * </p>
+	 * 
+	 * @param tagId     The tag id.
+	 * @param valueSize The value size. It may be -1 if the size is unknown.
+	 * @param in        The data input positioned at the start of the value.
+	 * @return The deserialized tag.
+	 * @throws IOException                   In case of IO error.
+	 * @throws MemoryBudgetExceededException If the memory budget is exceeded.
+	 * @throws ILTagException                In case of deserialization error.
+	 */
+	protected ILTag deserializeTag(long tagId, long valueSize, DataInput in) throws IOException, ILTagException {
+		ILTag tag = this.createTag(tagId);
+		long budget = getMemoryBudget();
+		if (budget == 0) {
+			deserializeValue(tag, valueSize, in);
+			return tag;
+		}
+		// The usage is shared by the inner tags of the same deserialization.
+		DecodeState state = this.decodeState.get();
+		if (state.budgetDepth == 0) {
+			state.used = 0;
+		}
+		if (!(tag instanceof ILContainerTag) && (valueSize > budget - state.used)) {
+			throw new MemoryBudgetExceededException("The tag %1$X exceeds the memory budget of %2$d bytes.", tagId,
+					budget);
+		}
+		state.budgetDepth++;
+		try {
+			deserializeValue(tag, valueSize, in);
+		} finally {
+			state.budgetDepth--;
+		}
+		addUsage(state, tag, budget);
+		return tag;
+	}
+
+	/**
+	 * Accounts a tag whose value was read by a subclass without the help of
+	 * deserializeTag(long, long, DataInput), just like the tags created by it.
+	 * It does nothing if getMemoryBudget() is 0.
+	 * 
+	 * @param tag The tag.
+	 * @throws MemoryBudgetExceededException If the memory budget is exceeded.
+	 * @since 2026.10.19
+	 */
+	protected void accountTag(ILTag tag) throws MemoryBudgetExceededException {
+		long budget = getMemoryBudget();
+		if (budget == 0) {
+			return;
+		}
+		DecodeState state = this.decodeState.get();
+		if (state.budgetDepth == 0) {
+			state.used = 0;
+		}
+		addUsage(state, tag, budget);
+	}
+
+	private static void addUsage(DecodeState state, ILTag tag, long budget) throws MemoryBudgetExceededException {
+		state.used += tag.estimateOwnRetainedSize();
+		if (state.used > budget) {
+			throw new MemoryBudgetExceededException("The tag %1$X exceeds the memory budget of %2$d bytes.",
+					tag.getTagID(), budget);
+		}
+	}
+
 	@Override
 	public ILTag deserialize(DataInput in) throws IOException, ILTagException {
-		ILTagHeader header = ILTagUtils.readHeader(in);
-		ILTag tag = this.createTag(header.tagId);
-		deserializeValue(tag, header.valueSize, in);
-		return tag;
+		ILTagHeader header = readHeader(in);
+		return deserializeTag(header.tagId, header.valueSize, in);
 	}
 
 	@Override
 	public ILTag deserialize(long id, DataInput in) throws IOException, ILTagException {
-		ILTagHeader header = ILTagUtils.readHeader(in);
+		ILTagHeader header = readHeader(in);
 		if (header.tagId != id) {
-			throw new UnexpectedTagException(String.format("Expecting %1$X but found %2$X.", header.tagId, id));
+			throw new UnexpectedTagException("Expecting %1$X but found %2$X.", id, header.tagId);
+		}
+		return deserializeTag(header.tagId, header.valueSize, in);
+	}
+
+	@Override
+	public ILTag deserialize(DataInput in, DecodeContext context) throws IOException, ILTagException {
+		if ((context == null) || (DecodeContext.of(in) == context)) {
+			return deserialize(in);
+		}
+		LimitedDataInput bound = context.pushUnlimited(in);
+		try {
+			return deserialize(bound);
+		} finally {
+			context.pop();
+		}
+	}
+
+	@Override
+	public ILTag deserialize(long id, DataInput in, DecodeContext context) throws IOException, ILTagException {
+		if ((context == null) || (DecodeContext.of(in) == context)) {
+			return deserialize(id, in);
+		}
+		LimitedDataInput bound = context.pushUnlimited(in);
+		try {
+			return deserialize(id, bound);
+		} finally {
+			context.pop();
+		}
+	}
+
+	@Override
+	public ILTag deserializeNested(DataInput in, int depth) throws IOException, ILTagException {
+		if (depth < 0) {
+			throw new IllegalArgumentException("The depth cannot be negative.");
+		}
+		if ((depth == 0) || (this.decodeLimits == DecodeLimits.UNLIMITED)) {
+			return deserialize(in);
+		}
+		DecodeState state = this.decodeState.get();
+		int saved = state.depth;
+		state.depth = depth;
+		try {
+			return deserialize(in);
+		} finally {
+			state.depth = saved;
+		}
+	}
+
+	/**
+	 * Each candidate is reused at most once per pass. Since an instance may be
+	 * shared by more than one position of the tree being reused, the repeated
+	 * positions receive new instances instead.
+	 */
+	@Override
+	public ILTag deserializeReusing(ILTag candidate, DataInput in) throws IOException, ILTagException {
+		DecodeState state = this.decodeState.get();
+		state.beginReuse();
+		try {
+			ILTagHeader header = readHeader(in);
+			if ((candidate != null) && (candidate.getTagID() == header.tagId)
+					&& !((candidate instanceof AbstractILTag) && ((AbstractILTag) candidate).isFrozen())
+					&& state.markReused(candidate)) {
+				deserializeValue(candidate, header.valueSize, in);
+				return candidate;
+			}
+			return deserializeTag(header.tagId, header.valueSize, in);
+		} finally {
+			state.endReuse();
 		}
-		ILTag tag = this.createTag(header.tagId);
-		deserializeValue(tag, header.valueSize, in);
-		return tag;
 	}
 
 	@Override
 	public void deserializeInto(ILTag tag, DataInput in) throws IOException, ILTagException {
-		ILTagHeader header = ILTagUtils.readHeader(in);
-		if (header.tagId != tag.getTagID()) {
-			throw new UnexpectedTagException(
-					String.format("Expecting %1$X but found %2$X.", header.tagId, tag.getTagID()));
+		DecodeState state = this.decodeState.get();
+		state.beginReuse();
+		try {
+			ILTagHeader header = readHeader(in);
+			if (header.tagId != tag.getTagID()) {
+				throw new UnexpectedTagException("Expecting %1$X but found %2$X.", tag.getTagID(), header.tagId);
+			}
+			state.markReused(tag);
+			deserializeValue(tag, header.valueSize, in);
+		} finally {
+			state.endReuse();
+		}
+	}
+
+	/**
+	 * State of the deserialization running on a thread.
+	 */
+	private static final class DecodeState {
+
+		int depth;
+
+		/**
+		 * Number of nested calls that account the memory budget.
+		 */
+		int budgetDepth;
+
+		/**
+		 * Estimated heap used by the current deserialization.
+		 */
+		long used;
+
+		/**
+		 * Number of nested calls that may reuse instances.
+		 */
+		private int reuseDepth;
+
+		/**
+		 * Instances already reused by the current pass.
+		 */
+		private final IdentityHashMap<ILTag, Boolean> reused = new IdentityHashMap<>();
+
+		void beginReuse() {
+			this.reuseDepth++;
+		}
+
+		void endReuse() {
+			this.reuseDepth--;
+			if (this.reuseDepth == 0) {
+				this.reused.clear();
+			}
+		}
+
+		/**
+		 * Marks the instance as reused.
+		 * 
+		 * @param tag The tag.
+		 * @return true if the instance was not reused yet by the current pass.
+		 */
+		boolean markReused(ILTag tag) {
+			return this.reused.put(tag, Boolean.TRUE) == null;
 		}
-		deserializeValue(tag, header.valueSize, in);
 	}
 }
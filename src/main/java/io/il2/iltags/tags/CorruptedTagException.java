@@ -56,6 +56,17 @@ public class CorruptedTagException extends ILTagException {
 		super(message, cause);
 	}
 
+	/**
+	 * Creates a new exception whose message is formatted on demand.
+	 * 
+	 * @param messageFormat    The message format.
+	 * @param messageArguments The arguments of the message.
+	 * @since 2026.10.19
+	 */
+	public CorruptedTagException(String messageFormat, Object... messageArguments) {
+		super(messageFormat, messageArguments);
+	}
+
 	public CorruptedTagException(String message, Throwable cause, boolean enableSuppression,
 			boolean writableStackTrace) {
 		super(message, cause, enableSuppression, writableStackTrace);
@@ -0,0 +1,265 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.util.Arrays;
+
+import io.il2.iltags.io.LimitedDataInput;
+import io.il2.iltags.utils.UTF8Utils;
+
+/**
+ * This class holds the scratch objects used during the deserialization of the
+ * tags: a header holder, a stack of limited inputs and buffers used to decode
+ * strings. Reusing a context allows the deserialization of tags without
+ * allocating anything but the deserialized objects themselves.
+ * 
+ * <p>
+ * The context is carried by the limited inputs it creates, thus tags and
+ * factories can retrieve it from the DataInput they receive by calling
+ * of(DataInput). Instances of this class must not be shared among threads.
+ * Use current() to get an instance bound to the current thread.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class DecodeContext {
+
+	private static final ThreadLocal<DecodeContext> CURRENT = new ThreadLocal<DecodeContext>() {
+		@Override
+		protected DecodeContext initialValue() {
+			return new DecodeContext();
+		}
+	};
+
+	private final ILTagHeader header = new ILTagHeader();
+
+	private Frame[] frames = new Frame[16];
+
+	private int depth;
+
+	/**
+	 * Maximum capacity of the scratch buffers kept by a context. Larger strings
+	 * are decoded using temporary buffers.
+	 * 
+	 * @since 2026.10.19
+	 */
+	public static final int MAX_SCRATCH_SIZE = 64 * 1024;
+
+	ByteBuffer scratch = ByteBuffer.allocate(256);
+
+	CharBuffer chars = CharBuffer.allocate(256);
+
+	private CharsetDecoder decoder;
+
+	/**
+	 * Returns the context bound to the current thread.
+	 * 
+	 * @return The context of the current thread.
+	 */
+	public static DecodeContext current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Returns the context that created the given input.
+	 * 
+	 * @param in The data input.
+	 * @return The context or null if the input was not created by a context.
+	 */
+	public static DecodeContext of(DataInput in) {
+		if (in instanceof Frame) {
+			return ((Frame) in).context;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the number of inputs currently in use.
+	 * 
+	 * @return The depth of the stack of inputs.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Reads a header into the shared header holder of this context. The returned
+	 * instance is overwritten by the next call, thus its values must be copied
+	 * before the deserialization of the value.
+	 * 
+	 * @param in The data input.
+	 * @return The shared header.
+	 * @throws IOException          In case of IO error.
+	 * @throws TagTooLargeException If the value size exceeds the limits imposed by
+	 *                              this library.
+	 * @throws ILTagException       If the header is corrupted.
+	 */
+	public ILTagHeader readHeader(DataInput in) throws IOException, TagTooLargeException, ILTagException {
+		return ILTagUtils.readHeader(in, header);
+	}
+
+	/**
+	 * Pushes a new limited input. Each call must be paired with a call to pop()
+	 * once the input is not necessary anymore.
+	 * 
+	 * @param source The source.
+	 * @param size   The number of bytes that can be read from the source.
+	 * @return The limited input. It is bound to this context.
+	 */
+	public LimitedDataInput push(DataInput source, int size) {
+		if (depth == frames.length) {
+			frames = Arrays.copyOf(frames, frames.length * 2);
+		}
+		Frame frame = frames[depth];
+		if (frame == null) {
+			frame = new Frame(this);
+			frames[depth] = frame;
+		}
+		frame.reset(source, size);
+		depth++;
+		return frame;
+	}
+
+	/**
+	 * Pushes an input that reads the source without limits. It allows the use of
+	 * this context with inputs that were not created by it.
+	 * 
+	 * @param source The source.
+	 * @return The limited input. It is bound to this context.
+	 */
+	public LimitedDataInput pushUnlimited(DataInput source) {
+		return push(source, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Releases the input returned by the last call to push().
+	 */
+	public void pop() {
+		if (depth == 0) {
+			throw new IllegalStateException("No input to release.");
+		}
+		depth--;
+		frames[depth].reset(null, 0);
+	}
+
+	/**
+	 * Returns a scratch array with at least the given size. The array is shared
+	 * with readUTF8String(int, DataInput), thus its contents are only valid until
+	 * the next call to one of those methods. Sizes larger than MAX_SCRATCH_SIZE
+	 * get a temporary array.
+	 * 
+	 * @param size The required size in bytes.
+	 * @return The scratch array.
+	 * @since 2026.10.19
+	 */
+	public byte[] getScratchBytes(int size) {
+		if (size > MAX_SCRATCH_SIZE) {
+			return new byte[size];
+		}
+		if (scratch.capacity() < size) {
+			scratch = ByteBuffer.allocate(Math.min(Math.max(size, scratch.capacity() * 2), MAX_SCRATCH_SIZE));
+		}
+		return scratch.array();
+	}
+
+	/**
+	 * Reads an UTF-8 string using the scratch buffers of this context.
+	 * 
+	 * @param size The size of the string in bytes.
+	 * @param in   The data input.
+	 * @return The string read.
+	 * @throws IOException           In case of IO error.
+	 * @throws CorruptedTagException If the data is not a valid UTF-8 string.
+	 */
+	public String readUTF8String(int size, DataInput in) throws IOException, CorruptedTagException {
+		ByteBuffer src;
+		CharBuffer dst;
+		if (size > MAX_SCRATCH_SIZE) {
+			// The context lives as long as its thread, thus it must not retain them.
+			src = ByteBuffer.allocate(size);
+			dst = CharBuffer.allocate(size);
+		} else {
+			if (scratch.capacity() < size) {
+				scratch = ByteBuffer.allocate(Math.min(Math.max(size, scratch.capacity() * 2), MAX_SCRATCH_SIZE));
+			}
+			if (chars.capacity() < size) {
+				// UTF-8 never produces more chars than bytes.
+				chars = CharBuffer.allocate(Math.min(Math.max(size, chars.capacity() * 2), MAX_SCRATCH_SIZE));
+			}
+			src = scratch;
+			dst = chars;
+		}
+		if (decoder == null) {
+			decoder = UTF8Utils.newDecoder();
+		}
+		in.readFully(src.array(), 0, size);
+		src.clear();
+		src.limit(size);
+		dst.clear();
+		decoder.reset();
+		try {
+			CoderResult result = decoder.decode(src, dst, true);
+			if (!result.isUnderflow()) {
+				result.throwException();
+			}
+			result = decoder.flush(dst);
+			if (!result.isUnderflow()) {
+				result.throwException();
+			}
+		} catch (CharacterCodingException e) {
+			throw new CorruptedTagException("Invalid UTF-8 string.", e);
+		}
+		return new String(dst.array(), 0, dst.position());
+	}
+
+	/**
+	 * Limited input bound to a context.
+	 */
+	private static class Frame extends LimitedDataInput {
+
+		final DecodeContext context;
+
+		Frame(DecodeContext context) {
+			super(null, 0);
+			this.context = context;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+/**
+ * This class holds the limits enforced during the deserialization of untrusted
+ * inputs. They are checked before the allocation of the objects they protect,
+ * thus a malicious input is rejected before it can exhaust the heap.
+ * 
+ * <p>
+ * The limits are obtained from the factory by calling
+ * io.il2.iltags.tags.ILTagFactory.getDecodeLimits(). They are enforced by
+ * AbstractTagFactory, IterativeTagDeserializer, ParallelTagDeserializer and the
+ * standard containers, including the lazy ones. ILTagReader, ILTagEventParser
+ * and ILTagDocument do not use a factory, thus they receive the limits
+ * explicitly. Instances of this class are immutable.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public final class DecodeLimits {
+
+	/**
+	 * Limits that only enforce the limits imposed by this library.
+	 */
+	public static final DecodeLimits UNLIMITED = new DecodeLimits(Integer.MAX_VALUE, Integer.MAX_VALUE,
+			ILTag.MAX_TAG_VALUE_SIZE, ILTag.MAX_TAG_VALUE_SIZE);
+
+	/**
+	 * Limits suitable for inputs that come from untrusted sources.
+	 */
+	public static final DecodeLimits UNTRUSTED = new DecodeLimits(IterativeTagDeserializer.DEFAULT_MAX_DEPTH,
+			1024 * 1024, 64 * 1024 * 1024, 16 * 1024 * 1024);
+
+	private final int maxDepth;
+
+	private final int maxElements;
+
+	private final long maxTotalBytes;
+
+	private final long maxStringLength;
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param maxDepth        The maximum number of nested tags.
+	 * @param maxElements     The maximum number of elements of a container.
+	 * @param maxTotalBytes   The maximum size of the value of the outermost tag.
+	 * @param maxStringLength The maximum size of a string in bytes.
+	 * @throws IllegalArgumentException If one of the limits is not valid.
+	 */
+	public DecodeLimits(int maxDepth, int maxElements, long maxTotalBytes, long maxStringLength) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("The maximum depth must be positive.");
+		}
+		if ((maxElements < 0) || (maxTotalBytes < 0) || (maxStringLength < 0)) {
+			throw new IllegalArgumentException("The limits cannot be negative.");
+		}
+		this.maxDepth = maxDepth;
+		this.maxElements = maxElements;
+		this.maxTotalBytes = maxTotalBytes;
+		this.maxStringLength = maxStringLength;
+	}
+
+	/**
+	 * Returns the limits of the given factory.
+	 * 
+	 * @param factory The factory. It may be null.
+	 * @return The limits of the factory or UNLIMITED if the factory is null.
+	 */
+	public static DecodeLimits of(ILTagFactory factory) {
+		return (factory != null) ? factory.getDecodeLimits() : UNLIMITED;
+	}
+
+	/**
+	 * Returns the maximum depth.
+	 * 
+	 * @return The maximum number of nested tags.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Returns the maximum number of elements.
+	 * 
+	 * @return The maximum number of elements of a container.
+	 */
+	public int getMaxElements() {
+		return maxElements;
+	}
+
+	/**
+	 * Returns the maximum total size.
+	 * 
+	 * @return The maximum size of the value of the outermost tag.
+	 */
+	public long getMaxTotalBytes() {
+		return maxTotalBytes;
+	}
+
+	/**
+	 * Returns the maximum string length.
+	 * 
+	 * @return The maximum size of a string in bytes.
+	 */
+	public long getMaxStringLength() {
+		return maxStringLength;
+	}
+
+	/**
+	 * Verifies the depth of a tag.
+	 * 
+	 * @param depth The depth of the tag. The outermost tag has depth 1.
+	 * @throws TagTooLargeException If the depth exceeds the limit.
+	 */
+	public void checkDepth(int depth) throws TagTooLargeException {
+		if (depth > maxDepth) {
+			throw new TagTooLargeException("The tag exceeds the maximum depth of %1$d.", maxDepth);
+		}
+	}
+
+	/**
+	 * Verifies the number of elements of a container.
+	 * 
+	 * @param count The number of elements.
+	 * @throws TagTooLargeException If the number of elements exceeds the limit.
+	 */
+	public void checkElements(long count) throws TagTooLargeException {
+		if (Long.compareUnsigned(count, maxElements) > 0) {
+			throw new TagTooLargeException(
+					"The container has %1$d elements but the limit is %2$d.", count, maxElements);
+		}
+	}
+
+	/**
+	 * Verifies the size of the value of the outermost tag.
+	 * 
+	 * @param valueSize The size of the value. Unknown sizes are ignored.
+	 * @throws TagTooLargeException If the size exceeds the limit.
+	 */
+	public void checkTotalBytes(long valueSize) throws TagTooLargeException {
+		if (valueSize > maxTotalBytes) {
+			throw new TagTooLargeException("The tag has %1$d bytes but the limit is %2$d.", valueSize, maxTotalBytes);
+		}
+	}
+
+	/**
+	 * Verifies the size of a string.
+	 * 
+	 * @param size The size of the string in bytes.
+	 * @throws TagTooLargeException If the size exceeds the limit.
+	 */
+	public void checkStringLength(long size) throws TagTooLargeException {
+		if (Long.compareUnsigned(size, maxStringLength) > 0) {
+			throw new TagTooLargeException("The string has %1$d bytes but the limit is %2$d.", size, maxStringLength);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.io.IOException;
+
+import io.il2.iltags.io.LimitedDataInput;
+
+/**
+ * This is the interface of the tags that contain other tags and are able to
+ * be deserialized step by step. It allows deserializers to decode the inner
+ * tags themselves, without recursive calls to
+ * io.il2.iltags.tags.ILTag.deserializeValue(ILTagFactory, long, DataInput).
+ * 
+ * <p>
+ * The deserialization starts with a call to beginDeserialization(). After
+ * that, each inner tag is deserialized by a call to beginChild(), followed by
+ * the deserialization of the inner tag from the same input and a call to
+ * addChild().
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public interface ILContainerTag extends ILTag {
+
+	/**
+	 * Starts the deserialization of the value. It discards the current values
+	 * and reads everything that precedes the first inner tag.
+	 * 
+	 * @param factory   The tag factory.
+	 * @param valueSize The size of the value.
+	 * @param in        The data input limited to the value of this tag.
+	 * @return The number of inner tags or -1 if the inner tags fill the rest of
+	 *         the value.
+	 * @throws IOException    In case of IO error.
+	 * @throws ILTagException If the value is corrupted.
+	 */
+	long beginDeserialization(ILTagFactory factory, long valueSize, LimitedDataInput in)
+			throws IOException, ILTagException;
+
+	/**
+	 * Reads everything that precedes the next inner tag.
+	 * 
+	 * @param factory The tag factory.
+	 * @param in      The data input limited to the value of this tag.
+	 * @throws IOException    In case of IO error.
+	 * @throws ILTagException If the value is corrupted.
+	 */
+	void beginChild(ILTagFactory factory, LimitedDataInput in) throws IOException, ILTagException;
+
+	/**
+	 * Adds the inner tag that has just been deserialized.
+	 * 
+	 * @param child The inner tag.
+	 * @throws ILTagException If the inner tag is not acceptable.
+	 */
+	void addChild(ILTag child) throws ILTagException;
+
+	/**
+	 * Returns the key of the inner tag announced by the last call to
+	 * beginChild(). It is used by deserializers to apply projections to the
+	 * containers that map keys to their inner tags.
+	 * 
+	 * @return The key or null if this container does not use keys.
+	 * @since 2026.10.19
+	 */
+	default String getChildKey() {
+		return null;
+	}
+}
@@ -35,6 +35,8 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
+import io.il2.iltags.utils.HeapSizeUtils;
+
 /**
  * This is the interface of all ILTags.
  * 
@@ -122,4 +124,29 @@ public interface ILTag {
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in) throws IOException, ILTagException;
 
 	byte[] toBytes() throws ILTagException;
+
+	/**
+	 * Estimates the amount of heap retained by this tag, including its inner
+	 * tags. Shared instances are counted at each reference. The default
+	 * implementation only accounts for an object header and the size of the
+	 * value.
+	 * 
+	 * @return The estimated size in bytes.
+	 * @since 2026.10.19
+	 */
+	default long estimateRetainedSize() {
+		return HeapSizeUtils.objectSize(8) + getValueSize();
+	}
+
+	/**
+	 * Estimates the amount of heap retained by this tag, excluding its inner
+	 * tags. For tags without inner tags it is the same as estimateRetainedSize(),
+	 * which is also the default implementation.
+	 * 
+	 * @return The estimated size in bytes.
+	 * @since 2026.10.19
+	 */
+	default long estimateOwnRetainedSize() {
+		return estimateRetainedSize();
+	}
 }
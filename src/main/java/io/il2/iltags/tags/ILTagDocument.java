@@ -0,0 +1,741 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.util.Arrays;
+
+import io.il2.iltags.ilint.ILIntDecoder;
+import io.il2.iltags.ilint.Signed;
+import io.il2.iltags.utils.UTF8Utils;
+
+/**
+ * This class implements a compact read-only representation of a serialized
+ * tag. It keeps the serialized bytes together with a tape, a single long array
+ * that indexes every tag of the tree. It requires a fraction of the memory used
+ * by the equivalent tree of ILTag instances while still allowing the direct
+ * access to any tag.
+ * 
+ * <p>
+ * Each tag is a node identified by its position in the tape, in the same order
+ * they appear in the serialization. Node 0 is the root tag. The entries of
+ * dictionaries and string dictionaries are represented by two nodes, the key
+ * followed by the value. Each node uses two longs of the tape:
+ * </p>
+ * <ol>
+ * <li>the offset of the tag in the bytes and the value size;</li>
+ * <li>the parent node and the node that follows its subtree, used to skip to
+ * the next sibling.</li>
+ * </ol>
+ * <p>
+ * The tag id and the offset of the value are recovered from the header stored
+ * in the bytes. The tape is built by a single linear pass that also verifies
+ * the framing of all containers. The values of the tags are only verified
+ * when they are read.
+ * </p>
+ * 
+ * <p>
+ * The byte array is not copied, thus it must not be modified while this
+ * instance is in use. Instances of this class are immutable and can be shared
+ * among threads.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class ILTagDocument {
+
+	private static final long LOW_MASK = 0xFFFFFFFFl;
+
+	private static final int LIST = 0;
+
+	private static final int DICTIONARY = 1;
+
+	private static final int STRING_DICTIONARY = 2;
+
+	private final byte[] bytes;
+
+	private final long[] tape;
+
+	private final int nodeCount;
+
+	private ILTagDocument(byte[] bytes, long[] tape, int nodeCount) {
+		this.bytes = bytes;
+		this.tape = tape;
+		this.nodeCount = nodeCount;
+	}
+
+	/**
+	 * Creates a document from a serialized tag.
+	 * 
+	 * @param bytes The byte array that contains exactly one tag.
+	 * @return The document.
+	 * @throws TagTooLargeException If the tag exceeds the maximum depth.
+	 * @throws ILTagException       If the tag is corrupted.
+	 */
+	public static ILTagDocument parse(byte[] bytes) throws ILTagException {
+		return parse(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Creates a document from a serialized tag.
+	 * 
+	 * @param bytes The byte array.
+	 * @param off   The offset of the tag.
+	 * @param len   The size of the tag.
+	 * @return The document.
+	 * @throws TagTooLargeException If the tag exceeds the maximum depth.
+	 * @throws ILTagException       If the tag is corrupted.
+	 */
+	public static ILTagDocument parse(byte[] bytes, int off, int len) throws ILTagException {
+		return parse(bytes, off, len, IterativeTagDeserializer.DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * Creates a document from a serialized tag.
+	 * 
+	 * @param bytes    The byte array.
+	 * @param off      The offset of the tag.
+	 * @param len      The size of the tag.
+	 * @param maxDepth The maximum number of nested containers.
+	 * @return The document.
+	 * @throws TagTooLargeException If the tag exceeds the maximum depth.
+	 * @throws ILTagException       If the tag is corrupted.
+	 * @since 2026.10.19
+	 */
+	public static ILTagDocument parse(byte[] bytes, int off, int len, int maxDepth) throws ILTagException {
+		return parse(bytes, off, len, maxDepth, DecodeLimits.UNLIMITED);
+	}
+
+	/**
+	 * Creates a document from a serialized tag that comes from an untrusted
+	 * source. The limits are verified before the nodes of each tag are created.
+	 * The maximum depth is taken from the limits.
+	 * 
+	 * @param bytes  The byte array.
+	 * @param off    The offset of the tag.
+	 * @param len    The size of the tag.
+	 * @param limits The limits to be enforced.
+	 * @return The document.
+	 * @throws TagTooLargeException If the tag exceeds the limits.
+	 * @throws ILTagException       If the tag is corrupted.
+	 * @since 2026.10.19
+	 */
+	public static ILTagDocument parse(byte[] bytes, int off, int len, DecodeLimits limits) throws ILTagException {
+		return parse(bytes, off, len, limits.getMaxDepth(), limits);
+	}
+
+	private static ILTagDocument parse(byte[] bytes, int off, int len, int maxDepth, DecodeLimits limits)
+			throws ILTagException {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("The maximum depth must be positive.");
+		}
+		Builder builder = new Builder(bytes, len, maxDepth, limits);
+		int end = off + len;
+		if (builder.build(off, end) != end) {
+			throw new CorruptedTagException("Too many bytes.");
+		}
+		return new ILTagDocument(bytes, Arrays.copyOf(builder.tape, builder.nodeCount * 2), builder.nodeCount);
+	}
+
+	/**
+	 * Returns the serialized bytes. The returned array must not be modified.
+	 * 
+	 * @return The byte array used by this document.
+	 */
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 * 
+	 * @return The number of tags in this document, including the keys of the
+	 *         dictionaries.
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	private void assertNode(int node) {
+		if ((node < 0) || (node >= nodeCount)) {
+			throw new IndexOutOfBoundsException(String.format("Invalid node %1$d.", node));
+		}
+	}
+
+	/**
+	 * Returns the offset of the tag.
+	 * 
+	 * @param node The node.
+	 * @return The offset of the first byte of the header.
+	 */
+	public int getOffset(int node) {
+		assertNode(node);
+		return (int) (tape[2 * node] >>> 32);
+	}
+
+	/**
+	 * Returns the value size of the tag.
+	 * 
+	 * @param node The node.
+	 * @return The value size.
+	 */
+	public int getValueSize(int node) {
+		assertNode(node);
+		return (int) (tape[2 * node] & LOW_MASK);
+	}
+
+	/**
+	 * Returns the id of the tag.
+	 * 
+	 * @param node The node.
+	 * @return The tag id.
+	 */
+	public long getTagId(int node) {
+		return ILIntDecoder.decode(bytes, getOffset(node));
+	}
+
+	/**
+	 * Returns the offset of the value of the tag.
+	 * 
+	 * @param node The node.
+	 * @return The offset of the first byte of the value.
+	 */
+	public int getValueOffset(int node) {
+		int offset = getOffset(node);
+		long tagId = ILIntDecoder.decode(bytes, offset);
+		// The header may use non-canonical ILInts.
+		offset += ILIntDecoder.sizeFromHeader(bytes[offset]);
+		if (!TagID.isImplicit(tagId)) {
+			offset += ILIntDecoder.sizeFromHeader(bytes[offset]);
+		}
+		return offset;
+	}
+
+	/**
+	 * Returns the size of the tag.
+	 * 
+	 * @param node The node.
+	 * @return The size of the header plus the size of the value.
+	 */
+	public int getTagSize(int node) {
+		return getValueOffset(node) - getOffset(node) + getValueSize(node);
+	}
+
+	/**
+	 * Returns the parent of the node.
+	 * 
+	 * @param node The node.
+	 * @return The parent node or -1 for the root.
+	 */
+	public int getParent(int node) {
+		assertNode(node);
+		return (int) (tape[2 * node + 1] >> 32);
+	}
+
+	/**
+	 * Returns the node that follows the subtree of the given node.
+	 */
+	private int getSubtreeEnd(int node) {
+		return (int) (tape[2 * node + 1] & LOW_MASK);
+	}
+
+	/**
+	 * Returns the first child of the node.
+	 * 
+	 * @param node The node.
+	 * @return The first child or -1 if the node has no children.
+	 */
+	public int getFirstChild(int node) {
+		assertNode(node);
+		return (node + 1 < getSubtreeEnd(node)) ? node + 1 : -1;
+	}
+
+	/**
+	 * Returns the next sibling of the node.
+	 * 
+	 * @param node The node.
+	 * @return The next sibling or -1 if the node is the last child of its parent.
+	 */
+	public int getNextSibling(int node) {
+		int parent = getParent(node);
+		int next = getSubtreeEnd(node);
+		int limit = (parent < 0) ? nodeCount : getSubtreeEnd(parent);
+		return (next < limit) ? next : -1;
+	}
+
+	/**
+	 * Returns the number of children of the node. For dictionaries, the keys and
+	 * the values are counted individually.
+	 * 
+	 * @param node The node.
+	 * @return The number of children.
+	 */
+	public int getChildCount(int node) {
+		int count = 0;
+		for (int child = getFirstChild(node); child >= 0; child = getNextSibling(child)) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the n-th child of the node. For dictionaries, the keys and the
+	 * values are counted individually.
+	 * 
+	 * @param node  The node.
+	 * @param index The index of the child.
+	 * @return The child node or -1 if it does not exist.
+	 */
+	public int getChild(int node, int index) {
+		if (index < 0) {
+			return -1;
+		}
+		int child = getFirstChild(node);
+		for (int i = 0; (i < index) && (child >= 0); i++) {
+			child = getNextSibling(child);
+		}
+		return child;
+	}
+
+	/**
+	 * Finds the value associated with the given key in a dictionary. The keys are
+	 * compared as UTF-8 bytes. If the key appears more than once, the last
+	 * occurrence is returned.
+	 * 
+	 * @param node The dictionary node.
+	 * @param key  The UTF-8 encoded key.
+	 * @return The value node or -1 if the key was not found or if the node is not
+	 *         a dictionary.
+	 */
+	public int getEntry(int node, byte[] key) {
+		long tagId = getTagId(node);
+		if ((tagId != TagID.IL_DICTIONARY_TAG_ID) && (tagId != TagID.IL_STRING_DICTIONARY_TAG_ID)) {
+			return -1;
+		}
+		int found = -1;
+		for (int k = getFirstChild(node); k >= 0; k = getNextSibling(getNextSibling(k))) {
+			if ((getValueSize(k) == key.length) && equalsAt(getValueOffset(k), key)) {
+				found = getNextSibling(k);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Finds the value associated with the given key in a dictionary.
+	 * 
+	 * @param node The dictionary node.
+	 * @param key  The key.
+	 * @return The value node or -1 if the key was not found or if the node is not
+	 *         a dictionary.
+	 */
+	public int getEntry(int node, String key) {
+		return getEntry(node, key.getBytes(UTF8Utils.UTF8));
+	}
+
+	private boolean equalsAt(int offset, byte[] b) {
+		for (int i = 0; i < b.length; i++) {
+			if (bytes[offset + i] != b[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void assertTagId(int node, long expected) throws UnexpectedTagException {
+		long tagId = getTagId(node);
+		if (tagId != expected) {
+			throw new UnexpectedTagException("Expecting tag with id %1$X but found %2$X.", expected, tagId);
+		}
+	}
+
+	/**
+	 * Returns the value of a boolean tag.
+	 * 
+	 * @param node The node.
+	 * @return The value.
+	 * @throws UnexpectedTagException If the tag is not a boolean tag.
+	 * @throws CorruptedTagException  If the value is invalid.
+	 */
+	public boolean getBoolean(int node) throws ILTagException {
+		assertTagId(node, TagID.IL_BOOL_TAG_ID);
+		int b = bytes[getValueOffset(node)] & 0xFF;
+		if (b > 1) {
+			throw new CorruptedTagException("Invalid boolean value.");
+		}
+		return b != 0;
+	}
+
+	/**
+	 * Returns the value of any of the standard integer tags, including the ILInt
+	 * tags. The signed values are sign extended while the unsigned values are
+	 * zero extended. Unsigned 64-bit values are returned as they are.
+	 * 
+	 * @param node The node.
+	 * @return The value.
+	 * @throws UnexpectedTagException If the tag is not an integer tag.
+	 * @throws CorruptedTagException  If the value is invalid.
+	 */
+	public long getInt64(int node) throws ILTagException {
+		long tagId = getTagId(node);
+		int off = getValueOffset(node);
+		// Ids above Integer.MAX_VALUE must not be aliased to the reserved ids.
+		if (TagID.isReserved(tagId)) {
+			switch ((int) tagId) {
+			case (int) TagID.IL_INT8_TAG_ID:
+				return bytes[off];
+			case (int) TagID.IL_UINT8_TAG_ID:
+				return bytes[off] & 0xFF;
+			case (int) TagID.IL_INT16_TAG_ID:
+				return (short) readFixed(off, 2);
+			case (int) TagID.IL_UINT16_TAG_ID:
+				return readFixed(off, 2);
+			case (int) TagID.IL_INT32_TAG_ID:
+				return (int) readFixed(off, 4);
+			case (int) TagID.IL_UINT32_TAG_ID:
+				return readFixed(off, 4);
+			case (int) TagID.IL_INT64_TAG_ID:
+			case (int) TagID.IL_UINT64_TAG_ID:
+				return readFixed(off, 8);
+			case (int) TagID.IL_ILINT_TAG_ID:
+				return ILTagUtils.readILInt(bytes, off, off + getValueSize(node), "Invalid ILInt value.");
+			case (int) TagID.IL_SIGNED_ILINT_TAG_ID:
+				return Signed.unpack(
+						ILTagUtils.readILInt(bytes, off, off + getValueSize(node), "Invalid signed ILInt value."));
+			}
+		}
+		throw new UnexpectedTagException("The tag %1$X is not an integer tag.", tagId);
+	}
+
+	/**
+	 * Returns the value of a binary32 tag.
+	 * 
+	 * @param node The node.
+	 * @return The value.
+	 * @throws UnexpectedTagException If the tag is not a binary32 tag.
+	 */
+	public float getFloat(int node) throws UnexpectedTagException {
+		assertTagId(node, TagID.IL_BIN32_TAG_ID);
+		return Float.intBitsToFloat((int) readFixed(getValueOffset(node), 4));
+	}
+
+	/**
+	 * Returns the value of a binary64 tag.
+	 * 
+	 * @param node The node.
+	 * @return The value.
+	 * @throws UnexpectedTagException If the tag is not a binary64 tag.
+	 */
+	public double getDouble(int node) throws UnexpectedTagException {
+		assertTagId(node, TagID.IL_BIN64_TAG_ID);
+		return Double.longBitsToDouble(readFixed(getValueOffset(node), 8));
+	}
+
+	/**
+	 * Returns the value of a string tag.
+	 * 
+	 * @param node The node.
+	 * @return The value.
+	 * @throws UnexpectedTagException If the tag is not a string tag.
+	 * @throws CorruptedTagException  If the value is not a valid UTF-8 string.
+	 */
+	public String getString(int node) throws ILTagException {
+		assertTagId(node, TagID.IL_STRING_TAG_ID);
+		try {
+			return UTF8Utils.newDecoder().decode(ByteBuffer.wrap(bytes, getValueOffset(node), getValueSize(node)))
+					.toString();
+		} catch (CharacterCodingException e) {
+			throw new CorruptedTagException("Invalid UTF-8 string.", e);
+		}
+	}
+
+	/**
+	 * Returns a read-only buffer with the value of the tag.
+	 * 
+	 * @param node The node.
+	 * @return The buffer. Its position is zero.
+	 */
+	public ByteBuffer getValueBuffer(int node) {
+		return ByteBuffer.wrap(bytes, getValueOffset(node), getValueSize(node)).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Deserializes the tag and all its inner tags.
+	 * 
+	 * @param node    The node.
+	 * @param factory The factory.
+	 * @return The deserialized tag.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 */
+	public ILTag toTag(int node, ILTagFactory factory) throws ILTagException {
+		return factory.fromBytes(bytes, getOffset(node), getTagSize(node));
+	}
+
+	private long readFixed(int off, int size) {
+		long v = 0;
+		for (int i = off; i < off + size; i++) {
+			v = (v << 8) | (bytes[i] & 0xFF);
+		}
+		return v;
+	}
+
+	/**
+	 * Creates a new cursor positioned at the root node.
+	 * 
+	 * @return The new cursor.
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * This class implements a cursor that navigates through the nodes of the
+	 * document. Instances of this class are not thread-safe.
+	 */
+	public class Cursor {
+
+		private int node;
+
+		private Cursor() {
+		}
+
+		/**
+		 * Returns the current node.
+		 * 
+		 * @return The current node.
+		 */
+		public int getNode() {
+			return node;
+		}
+
+		/**
+		 * Returns the id of the current tag.
+		 * 
+		 * @return The tag id.
+		 */
+		public long getTagId() {
+			return ILTagDocument.this.getTagId(node);
+		}
+
+		/**
+		 * Moves to the given node.
+		 * 
+		 * @param node The node.
+		 */
+		public void moveTo(int node) {
+			assertNode(node);
+			this.node = node;
+		}
+
+		/**
+		 * Moves to the parent of the current node.
+		 * 
+		 * @return true on success or false if the current node is the root.
+		 */
+		public boolean moveToParent() {
+			return move(getParent(node));
+		}
+
+		/**
+		 * Moves to the first child of the current node.
+		 * 
+		 * @return true on success or false if the current node has no children.
+		 */
+		public boolean moveToFirstChild() {
+			return move(getFirstChild(node));
+		}
+
+		/**
+		 * Moves to the next sibling of the current node.
+		 * 
+		 * @return true on success or false if the current node is the last child.
+		 */
+		public boolean moveToNextSibling() {
+			return move(getNextSibling(node));
+		}
+
+		/**
+		 * Moves to the value associated with the given key, if the current node is
+		 * a dictionary.
+		 * 
+		 * @param key The key.
+		 * @return true on success or false if the key was not found.
+		 */
+		public boolean moveToEntry(String key) {
+			return move(getEntry(node, key));
+		}
+
+		private boolean move(int target) {
+			if (target < 0) {
+				return false;
+			}
+			node = target;
+			return true;
+		}
+	}
+
+	/**
+	 * Builds the tape in a single pass.
+	 */
+	private static class Builder {
+
+		private final byte[] bytes;
+
+		private final ILTagHeader header = new ILTagHeader();
+
+		private final int maxDepth;
+
+		private final DecodeLimits limits;
+
+		long[] tape;
+
+		int nodeCount;
+
+		private int depth;
+
+		private int[] frameNodes = new int[8];
+
+		private int[] frameKinds = new int[8];
+
+		private int[] frameEnds = new int[8];
+
+		/**
+		 * Number of remaining nodes of each container. For sequences, it is -1
+		 * minus the number of nodes already visited.
+		 */
+		private long[] frameRemaining = new long[8];
+
+		Builder(byte[] bytes, int len, int maxDepth, DecodeLimits limits) {
+			this.bytes = bytes;
+			this.maxDepth = maxDepth;
+			this.limits = limits;
+			this.tape = new long[2 * Math.max(16, len / 8)];
+		}
+
+		int build(int off, int end) throws ILTagException {
+			int pos = visit(off, end, -1, false);
+			while (depth > 0) {
+				int f = depth - 1;
+				long remaining = frameRemaining[f];
+				if ((remaining == 0) || ((remaining < 0) && (pos == frameEnds[f]))) {
+					if (pos != frameEnds[f]) {
+						throw new CorruptedTagException("Bad value size.");
+					}
+					setSubtreeEnd(frameNodes[f], nodeCount);
+					depth--;
+					continue;
+				}
+				boolean stringOnly = false;
+				if (remaining > 0) {
+					stringOnly = (frameKinds[f] == STRING_DICTIONARY)
+							|| ((frameKinds[f] == DICTIONARY) && ((remaining % 2) == 0));
+				} else {
+					limits.checkElements(-remaining);
+				}
+				frameRemaining[f] = remaining - 1;
+				pos = visit(pos, frameEnds[f], frameNodes[f], stringOnly);
+			}
+			return pos;
+		}
+
+		private void setSubtreeEnd(int node, int next) {
+			tape[2 * node + 1] = (tape[2 * node + 1] & ~LOW_MASK) | next;
+		}
+
+		private int visit(int pos, int end, int parent, boolean stringOnly) throws ILTagException {
+			limits.checkDepth(depth + 1);
+			int valueOffset = ILTagUtils.scanHeader(bytes, pos, end, header);
+			if (depth == 0) {
+				limits.checkTotalBytes(header.valueSize);
+			}
+			long tagId = header.tagId;
+			int valueSize = (int) header.valueSize;
+			int valueEnd = valueOffset + valueSize;
+			if (stringOnly && (tagId != TagID.IL_STRING_TAG_ID)) {
+				throw new UnexpectedTagException("Expecting string tag with id %1$X but found %2$X.",
+						TagID.IL_STRING_TAG_ID, tagId);
+			}
+			if (tagId == TagID.IL_STRING_TAG_ID) {
+				limits.checkStringLength(valueSize);
+			}
+			int node = nodeCount++;
+			if (2 * nodeCount > tape.length) {
+				tape = Arrays.copyOf(tape, tape.length * 2);
+			}
+			tape[2 * node] = ((long) pos << 32) | valueSize;
+			tape[2 * node + 1] = ((long) parent << 32) | (node + 1);
+			int kind;
+			int minEntrySize;
+			if (tagId == TagID.IL_ILTAGSEQ_TAG_ID) {
+				push(node, LIST, -1, valueEnd);
+				return valueOffset;
+			} else if (tagId == TagID.IL_ILTAGARRAY_TAG_ID) {
+				kind = LIST;
+				minEntrySize = 1;
+			} else if (tagId == TagID.IL_DICTIONARY_TAG_ID) {
+				kind = DICTIONARY;
+				minEntrySize = 1 + 1 + 1;
+			} else if (tagId == TagID.IL_STRING_DICTIONARY_TAG_ID) {
+				kind = STRING_DICTIONARY;
+				minEntrySize = 1 + 1 + 1 + 1;
+			} else {
+				return valueEnd;
+			}
+			long count = ILTagUtils.readILInt(bytes, valueOffset, valueEnd, "Invalid counter.");
+			int first = valueOffset + ILIntDecoder.sizeFromHeader(bytes[valueOffset]);
+			ILTagUtils.assertArraySize(count, minEntrySize, valueEnd - first);
+			limits.checkElements(count);
+			push(node, kind, (kind == LIST) ? count : 2 * count, valueEnd);
+			return first;
+		}
+
+		private void push(int node, int kind, long remaining, int end) throws TagTooLargeException {
+			if (depth == maxDepth) {
+				throw new TagTooLargeException("The tag exceeds the maximum depth of %1$d.", maxDepth);
+			}
+			if (depth == frameNodes.length) {
+				int newSize = Math.min(depth * 2, maxDepth);
+				frameNodes = Arrays.copyOf(frameNodes, newSize);
+				frameKinds = Arrays.copyOf(frameKinds, newSize);
+				frameEnds = Arrays.copyOf(frameEnds, newSize);
+				frameRemaining = Arrays.copyOf(frameRemaining, newSize);
+			}
+			frameNodes[depth] = node;
+			frameKinds[depth] = kind;
+			frameEnds[depth] = end;
+			frameRemaining[depth] = remaining;
+			depth++;
+		}
+	}
+}
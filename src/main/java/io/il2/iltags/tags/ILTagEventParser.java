@@ -0,0 +1,447 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import io.il2.iltags.ilint.ILIntDecoder;
+import io.il2.iltags.ilint.Signed;
+
+/**
+ * This class implements an event based parser for serialized tags. Instead of
+ * creating the tag instances, it reports the contents of the tags to an
+ * ILTagHandler. It is useful for streaming consumers that do not need the
+ * whole tree, such as indexers and exporters.
+ * 
+ * <p>
+ * All reserved tags are decoded and reported by their specific events. Any
+ * other tag is reported by onOpaque(). The nested containers are traversed
+ * without recursion, using a stack of frames that is reused by subsequent
+ * calls. The values are verified just like the deserialization does, with the
+ * exception of the UTF-8 encoding of strings, that is left to the handler. The
+ * DecodeLimits given to the constructor are verified before the events of each
+ * tag are reported.
+ * </p>
+ * 
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class ILTagEventParser {
+
+	private static final int LIST = 0;
+
+	private static final int DICTIONARY = 1;
+
+	private static final int STRING_DICTIONARY = 2;
+
+	private static final int ILINT_ARRAY = 3;
+
+	private final int maxDepth;
+
+	private final DecodeLimits limits;
+
+	private final ILTagHeader header = new ILTagHeader();
+
+	private byte[] buff;
+
+	private ILTagHandler handler;
+
+	private int depth;
+
+	private long[] frameIds = new long[8];
+
+	private int[] frameKinds = new int[8];
+
+	private int[] frameEnds = new int[8];
+
+	/**
+	 * Number of remaining entries of each frame. For sequences, it is -1 minus
+	 * the number of entries already parsed.
+	 */
+	private long[] frameRemaining = new long[8];
+
+	/**
+	 * Creates a new instance of this class with the default maximum depth.
+	 */
+	public ILTagEventParser() {
+		this(IterativeTagDeserializer.DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param maxDepth The maximum number of nested containers.
+	 */
+	public ILTagEventParser(int maxDepth) {
+		this(maxDepth, DecodeLimits.UNLIMITED);
+	}
+
+	/**
+	 * Creates a new instance of this class that enforces the given limits. The
+	 * maximum depth is taken from the limits.
+	 * 
+	 * @param limits The limits to be enforced.
+	 * @since 2026.10.19
+	 */
+	public ILTagEventParser(DecodeLimits limits) {
+		this(limits.getMaxDepth(), limits);
+	}
+
+	private ILTagEventParser(int maxDepth, DecodeLimits limits) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("The maximum depth must be positive.");
+		}
+		this.maxDepth = maxDepth;
+		this.limits = limits;
+	}
+
+	/**
+	 * Returns the limits enforced by this parser.
+	 * 
+	 * @return The limits.
+	 * @since 2026.10.19
+	 */
+	public DecodeLimits getDecodeLimits() {
+		return limits;
+	}
+
+	/**
+	 * Returns the maximum depth.
+	 * 
+	 * @return The maximum number of nested containers.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Parses a tag.
+	 * 
+	 * @param bytes   The byte array that contains exactly one tag.
+	 * @param handler The handler that will receive the events.
+	 * @throws TagTooLargeException If the input exceeds the maximum depth or the
+	 *                              limits of this parser.
+	 * @throws ILTagException       If the tag is corrupted or if the handler
+	 *                              aborts the parsing.
+	 */
+	public void parse(byte[] bytes, ILTagHandler handler) throws ILTagException {
+		parse(bytes, 0, bytes.length, handler);
+	}
+
+	/**
+	 * Parses a tag.
+	 * 
+	 * @param bytes   The byte array.
+	 * @param off     The offset of the tag.
+	 * @param len     The size of the tag.
+	 * @param handler The handler that will receive the events.
+	 * @throws TagTooLargeException If the input exceeds the maximum depth or the
+	 *                              limits of this parser.
+	 * @throws ILTagException       If the tag is corrupted or if the handler
+	 *                              aborts the parsing.
+	 */
+	public void parse(byte[] bytes, int off, int len, ILTagHandler handler) throws ILTagException {
+		this.buff = bytes;
+		this.handler = handler;
+		this.depth = 0;
+		try {
+			int end = off + len;
+			if (parseAll(off, end) != end) {
+				throw new CorruptedTagException("Too many bytes.");
+			}
+		} finally {
+			this.buff = null;
+			this.handler = null;
+		}
+	}
+
+	/**
+	 * Parses a tag from the remaining bytes of the buffer. Buffers that are not
+	 * backed by an array are copied before the parsing. On success, the position
+	 * of the buffer is moved to its limit.
+	 * 
+	 * @param buff    The buffer that contains exactly one tag.
+	 * @param handler The handler that will receive the events.
+	 * @throws TagTooLargeException If the input exceeds the maximum depth or the
+	 *                              limits of this parser.
+	 * @throws ILTagException       If the tag is corrupted or if the handler
+	 *                              aborts the parsing.
+	 */
+	public void parse(ByteBuffer buff, ILTagHandler handler) throws ILTagException {
+		if (buff.hasArray()) {
+			parse(buff.array(), buff.arrayOffset() + buff.position(), buff.remaining(), handler);
+		} else {
+			byte[] tmp = new byte[buff.remaining()];
+			buff.duplicate().get(tmp);
+			parse(tmp, handler);
+		}
+		buff.position(buff.limit());
+	}
+
+	private int parseAll(int off, int end) throws ILTagException {
+		int pos = parseTag(off, end);
+		while (depth > 0) {
+			int f = depth - 1;
+			long remaining = frameRemaining[f];
+			int frameEnd = frameEnds[f];
+			if ((remaining == 0) || ((remaining < 0) && (pos == frameEnd))) {
+				if (pos != frameEnd) {
+					throw new CorruptedTagException("Bad value size.");
+				}
+				depth--;
+				handler.onEnd(frameIds[f]);
+				continue;
+			}
+			if (remaining < 0) {
+				limits.checkElements(-remaining);
+			}
+			frameRemaining[f] = remaining - 1;
+			switch (frameKinds[f]) {
+			case ILINT_ARRAY:
+				long v = ILTagUtils.readILInt(buff, pos, frameEnd, "Invalid value entry.");
+				pos += ILIntDecoder.sizeFromHeader(buff[pos]);
+				handler.onUInt64(TagID.IL_ILINT_TAG_ID, v);
+				break;
+			case DICTIONARY:
+				pos = parseTag(parseString(pos, frameEnd, true), frameEnd);
+				break;
+			case STRING_DICTIONARY:
+				pos = parseString(parseString(pos, frameEnd, true), frameEnd, false);
+				break;
+			default:
+				pos = parseTag(pos, frameEnd);
+			}
+		}
+		return pos;
+	}
+
+	/**
+	 * Parses a standard string tag used as a key or as a value of a string
+	 * dictionary.
+	 */
+	private int parseString(int pos, int end, boolean key) throws ILTagException {
+		int valueOffset = ILTagUtils.scanHeader(buff, pos, end, header);
+		if (header.tagId != TagID.IL_STRING_TAG_ID) {
+			throw new UnexpectedTagException("Expecting string tag with id %1$X but found %2$X.",
+					TagID.IL_STRING_TAG_ID, header.tagId);
+		}
+		limits.checkStringLength(header.valueSize);
+		int size = (int) header.valueSize;
+		if (key) {
+			handler.onDictKey(buff, valueOffset, size);
+		} else {
+			handler.onString(TagID.IL_STRING_TAG_ID, buff, valueOffset, size);
+		}
+		return valueOffset + size;
+	}
+
+	/**
+	 * Parses a tag and reports its events. Containers whose start is accepted by
+	 * the handler are pushed into the stack and the offset of their first entry
+	 * is returned. Otherwise, it returns the end of the tag.
+	 */
+	private int parseTag(int pos, int end) throws ILTagException {
+		limits.checkDepth(depth + 1);
+		int off = ILTagUtils.scanHeader(buff, pos, end, header);
+		if (depth == 0) {
+			limits.checkTotalBytes(header.valueSize);
+		}
+		long tagId = header.tagId;
+		int size = (int) header.valueSize;
+		int valueEnd = off + size;
+		if (!TagID.isReserved(tagId)) {
+			handler.onOpaque(tagId, buff, off, size);
+			return valueEnd;
+		}
+		switch ((int) tagId) {
+		case (int) TagID.IL_NULL_TAG_ID:
+			handler.onNull(tagId);
+			break;
+		case (int) TagID.IL_BOOL_TAG_ID:
+			if ((buff[off] & 0xFF) > 1) {
+				throw new CorruptedTagException("Invalid boolean value.");
+			}
+			handler.onBoolean(tagId, buff[off] != 0);
+			break;
+		case (int) TagID.IL_INT8_TAG_ID:
+			handler.onInt64(tagId, buff[off]);
+			break;
+		case (int) TagID.IL_UINT8_TAG_ID:
+			handler.onUInt64(tagId, buff[off] & 0xFF);
+			break;
+		case (int) TagID.IL_INT16_TAG_ID:
+			handler.onInt64(tagId, (short) readInt(off, 2));
+			break;
+		case (int) TagID.IL_UINT16_TAG_ID:
+			handler.onUInt64(tagId, readInt(off, 2));
+			break;
+		case (int) TagID.IL_INT32_TAG_ID:
+			handler.onInt64(tagId, (int) readInt(off, 4));
+			break;
+		case (int) TagID.IL_UINT32_TAG_ID:
+			handler.onUInt64(tagId, readInt(off, 4));
+			break;
+		case (int) TagID.IL_INT64_TAG_ID:
+			handler.onInt64(tagId, readInt(off, 8));
+			break;
+		case (int) TagID.IL_UINT64_TAG_ID:
+			handler.onUInt64(tagId, readInt(off, 8));
+			break;
+		case (int) TagID.IL_ILINT_TAG_ID:
+			handler.onUInt64(tagId, ILTagUtils.readILInt(buff, off, valueEnd, "Invalid ILInt value."));
+			break;
+		case (int) TagID.IL_BIN32_TAG_ID:
+			handler.onFloat(tagId, Float.intBitsToFloat((int) readInt(off, 4)));
+			break;
+		case (int) TagID.IL_BIN64_TAG_ID:
+			handler.onDouble(tagId, Double.longBitsToDouble(readInt(off, 8)));
+			break;
+		case (int) TagID.IL_SIGNED_ILINT_TAG_ID:
+			handler.onInt64(tagId,
+					Signed.unpack(ILTagUtils.readILInt(buff, off, valueEnd, "Invalid signed ILInt value.")));
+			break;
+		case (int) TagID.IL_BIN128_TAG_ID:
+		case (int) TagID.IL_BYTES_TAG_ID:
+			handler.onBytes(tagId, buff, off, size);
+			break;
+		case (int) TagID.IL_BINT_TAG_ID:
+			if (size < 1) {
+				throw new CorruptedTagException("Invalid big integer value.");
+			}
+			handler.onBytes(tagId, buff, off, size);
+			break;
+		case (int) TagID.IL_STRING_TAG_ID:
+			limits.checkStringLength(size);
+			handler.onString(tagId, buff, off, size);
+			break;
+		case (int) TagID.IL_BDEC_TAG_ID:
+			if (size < (4 + 1)) {
+				throw new CorruptedTagException("Invalid big decimal value.");
+			}
+			handler.onBigDecimal(tagId, (int) readInt(off, 4), buff, off + 4, size - 4);
+			break;
+		case (int) TagID.IL_RANGE_TAG_ID:
+			parseRange(tagId, off, valueEnd);
+			break;
+		case (int) TagID.IL_VERSION_TAG_ID:
+			if (size != 16) {
+				throw new CorruptedTagException("Invalid value size.");
+			}
+			handler.onVersion(tagId, (int) readInt(off, 4), (int) readInt(off + 4, 4), (int) readInt(off + 8, 4),
+					(int) readInt(off + 12, 4));
+			break;
+		case (int) TagID.IL_ILINTARRAY_TAG_ID:
+		case (int) TagID.IL_OID_TAG_ID:
+			return parseCounted(tagId, ILINT_ARRAY, 1, off, valueEnd);
+		case (int) TagID.IL_ILTAGARRAY_TAG_ID:
+			return parseCounted(tagId, LIST, 1, off, valueEnd);
+		case (int) TagID.IL_DICTIONARY_TAG_ID:
+			return parseCounted(tagId, DICTIONARY, 1 + 1 + 1, off, valueEnd);
+		case (int) TagID.IL_STRING_DICTIONARY_TAG_ID:
+			return parseCounted(tagId, STRING_DICTIONARY, 1 + 1 + 1 + 1, off, valueEnd);
+		case (int) TagID.IL_ILTAGSEQ_TAG_ID:
+			if (handler.onSequenceStart(tagId)) {
+				push(tagId, LIST, -1, valueEnd);
+				return off;
+			}
+			break;
+		default:
+			handler.onOpaque(tagId, buff, off, size);
+		}
+		return valueEnd;
+	}
+
+	private void parseRange(long tagId, int off, int valueEnd) throws ILTagException {
+		int size = valueEnd - off;
+		if ((size < 3) || (size > 11)) {
+			throw new CorruptedTagException("Corrupted range tag.");
+		}
+		long first = ILTagUtils.readILInt(buff, off, valueEnd, "Invalid value.");
+		int countOffset = off + ILIntDecoder.sizeFromHeader(buff[off]);
+		if (countOffset + 2 != valueEnd) {
+			throw new CorruptedTagException("Corrupted range tag.");
+		}
+		handler.onRange(tagId, first, (int) readInt(countOffset, 2));
+	}
+
+	private int parseCounted(long tagId, int kind, int minEntrySize, int off, int valueEnd) throws ILTagException {
+		long count = ILTagUtils.readILInt(buff, off, valueEnd, "Invalid counter.");
+		int first = off + ILIntDecoder.sizeFromHeader(buff[off]);
+		ILTagUtils.assertArraySize(count, minEntrySize, valueEnd - first);
+		limits.checkElements(count);
+		boolean accepted;
+		if ((kind == DICTIONARY) || (kind == STRING_DICTIONARY)) {
+			accepted = handler.onDictStart(tagId, count);
+		} else {
+			accepted = handler.onArrayStart(tagId, count);
+		}
+		if (!accepted) {
+			return valueEnd;
+		}
+		push(tagId, kind, count, valueEnd);
+		return first;
+	}
+
+	private void push(long tagId, int kind, long remaining, int end) throws ILTagException {
+		if (depth == maxDepth) {
+			throw new TagTooLargeException("The tag exceeds the maximum depth of %1$d.", maxDepth);
+		}
+		if (depth == frameIds.length) {
+			int newSize = Math.min(frameIds.length * 2, maxDepth);
+			frameIds = Arrays.copyOf(frameIds, newSize);
+			frameKinds = Arrays.copyOf(frameKinds, newSize);
+			frameEnds = Arrays.copyOf(frameEnds, newSize);
+			frameRemaining = Arrays.copyOf(frameRemaining, newSize);
+		}
+		frameIds[depth] = tagId;
+		frameKinds[depth] = kind;
+		frameRemaining[depth] = remaining;
+		frameEnds[depth] = end;
+		depth++;
+	}
+
+	/**
+	 * Reads a big endian unsigned integer with up to 8 bytes.
+	 */
+	private long readInt(int off, int size) {
+		long v = 0;
+		for (int i = off; i < off + size; i++) {
+			v = (v << 8) | (buff[i] & 0xFF);
+		}
+		return v;
+	}
+}
@@ -31,9 +31,31 @@
  */
 package io.il2.iltags.tags;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
 /**
  * Base class for all ILTag exceptions.
  * 
+ * <p>
+ * Exceptions are thrown whenever a corrupted or hostile input is rejected, thus
+ * their cost may dominate the decoding of bad inputs. Two features reduce this
+ * cost:
+ * </p>
+ * <ul>
+ * <li>The message may be given as a format and its arguments. It will be
+ * formatted only when getMessage() is called;</li>
+ * <li>The lightweight mode skips the capture of the stack trace of the
+ * exceptions created by the constructors that do not receive
+ * writableStackTrace. It is enabled by setting the system property
+ * io.il2.iltags.lightweightExceptions to true and is read only once, when this
+ * class is loaded.</li>
+ * </ul>
+ * <p>
+ * The format and the arguments remain available through getMessageFormat() and
+ * getMessageArguments().
+ * </p>
+ * 
  * @author Fabio Jun Takada Chino
  * @since 2022.05.27
  */
@@ -41,22 +63,120 @@ public class ILTagException extends Exception {
 
 	private static final long serialVersionUID = 1L;
 
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	/**
+	 * Name of the system property that enables the lightweight mode.
+	 * 
+	 * @since 2026.10.19
+	 */
+	public static final String LIGHTWEIGHT_PROPERTY = "io.il2.iltags.lightweightExceptions";
+
+	private static final boolean lightweight = readLightweight();
+
+	private final String messageFormat;
+
+	private transient Object[] messageArguments;
+
+	private String formattedMessage;
+
 	public ILTagException() {
+		this(null, null, true, !lightweight);
 	}
 
 	public ILTagException(String message) {
-		super(message);
+		this(message, null, true, !lightweight);
 	}
 
 	public ILTagException(Throwable cause) {
-		super(cause);
+		this(cause == null ? null : cause.toString(), cause, true, !lightweight);
 	}
 
 	public ILTagException(String message, Throwable cause) {
-		super(message, cause);
+		this(message, cause, true, !lightweight);
 	}
 
 	public ILTagException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
 		super(message, cause, enableSuppression, writableStackTrace);
+		this.messageFormat = null;
+		this.messageArguments = null;
+	}
+
+	/**
+	 * Creates a new exception whose message will be formatted on demand by
+	 * String.format(String, Object...).
+	 * 
+	 * @param messageFormat    The message format.
+	 * @param messageArguments The arguments of the message. They should be
+	 *                         immutable values like ids, offsets and sizes.
+	 * @since 2026.10.19
+	 */
+	public ILTagException(String messageFormat, Object... messageArguments) {
+		super(null, null, true, !lightweight);
+		this.messageFormat = messageFormat;
+		this.messageArguments = messageArguments;
+	}
+
+	private static boolean readLightweight() {
+		try {
+			return Boolean.getBoolean(LIGHTWEIGHT_PROPERTY);
+		} catch (SecurityException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns true if the exceptions are being created without stack traces. It
+	 * is disabled by default and should be enabled only by applications that
+	 * must reject large volumes of bad inputs, as it cannot be changed while the
+	 * application is running.
+	 * 
+	 * @return true if the lightweight mode is enabled.
+	 * @since 2026.10.19
+	 */
+	public static boolean isLightweight() {
+		return lightweight;
+	}
+
+	/**
+	 * Returns the format of the message.
+	 * 
+	 * @return The format of the message or null if the message was not created
+	 *         from a format.
+	 * @since 2026.10.19
+	 */
+	public String getMessageFormat() {
+		return messageFormat;
+	}
+
+	/**
+	 * Returns a copy of the arguments of the message. The arguments are not
+	 * serialized with this exception.
+	 * 
+	 * @return The arguments of the message. It is never null.
+	 * @since 2026.10.19
+	 */
+	public Object[] getMessageArguments() {
+		if (messageArguments == null) {
+			return NO_ARGUMENTS;
+		}
+		return messageArguments.clone();
+	}
+
+	@Override
+	public String getMessage() {
+		if (messageFormat == null) {
+			return super.getMessage();
+		}
+		if (formattedMessage == null) {
+			formattedMessage = String.format(messageFormat, getMessageArguments());
+		}
+		return formattedMessage;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		// The message must survive the loss of the arguments.
+		getMessage();
+		out.defaultWriteObject();
 	}
 }
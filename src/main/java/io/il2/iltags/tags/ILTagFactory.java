@@ -33,6 +33,10 @@ package io.il2.iltags.tags;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import io.il2.iltags.io.ByteBufferDataInput;
 
 /**
  * This is the base interface for all Tag factories. Tag factories are
@@ -53,6 +57,46 @@ public interface ILTagFactory {
 	 */
 	ILTag createTag(long id) throws ILTagException;
 
+	/**
+	 * Returns the limits that must be enforced while the tags are deserialized by
+	 * this factory. The default implementation returns DecodeLimits.UNLIMITED.
+	 * 
+	 * @return The limits.
+	 * @since 2026.10.19
+	 */
+	default DecodeLimits getDecodeLimits() {
+		return DecodeLimits.UNLIMITED;
+	}
+
+	/**
+	 * Returns the maximum estimated heap retained by a tag deserialized by this
+	 * factory. It is enforced by AbstractTagFactory. Decoders that create the
+	 * tags themselves or split a deserialization among multiple calls, such as
+	 * IterativeTagDeserializer and
+	 * io.il2.iltags.tags.parallel.ParallelTagDeserializer, use it to enforce the
+	 * budget over the whole tag. The default implementation returns 0.
+	 * 
+	 * @return The budget in bytes or 0 if there is no budget.
+	 * @since 2026.10.19
+	 */
+	default long getMemoryBudget() {
+		return 0;
+	}
+
+	/**
+	 * Returns the depth of the innermost tag whose value is being deserialized by
+	 * this factory on the current thread. Tags that defer the deserialization of
+	 * their inner tags keep it in order to call deserializeNested(DataInput, int)
+	 * later. The default implementation returns 0.
+	 * 
+	 * @return The depth. The outermost tag has depth 1 and 0 means that no tag
+	 *         is being deserialized.
+	 * @since 2026.10.19
+	 */
+	default int getDecodeDepth() {
+		return 0;
+	}
+
 	/**
 	 * Deserializes the tag from a byte array. All bytes of the array must be part
 	 * of the tag otherwise the serialization will fail.
@@ -63,6 +107,92 @@ public interface ILTagFactory {
 	 */
 	ILTag fromBytes(byte[] bytes) throws ILTagException;
 
+	/**
+	 * Deserializes the tag from a slice of a byte array. All bytes of the slice
+	 * must be part of the tag otherwise the serialization will fail.
+	 * 
+	 * @param bytes The byte array.
+	 * @param off   The offset of the tag in bytes.
+	 * @param len   The size of the slice in bytes.
+	 * @return The deserialized tag.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 * @since 2026.10.19
+	 */
+	default ILTag fromBytes(byte[] bytes, int off, int len) throws ILTagException {
+		return fromByteBuffer(ByteBuffer.wrap(bytes, off, len));
+	}
+
+	/**
+	 * Deserializes the tag from the remaining bytes of the given buffer. All
+	 * remaining bytes must be part of the tag otherwise the serialization will
+	 * fail. On success, the position of the buffer is moved to its limit.
+	 * 
+	 * @param buff The buffer.
+	 * @return The deserialized tag.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 * @since 2026.10.19
+	 */
+	default ILTag fromByteBuffer(ByteBuffer buff) throws ILTagException {
+		// The duplicate protects the byte order of the caller's buffer.
+		ByteBuffer view = buff.duplicate();
+		ILTag tag;
+		try {
+			tag = deserialize(new ByteBufferDataInput(view));
+		} catch (IOException e) {
+			throw new CorruptedTagException("Unable to deserialize the tag.", e);
+		}
+		if (view.hasRemaining()) {
+			throw new CorruptedTagException("Too many bytes.");
+		}
+		buff.position(view.position());
+		return tag;
+	}
+
+	/**
+	 * Deserializes a sequence of concatenated tags from a slice of a byte array.
+	 * All bytes of the slice must be part of the tags otherwise the serialization
+	 * will fail.
+	 * 
+	 * @param bytes The byte array.
+	 * @param off   The offset of the first tag in bytes.
+	 * @param len   The size of the slice in bytes.
+	 * @param tags  The list that will receive the deserialized tags.
+	 * @return The number of tags added to the list.
+	 * @throws ILTagException If one of the tags cannot be deserialized.
+	 * @since 2026.10.19
+	 */
+	default int deserializeAll(byte[] bytes, int off, int len, List<? super ILTag> tags) throws ILTagException {
+		return deserializeAll(ByteBuffer.wrap(bytes, off, len), tags);
+	}
+
+	/**
+	 * Deserializes a sequence of concatenated tags from the remaining bytes of the
+	 * given buffer. All remaining bytes must be part of the tags otherwise the
+	 * serialization will fail. On success, the position of the buffer is moved to
+	 * its limit.
+	 * 
+	 * @param buff The buffer.
+	 * @param tags The list that will receive the deserialized tags.
+	 * @return The number of tags added to the list.
+	 * @throws ILTagException If one of the tags cannot be deserialized.
+	 * @since 2026.10.19
+	 */
+	default int deserializeAll(ByteBuffer buff, List<? super ILTag> tags) throws ILTagException {
+		ByteBuffer view = buff.duplicate();
+		ByteBufferDataInput in = new ByteBufferDataInput(view);
+		int count = 0;
+		try {
+			while (view.hasRemaining()) {
+				tags.add(deserialize(in));
+				count++;
+			}
+		} catch (IOException e) {
+			throw new CorruptedTagException(String.format("Unable to deserialize the tag %1$d.", count), e);
+		}
+		buff.position(view.position());
+		return count;
+	}
+
 	/**
 	 * Deserializes a single tag from the data input.
 	 * 
@@ -100,9 +230,93 @@ public interface ILTagFactory {
 	 */
 	ILTag deserialize(long id, DataInput in) throws IOException, ILTagException;
 
+	/**
+	 * Deserializes a single tag using the scratch objects of the given context.
+	 * It produces the same results as deserialize(DataInput). The default
+	 * implementation ignores the context.
+	 * 
+	 * @param in      The data input.
+	 * @param context The context. If null, this method behaves exactly like
+	 *                deserialize(DataInput).
+	 * @return The deserialized tag.
+	 * @throws IOException    In case of IO Error.
+	 * @throws ILTagException In case of the serialization error.
+	 * @since 2026.10.19
+	 */
+	default ILTag deserialize(DataInput in, DecodeContext context) throws IOException, ILTagException {
+		return deserialize(in);
+	}
+
+	/**
+	 * Deserializes a single tag using the scratch objects of the given context and
+	 * validates if the serialized tag is indeed the expected tag. It produces the
+	 * same results as deserialize(long, DataInput). The default implementation
+	 * ignores the context.
+	 * 
+	 * @param id      The expected tag id.
+	 * @param in      The data input.
+	 * @param context The context. If null, this method behaves exactly like
+	 *                deserialize(long, DataInput).
+	 * @return The deserialized tag.
+	 * @throws IOException    In case of IO Error.
+	 * @throws ILTagException In case of the serialization error.
+	 * @since 2026.10.19
+	 */
+	default ILTag deserialize(long id, DataInput in, DecodeContext context) throws IOException, ILTagException {
+		return deserialize(id, in);
+	}
+
+	/**
+	 * Deserializes a single tag that is an inner tag of containers whose headers
+	 * were already decoded by the caller. The limits returned by
+	 * getDecodeLimits() are enforced as if the tag was found inside a container
+	 * at the given depth, thus decoders that split a deserialization do not reset
+	 * the depth. The size of the tag is not checked against
+	 * DecodeLimits.getMaxTotalBytes(), as it applies only to the outermost tag.
+	 * The default implementation ignores the depth.
+	 * 
+	 * @param in    The data input.
+	 * @param depth The depth of the container of the tag.
+	 * @return The deserialized tag.
+	 * @throws IOException    In case of IO Error.
+	 * @throws ILTagException In case of the serialization error.
+	 * @since 2026.10.19
+	 */
+	default ILTag deserializeNested(DataInput in, int depth) throws IOException, ILTagException {
+		return deserialize(in);
+	}
+
+	/**
+	 * Deserializes a single tag reusing the candidate instance whenever possible.
+	 * The candidate is reused only if it has the same tag id of the serialized
+	 * tag and it is not frozen. Otherwise, this method behaves exactly like
+	 * deserialize(DataInput).
+	 * 
+	 * <p>
+	 * Containers reuse their own inner tags by position, thus decoding tags of
+	 * the same shape into the same tree does not create new instances. An
+	 * instance shared by more than one position is reused only once.
+	 * </p>
+	 * <p>
+	 * The default implementation never reuses the candidate.
+	 * </p>
+	 * 
+	 * @param candidate The candidate instance. It may be null.
+	 * @param in        The data input.
+	 * @return The candidate, if it was reused, or a new tag.
+	 * @throws IOException    In case of IO Error.
+	 * @throws ILTagException In case of the serialization error.
+	 * @since 2026.10.19
+	 */
+	default ILTag deserializeReusing(ILTag candidate, DataInput in) throws IOException, ILTagException {
+		return deserialize(in);
+	}
+
 	/**
 	 * Deserializes a single tag into the provided tag instance. The serialized tag
-	 * id must match the tag id of the provided tag instance.
+	 * id must match the tag id of the provided tag instance. The standard
+	 * containers reuse their inner tags as described by
+	 * deserializeReusing(ILTag, DataInput).
 	 * 
 	 * <p>
 	 * In order to better control the size of the information read from the stream,
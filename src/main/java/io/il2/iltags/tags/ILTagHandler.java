@@ -0,0 +1,252 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+/**
+ * This interface receives the events produced by ILTagEventParser. All methods
+ * have empty default implementations, thus implementations only need to
+ * override the events they are interested in.
+ * 
+ * <p>
+ * Primitive values are passed as primitives and byte based values are passed
+ * as regions of the parsed array, thus no object is allocated per tag. Those
+ * regions are only valid during the call and must not be modified.
+ * </p>
+ * 
+ * <p>
+ * The start of each container is reported by onArrayStart(), onSequenceStart()
+ * or onDictStart(). If it returns true, the contents of the container are
+ * reported followed by onEnd(). If it returns false, the whole container is
+ * skipped and onEnd() is not called. Any ILTagException thrown by an event
+ * aborts the parsing.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public interface ILTagHandler {
+
+	/**
+	 * Called for null tags.
+	 * 
+	 * @param tagId The tag id.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onNull(long tagId) throws ILTagException {
+	}
+
+	/**
+	 * Called for boolean tags.
+	 * 
+	 * @param tagId The tag id.
+	 * @param value The value.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onBoolean(long tagId, boolean value) throws ILTagException {
+	}
+
+	/**
+	 * Called for the signed integer tags, including the signed ILInt tag. The
+	 * value is always sign extended to 64 bits.
+	 * 
+	 * @param tagId The tag id.
+	 * @param value The value.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onInt64(long tagId, long value) throws ILTagException {
+	}
+
+	/**
+	 * Called for the unsigned integer tags, including the ILInt tag. It is also
+	 * called for each element of ILInt arrays and OIDs with the id of the ILInt
+	 * tag. The value must be interpreted as an unsigned 64-bit value.
+	 * 
+	 * @param tagId The tag id.
+	 * @param value The value.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onUInt64(long tagId, long value) throws ILTagException {
+	}
+
+	/**
+	 * Called for binary32 tags.
+	 * 
+	 * @param tagId The tag id.
+	 * @param value The value.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onFloat(long tagId, float value) throws ILTagException {
+	}
+
+	/**
+	 * Called for binary64 tags.
+	 * 
+	 * @param tagId The tag id.
+	 * @param value The value.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onDouble(long tagId, double value) throws ILTagException {
+	}
+
+	/**
+	 * Called for byte array, binary128 and big integer tags. Big integers are
+	 * encoded as big endian two's complement values.
+	 * 
+	 * @param tagId The tag id.
+	 * @param buff  The buffer.
+	 * @param off   The offset of the value.
+	 * @param len   The size of the value.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onBytes(long tagId, byte[] buff, int off, int len) throws ILTagException {
+	}
+
+	/**
+	 * Called for string tags, including the values of string dictionaries. The
+	 * UTF-8 encoding is not verified by the parser.
+	 * 
+	 * @param tagId The tag id.
+	 * @param buff  The buffer.
+	 * @param off   The offset of the UTF-8 encoded value.
+	 * @param len   The size of the UTF-8 encoded value.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onString(long tagId, byte[] buff, int off, int len) throws ILTagException {
+	}
+
+	/**
+	 * Called for big decimal tags.
+	 * 
+	 * @param tagId The tag id.
+	 * @param scale The scale.
+	 * @param buff  The buffer.
+	 * @param off   The offset of the unscaled value.
+	 * @param len   The size of the unscaled value.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onBigDecimal(long tagId, int scale, byte[] buff, int off, int len) throws ILTagException {
+	}
+
+	/**
+	 * Called for range tags.
+	 * 
+	 * @param tagId The tag id.
+	 * @param first The first value.
+	 * @param count The number of values.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onRange(long tagId, long first, int count) throws ILTagException {
+	}
+
+	/**
+	 * Called for version tags.
+	 * 
+	 * @param tagId    The tag id.
+	 * @param major    The major version.
+	 * @param minor    The minor version.
+	 * @param revision The revision.
+	 * @param build    The build.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onVersion(long tagId, int major, int minor, int revision, int build) throws ILTagException {
+	}
+
+	/**
+	 * Called at the start of ILTag arrays, ILInt arrays and OIDs.
+	 * 
+	 * @param tagId The tag id.
+	 * @param count The number of elements.
+	 * @return true to parse the elements or false to skip the whole tag.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default boolean onArrayStart(long tagId, long count) throws ILTagException {
+		return true;
+	}
+
+	/**
+	 * Called at the start of ILTag sequences.
+	 * 
+	 * @param tagId The tag id.
+	 * @return true to parse the elements or false to skip the whole tag.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default boolean onSequenceStart(long tagId) throws ILTagException {
+		return true;
+	}
+
+	/**
+	 * Called at the start of dictionaries and string dictionaries. Each entry is
+	 * reported by onDictKey() followed by the events of its value.
+	 * 
+	 * @param tagId The tag id.
+	 * @param count The number of entries.
+	 * @return true to parse the entries or false to skip the whole tag.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default boolean onDictStart(long tagId, long count) throws ILTagException {
+		return true;
+	}
+
+	/**
+	 * Called for the key of each dictionary entry. The UTF-8 encoding is not
+	 * verified by the parser.
+	 * 
+	 * @param buff The buffer.
+	 * @param off  The offset of the UTF-8 encoded key.
+	 * @param len  The size of the UTF-8 encoded key.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onDictKey(byte[] buff, int off, int len) throws ILTagException {
+	}
+
+	/**
+	 * Called at the end of a container whose start returned true.
+	 * 
+	 * @param tagId The tag id of the container.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onEnd(long tagId) throws ILTagException {
+	}
+
+	/**
+	 * Called for tags that are not known by the parser. It includes all
+	 * non-reserved tags.
+	 * 
+	 * @param tagId The tag id.
+	 * @param buff  The buffer.
+	 * @param off   The offset of the value.
+	 * @param len   The size of the value.
+	 * @throws ILTagException To abort the parsing.
+	 */
+	default void onOpaque(long tagId, byte[] buff, int off, int len) throws ILTagException {
+	}
+}
@@ -0,0 +1,475 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.util.Arrays;
+
+import io.il2.iltags.ilint.ILIntDecoder;
+import io.il2.iltags.utils.UTF8Utils;
+
+/**
+ * This class navigates through a serialized tag without deserializing it. Only
+ * the headers of the inner tags are read in order to locate them, thus a single
+ * element of a large container can be reached without decoding its
+ * predecessors.
+ * 
+ * <p>
+ * The inner tags of arrays and sequences are addressed by their position. The
+ * entries of dictionaries and string dictionaries are addressed by their
+ * ordinal, in the serialized order. Each navigation walks the headers from the
+ * first inner tag unless the offset index of the container was built by
+ * buildIndex(), in which case the inner tags are located in constant time.
+ * </p>
+ * 
+ * <p>
+ * All offsets used by this class are absolute positions in the buffer. The
+ * position and the limit of the buffer are never changed. Instances of this
+ * class are not thread-safe.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class ILTagNavigator {
+
+	private final ByteBuffer buffer;
+
+	private final int offset;
+
+	private final int valueOffset;
+
+	private final int end;
+
+	private final long tagId;
+
+	/**
+	 * The offset index. For arrays and sequences it holds the offsets of the
+	 * inner tags followed by the end of the value. For dictionaries it holds the
+	 * offsets of the key and the value of each entry followed by the end of the
+	 * value.
+	 */
+	private int[] index;
+
+	private final ILTagHeader header = new ILTagHeader();
+
+	/**
+	 * Creates a new navigator for the tag stored in the given array. The tag must
+	 * start at the beginning of the array.
+	 * 
+	 * @param buff The buffer.
+	 * @throws ILTagException If the header of the tag is invalid.
+	 */
+	public ILTagNavigator(byte[] buff) throws ILTagException {
+		this(ByteBuffer.wrap(buff));
+	}
+
+	/**
+	 * Creates a new navigator for the tag stored in the given region of an array.
+	 * 
+	 * @param buff The buffer.
+	 * @param off  The offset of the tag.
+	 * @param len  The size of the region that contains the tag.
+	 * @throws ILTagException If the header of the tag is invalid.
+	 */
+	public ILTagNavigator(byte[] buff, int off, int len) throws ILTagException {
+		this(ByteBuffer.wrap(buff, off, len));
+	}
+
+	/**
+	 * Creates a new navigator for the tag that starts at the position of the
+	 * buffer. The tag must end before the limit of the buffer. Any remaining bytes
+	 * after the tag are ignored.
+	 * 
+	 * @param buff The buffer.
+	 * @throws ILTagException If the header of the tag is invalid.
+	 */
+	public ILTagNavigator(ByteBuffer buff) throws ILTagException {
+		this(buff, buff.position(), buff.limit());
+	}
+
+	private ILTagNavigator(ByteBuffer buff, int offset, int end) throws ILTagException {
+		this.buffer = buff;
+		this.offset = offset;
+		this.valueOffset = ILTagUtils.scanHeader(buff, offset, end, this.header);
+		this.tagId = this.header.tagId;
+		this.end = this.valueOffset + (int) this.header.valueSize;
+	}
+
+	/**
+	 * Returns the id of the tag.
+	 * 
+	 * @return The tag id.
+	 */
+	public long getTagId() {
+		return tagId;
+	}
+
+	/**
+	 * Returns the offset of the tag.
+	 * 
+	 * @return The offset of the first byte of the tag.
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Returns the offset of the value of the tag.
+	 * 
+	 * @return The offset of the first byte of the value.
+	 */
+	public int getValueOffset() {
+		return valueOffset;
+	}
+
+	/**
+	 * Returns the size of the value.
+	 * 
+	 * @return The size of the value in bytes.
+	 */
+	public int getValueSize() {
+		return end - valueOffset;
+	}
+
+	/**
+	 * Returns the end of the tag.
+	 * 
+	 * @return The offset of the first byte after the tag.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * Returns a read-only buffer with the serialized tag.
+	 * 
+	 * @return The buffer. Its position is zero.
+	 */
+	public ByteBuffer getTagBuffer() {
+		return slice(offset, end);
+	}
+
+	/**
+	 * Returns a read-only buffer with the value of the tag.
+	 * 
+	 * @return The buffer. Its position is zero.
+	 */
+	public ByteBuffer getValueBuffer() {
+		return slice(valueOffset, end);
+	}
+
+	private ByteBuffer slice(int start, int stop) {
+		ByteBuffer view = buffer.asReadOnlyBuffer();
+		view.limit(stop);
+		view.position(start);
+		return view.slice();
+	}
+
+	/**
+	 * Returns true if the tag is an array or a sequence.
+	 * 
+	 * @return true if the tag is an array or a sequence.
+	 */
+	public boolean isList() {
+		return (tagId == TagID.IL_ILTAGARRAY_TAG_ID) || (tagId == TagID.IL_ILTAGSEQ_TAG_ID);
+	}
+
+	/**
+	 * Returns true if the tag is a dictionary or a string dictionary.
+	 * 
+	 * @return true if the tag is a dictionary.
+	 */
+	public boolean isDictionary() {
+		return (tagId == TagID.IL_DICTIONARY_TAG_ID) || (tagId == TagID.IL_STRING_DICTIONARY_TAG_ID);
+	}
+
+	private void assertContainer() throws UnexpectedTagException {
+		if (!isList() && !isDictionary()) {
+			throw new UnexpectedTagException("The tag %1$X is not a container.", tagId);
+		}
+	}
+
+	/**
+	 * Returns true if the offset index was built.
+	 * 
+	 * @return true if the index is available.
+	 */
+	public boolean isIndexed() {
+		return index != null;
+	}
+
+	/**
+	 * Builds the offset index of this container. It also verifies if the inner
+	 * tags fill the value exactly. It does nothing if the index was already
+	 * built.
+	 * 
+	 * @return This instance.
+	 * @throws ILTagException If this tag is not a container or if it is corrupted.
+	 */
+	public ILTagNavigator buildIndex() throws ILTagException {
+		if (index != null) {
+			return this;
+		}
+		assertContainer();
+		int stride = isDictionary() ? 2 : 1;
+		int pos = valueOffset;
+		int[] offsets;
+		int count;
+		if (tagId == TagID.IL_ILTAGSEQ_TAG_ID) {
+			offsets = new int[16];
+			count = 0;
+			while (pos < end) {
+				if (count + 1 == offsets.length) {
+					offsets = Arrays.copyOf(offsets, offsets.length * 2);
+				}
+				offsets[count++] = pos;
+				pos = skip(pos);
+			}
+			offsets[count] = pos;
+			offsets = Arrays.copyOf(offsets, count + 1);
+		} else {
+			long c = ILTagUtils.readILInt(buffer, pos, end, "Invalid counter.");
+			pos += ILIntDecoder.sizeFromHeader(buffer.get(pos));
+			ILTagUtils.assertArraySize(c, stride, end - pos);
+			count = (int) c;
+			offsets = new int[count * stride + 1];
+			for (int i = 0; i < count * stride; i++) {
+				offsets[i] = pos;
+				pos = skip(pos);
+			}
+			offsets[count * stride] = pos;
+		}
+		if (pos != end) {
+			throw new CorruptedTagException("Bad value size.");
+		}
+		index = offsets;
+		return this;
+	}
+
+	/**
+	 * Skips the tag at the given offset.
+	 */
+	private int skip(int pos) throws ILTagException {
+		return ILTagUtils.scanHeader(buffer, pos, end, header) + (int) header.valueSize;
+	}
+
+	/**
+	 * Returns the number of inner tags of an array or a sequence, or the number
+	 * of entries of a dictionary. The size of sequences is only known after a
+	 * full scan of their inner tags, thus the index is built for them.
+	 * 
+	 * @return The number of inner tags or entries.
+	 * @throws ILTagException If this tag is not a container or if it is corrupted.
+	 */
+	public int getChildCount() throws ILTagException {
+		assertContainer();
+		if (index != null) {
+			return (index.length - 1) / (isDictionary() ? 2 : 1);
+		}
+		if (tagId == TagID.IL_ILTAGSEQ_TAG_ID) {
+			buildIndex();
+			return index.length - 1;
+		}
+		long count = ILTagUtils.readILInt(buffer, valueOffset, end, "Invalid counter.");
+		ILTagUtils.assertArraySize(count, isDictionary() ? 2 : 1, end - valueOffset);
+		return (int) count;
+	}
+
+	/**
+	 * Locates the n-th tag of the value, where keys and values of the
+	 * dictionaries are counted individually.
+	 */
+	private int locate(int n, int count) throws ILTagException {
+		int stride = isDictionary() ? 2 : 1;
+		if ((n < 0) || (n >= count * stride)) {
+			throw new IndexOutOfBoundsException(String.format("Invalid index %1$d.", n / stride));
+		}
+		if (index != null) {
+			return index[n];
+		}
+		int pos = valueOffset;
+		if (tagId != TagID.IL_ILTAGSEQ_TAG_ID) {
+			pos += ILIntDecoder.sizeFromHeader(buffer.get(pos));
+		}
+		for (int i = 0; i < n; i++) {
+			pos = skip(pos);
+		}
+		return pos;
+	}
+
+	/**
+	 * Returns the offset of an inner tag. For dictionaries, it returns the offset
+	 * of the value of the entry.
+	 * 
+	 * @param index The position of the inner tag or entry.
+	 * @return The offset of the inner tag.
+	 * @throws IndexOutOfBoundsException If the index is invalid.
+	 * @throws ILTagException            If this tag is not a container or if it is
+	 *                                   corrupted.
+	 */
+	public int getChildOffset(int index) throws ILTagException {
+		int count = getChildCount();
+		if (isDictionary()) {
+			return locate(2 * index + 1, count);
+		} else {
+			return locate(index, count);
+		}
+	}
+
+	/**
+	 * Returns a navigator for an inner tag. For dictionaries, it returns the
+	 * value of the entry.
+	 * 
+	 * @param index The position of the inner tag or entry.
+	 * @return The navigator of the inner tag.
+	 * @throws IndexOutOfBoundsException If the index is invalid.
+	 * @throws ILTagException            If this tag is not a container or if it is
+	 *                                   corrupted.
+	 */
+	public ILTagNavigator getChild(int index) throws ILTagException {
+		return new ILTagNavigator(buffer, getChildOffset(index), end);
+	}
+
+	/**
+	 * Returns a navigator for the key of a dictionary entry.
+	 * 
+	 * @param index The ordinal of the entry.
+	 * @return The navigator of the key tag.
+	 * @throws IndexOutOfBoundsException If the index is invalid.
+	 * @throws ILTagException            If this tag is not a dictionary or if it is
+	 *                                   corrupted.
+	 */
+	public ILTagNavigator getKey(int index) throws ILTagException {
+		if (!isDictionary()) {
+			throw new UnexpectedTagException("The tag %1$X is not a dictionary.", tagId);
+		}
+		ILTagNavigator key = new ILTagNavigator(buffer, locate(2 * index, getChildCount()), end);
+		if (key.tagId != TagID.IL_STRING_TAG_ID) {
+			throw new UnexpectedTagException("Expecting string tag with id %1$X but found %2$X.",
+					TagID.IL_STRING_TAG_ID, key.tagId);
+		}
+		return key;
+	}
+
+	/**
+	 * Finds the entry of a dictionary with the given key. The keys are compared
+	 * as UTF-8 bytes, thus no string is decoded during the search. If the key
+	 * appears more than once, the last occurrence is returned as it is the one
+	 * that prevails when the dictionary is deserialized.
+	 * 
+	 * @param key The UTF-8 encoded key.
+	 * @return The ordinal of the entry or -1 if the key was not found.
+	 * @throws ILTagException If this tag is not a dictionary or if it is
+	 *                        corrupted.
+	 * @since 2026.10.19
+	 */
+	public int findKey(byte[] key) throws ILTagException {
+		if (!isDictionary()) {
+			throw new UnexpectedTagException("The tag %1$X is not a dictionary.", tagId);
+		}
+		int count = getChildCount();
+		int found = -1;
+		int pos = valueOffset + ILIntDecoder.sizeFromHeader(buffer.get(valueOffset));
+		for (int i = 0; i < count; i++) {
+			if (index != null) {
+				pos = index[2 * i];
+			}
+			int keyValue = ILTagUtils.scanHeader(buffer, pos, end, header);
+			if (header.tagId != TagID.IL_STRING_TAG_ID) {
+				throw new UnexpectedTagException("Expecting string tag with id %1$X but found %2$X.",
+						TagID.IL_STRING_TAG_ID, header.tagId);
+			}
+			int keySize = (int) header.valueSize;
+			if ((keySize == key.length) && equalsAt(keyValue, key)) {
+				found = i;
+			}
+			if (index == null) {
+				pos = skip(keyValue + keySize);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Finds the entry of a dictionary with the given key.
+	 * 
+	 * @param key The key.
+	 * @return The ordinal of the entry or -1 if the key was not found.
+	 * @throws ILTagException If this tag is not a dictionary or if it is
+	 *                        corrupted.
+	 * @since 2026.10.19
+	 */
+	public int findKey(String key) throws ILTagException {
+		return findKey(key.getBytes(UTF8Utils.UTF8));
+	}
+
+	private boolean equalsAt(int pos, byte[] b) {
+		for (int i = 0; i < b.length; i++) {
+			if (buffer.get(pos + i) != b[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the value of this tag as a string. This tag must be a string tag.
+	 * 
+	 * @return The string.
+	 * @throws ILTagException If this tag is not a string tag or if the string is
+	 *                        invalid.
+	 */
+	public String getString() throws ILTagException {
+		if (tagId != TagID.IL_STRING_TAG_ID) {
+			throw new UnexpectedTagException(
+					"Expecting string tag with id %1$X but found %2$X.", TagID.IL_STRING_TAG_ID, tagId);
+		}
+		try {
+			return UTF8Utils.newDecoder().decode(getValueBuffer()).toString();
+		} catch (CharacterCodingException e) {
+			throw new CorruptedTagException("Invalid UTF-8 string.", e);
+		}
+	}
+
+	/**
+	 * Deserializes this tag.
+	 * 
+	 * @param factory The factory.
+	 * @return The deserialized tag.
+	 * @throws ILTagException If the tag is corrupted.
+	 */
+	public ILTag deserialize(ILTagFactory factory) throws ILTagException {
+		return factory.fromByteBuffer(getTagBuffer());
+	}
+}
@@ -0,0 +1,276 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import io.il2.iltags.utils.UTF8Utils;
+
+/**
+ * This class implements a compiled path expression that selects an inner tag
+ * of a serialized tag without deserializing it. The evaluation is performed by
+ * ILTagNavigator, thus the tags that are not part of the path are skipped by
+ * their headers.
+ * 
+ * <p>
+ * The expression is a sequence of segments separated by '/'. A segment in the
+ * format "[n]" selects the n-th inner tag of an array or a sequence. Any other
+ * segment selects the value of the entry of a dictionary or a string
+ * dictionary with the given key. For example, "payload/[3]" selects the fourth
+ * element of the array associated with the key "payload". The character '\'
+ * escapes the next character of the key, thus it can be used to represent
+ * keys that contain '/' or start with '['. The empty expression selects the
+ * root tag.
+ * </p>
+ * 
+ * <p>
+ * The keys are compared as UTF-8 bytes. Instances of this class are immutable
+ * and can be shared among threads.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public final class ILTagPath {
+
+	private final String expression;
+
+	/**
+	 * UTF-8 keys of each segment. It is null for index segments.
+	 */
+	private final byte[][] keys;
+
+	/**
+	 * Indexes of each segment. It is -1 for key segments.
+	 */
+	private final int[] indexes;
+
+	private ILTagPath(String expression, byte[][] keys, int[] indexes) {
+		this.expression = expression;
+		this.keys = keys;
+		this.indexes = indexes;
+	}
+
+	/**
+	 * Compiles the given expression.
+	 * 
+	 * @param expression The expression.
+	 * @return The compiled path.
+	 * @throws IllegalArgumentException If the expression is invalid.
+	 */
+	public static ILTagPath compile(String expression) throws IllegalArgumentException {
+		ArrayList<String> segments = new ArrayList<>();
+		ArrayList<Boolean> escaped = new ArrayList<>();
+		if (!expression.isEmpty()) {
+			StringBuilder sb = new StringBuilder();
+			boolean hasEscape = false;
+			for (int i = 0; i < expression.length(); i++) {
+				char c = expression.charAt(i);
+				if (c == '\\') {
+					i++;
+					if (i == expression.length()) {
+						throw new IllegalArgumentException("Incomplete escape sequence.");
+					}
+					sb.append(expression.charAt(i));
+					hasEscape = true;
+				} else if (c == '/') {
+					segments.add(sb.toString());
+					escaped.add(hasEscape);
+					sb.setLength(0);
+					hasEscape = false;
+				} else {
+					sb.append(c);
+				}
+			}
+			segments.add(sb.toString());
+			escaped.add(hasEscape);
+		}
+		byte[][] keys = new byte[segments.size()][];
+		int[] indexes = new int[segments.size()];
+		for (int i = 0; i < keys.length; i++) {
+			String s = segments.get(i);
+			if (!escaped.get(i) && s.startsWith("[")) {
+				indexes[i] = parseIndex(s);
+			} else {
+				if (s.isEmpty()) {
+					throw new IllegalArgumentException(String.format("Empty segment %1$d.", i));
+				}
+				keys[i] = s.getBytes(UTF8Utils.UTF8);
+				indexes[i] = -1;
+			}
+		}
+		return new ILTagPath(expression, keys, indexes);
+	}
+
+	private static int parseIndex(String s) {
+		if ((s.length() < 3) || !s.endsWith("]")) {
+			throw new IllegalArgumentException(String.format("Invalid index segment '%1$s'.", s));
+		}
+		int index = 0;
+		for (int i = 1; i < s.length() - 1; i++) {
+			char c = s.charAt(i);
+			if ((c < '0') || (c > '9') || (index > (Integer.MAX_VALUE - (c - '0')) / 10)) {
+				throw new IllegalArgumentException(String.format("Invalid index segment '%1$s'.", s));
+			}
+			index = index * 10 + (c - '0');
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the number of segments of this path.
+	 * 
+	 * @return The number of segments.
+	 */
+	public int size() {
+		return indexes.length;
+	}
+
+	/**
+	 * Returns the index of the given segment.
+	 * 
+	 * @param segment The segment.
+	 * @return The index or -1 if the segment is a key.
+	 */
+	public int getIndex(int segment) {
+		return indexes[segment];
+	}
+
+	/**
+	 * Returns the key of the given segment.
+	 * 
+	 * @param segment The segment.
+	 * @return The key or null if the segment is an index.
+	 */
+	public String getKey(int segment) {
+		if (keys[segment] == null) {
+			return null;
+		}
+		return new String(keys[segment], UTF8Utils.UTF8);
+	}
+
+	/**
+	 * Selects the tag that matches this path.
+	 * 
+	 * @param root The navigator of the root tag.
+	 * @return The navigator of the selected tag or null if there is no match. It
+	 *         happens when a key is not present, when an index is out of bounds
+	 *         or when a segment is applied to a tag of another type.
+	 * @throws ILTagException If the serialized tag is corrupted.
+	 */
+	public ILTagNavigator select(ILTagNavigator root) throws ILTagException {
+		ILTagNavigator current = root;
+		for (int i = 0; (current != null) && (i < indexes.length); i++) {
+			if (keys[i] != null) {
+				current = selectKey(current, keys[i]);
+			} else {
+				current = selectIndex(current, indexes[i]);
+			}
+		}
+		return current;
+	}
+
+	private static ILTagNavigator selectKey(ILTagNavigator current, byte[] key) throws ILTagException {
+		if (!current.isDictionary()) {
+			return null;
+		}
+		int entry = current.findKey(key);
+		if (entry < 0) {
+			return null;
+		}
+		return current.getChild(entry);
+	}
+
+	private static ILTagNavigator selectIndex(ILTagNavigator current, int index) throws ILTagException {
+		if (!current.isList() || (index >= current.getChildCount())) {
+			return null;
+		}
+		return current.getChild(index);
+	}
+
+	/**
+	 * Selects the tag that matches this path.
+	 * 
+	 * @param bytes The serialized root tag.
+	 * @return The navigator of the selected tag or null if there is no match.
+	 * @throws ILTagException If the serialized tag is corrupted.
+	 */
+	public ILTagNavigator select(byte[] bytes) throws ILTagException {
+		return select(new ILTagNavigator(bytes));
+	}
+
+	/**
+	 * Selects the tag that matches this path. The root tag starts at the position
+	 * of the buffer.
+	 * 
+	 * @param buff The buffer with the serialized root tag. Its position is not
+	 *             changed.
+	 * @return The navigator of the selected tag or null if there is no match.
+	 * @throws ILTagException If the serialized tag is corrupted.
+	 */
+	public ILTagNavigator select(ByteBuffer buff) throws ILTagException {
+		return select(new ILTagNavigator(buff));
+	}
+
+	/**
+	 * Returns the serialization of the tag that matches this path.
+	 * 
+	 * @param bytes The serialized root tag.
+	 * @return A read-only buffer with the selected tag or null if there is no
+	 *         match.
+	 * @throws ILTagException If the serialized tag is corrupted.
+	 */
+	public ByteBuffer selectSlice(byte[] bytes) throws ILTagException {
+		ILTagNavigator n = select(bytes);
+		return (n != null) ? n.getTagBuffer() : null;
+	}
+
+	/**
+	 * Deserializes the tag that matches this path. Only the selected tag is
+	 * deserialized.
+	 * 
+	 * @param factory The factory used to deserialize the selected tag.
+	 * @param bytes   The serialized root tag.
+	 * @return The selected tag or null if there is no match.
+	 * @throws ILTagException If the serialized tag is corrupted.
+	 */
+	public ILTag selectTag(ILTagFactory factory, byte[] bytes) throws ILTagException {
+		ILTagNavigator n = select(bytes);
+		return (n != null) ? n.deserialize(factory) : null;
+	}
+
+	@Override
+	public String toString() {
+		return expression;
+	}
+}
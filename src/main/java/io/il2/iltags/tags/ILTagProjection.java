@@ -0,0 +1,196 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class implements a projection, the set of inner tags that must be
+ * deserialized when only a few of them are required. The inner tags that are
+ * not selected are skipped after reading their headers, thus they are never
+ * created nor decoded. The result of the deserialization is a partial tree
+ * with only the selected tags and the containers that lead to them.
+ * 
+ * <p>
+ * A projection is created from a list of paths as defined by ILTagPath. Each
+ * path selects the tag it points to and all its inner tags. Key segments
+ * select the entries of dictionaries while index segments select the inner
+ * tags of arrays and sequences. For example, the paths "header" and
+ * "items/[0]/id" select the entry "header" of the root dictionary and the
+ * entry "id" of the first tag of the list "items".
+ * </p>
+ * 
+ * <p>
+ * The projections are applied by
+ * io.il2.iltags.tags.IterativeTagDeserializer.deserialize(DataInput,
+ * ILTagProjection) to the containers that implement ILContainerTag. The other
+ * tags are always deserialized as a whole. Instances of this class are
+ * immutable and can be shared among threads.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public final class ILTagProjection {
+
+	private static final ILTagProjection ALL = new ILTagProjection(true);
+
+	private static final ILTagProjection NONE = new ILTagProjection(false);
+
+	private boolean all;
+
+	private final HashMap<String, ILTagProjection> keys = new HashMap<>();
+
+	private int[] indexes = new int[0];
+
+	private ILTagProjection[] indexProjections = new ILTagProjection[0];
+
+	private ILTagProjection(boolean all) {
+		this.all = all;
+	}
+
+	/**
+	 * Returns the projection that selects everything.
+	 * 
+	 * @return The projection that selects all inner tags.
+	 */
+	public static ILTagProjection all() {
+		return ALL;
+	}
+
+	/**
+	 * Returns a projection that selects nothing. Containers deserialized with it
+	 * are empty.
+	 * 
+	 * @return The projection that selects no inner tags.
+	 */
+	public static ILTagProjection none() {
+		return NONE;
+	}
+
+	/**
+	 * Creates a projection from a list of path expressions.
+	 * 
+	 * @param paths The path expressions.
+	 * @return The projection.
+	 * @throws IllegalArgumentException If one of the expressions is invalid.
+	 */
+	public static ILTagProjection of(String... paths) throws IllegalArgumentException {
+		ILTagPath[] compiled = new ILTagPath[paths.length];
+		for (int i = 0; i < paths.length; i++) {
+			compiled[i] = ILTagPath.compile(paths[i]);
+		}
+		return of(compiled);
+	}
+
+	/**
+	 * Creates a projection from a list of paths. An empty path selects the
+	 * whole tag.
+	 * 
+	 * @param paths The paths.
+	 * @return The projection.
+	 */
+	public static ILTagProjection of(ILTagPath... paths) {
+		ILTagProjection root = new ILTagProjection(false);
+		for (ILTagPath path : paths) {
+			root.add(path);
+		}
+		return root.all ? ALL : root;
+	}
+
+	private void add(ILTagPath path) {
+		ILTagProjection node = this;
+		for (int i = 0; (i < path.size()) && !node.all; i++) {
+			int index = path.getIndex(i);
+			ILTagProjection next = (index < 0) ? node.keys.get(path.getKey(i)) : node.getIndex(index);
+			if (next == null) {
+				next = new ILTagProjection(false);
+				if (index < 0) {
+					node.keys.put(path.getKey(i), next);
+				} else {
+					node.indexes = Arrays.copyOf(node.indexes, node.indexes.length + 1);
+					node.indexProjections = Arrays.copyOf(node.indexProjections, node.indexes.length);
+					node.indexes[node.indexes.length - 1] = index;
+					node.indexProjections[node.indexes.length - 1] = next;
+				}
+			}
+			node = next;
+		}
+		if (!node.all) {
+			node.all = true;
+			node.keys.clear();
+			node.indexes = new int[0];
+			node.indexProjections = new ILTagProjection[0];
+		}
+	}
+
+	/**
+	 * Verifies if this projection selects all inner tags.
+	 * 
+	 * @return true if all inner tags are selected.
+	 */
+	public boolean isAll() {
+		return all;
+	}
+
+	/**
+	 * Returns the projection of the entry of a dictionary.
+	 * 
+	 * @param key The key of the entry.
+	 * @return The projection of the value or null if the entry is not selected.
+	 */
+	public ILTagProjection getKey(String key) {
+		if (all) {
+			return this;
+		}
+		return keys.get(key);
+	}
+
+	/**
+	 * Returns the projection of an inner tag of an array or a sequence.
+	 * 
+	 * @param index The index of the inner tag.
+	 * @return The projection of the inner tag or null if it is not selected.
+	 */
+	public ILTagProjection getIndex(int index) {
+		if (all) {
+			return this;
+		}
+		for (int i = 0; i < indexes.length; i++) {
+			if (indexes[i] == index) {
+				return indexProjections[i];
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,627 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.util.Arrays;
+
+import io.il2.iltags.ilint.ILIntEncoder;
+import io.il2.iltags.ilint.Signed;
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.LimitedDataInput;
+import io.il2.iltags.utils.UTF8Utils;
+
+/**
+ * This class implements a pull reader for serialized tags. Instead of creating
+ * the tag instances, the application moves a cursor through the tags and reads
+ * their values as primitives.
+ * 
+ * <p>
+ * next() moves the cursor to the next tag of the current level and exposes its
+ * header. The value of the current tag can then be read by one of the typed
+ * read methods, skipped by skip() or, if the tag is a container, entered by
+ * enter(). exit() skips the remaining tags of the current container and moves
+ * the cursor back to the container level. Values that were neither read nor
+ * entered are skipped by next().
+ * </p>
+ * 
+ * <p>
+ * The inner tags of ILTag arrays and sequences are visited in order. The
+ * entries of dictionaries and string dictionaries are visited as pairs of
+ * tags, the key followed by its value. isKey() tells which one is the current
+ * tag.
+ * </p>
+ * 
+ * <p>
+ * The headers are verified with the same limits used by the deserialization:
+ * the value size limit, the bounds of the enclosing containers, the number of
+ * entries of the containers and the maximum depth. The DecodeLimits given to
+ * the constructor are also verified by next() and enter() before the tags are
+ * exposed. No object is allocated per tag, with the exception of
+ * readString(). Instances of this class are not thread-safe.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class ILTagReader {
+
+	private static final int LIST = 0;
+
+	private static final int DICTIONARY = 1;
+
+	private static final int STRING_DICTIONARY = 2;
+
+	private final LimitedDataInput in;
+
+	private final boolean single;
+
+	private final int maxDepth;
+
+	private final DecodeLimits limits;
+
+	private final ILTagHeader header = new ILTagHeader();
+
+	private boolean hasTag;
+
+	private boolean consumed;
+
+	private boolean key;
+
+	private long tagId;
+
+	private int valueSize;
+
+	/**
+	 * Remaining bytes of the input at the end of the value of the current tag.
+	 */
+	private int valueEnd;
+
+	/**
+	 * The value of the current tag if it is an ILInt tag.
+	 */
+	private long ilintValue;
+
+	private int depth;
+
+	private boolean topLevelRead;
+
+	private long[] frameIds = new long[8];
+
+	private int[] frameKinds = new int[8];
+
+	/**
+	 * Remaining bytes of the input at the end of each container.
+	 */
+	private int[] frameEnds = new int[8];
+
+	/**
+	 * Number of remaining inner tags of each container. For sequences, it is -1
+	 * minus the number of inner tags already visited.
+	 */
+	private long[] frameRemaining = new long[8];
+
+	/**
+	 * Creates a new reader for a single tag with the default maximum depth.
+	 * 
+	 * @param in The data input.
+	 */
+	public ILTagReader(DataInput in) {
+		this(in, -1, IterativeTagDeserializer.DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * Creates a new reader for all tags within the remaining bytes of the buffer
+	 * with the default maximum depth. The position of the buffer is updated as
+	 * the tags are read.
+	 * 
+	 * @param buff The buffer.
+	 */
+	public ILTagReader(ByteBuffer buff) {
+		this(new ByteBufferDataInput(buff), buff.remaining(), IterativeTagDeserializer.DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * Creates a new reader.
+	 * 
+	 * @param in       The data input.
+	 * @param size     The number of bytes that contains the tags. If it is
+	 *                 negative, the input contains a single tag.
+	 * @param maxDepth The maximum number of nested containers.
+	 */
+	public ILTagReader(DataInput in, int size, int maxDepth) {
+		this(in, size, maxDepth, DecodeLimits.UNLIMITED);
+	}
+
+	/**
+	 * Creates a new reader that enforces the given limits. The maximum depth is
+	 * taken from the limits.
+	 * 
+	 * @param in     The data input.
+	 * @param size   The number of bytes that contains the tags. If it is
+	 *               negative, the input contains a single tag.
+	 * @param limits The limits to be enforced.
+	 * @since 2026.10.19
+	 */
+	public ILTagReader(DataInput in, int size, DecodeLimits limits) {
+		this(in, size, limits.getMaxDepth(), limits);
+	}
+
+	private ILTagReader(DataInput in, int size, int maxDepth, DecodeLimits limits) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("The maximum depth must be positive.");
+		}
+		this.single = size < 0;
+		this.in = new LimitedDataInput(in, this.single ? Integer.MAX_VALUE : size);
+		this.maxDepth = maxDepth;
+		this.limits = limits;
+	}
+
+	/**
+	 * Returns the limits enforced by this reader.
+	 * 
+	 * @return The limits.
+	 * @since 2026.10.19
+	 */
+	public DecodeLimits getDecodeLimits() {
+		return limits;
+	}
+
+	/**
+	 * Returns the maximum depth.
+	 * 
+	 * @return The maximum number of nested containers.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Returns the number of containers entered.
+	 * 
+	 * @return The current depth. It is 0 for the top level.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the id of the current tag.
+	 * 
+	 * @return The tag id.
+	 * @throws IllegalStateException If there is no current tag.
+	 */
+	public long getTagId() {
+		assertTag();
+		return tagId;
+	}
+
+	/**
+	 * Returns the value size of the current tag. For ILInt based tags, it is the
+	 * size of the encoded value.
+	 * 
+	 * @return The value size.
+	 * @throws IllegalStateException If there is no current tag.
+	 */
+	public int getValueSize() {
+		assertTag();
+		return valueSize;
+	}
+
+	/**
+	 * Verifies if the current tag is the key of a dictionary entry.
+	 * 
+	 * @return true if the current tag is a key.
+	 * @throws IllegalStateException If there is no current tag.
+	 */
+	public boolean isKey() {
+		assertTag();
+		return key;
+	}
+
+	private void assertTag() {
+		if (!hasTag) {
+			throw new IllegalStateException("There is no current tag.");
+		}
+	}
+
+	/**
+	 * Moves to the next tag of the current level. The value of the current tag
+	 * is skipped if it was not read yet.
+	 * 
+	 * @return true if the cursor is at the next tag or false if there are no
+	 *         more tags at the current level.
+	 * @throws IOException          In case of IO error.
+	 * @throws TagTooLargeException If the value size is too large or if the tag
+	 *                              exceeds the limits of this reader.
+	 * @throws ILTagException       If the tag is corrupted.
+	 */
+	public boolean next() throws IOException, ILTagException {
+		skip();
+		hasTag = false;
+		int end;
+		int kind = LIST;
+		boolean isKey = false;
+		if (depth == 0) {
+			if (single ? topLevelRead : !in.hasRemaining()) {
+				return false;
+			}
+			end = 0;
+		} else {
+			int f = depth - 1;
+			end = frameEnds[f];
+			kind = frameKinds[f];
+			long remaining = frameRemaining[f];
+			if ((remaining == 0) || ((remaining < 0) && (in.remaining() == end))) {
+				return false;
+			}
+			if (remaining > 0) {
+				isKey = (kind != LIST) && ((remaining % 2) == 0);
+			} else {
+				limits.checkElements(-remaining);
+			}
+			frameRemaining[f] = remaining - 1;
+		}
+		limits.checkDepth(depth + 1);
+		ILTagUtils.readHeader(in, header);
+		if (depth == 0) {
+			limits.checkTotalBytes(header.valueSize);
+		}
+		if (header.tagId == TagID.IL_STRING_TAG_ID) {
+			limits.checkStringLength(header.valueSize);
+		}
+		if ((kind == STRING_DICTIONARY || isKey) && (header.tagId != TagID.IL_STRING_TAG_ID)) {
+			throw new UnexpectedTagException("Expecting string tag with id %1$X but found %2$X.",
+					TagID.IL_STRING_TAG_ID, header.tagId);
+		}
+		long size = header.valueSize;
+		if (size < 0) {
+			if (header.tagId == TagID.IL_ILINT_TAG_ID || header.tagId == TagID.IL_SIGNED_ILINT_TAG_ID) {
+				ilintValue = ILTagUtils.readILInt(in, "Invalid ILInt value.");
+				size = 0;
+				valueSize = ILIntEncoder.encodedSize(ilintValue);
+			} else {
+				throw new UnsupportedTagException("Unable to determine the size of the tag %1$X.", header.tagId);
+			}
+		} else {
+			valueSize = (int) size;
+		}
+		int available = in.remaining() - end;
+		if ((available < 0) || (Long.compareUnsigned(size, available) > 0)) {
+			throw new CorruptedTagException("Invalid serialization format.");
+		}
+		topLevelRead = true;
+		tagId = header.tagId;
+		valueEnd = in.remaining() - (int) size;
+		key = isKey;
+		hasTag = true;
+		consumed = false;
+		return true;
+	}
+
+	/**
+	 * Skips the value of the current tag. It does nothing if the value was
+	 * already read or if there is no current tag.
+	 * 
+	 * @throws IOException In case of IO error.
+	 */
+	public void skip() throws IOException {
+		if (hasTag && !consumed) {
+			skipTo(valueEnd);
+			consumed = true;
+		}
+	}
+
+	private void skipTo(int end) throws IOException {
+		while (in.remaining() > end) {
+			if (in.skipBytes(in.remaining() - end) <= 0) {
+				// Some inputs skip nothing before the end
+				in.readByte();
+			}
+		}
+	}
+
+	/**
+	 * Enters the current container. The inner tags are visited by next().
+	 * 
+	 * @throws IOException          In case of IO error.
+	 * @throws TagTooLargeException If the maximum depth or the maximum number of
+	 *                              elements is exceeded.
+	 * @throws ILTagException       If the current tag is not an ILTag array, a
+	 *                              sequence, a dictionary or a string dictionary
+	 *                              or if it is corrupted.
+	 */
+	public void enter() throws IOException, ILTagException {
+		assertTag();
+		int kind;
+		int minEntrySize;
+		if ((tagId == TagID.IL_ILTAGARRAY_TAG_ID) || (tagId == TagID.IL_ILTAGSEQ_TAG_ID)) {
+			kind = LIST;
+			minEntrySize = 1;
+		} else if (tagId == TagID.IL_DICTIONARY_TAG_ID) {
+			kind = DICTIONARY;
+			minEntrySize = 1 + 1 + 1;
+		} else if (tagId == TagID.IL_STRING_DICTIONARY_TAG_ID) {
+			kind = STRING_DICTIONARY;
+			minEntrySize = 1 + 1 + 1 + 1;
+		} else {
+			throw new UnexpectedTagException("The tag %1$X is not a container.", tagId);
+		}
+		beginValue();
+		long count = -1;
+		if (tagId != TagID.IL_ILTAGSEQ_TAG_ID) {
+			if (valueSize < 1) {
+				throw new CorruptedTagException("Invalid serialization format.");
+			}
+			count = ILTagUtils.readILInt(in, "Invalid counter.");
+			if (in.remaining() < valueEnd) {
+				throw new CorruptedTagException("Invalid serialization format.");
+			}
+			ILTagUtils.assertArraySize(count, minEntrySize, in.remaining() - valueEnd);
+			limits.checkElements(count);
+			if (kind != LIST) {
+				count *= 2;
+			}
+		}
+		if (depth == maxDepth) {
+			throw new TagTooLargeException("The tag exceeds the maximum depth of %1$d.", maxDepth);
+		}
+		if (depth == frameIds.length) {
+			int newSize = Math.min(frameIds.length * 2, maxDepth);
+			frameIds = Arrays.copyOf(frameIds, newSize);
+			frameKinds = Arrays.copyOf(frameKinds, newSize);
+			frameEnds = Arrays.copyOf(frameEnds, newSize);
+			frameRemaining = Arrays.copyOf(frameRemaining, newSize);
+		}
+		frameIds[depth] = tagId;
+		frameKinds[depth] = kind;
+		frameEnds[depth] = valueEnd;
+		frameRemaining[depth] = count;
+		depth++;
+		hasTag = false;
+	}
+
+	/**
+	 * Leaves the current container. All remaining inner tags are skipped and the
+	 * cursor is placed after the container, just like if it was skipped. If all
+	 * inner tags were visited, it also verifies if they fill the value of the
+	 * container exactly.
+	 * 
+	 * @return The id of the container.
+	 * @throws IOException           In case of IO error.
+	 * @throws IllegalStateException If the reader is at the top level.
+	 * @throws ILTagException        If the container is corrupted.
+	 */
+	public long exit() throws IOException, ILTagException {
+		if (depth == 0) {
+			throw new IllegalStateException("There is no container to exit.");
+		}
+		skip();
+		int f = depth - 1;
+		if ((frameRemaining[f] == 0) && (in.remaining() != frameEnds[f])) {
+			throw new CorruptedTagException("Bad value size.");
+		}
+		skipTo(frameEnds[f]);
+		depth--;
+		hasTag = false;
+		return frameIds[f];
+	}
+
+	/**
+	 * Verifies if the value of the current tag is available.
+	 */
+	private void beginValue() {
+		assertTag();
+		if (consumed) {
+			throw new IllegalStateException("The value of the current tag was already read.");
+		}
+		consumed = true;
+	}
+
+	private void assertTagId(long expected) throws UnexpectedTagException {
+		if (tagId != expected) {
+			throw new UnexpectedTagException("Expecting tag with id %1$X but found %2$X.", expected, tagId);
+		}
+	}
+
+	/**
+	 * Reads the value of the current boolean tag.
+	 * 
+	 * @return The value.
+	 * @throws IOException            In case of IO error.
+	 * @throws UnexpectedTagException If the current tag is not a boolean tag.
+	 * @throws ILTagException         If the value is corrupted.
+	 */
+	public boolean readBoolean() throws IOException, ILTagException {
+		assertTag();
+		assertTagId(TagID.IL_BOOL_TAG_ID);
+		beginValue();
+		int b = in.readUnsignedByte();
+		if (b > 1) {
+			throw new CorruptedTagException("Invalid boolean value.");
+		}
+		return b != 0;
+	}
+
+	/**
+	 * Reads the value of any of the standard integer tags, including the ILInt
+	 * tags. The signed values are sign extended while the unsigned values are
+	 * zero extended. Unsigned 64-bit values are returned as they are.
+	 * 
+	 * @return The value.
+	 * @throws IOException            In case of IO error.
+	 * @throws UnexpectedTagException If the current tag is not an integer tag.
+	 * @throws ILTagException         If the value is corrupted.
+	 */
+	public long readInt64() throws IOException, ILTagException {
+		assertTag();
+		// Ids above Integer.MAX_VALUE must not be aliased to the reserved ids.
+		if (TagID.isReserved(tagId)) {
+			switch ((int) tagId) {
+			case (int) TagID.IL_INT8_TAG_ID:
+				beginValue();
+				return in.readByte();
+			case (int) TagID.IL_UINT8_TAG_ID:
+				beginValue();
+				return in.readUnsignedByte();
+			case (int) TagID.IL_INT16_TAG_ID:
+				beginValue();
+				return in.readShort();
+			case (int) TagID.IL_UINT16_TAG_ID:
+				beginValue();
+				return in.readUnsignedShort();
+			case (int) TagID.IL_INT32_TAG_ID:
+				beginValue();
+				return in.readInt();
+			case (int) TagID.IL_UINT32_TAG_ID:
+				beginValue();
+				return in.readInt() & 0xFFFFFFFFl;
+			case (int) TagID.IL_INT64_TAG_ID:
+			case (int) TagID.IL_UINT64_TAG_ID:
+				beginValue();
+				return in.readLong();
+			case (int) TagID.IL_ILINT_TAG_ID:
+				beginValue();
+				return ilintValue;
+			case (int) TagID.IL_SIGNED_ILINT_TAG_ID:
+				beginValue();
+				return Signed.unpack(ilintValue);
+			}
+		}
+		throw new UnexpectedTagException("The tag %1$X is not an integer tag.", tagId);
+	}
+
+	/**
+	 * Reads the value of the current ILInt tag.
+	 * 
+	 * @return The unsigned value.
+	 * @throws UnexpectedTagException If the current tag is not an ILInt tag.
+	 */
+	public long readILInt() throws UnexpectedTagException {
+		assertTag();
+		assertTagId(TagID.IL_ILINT_TAG_ID);
+		beginValue();
+		return ilintValue;
+	}
+
+	/**
+	 * Reads the value of the current binary32 tag.
+	 * 
+	 * @return The value.
+	 * @throws IOException            In case of IO error.
+	 * @throws UnexpectedTagException If the current tag is not a binary32 tag.
+	 */
+	public float readFloat() throws IOException, UnexpectedTagException {
+		assertTag();
+		assertTagId(TagID.IL_BIN32_TAG_ID);
+		beginValue();
+		return in.readFloat();
+	}
+
+	/**
+	 * Reads the value of the current binary64 tag.
+	 * 
+	 * @return The value.
+	 * @throws IOException            In case of IO error.
+	 * @throws UnexpectedTagException If the current tag is not a binary64 tag.
+	 */
+	public double readDouble() throws IOException, UnexpectedTagException {
+		assertTag();
+		assertTagId(TagID.IL_BIN64_TAG_ID);
+		beginValue();
+		return in.readDouble();
+	}
+
+	/**
+	 * Reads the raw value of the current tag. It can be used by all tags with the
+	 * exception of the ILInt based tags.
+	 * 
+	 * @param buff The buffer that will receive the value. It must have at least
+	 *             getValueSize() bytes after off.
+	 * @param off  The offset in the buffer.
+	 * @return The number of bytes read.
+	 * @throws IOException              In case of IO error.
+	 * @throws IllegalArgumentException If the buffer is too small.
+	 * @throws UnexpectedTagException   If the current tag is an ILInt based tag.
+	 */
+	public int readBytes(byte[] buff, int off) throws IOException, ILTagException {
+		assertTag();
+		if ((tagId == TagID.IL_ILINT_TAG_ID) || (tagId == TagID.IL_SIGNED_ILINT_TAG_ID)) {
+			throw new UnexpectedTagException("The raw value of the tag %1$X is not available.", tagId);
+		}
+		if (valueSize > buff.length - off) {
+			throw new IllegalArgumentException("The buffer is too small.");
+		}
+		beginValue();
+		in.readFully(buff, off, valueSize);
+		return valueSize;
+	}
+
+	/**
+	 * Reads the UTF-8 encoded value of the current string tag. The encoding is
+	 * not verified.
+	 * 
+	 * @param buff The buffer that will receive the value. It must have at least
+	 *             getValueSize() bytes after off.
+	 * @param off  The offset in the buffer.
+	 * @return The number of bytes read.
+	 * @throws IOException              In case of IO error.
+	 * @throws IllegalArgumentException If the buffer is too small.
+	 * @throws UnexpectedTagException   If the current tag is not a string tag.
+	 */
+	public int readStringBytes(byte[] buff, int off) throws IOException, ILTagException {
+		assertTag();
+		assertTagId(TagID.IL_STRING_TAG_ID);
+		return readBytes(buff, off);
+	}
+
+	/**
+	 * Reads the value of the current string tag.
+	 * 
+	 * @return The value.
+	 * @throws IOException            In case of IO error.
+	 * @throws UnexpectedTagException If the current tag is not a string tag.
+	 * @throws CorruptedTagException  If the string is not a valid UTF-8 string.
+	 */
+	public String readString() throws IOException, ILTagException {
+		byte[] tmp = new byte[getValueSize()];
+		readStringBytes(tmp, 0);
+		try {
+			return UTF8Utils.newDecoder().decode(ByteBuffer.wrap(tmp)).toString();
+		} catch (CharacterCodingException e) {
+			throw new CorruptedTagException("Invalid UTF-8 string.", e);
+		}
+	}
+}
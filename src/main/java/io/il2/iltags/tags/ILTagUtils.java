@@ -34,6 +34,7 @@ package io.il2.iltags.tags;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import io.il2.iltags.ilint.ILIntDecoder;
 
@@ -59,8 +60,8 @@ public class ILTagUtils {
 	 */
 	public static void assertTagSizeLimit(long valueSize) throws TagTooLargeException {
 		if (Long.compareUnsigned(valueSize, ILTag.MAX_TAG_VALUE_SIZE) > 0) {
-			throw new TagTooLargeException(String.format("The tag value has %1$X but the maximum size allowed is %2$X.",
-					valueSize, ILTag.MAX_TAG_VALUE_SIZE));
+			throw new TagTooLargeException("The tag value has %1$X but the maximum size allowed is %2$X.",
+					valueSize, ILTag.MAX_TAG_VALUE_SIZE);
 		}
 	}
 
@@ -76,13 +77,185 @@ public class ILTagUtils {
 	 * @throws ILTagException       If the header is corrupted.
 	 */
 	public static ILTagHeader readHeader(DataInput in) throws IOException, TagTooLargeException, ILTagException {
-		ILTagHeader header = ILTagHeader.deserializeHeader(in);
+		return readHeader(in, new ILTagHeader());
+	}
+
+	/**
+	 * Reads the ILTag reader into an existing header instance. It also validates
+	 * if the header is valid and if the value size is within the limits imposed by
+	 * this library.
+	 * 
+	 * @param in     The data input.
+	 * @param header The header that will receive the values.
+	 * @return The header.
+	 * @throws IOException          In case of IO error.
+	 * @throws TagTooLargeException If the value size exceeds the limits imposed by
+	 *                              this library.
+	 * @throws ILTagException       If the header is corrupted.
+	 */
+	public static ILTagHeader readHeader(DataInput in, ILTagHeader header)
+			throws IOException, TagTooLargeException, ILTagException {
+		header.deserialize(in);
 		if (!header.isImplicit()) {
 			assertTagSizeLimit(header.valueSize);
 		}
 		return header;
 	}
 
+	/**
+	 * Reads the header of a tag stored in a byte array without deserializing it.
+	 * Unlike readHeader(DataInput, ILTagHeader), the value size of the implicit
+	 * tags based on ILInt is resolved using the first byte of the value. It also
+	 * ensures that the whole tag fits within the given region.
+	 * 
+	 * @param buff   The byte array.
+	 * @param offset The offset of the tag.
+	 * @param end    The end of the region that contains the tag.
+	 * @param header The header that will receive the values.
+	 * @return The offset of the value of the tag. The end of the tag is this
+	 *         offset plus header.valueSize.
+	 * @throws TagTooLargeException    If the value size exceeds the limits imposed
+	 *                                 by this library.
+	 * @throws UnsupportedTagException If the size of the tag cannot be determined.
+	 * @throws CorruptedTagException   If the tag is corrupted or truncated.
+	 * @since 2026.10.19
+	 */
+	public static int scanHeader(byte[] buff, int offset, int end, ILTagHeader header)
+			throws TagTooLargeException, UnsupportedTagException, CorruptedTagException {
+		return scanHeader(buff, null, offset, end, header);
+	}
+
+	/**
+	 * Reads an ILInt stored in a byte array.
+	 * 
+	 * @param buff         The byte array.
+	 * @param offset       The offset of the ILInt.
+	 * @param end          The end of the region that contains the ILInt.
+	 * @param errorMessage The error message to be thrown if the ILInt is invalid.
+	 * @return The value read.
+	 * @throws CorruptedTagException If the ILInt is invalid or truncated.
+	 * @since 2026.10.19
+	 */
+	public static long readILInt(byte[] buff, int offset, int end, String errorMessage)
+			throws CorruptedTagException {
+		return readILInt(buff, null, offset, end, errorMessage);
+	}
+
+	/**
+	 * Reads the header of a tag stored in a ByteBuffer without changing its
+	 * position. It works just like scanHeader(byte[], int, int, ILTagHeader) but
+	 * also supports buffers that are not backed by arrays.
+	 * 
+	 * @param buff   The buffer.
+	 * @param offset The absolute offset of the tag.
+	 * @param end    The absolute end of the region that contains the tag.
+	 * @param header The header that will receive the values.
+	 * @return The absolute offset of the value of the tag. The end of the tag is
+	 *         this offset plus header.valueSize.
+	 * @throws TagTooLargeException    If the value size exceeds the limits imposed
+	 *                                 by this library.
+	 * @throws UnsupportedTagException If the size of the tag cannot be determined.
+	 * @throws CorruptedTagException   If the tag is corrupted or truncated.
+	 * @since 2026.10.19
+	 */
+	public static int scanHeader(ByteBuffer buff, int offset, int end, ILTagHeader header)
+			throws TagTooLargeException, UnsupportedTagException, CorruptedTagException {
+		if (buff.hasArray()) {
+			int base = buff.arrayOffset();
+			checkRegion(buff, offset, end);
+			return scanHeader(buff.array(), null, base + offset, base + end, header) - base;
+		}
+		return scanHeader(null, buff, offset, end, header);
+	}
+
+	/**
+	 * Reads an ILInt stored in a ByteBuffer without changing its position.
+	 * 
+	 * @param buff         The buffer.
+	 * @param offset       The absolute offset of the ILInt.
+	 * @param end          The absolute end of the region that contains the ILInt.
+	 * @param errorMessage The error message to be thrown if the ILInt is invalid.
+	 * @return The value read.
+	 * @throws CorruptedTagException If the ILInt is invalid or truncated.
+	 * @since 2026.10.19
+	 */
+	public static long readILInt(ByteBuffer buff, int offset, int end, String errorMessage)
+			throws CorruptedTagException {
+		if (buff.hasArray()) {
+			int base = buff.arrayOffset();
+			checkRegion(buff, offset, end);
+			return readILInt(buff.array(), null, base + offset, base + end, errorMessage);
+		}
+		return readILInt(null, buff, offset, end, errorMessage);
+	}
+
+	/**
+	 * Reads the header of a tag from either a byte array or a buffer. Exactly one
+	 * of them must be provided and the offsets are relative to it. It implements
+	 * the framing rules shared by all scanHeader() methods.
+	 */
+	private static int scanHeader(byte[] array, ByteBuffer buff, int offset, int end, ILTagHeader header)
+			throws TagTooLargeException, UnsupportedTagException, CorruptedTagException {
+		// Non-canonical ILInts are accepted, thus the sizes come from the headers.
+		header.tagId = readILInt(array, buff, offset, end, "Invalid tag id.");
+		offset += ILIntDecoder.sizeFromHeader(byteAt(array, buff, offset));
+		if (TagID.isImplicit(header.tagId)) {
+			header.valueSize = TagID.getImplicitValueSize(header.tagId);
+			if (header.valueSize < 0) {
+				if (header.tagId == TagID.IL_ILINT_TAG_ID || header.tagId == TagID.IL_SIGNED_ILINT_TAG_ID) {
+					if (offset >= end) {
+						throw new CorruptedTagException("Invalid serialization format.");
+					}
+					header.valueSize = ILIntDecoder.sizeFromHeader(byteAt(array, buff, offset));
+				} else {
+					throw new UnsupportedTagException("Unable to determine the size of the tag %1$X.", header.tagId);
+				}
+			}
+		} else {
+			header.valueSize = readILInt(array, buff, offset, end, "Invalid tag value size.");
+			offset += ILIntDecoder.sizeFromHeader(byteAt(array, buff, offset));
+			assertTagSizeLimit(header.valueSize);
+		}
+		if (Long.compareUnsigned(header.valueSize, end - offset) > 0) {
+			throw new CorruptedTagException("Invalid serialization format.");
+		}
+		return offset;
+	}
+
+	/**
+	 * Reads an ILInt from either a byte array or a buffer. Exactly one of them
+	 * must be provided and the offsets are relative to it.
+	 */
+	private static long readILInt(byte[] array, ByteBuffer buff, int offset, int end, String errorMessage)
+			throws CorruptedTagException {
+		if (offset >= end || ILIntDecoder.sizeFromHeader(byteAt(array, buff, offset)) > end - offset) {
+			throw new CorruptedTagException("Invalid serialization format.");
+		}
+		try {
+			if (array != null) {
+				return ILIntDecoder.decode(array, offset);
+			} else {
+				return ILIntDecoder.decode(buff, offset);
+			}
+		} catch (IllegalArgumentException e) {
+			throw new CorruptedTagException(errorMessage);
+		}
+	}
+
+	/**
+	 * Ensures that the region lies within the limit of the buffer, as required
+	 * before its backing array is accessed directly.
+	 */
+	private static void checkRegion(ByteBuffer buff, int offset, int end) {
+		if ((offset < 0) || (end > buff.limit())) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	private static byte byteAt(byte[] array, ByteBuffer buff, int index) {
+		return (array != null) ? array[index] : buff.get(index);
+	}
+
 	/**
 	 * Reads an ILInt from the data input.
 	 * 
@@ -129,7 +302,7 @@ public class ILTagUtils {
 	public static void assertArraySize(long count, long minUnitSize, long valueSize) throws CorruptedTagException {
 		long totalSize = count * minUnitSize;
 		if (Long.compareUnsigned(totalSize, valueSize) > 0) {
-			throw new CorruptedTagException(String.format("%1$X bytes cannot hold %2$X entries.", valueSize, count));
+			throw new CorruptedTagException("%1$X bytes cannot hold %2$X entries.", valueSize, count);
 		}
 	}
 
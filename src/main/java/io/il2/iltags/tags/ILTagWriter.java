@@ -0,0 +1,644 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import io.il2.iltags.ilint.ILIntEncoder;
+import io.il2.iltags.ilint.Signed;
+import io.il2.iltags.io.ByteBufferDataOutput;
+
+/**
+ * This class implements a streaming writer that serializes tags directly into
+ * a growable byte array, without creating the tag instances.
+ * 
+ * <p>
+ * Primitive tags are written by the write methods. Containers are written by
+ * calling one of the begin methods, writing the inner tags and calling the
+ * matching end method. The value size and the number of entries of each
+ * container are computed by the end method and written into a gap reserved in
+ * front of the inner tags, thus the application does not need to know them in
+ * advance. The unused part of the gaps is removed by a single pass once the
+ * output is retrieved, thus each byte is moved at most once regardless of the
+ * nesting depth. Each entry of a dictionary is written as a call to key()
+ * followed by exactly one tag.
+ * </p>
+ * 
+ * <p>
+ * The tag id of each write method is written as is, thus the same methods can
+ * be used for the standard tags and for custom tags with the same value
+ * format. The value size of implicit tags must match the size of the value
+ * being written.
+ * </p>
+ * 
+ * <p>
+ * The buffer is reused after reset(), thus writing a record allocates nothing
+ * once the buffer is large enough. Instances of this class are not
+ * thread-safe.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class ILTagWriter {
+
+	private static final int LIST = 0;
+
+	private static final int SEQUENCE = 1;
+
+	private static final int DICTIONARY = 2;
+
+	/**
+	 * Size of the gap reserved for the value size and the counter.
+	 */
+	private static final int MAX_PREFIX_SIZE = 9 + 9;
+
+	private byte[] buff;
+
+	private int size;
+
+	private int depth;
+
+	private int[] frameKinds = new int[8];
+
+	/**
+	 * Offset of the first inner tag of each container.
+	 */
+	private int[] frameStarts = new int[8];
+
+	private long[] frameCounts = new long[8];
+
+	private boolean[] frameKeys = new boolean[8];
+
+	/**
+	 * Index of the gap of each container.
+	 */
+	private int[] frameGaps = new int[8];
+
+	/**
+	 * Value of gapTotal when each container began.
+	 */
+	private int[] frameGapTotals = new int[8];
+
+	/**
+	 * Offsets of the unused parts of the gaps, in the order they appear in the
+	 * buffer.
+	 */
+	private int[] gapStarts = new int[8];
+
+	private int[] gapSizes = new int[8];
+
+	private int gapCount;
+
+	/**
+	 * Total size of the unused parts of the gaps of the closed containers.
+	 */
+	private int gapTotal;
+
+	/**
+	 * Creates a new instance of this class with the default initial capacity.
+	 */
+	public ILTagWriter() {
+		this(256);
+	}
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param initialCapacity The initial capacity of the buffer.
+	 */
+	public ILTagWriter(int initialCapacity) {
+		this.buff = new byte[Math.max(initialCapacity, 16)];
+	}
+
+	/**
+	 * Returns the number of bytes written so far.
+	 * 
+	 * @return The number of bytes.
+	 */
+	public int size() {
+		return size - gapTotal;
+	}
+
+	/**
+	 * Returns the number of open containers.
+	 * 
+	 * @return The number of open containers.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Discards all written bytes and open containers. The buffer is kept.
+	 */
+	public void reset() {
+		size = 0;
+		depth = 0;
+		gapCount = 0;
+		gapTotal = 0;
+	}
+
+	/**
+	 * Returns a copy of the written tags.
+	 * 
+	 * @return The serialized tags.
+	 * @throws IllegalStateException If there are open containers.
+	 */
+	public byte[] toBytes() {
+		assertClosed();
+		compact();
+		return Arrays.copyOf(buff, size);
+	}
+
+	/**
+	 * Writes the written tags into the given data output.
+	 * 
+	 * @param out The data output.
+	 * @throws IOException           In case of IO error.
+	 * @throws IllegalStateException If there are open containers.
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		assertClosed();
+		compact();
+		out.write(buff, 0, size);
+	}
+
+	private void assertClosed() {
+		if (depth > 0) {
+			throw new IllegalStateException("There are open containers.");
+		}
+	}
+
+	/**
+	 * Removes the unused parts of the gaps. It must be called only when all
+	 * containers are closed.
+	 */
+	private void compact() {
+		if (gapCount == 0) {
+			return;
+		}
+		int dst = gapStarts[0];
+		for (int i = 0; i < gapCount; i++) {
+			int src = gapStarts[i] + gapSizes[i];
+			int end = (i + 1 < gapCount) ? gapStarts[i + 1] : size;
+			System.arraycopy(buff, src, buff, dst, end - src);
+			dst += end - src;
+		}
+		size = dst;
+		gapCount = 0;
+		gapTotal = 0;
+	}
+
+	private void ensureCapacity(int required) {
+		if (required > buff.length - size) {
+			long newSize = Math.max((long) buff.length * 2, (long) size + required);
+			if (newSize > Integer.MAX_VALUE - 8) {
+				throw new IllegalStateException("The buffer is too large.");
+			}
+			buff = Arrays.copyOf(buff, (int) newSize);
+		}
+	}
+
+	/**
+	 * Registers a new tag in the current container.
+	 */
+	private void beginTag() {
+		if (depth > 0) {
+			int f = depth - 1;
+			if (frameKinds[f] == DICTIONARY) {
+				if (!frameKeys[f]) {
+					throw new IllegalStateException("The dictionary entry has no key.");
+				}
+				frameKeys[f] = false;
+			}
+			frameCounts[f]++;
+		}
+	}
+
+	private void writeHeader(long id, long valueSize) {
+		if (TagID.isImplicit(id)) {
+			long expected = TagID.getImplicitValueSize(id);
+			if ((expected >= 0) && (expected != valueSize)) {
+				throw new IllegalArgumentException(
+						String.format("The tag %1$X requires a value with %2$d bytes.", id, expected));
+			}
+		}
+		beginTag();
+		writeRawHeader(id, valueSize);
+	}
+
+	private void writeRawHeader(long id, long valueSize) {
+		ensureCapacity(18 + (int) Math.min(valueSize, Integer.MAX_VALUE - 18));
+		size += ILIntEncoder.encode(id, buff, size);
+		if (!TagID.isImplicit(id)) {
+			size += ILIntEncoder.encode(valueSize, buff, size);
+		}
+	}
+
+	private void writeFixed(long v, int bytes) {
+		for (int i = bytes - 1; i >= 0; i--) {
+			buff[size + i] = (byte) v;
+			v = v >>> 8;
+		}
+		size += bytes;
+	}
+
+	/**
+	 * Writes a null tag.
+	 * 
+	 * @param id The tag id.
+	 */
+	public void writeNull(long id) {
+		writeHeader(id, 0);
+	}
+
+	/**
+	 * Writes a boolean tag.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The value.
+	 */
+	public void writeBoolean(long id, boolean value) {
+		writeHeader(id, 1);
+		buff[size++] = (byte) (value ? 1 : 0);
+	}
+
+	/**
+	 * Writes an 8-bit integer tag.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The value.
+	 */
+	public void writeInt8(long id, byte value) {
+		writeHeader(id, 1);
+		buff[size++] = value;
+	}
+
+	/**
+	 * Writes a 16-bit integer tag.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The value.
+	 */
+	public void writeInt16(long id, short value) {
+		writeHeader(id, 2);
+		writeFixed(value, 2);
+	}
+
+	/**
+	 * Writes a 32-bit integer tag.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The value.
+	 */
+	public void writeInt32(long id, int value) {
+		writeHeader(id, 4);
+		writeFixed(value, 4);
+	}
+
+	/**
+	 * Writes a 64-bit integer tag.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The value.
+	 */
+	public void writeInt64(long id, long value) {
+		writeHeader(id, 8);
+		writeFixed(value, 8);
+	}
+
+	/**
+	 * Writes an ILInt tag.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The unsigned value.
+	 */
+	public void writeILInt(long id, long value) {
+		int valueSize = ILIntEncoder.encodedSize(value);
+		if ((id == TagID.IL_ILINT_TAG_ID) || (id == TagID.IL_SIGNED_ILINT_TAG_ID)) {
+			beginTag();
+			ensureCapacity(1 + valueSize);
+			size += ILIntEncoder.encode(id, buff, size);
+		} else {
+			writeHeader(id, valueSize);
+		}
+		size += ILIntEncoder.encode(value, buff, size);
+	}
+
+	/**
+	 * Writes a signed ILInt tag.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The signed value.
+	 */
+	public void writeSignedILInt(long id, long value) {
+		writeILInt(id, Signed.pack(value));
+	}
+
+	/**
+	 * Writes a binary32 tag.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The value.
+	 */
+	public void writeFloat(long id, float value) {
+		writeHeader(id, 4);
+		writeFixed(Float.floatToRawIntBits(value), 4);
+	}
+
+	/**
+	 * Writes a binary64 tag.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The value.
+	 */
+	public void writeDouble(long id, double value) {
+		writeHeader(id, 8);
+		writeFixed(Double.doubleToRawLongBits(value), 8);
+	}
+
+	/**
+	 * Writes a tag whose value is the given bytes.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The buffer with the value.
+	 * @param off   The offset of the value.
+	 * @param len   The size of the value.
+	 */
+	public void writeBytes(long id, byte[] value, int off, int len) {
+		writeHeader(id, len);
+		System.arraycopy(value, off, buff, size, len);
+		size += len;
+	}
+
+	/**
+	 * Writes a string tag. The string is encoded in UTF-8.
+	 * 
+	 * @param id    The tag id.
+	 * @param value The value.
+	 * @throws IllegalArgumentException If the string contains unpaired
+	 *                                  surrogates.
+	 */
+	public void writeString(long id, CharSequence value) {
+		writeHeader(id, getUTF8Size(value));
+		writeUTF8(value);
+	}
+
+	private void writeUTF8(CharSequence value) {
+		int len = value.length();
+		for (int i = 0; i < len; i++) {
+			int cp = value.charAt(i);
+			if (Character.isHighSurrogate((char) cp)) {
+				cp = Character.toCodePoint((char) cp, value.charAt(++i));
+			}
+			if (cp <= 0x7F) {
+				buff[size++] = (byte) cp;
+			} else if (cp <= 0x7FF) {
+				buff[size++] = (byte) (0xC0 | (cp >> 6));
+				buff[size++] = (byte) (0x80 | (cp & 0x3F));
+			} else if (cp <= 0xFFFF) {
+				buff[size++] = (byte) (0xE0 | (cp >> 12));
+				buff[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				buff[size++] = (byte) (0x80 | (cp & 0x3F));
+			} else {
+				buff[size++] = (byte) (0xF0 | (cp >> 18));
+				buff[size++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				buff[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				buff[size++] = (byte) (0x80 | (cp & 0x3F));
+			}
+		}
+	}
+
+	/**
+	 * Computes the UTF-8 encoded size of the string and verifies its surrogates
+	 * without allocating memory.
+	 */
+	private static int getUTF8Size(CharSequence value) {
+		int len = value.length();
+		long encoded = 0;
+		for (int i = 0; i < len; i++) {
+			char c = value.charAt(i);
+			if (c <= 0x7F) {
+				encoded += 1;
+			} else if (c <= 0x7FF) {
+				encoded += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				if ((i + 1 == len) || !Character.isLowSurrogate(value.charAt(i + 1))) {
+					throw new IllegalArgumentException("This string contains illegal unicode characters.");
+				}
+				i++;
+				encoded += 4;
+			} else if (Character.isLowSurrogate(c)) {
+				throw new IllegalArgumentException("This string contains illegal unicode characters.");
+			} else {
+				encoded += 3;
+			}
+		}
+		if (encoded > ILTag.MAX_TAG_VALUE_SIZE) {
+			throw new IllegalArgumentException("The string is too large.");
+		}
+		return (int) encoded;
+	}
+
+	/**
+	 * Writes an existing tag.
+	 * 
+	 * @param tag The tag to be written. If null, a standard null tag is written.
+	 * @throws ILTagException If the tag cannot be serialized.
+	 */
+	public void writeTag(ILTag tag) throws ILTagException {
+		if (tag == null) {
+			writeNull(TagID.IL_NULL_TAG_ID);
+			return;
+		}
+		long tagSize = tag.getTagSize();
+		if (tagSize > Integer.MAX_VALUE - 8) {
+			throw new TagTooLargeException("The tag is too large.");
+		}
+		beginTag();
+		ensureCapacity((int) tagSize);
+		try {
+			tag.serialize(new ByteBufferDataOutput(ByteBuffer.wrap(buff, size, (int) tagSize)));
+		} catch (IOException e) {
+			throw new CorruptedTagException("Unable to serialize the tag.", e);
+		}
+		size += (int) tagSize;
+	}
+
+	/**
+	 * Writes the key of the next dictionary entry. It must be followed by exactly
+	 * one tag.
+	 * 
+	 * @param key The key.
+	 * @throws IllegalStateException If the current container is not a dictionary
+	 *                               or if the previous key has no value.
+	 */
+	public void key(CharSequence key) {
+		int f = depth - 1;
+		if ((depth == 0) || (frameKinds[f] != DICTIONARY)) {
+			throw new IllegalStateException("The current container is not a dictionary.");
+		}
+		if (frameKeys[f]) {
+			throw new IllegalStateException("The previous key has no value.");
+		}
+		// The key is not an entry by itself, thus beginTag() is not called.
+		writeRawHeader(TagID.IL_STRING_TAG_ID, getUTF8Size(key));
+		writeUTF8(key);
+		frameKeys[f] = true;
+	}
+
+	private void begin(long id, int kind) {
+		if (TagID.isImplicit(id)) {
+			throw new IllegalArgumentException(String.format("The tag %1$X cannot be a container.", id));
+		}
+		beginTag();
+		ensureCapacity(9 + MAX_PREFIX_SIZE);
+		size += ILIntEncoder.encode(id, buff, size);
+		if (depth == frameKinds.length) {
+			int newSize = depth * 2;
+			frameKinds = Arrays.copyOf(frameKinds, newSize);
+			frameStarts = Arrays.copyOf(frameStarts, newSize);
+			frameCounts = Arrays.copyOf(frameCounts, newSize);
+			frameKeys = Arrays.copyOf(frameKeys, newSize);
+			frameGaps = Arrays.copyOf(frameGaps, newSize);
+			frameGapTotals = Arrays.copyOf(frameGapTotals, newSize);
+		}
+		if (gapCount == gapStarts.length) {
+			gapStarts = Arrays.copyOf(gapStarts, gapCount * 2);
+			gapSizes = Arrays.copyOf(gapSizes, gapCount * 2);
+		}
+		// The gaps are registered in the order they appear in the buffer.
+		gapStarts[gapCount] = size;
+		gapSizes[gapCount] = 0;
+		size += MAX_PREFIX_SIZE;
+		frameKinds[depth] = kind;
+		frameStarts[depth] = size;
+		frameCounts[depth] = 0;
+		frameKeys[depth] = false;
+		frameGaps[depth] = gapCount;
+		frameGapTotals[depth] = gapTotal;
+		gapCount++;
+		depth++;
+	}
+
+	private void end(int kind) throws TagTooLargeException {
+		int f = depth - 1;
+		if ((depth == 0) || (frameKinds[f] != kind)) {
+			throw new IllegalStateException("The current container does not match.");
+		}
+		if (frameKeys[f]) {
+			throw new IllegalStateException("The last key has no value.");
+		}
+		int start = frameStarts[f];
+		// The gaps of the inner containers are not part of the value.
+		int contentSize = size - start - (gapTotal - frameGapTotals[f]);
+		int countSize = (kind == SEQUENCE) ? 0 : ILIntEncoder.encodedSize(frameCounts[f]);
+		long valueSize = (long) contentSize + countSize;
+		ILTagUtils.assertTagSizeLimit(valueSize);
+		int prefix = ILIntEncoder.encodedSize(valueSize) + countSize;
+		// The prefix is written at the end of the gap, right before the content.
+		int pos = start - prefix;
+		pos += ILIntEncoder.encode(valueSize, buff, pos);
+		if (kind != SEQUENCE) {
+			ILIntEncoder.encode(frameCounts[f], buff, pos);
+		}
+		gapSizes[frameGaps[f]] = MAX_PREFIX_SIZE - prefix;
+		gapTotal += MAX_PREFIX_SIZE - prefix;
+		depth--;
+	}
+
+	/**
+	 * Begins an ILTag array.
+	 * 
+	 * @param id The tag id.
+	 * @throws IllegalArgumentException If the id is implicit.
+	 */
+	public void beginArray(long id) {
+		begin(id, LIST);
+	}
+
+	/**
+	 * Ends the current ILTag array.
+	 * 
+	 * @throws IllegalStateException If the current container is not an array.
+	 * @throws TagTooLargeException  If the array is too large.
+	 */
+	public void endArray() throws TagTooLargeException {
+		end(LIST);
+	}
+
+	/**
+	 * Begins an ILTag sequence.
+	 * 
+	 * @param id The tag id.
+	 * @throws IllegalArgumentException If the id is implicit.
+	 */
+	public void beginSequence(long id) {
+		begin(id, SEQUENCE);
+	}
+
+	/**
+	 * Ends the current ILTag sequence.
+	 * 
+	 * @throws IllegalStateException If the current container is not a sequence.
+	 * @throws TagTooLargeException  If the sequence is too large.
+	 */
+	public void endSequence() throws TagTooLargeException {
+		end(SEQUENCE);
+	}
+
+	/**
+	 * Begins a dictionary. It can also be used to write string dictionaries, as
+	 * long as all values are written by writeString().
+	 * 
+	 * @param id The tag id.
+	 * @throws IllegalArgumentException If the id is implicit.
+	 */
+	public void beginDictionary(long id) {
+		begin(id, DICTIONARY);
+	}
+
+	/**
+	 * Ends the current dictionary.
+	 * 
+	 * @throws IllegalStateException If the current container is not a dictionary
+	 *                               or if the last key has no value.
+	 * @throws TagTooLargeException  If the dictionary is too large.
+	 */
+	public void endDictionary() throws TagTooLargeException {
+		end(DICTIONARY);
+	}
+}
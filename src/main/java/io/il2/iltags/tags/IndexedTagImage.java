@@ -0,0 +1,386 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.il2.iltags.ilint.ILIntEncoder;
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.ByteBufferDataOutput;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.LazyDictonaryTag;
+import io.il2.iltags.tags.basic.LazyILTagArrayTag;
+import io.il2.iltags.tags.basic.StringTag;
+
+/**
+ * This class keeps the original serialization of a deserialized tag together
+ * with the position of each of its inner tags. It allows the re-serialization
+ * of large tags after small modifications without walking the whole tree.
+ * 
+ * <p>
+ * Since the tags do not notify their containers about changes, the modified
+ * tags must be reported by markModified(ILTag). It marks the tag and all its
+ * containers as modified. During the serialization, the unmodified tags are
+ * copied verbatim from the original image, the modified ILTagArrayTag,
+ * ILTagSequenceTag and DictonaryTag instances have only their headers rebuilt
+ * and all other modified tags are serialized again.
+ * </p>
+ * 
+ * <p>
+ * Changes in the values of a container, such as the insertion or the removal
+ * of inner tags, must be reported by marking the container itself. Tags that
+ * were not part of the original image are always serialized again.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class IndexedTagImage {
+
+	private final byte[] image;
+
+	private final ILTag root;
+
+	private final Map<ILTag, Node> nodes;
+
+	private IndexedTagImage(byte[] image, ILTag root, Map<ILTag, Node> nodes) {
+		this.image = image;
+		this.root = root;
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Deserializes the tag and indexes the position of all its inner tags. Only
+	 * io.il2.iltags.tags.ILTagFactory.createTag(long) is used to create the tag
+	 * instances, thus shared instances such as flyweights or interned tags are
+	 * never used. The lazy containers created by the factory are replaced by their
+	 * eager counterparts because the position of their inner tags must be known
+	 * during the deserialization. The decode limits and the memory budget of the
+	 * factory are enforced.
+	 * 
+	 * @param factory The factory used to create the tags.
+	 * @param bytes   The serialized tag. It must contain exactly one tag. It is
+	 *                not copied thus it must not be modified afterwards.
+	 * @return The indexed image.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 */
+	public static IndexedTagImage load(ILTagFactory factory, byte[] bytes) throws ILTagException {
+		IndexingFactory indexing = new IndexingFactory(factory, ByteBuffer.wrap(bytes));
+		ILTag root;
+		try {
+			root = indexing.deserialize(new ByteBufferDataInput(indexing.buff));
+		} catch (IOException e) {
+			throw new CorruptedTagException("Invalid serialization format.", e);
+		}
+		if (indexing.buff.hasRemaining()) {
+			throw new CorruptedTagException("Too many bytes.");
+		}
+		return new IndexedTagImage(bytes, root, indexing.nodes);
+	}
+
+	/**
+	 * Returns the root tag.
+	 * 
+	 * @return The deserialized tag.
+	 */
+	public ILTag getRoot() {
+		return root;
+	}
+
+	/**
+	 * Verifies if the given tag is part of the original image.
+	 * 
+	 * @param tag The tag.
+	 * @return true if the tag has its position indexed or false otherwise.
+	 */
+	public boolean isIndexed(ILTag tag) {
+		return nodes.containsKey(tag);
+	}
+
+	/**
+	 * Returns the offset of the given tag inside the original image.
+	 * 
+	 * @param tag The tag.
+	 * @return The offset of the tag or -1 if the tag is not indexed.
+	 */
+	public int getOffset(ILTag tag) {
+		Node node = nodes.get(tag);
+		return (node != null) ? node.offset : -1;
+	}
+
+	/**
+	 * Verifies if the given tag was marked as modified.
+	 * 
+	 * @param tag The tag.
+	 * @return true if the tag was marked as modified or if it is not indexed.
+	 */
+	public boolean isModified(ILTag tag) {
+		Node node = nodes.get(tag);
+		return (node == null) || node.modified;
+	}
+
+	/**
+	 * Marks the given tag and all its containers as modified.
+	 * 
+	 * @param tag The modified tag.
+	 * @throws IllegalArgumentException If the tag is not indexed.
+	 */
+	public void markModified(ILTag tag) {
+		Node node = nodes.get(tag);
+		if (node == null) {
+			throw new IllegalArgumentException("The tag is not part of this image.");
+		}
+		while ((node != null) && !node.modified) {
+			node.modified = true;
+			node = node.parent;
+		}
+	}
+
+	/**
+	 * Returns the size of the current serialization of the root tag.
+	 * 
+	 * @return The size in bytes.
+	 */
+	public long getTagSize() {
+		return tagSize(root);
+	}
+
+	/**
+	 * Serializes the root tag into a new byte array.
+	 * 
+	 * @return The serialized tag.
+	 * @throws ILTagException If the tag cannot be serialized.
+	 */
+	public byte[] toBytes() throws ILTagException {
+		long size = tagSize(root);
+		ILTagUtils.assertTagSizeLimit(size);
+		ByteBuffer buff = ByteBuffer.allocate((int) size);
+		try {
+			write(root, new ByteBufferDataOutput(buff));
+		} catch (IOException e) {
+			throw new ILTagException("Unable to serialize the tag. The tag implementation may be be incorrect.", e);
+		}
+		return buff.array();
+	}
+
+	/**
+	 * Serializes the root tag.
+	 * 
+	 * @param out The data output.
+	 * @throws IOException    In case of IO error.
+	 * @throws ILTagException If the tag cannot be serialized.
+	 */
+	public void serialize(DataOutput out) throws IOException, ILTagException {
+		tagSize(root);
+		write(root, out);
+	}
+
+	private static boolean isSpliceable(ILTag tag) {
+		return (tag instanceof ILTagArrayTag) || (tag instanceof ILTagSequenceTag) || (tag instanceof DictonaryTag);
+	}
+
+	/**
+	 * Computes the size of the tag. The value size of the modified containers is
+	 * stored in their nodes to be used by write().
+	 */
+	private long tagSize(ILTag tag) {
+		if (tag == null) {
+			return 1;
+		}
+		Node node = nodes.get(tag);
+		if (node == null) {
+			return tag.getTagSize();
+		} else if (!node.modified) {
+			return node.size;
+		} else if (!isSpliceable(tag)) {
+			return tag.getTagSize();
+		}
+		long valueSize;
+		if (tag instanceof DictonaryTag) {
+			Map<String, ILTag> values = ((DictonaryTag) tag).getValues();
+			valueSize = ILIntEncoder.encodedSize(values.size());
+			for (Map.Entry<String, ILTag> e : values.entrySet()) {
+				valueSize += StringTag.getStandardStringTagSize(e.getKey());
+				valueSize += tagSize(e.getValue());
+			}
+		} else {
+			List<ILTag> values = listOf(tag);
+			valueSize = (tag instanceof ILTagArrayTag) ? ILIntEncoder.encodedSize(values.size()) : 0;
+			for (ILTag t : values) {
+				valueSize += tagSize(t);
+			}
+		}
+		node.valueSize = valueSize;
+		return ILTagHeader.getSerializedSize(tag.getTagID(), valueSize) + valueSize;
+	}
+
+	private void write(ILTag tag, DataOutput out) throws IOException, ILTagException {
+		if (tag == null) {
+			// The standard null tag.
+			out.write(0);
+			return;
+		}
+		Node node = nodes.get(tag);
+		if ((node == null) || (node.modified && !isSpliceable(tag))) {
+			tag.serialize(out);
+		} else if (!node.modified) {
+			out.write(image, node.offset, node.size);
+		} else {
+			ILTagHeader.serialize(tag.getTagID(), node.valueSize, out);
+			if (tag instanceof DictonaryTag) {
+				Map<String, ILTag> values = ((DictonaryTag) tag).getValues();
+				ILIntEncoder.encode(values.size(), out);
+				for (Map.Entry<String, ILTag> e : values.entrySet()) {
+					StringTag.serializeStandardStringTag(e.getKey(), out);
+					write(e.getValue(), out);
+				}
+			} else {
+				List<ILTag> values = listOf(tag);
+				if (tag instanceof ILTagArrayTag) {
+					ILIntEncoder.encode(values.size(), out);
+				}
+				for (ILTag t : values) {
+					write(t, out);
+				}
+			}
+		}
+	}
+
+	private static List<ILTag> listOf(ILTag tag) {
+		if (tag instanceof ILTagArrayTag) {
+			return ((ILTagArrayTag) tag).getValues();
+		} else {
+			return ((ILTagSequenceTag) tag).getValues();
+		}
+	}
+
+	/**
+	 * Position of a tag inside the original image.
+	 */
+	private static class Node {
+
+		final Node parent;
+		final int offset;
+		int size;
+		boolean modified;
+		long valueSize;
+
+		Node(Node parent, int offset) {
+			this.parent = parent;
+			this.offset = offset;
+		}
+	}
+
+	/**
+	 * Factory that records the position of each deserialized tag.
+	 */
+	private static class IndexingFactory extends AbstractTagFactory {
+
+		private final ILTagFactory factory;
+
+		final ByteBuffer buff;
+
+		final Map<ILTag, Node> nodes = new IdentityHashMap<>();
+
+		private Node current;
+
+		/**
+		 * Position of the header of the tag being deserialized. Headers may use
+		 * non-canonical ILInts, thus it cannot be derived from the decoded values.
+		 */
+		private int headerOffset;
+
+		IndexingFactory(ILTagFactory factory, ByteBuffer buff) {
+			this.factory = factory;
+			this.buff = buff;
+			setDecodeLimits(factory.getDecodeLimits());
+		}
+
+		@Override
+		public long getMemoryBudget() {
+			return factory.getMemoryBudget();
+		}
+
+		@Override
+		public ILTag createTag(long id) throws ILTagException {
+			ILTag tag = factory.createTag(id);
+			if (tag instanceof LazyILTagArrayTag) {
+				return new ILTagArrayTag(id);
+			} else if (tag instanceof LazyDictonaryTag) {
+				return new DictonaryTag(id);
+			}
+			return tag;
+		}
+
+		@Override
+		public ILTag deserialize(DataInput in) throws IOException, ILTagException {
+			headerOffset = buff.position();
+			return super.deserialize(in);
+		}
+
+		@Override
+		public ILTag deserialize(long id, DataInput in) throws IOException, ILTagException {
+			headerOffset = buff.position();
+			return super.deserialize(id, in);
+		}
+
+		@Override
+		public ILTag deserializeReusing(ILTag candidate, DataInput in) throws IOException, ILTagException {
+			headerOffset = buff.position();
+			return super.deserializeReusing(candidate, in);
+		}
+
+		@Override
+		protected ILTag deserializeTag(long tagId, long valueSize, DataInput in) throws IOException, ILTagException {
+			int offset = headerOffset;
+			Node node = new Node(current, offset);
+			current = node;
+			ILTag tag;
+			try {
+				tag = super.deserializeTag(tagId, valueSize, in);
+			} finally {
+				current = node.parent;
+			}
+			node.size = buff.position() - offset;
+			nodes.put(tag, node);
+			return tag;
+		}
+	}
+}
@@ -0,0 +1,439 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import io.il2.iltags.ilint.ILIntDecoder;
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.LimitedDataInput;
+import io.il2.iltags.tags.basic.RawTag;
+
+/**
+ * This class implements a deserializer that decodes nested containers without
+ * recursion. The containers that implement ILContainerTag are driven from a
+ * stack of frames allocated in the heap, thus the depth of the input does not
+ * affect the depth of the call stack. All other tags are deserialized by their
+ * own deserializeValue() methods.
+ * 
+ * <p>
+ * All containers share a single limited input, whose limit is saved and
+ * restored by the frames. The frames and the inputs are reused by subsequent
+ * calls, thus instances of this class are not thread-safe.
+ * </p>
+ * 
+ * <p>
+ * The deserialization can be restricted by an ILTagProjection. In that case,
+ * the inner tags that are not selected are skipped right after their headers.
+ * Alternatively, they can be passed through as instances of
+ * io.il2.iltags.tags.basic.RawTag that keep their serialization untouched.
+ * </p>
+ * 
+ * <p>
+ * The DecodeLimits of the factory are enforced for every inner tag before its
+ * value is read. The memory budget of the factory is accounted by this class
+ * just like io.il2.iltags.tags.AbstractTagFactory does, since the tags are
+ * created here.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class IterativeTagDeserializer {
+
+	/**
+	 * Default maximum depth.
+	 */
+	public static final int DEFAULT_MAX_DEPTH = 256;
+
+	private final ILTagFactory factory;
+
+	private final int maxDepth;
+
+	private final ILTagHeader header = new ILTagHeader();
+
+	private final LimitedDataInput containerInput = new LimitedDataInput(null, 0);
+
+	private final LimitedDataInput valueInput = new LimitedDataInput(null, 0);
+
+	private Frame[] frames = new Frame[8];
+
+	private long budget;
+
+	private long used;
+
+	/**
+	 * Creates a new instance of this class with the default maximum depth.
+	 * 
+	 * @param factory The factory used to create the tags.
+	 */
+	public IterativeTagDeserializer(ILTagFactory factory) {
+		this(factory, DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param factory  The factory used to create the tags.
+	 * @param maxDepth The maximum number of nested containers.
+	 */
+	public IterativeTagDeserializer(ILTagFactory factory, int maxDepth) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("The maximum depth must be positive.");
+		}
+		this.factory = factory;
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Returns the factory.
+	 * 
+	 * @return The factory used to create the tags.
+	 */
+	public ILTagFactory getFactory() {
+		return factory;
+	}
+
+	/**
+	 * Returns the maximum depth.
+	 * 
+	 * @return The maximum number of nested containers.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Deserializes a tag from a byte array.
+	 * 
+	 * @param bytes The byte array that contains exactly one tag.
+	 * @return The deserialized tag.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 */
+	public ILTag fromBytes(byte[] bytes) throws ILTagException {
+		return fromBytes(bytes, ILTagProjection.all());
+	}
+
+	/**
+	 * Deserializes the selected parts of a tag from a byte array.
+	 * 
+	 * @param bytes      The byte array that contains exactly one tag.
+	 * @param projection The projection.
+	 * @return The partially deserialized tag.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 * @since 2026.10.19
+	 */
+	public ILTag fromBytes(byte[] bytes, ILTagProjection projection) throws ILTagException {
+		return fromBytes(bytes, projection, false);
+	}
+
+	/**
+	 * Deserializes the selected parts of a tag from a byte array.
+	 * 
+	 * @param bytes       The byte array that contains exactly one tag.
+	 * @param projection  The projection.
+	 * @param passThrough If true, the inner tags that are not selected are kept
+	 *                    as raw tags instead of being skipped.
+	 * @return The partially deserialized tag.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 * @since 2026.10.19
+	 */
+	public ILTag fromBytes(byte[] bytes, ILTagProjection projection, boolean passThrough) throws ILTagException {
+		ByteBuffer buff = ByteBuffer.wrap(bytes);
+		ILTag tag;
+		try {
+			tag = deserialize(new ByteBufferDataInput(buff), projection, passThrough);
+		} catch (IOException e) {
+			throw new CorruptedTagException("Invalid serialization format.", e);
+		}
+		if (buff.hasRemaining()) {
+			throw new CorruptedTagException("Too many bytes.");
+		}
+		return tag;
+	}
+
+	/**
+	 * Deserializes a tag. It is equivalent to
+	 * io.il2.iltags.tags.ILTagFactory.deserialize(DataInput).
+	 * 
+	 * @param in The data input.
+	 * @return The deserialized tag.
+	 * @throws IOException          In case of IO error.
+	 * @throws TagTooLargeException If the input exceeds the maximum depth.
+	 * @throws ILTagException       If the tag cannot be deserialized.
+	 */
+	public ILTag deserialize(DataInput in) throws IOException, ILTagException {
+		return deserialize(in, ILTagProjection.all());
+	}
+
+	/**
+	 * Deserializes the selected parts of a tag. The inner tags of the containers
+	 * that are not selected by the projection are skipped without being created.
+	 * Non container tags are always deserialized as a whole.
+	 * 
+	 * @param in         The data input.
+	 * @param projection The projection.
+	 * @return The partially deserialized tag.
+	 * @throws IOException             In case of IO error.
+	 * @throws TagTooLargeException    If the input exceeds the maximum depth.
+	 * @throws UnsupportedTagException If a tag that must be skipped has an
+	 *                                 unknown size.
+	 * @throws ILTagException          If the tag cannot be deserialized.
+	 * @since 2026.10.19
+	 */
+	public ILTag deserialize(DataInput in, ILTagProjection projection) throws IOException, ILTagException {
+		return deserialize(in, projection, false);
+	}
+
+	/**
+	 * Deserializes the selected parts of a tag. The inner tags of the containers
+	 * that are not selected by the projection are either skipped or passed through
+	 * as instances of io.il2.iltags.tags.basic.RawTag. Since the raw tags keep
+	 * their values, a pass-through deserialization of a tag serializes back to
+	 * the same bytes as long as the headers of the tags use canonical ILInts.
+	 * Non-canonical headers are canonicalized by RawTag.
+	 * 
+	 * <p>
+	 * This is the only way to select the raw tags by their paths. The
+	 * io.il2.iltags.tags.factory.RawTagPolicy of TagFactory selects them only by
+	 * their tag ids.
+	 * </p>
+	 * 
+	 * @param in          The data input.
+	 * @param projection  The projection.
+	 * @param passThrough If true, the inner tags that are not selected are kept
+	 *                    as raw tags instead of being skipped.
+	 * @return The partially deserialized tag.
+	 * @throws IOException             In case of IO error.
+	 * @throws TagTooLargeException    If the input exceeds the maximum depth.
+	 * @throws UnsupportedTagException If a tag that is not selected has an
+	 *                                 unknown size.
+	 * @throws ILTagException          If the tag cannot be deserialized.
+	 * @since 2026.10.19
+	 */
+	public ILTag deserialize(DataInput in, ILTagProjection projection, boolean passThrough)
+			throws IOException, ILTagException {
+		ILTagUtils.readHeader(in, header);
+		DecodeLimits limits = factory.getDecodeLimits();
+		limits.checkTotalBytes(header.valueSize);
+		this.budget = factory.getMemoryBudget();
+		this.used = 0;
+		ILTag tag = factory.createTag(header.tagId);
+		if (!(tag instanceof ILContainerTag)) {
+			deserializeLeaf(tag, header.valueSize, in);
+			return tag;
+		}
+		try {
+			deserializeContainer((ILContainerTag) tag, in, projection, passThrough, limits);
+		} catch (EOFException e) {
+			throw new CorruptedTagException("Invalid serialization format.");
+		} finally {
+			for (Frame f : frames) {
+				if (f != null) {
+					f.tag = null;
+					f.projection = null;
+				}
+			}
+			containerInput.reset(null, 0);
+			valueInput.reset(null, 0);
+		}
+		return tag;
+	}
+
+	private void deserializeContainer(ILContainerTag root, DataInput in, ILTagProjection projection,
+			boolean passThrough, DecodeLimits limits) throws IOException, ILTagException {
+		int depth = 0;
+		push(depth++, root, projection, header.valueSize, in, 0);
+		while (depth > 0) {
+			Frame frame = frames[depth - 1];
+			boolean hasNext = (frame.remaining < 0) ? containerInput.hasRemaining() : (frame.remaining > 0);
+			if (!hasNext) {
+				if (containerInput.hasRemaining()) {
+					throw new CorruptedTagException("Bad value size.");
+				}
+				depth--;
+				account(frame.tag);
+				if (depth > 0) {
+					containerInput.reset(in, frame.outerRemaining);
+					frames[depth - 1].tag.addChild(frame.tag);
+				}
+				frame.tag = null;
+				continue;
+			}
+			if (frame.remaining > 0) {
+				frame.remaining--;
+			}
+			frame.tag.beginChild(factory, containerInput);
+			ILTagProjection childProjection = frame.projection;
+			if (!childProjection.isAll()) {
+				String key = frame.tag.getChildKey();
+				childProjection = (key != null) ? childProjection.getKey(key) : childProjection.getIndex(frame.index);
+			}
+			frame.index++;
+			// Sequences do not know their number of elements in advance.
+			limits.checkElements(frame.index);
+			limits.checkDepth(depth + 1);
+			ILTagUtils.readHeader(containerInput, header);
+			if (childProjection == null) {
+				if (passThrough) {
+					if (header.valueSize > containerInput.remaining()) {
+						throw new CorruptedTagException("Invalid serialization format.");
+					}
+					RawTag raw = new RawTag(header.tagId);
+					deserializeLeaf(raw, header.valueSize, containerInput);
+					frame.tag.addChild(raw);
+				} else {
+					skipValue();
+				}
+				continue;
+			}
+			ILTag child = factory.createTag(header.tagId);
+			if (child instanceof ILContainerTag) {
+				if (depth == maxDepth) {
+					throw new TagTooLargeException("The tag exceeds the maximum depth of %1$d.", maxDepth);
+				}
+				if (Long.compareUnsigned(header.valueSize, containerInput.remaining()) > 0) {
+					throw new CorruptedTagException("Invalid serialization format.");
+				}
+				int outerRemaining = containerInput.remaining() - (int) header.valueSize;
+				push(depth++, (ILContainerTag) child, childProjection, header.valueSize, in, outerRemaining);
+			} else {
+				deserializeLeaf(child, header.valueSize, containerInput);
+				frame.tag.addChild(child);
+			}
+		}
+	}
+
+	private void push(int depth, ILContainerTag tag, ILTagProjection projection, long valueSize, DataInput in,
+			int outerRemaining) throws IOException, ILTagException {
+		if (depth == frames.length) {
+			frames = Arrays.copyOf(frames, Math.min(frames.length * 2, maxDepth));
+		}
+		Frame frame = frames[depth];
+		if (frame == null) {
+			frame = new Frame();
+			frames[depth] = frame;
+		}
+		frame.tag = tag;
+		frame.projection = projection;
+		frame.index = 0;
+		frame.outerRemaining = outerRemaining;
+		containerInput.reset(in, (int) valueSize);
+		frame.remaining = tag.beginDeserialization(factory, valueSize, containerInput);
+	}
+
+	/**
+	 * Skips the value of the tag whose header has just been read.
+	 */
+	private void skipValue() throws IOException, ILTagException {
+		long size = header.valueSize;
+		if (size < 0) {
+			if ((header.tagId != TagID.IL_ILINT_TAG_ID) && (header.tagId != TagID.IL_SIGNED_ILINT_TAG_ID)) {
+				throw new UnsupportedTagException("Unable to determine the size of the tag %1$X.", header.tagId);
+			}
+			size = ILIntDecoder.sizeFromHeader(containerInput.readUnsignedByte()) - 1;
+		}
+		if (size > containerInput.remaining()) {
+			throw new CorruptedTagException("Invalid serialization format.");
+		}
+		int remaining = (int) size;
+		while (remaining > 0) {
+			int skipped = containerInput.skipBytes(remaining);
+			if (skipped <= 0) {
+				containerInput.readByte();
+				skipped = 1;
+			}
+			remaining -= skipped;
+		}
+	}
+
+	/**
+	 * Deserializes the value of a tag that is not driven by the frames. Its value
+	 * size is checked against the memory budget before the value is read.
+	 */
+	private void deserializeLeaf(ILTag tag, long valueSize, DataInput in) throws IOException, ILTagException {
+		if ((budget != 0) && (valueSize > budget - used)) {
+			throw new MemoryBudgetExceededException("The tag %1$X exceeds the memory budget of %2$d bytes.",
+					tag.getTagID(), budget);
+		}
+		deserializeValue(tag, valueSize, in);
+		account(tag);
+	}
+
+	/**
+	 * Accounts the heap retained by a deserialized tag, excluding its inner tags.
+	 */
+	private void account(ILTag tag) throws MemoryBudgetExceededException {
+		if (budget == 0) {
+			return;
+		}
+		used += tag.estimateOwnRetainedSize();
+		if (used > budget) {
+			throw new MemoryBudgetExceededException("The tag %1$X exceeds the memory budget of %2$d bytes.",
+					tag.getTagID(), budget);
+		}
+	}
+
+	private void deserializeValue(ILTag tag, long valueSize, DataInput in) throws IOException, ILTagException {
+		if (valueSize >= 0) {
+			valueInput.reset(in, (int) valueSize);
+			tag.deserializeValue(factory, valueSize, valueInput);
+			if (valueInput.hasRemaining()) {
+				throw new CorruptedTagException(
+						"Value deserialization error. Only %1$d bytes used out of %2$d.", valueInput.remaining(),
+						valueSize);
+			}
+		} else {
+			tag.deserializeValue(factory, valueSize, in);
+		}
+	}
+
+	/**
+	 * State of a container being deserialized.
+	 */
+	private static class Frame {
+
+		ILContainerTag tag;
+
+		ILTagProjection projection;
+
+		int index;
+
+		long remaining;
+
+		int outerRemaining;
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+
+import io.il2.iltags.utils.ByteArrayUtils;
+
+/**
+ * This class implements a comparator that orders serialized tags by their
+ * bytes, treated as unsigned values. It allows serialized records to be
+ * sorted, searched and deduplicated without being deserialized.
+ * 
+ * <p>
+ * Since the serialization starts with the tag id, tags are grouped by their
+ * ids. The built-in tags that implement the structural equality of
+ * io.il2.iltags.tags.AbstractILTag have equal serializations if and only if
+ * they are equal, thus this comparator can be used to deduplicate them. The
+ * order itself carries no meaning other than being stable.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public final class SerializedTagComparator implements Comparator<byte[]> {
+
+	/**
+	 * The shared instance of this class.
+	 */
+	public static final SerializedTagComparator INSTANCE = new SerializedTagComparator();
+
+	private SerializedTagComparator() {
+	}
+
+	@Override
+	public int compare(byte[] a, byte[] b) {
+		return ByteArrayUtils.compareUnsigned(a, 0, a.length, b, 0, b.length);
+	}
+
+	/**
+	 * Compares two serialized tags stored in byte arrays.
+	 * 
+	 * @param a    The first array.
+	 * @param aOff The offset of the first tag.
+	 * @param aLen The size of the first tag.
+	 * @param b    The second array.
+	 * @param bOff The offset of the second tag.
+	 * @param bLen The size of the second tag.
+	 * @return A negative value, zero or a positive value if the first tag is
+	 *         less than, equal to or greater than the second tag.
+	 */
+	public static int compare(byte[] a, int aOff, int aLen, byte[] b, int bOff, int bLen) {
+		return ByteArrayUtils.compareUnsigned(a, aOff, aLen, b, bOff, bLen);
+	}
+
+	/**
+	 * Compares the remaining bytes of two buffers. The positions of the buffers
+	 * are not changed.
+	 * 
+	 * @param a The first buffer.
+	 * @param b The second buffer.
+	 * @return A negative value, zero or a positive value if the first tag is
+	 *         less than, equal to or greater than the second tag.
+	 */
+	public static int compare(ByteBuffer a, ByteBuffer b) {
+		if (a.hasArray() && b.hasArray()) {
+			return ByteArrayUtils.compareUnsigned(a.array(), a.arrayOffset() + a.position(), a.remaining(), b.array(),
+					b.arrayOffset() + b.position(), b.remaining());
+		}
+		int len = Math.min(a.remaining(), b.remaining());
+		for (int i = 0; i < len; i++) {
+			int d = (a.get(a.position() + i) & 0xFF) - (b.get(b.position() + i) & 0xFF);
+			if (d != 0) {
+				return d;
+			}
+		}
+		return a.remaining() - b.remaining();
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import io.il2.iltags.utils.HeapSizeUtils;
+
+/**
+ * This class holds an immutable serialization of a tag. It is used to cache
+ * the serialization of tags that cannot change anymore.
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+final class TagImage {
+
+	private final byte[] data;
+
+	private final long valueSize;
+
+	private final int hash;
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param data      The serialized tag. It will be kept by this instance and
+	 *                  must not be modified after this call.
+	 * @param valueSize The size of the value of the tag.
+	 */
+	TagImage(byte[] data, long valueSize) {
+		this.data = data;
+		this.valueSize = valueSize;
+		this.hash = Arrays.hashCode(data);
+	}
+
+	int getTagSize() {
+		return data.length;
+	}
+
+	long estimateRetainedSize() {
+		return HeapSizeUtils.objectSize(HeapSizeUtils.REFERENCE_SIZE + 8 + 4) + HeapSizeUtils.sizeOf(data);
+	}
+
+	long getValueSize() {
+		return valueSize;
+	}
+
+	int getHash() {
+		return hash;
+	}
+
+	void writeTo(DataOutput out) throws IOException {
+		out.write(data, 0, data.length);
+	}
+
+	byte[] toBytes() {
+		return data.clone();
+	}
+
+	boolean sameBytes(TagImage other) {
+		return (this.hash == other.hash) && Arrays.equals(this.data, other.data);
+	}
+}
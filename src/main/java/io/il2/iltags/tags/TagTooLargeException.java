@@ -57,6 +57,17 @@ public class TagTooLargeException extends ILTagException {
 		super(message, cause);
 	}
 
+	/**
+	 * Creates a new exception whose message is formatted on demand.
+	 * 
+	 * @param messageFormat    The message format.
+	 * @param messageArguments The arguments of the message.
+	 * @since 2026.10.19
+	 */
+	public TagTooLargeException(String messageFormat, Object... messageArguments) {
+		super(messageFormat, messageArguments);
+	}
+
 	public TagTooLargeException(String message, Throwable cause, boolean enableSuppression,
 			boolean writableStackTrace) {
 		super(message, cause, enableSuppression, writableStackTrace);
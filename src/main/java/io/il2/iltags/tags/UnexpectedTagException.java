@@ -57,6 +57,17 @@ public class UnexpectedTagException extends ILTagException {
 		super(message, cause);
 	}
 
+	/**
+	 * Creates a new exception whose message is formatted on demand.
+	 * 
+	 * @param messageFormat    The message format.
+	 * @param messageArguments The arguments of the message.
+	 * @since 2026.10.19
+	 */
+	public UnexpectedTagException(String messageFormat, Object... messageArguments) {
+		super(messageFormat, messageArguments);
+	}
+
 	public UnexpectedTagException(String message, Throwable cause, boolean enableSuppression,
 			boolean writableStackTrace) {
 		super(message, cause, enableSuppression, writableStackTrace);
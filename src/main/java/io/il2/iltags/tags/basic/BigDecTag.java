@@ -36,18 +36,28 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.CorruptedTagException;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.utils.ByteArrayUtils;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 /**
  * This class implements the big decimal tag. If the value is null, it will be
  * treated as zero.
  * 
+ * <p>
+ * When deserialized from an io.il2.iltags.io.ArenaDataInput, the unscaled value
+ * is kept as a view into the backing array of the input. It is decoded when the
+ * value is requested or the tag is detached.
+ * </p>
+ * 
  * @author Fabio Jun Takada Chino
  * @since 2022.06.05
  */
@@ -55,21 +65,88 @@ public class BigDecTag extends AbstractILTag {
 
 	protected BigDecimal value;
 
+	/**
+	 * Backing array of the view of the unscaled value or null if this tag is not
+	 * a view.
+	 */
+	private byte[] viewArray;
+
+	private int viewOffset;
+
+	private int viewLength;
+
+	private int viewScale;
+
 	public BigDecTag(long tagId) {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the value. If this tag is a view, this method detaches it. Frozen
+	 * tags are never views because freeze() detaches them.
+	 * 
+	 * @return The value.
+	 */
 	public BigDecimal getValue() {
+		if (viewArray != null) {
+			detach();
+		}
 		return value;
 	}
 
 	public void setValue(BigDecimal value) {
+		checkModifiable();
 		this.value = value;
+		this.viewArray = null;
+	}
+
+	/**
+	 * Returns true if the value of this tag is a view into the backing array of
+	 * the input.
+	 * 
+	 * @return true if this tag is a view or false otherwise.
+	 * @since 2026.10.19
+	 */
+	public boolean isView() {
+		return viewArray != null;
+	}
+
+	private BigDecimal decodeView() {
+		return new BigDecimal(new BigInteger(Arrays.copyOfRange(viewArray, viewOffset, viewOffset + viewLength)),
+				viewScale);
+	}
+
+	/**
+	 * Views are detached before the serialization is cached, thus the frozen tag
+	 * does not depend on the backing array of the input.
+	 */
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		detach();
+	}
+
+	@Override
+	public void detach() {
+		if (viewArray != null) {
+			if (value == null) {
+				value = decodeView();
+			}
+			viewArray = null;
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = null;
+		this.viewArray = null;
 	}
 
 	@Override
 	public long getValueSize() {
-		if (value != null) {
+		if (viewArray != null) {
+			return 4 + viewLength;
+		} else if (value != null) {
 			return 4 + (value.unscaledValue().bitLength() + 8) / 8;
 		} else {
 			return 4 + 1;
@@ -78,7 +155,10 @@ public class BigDecTag extends AbstractILTag {
 
 	@Override
 	public void serializeValue(DataOutput out) throws IOException {
-		if (value != null) {
+		if (viewArray != null) {
+			out.writeInt(viewScale);
+			out.write(viewArray, viewOffset, viewLength);
+		} else if (value != null) {
 			out.writeInt(value.scale());
 			byte[] tmp = value.unscaledValue().toByteArray();
 			out.write(tmp);
@@ -91,15 +171,90 @@ public class BigDecTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		ILTagUtils.assertTagSizeLimit(valueSize);
 		if (valueSize < (4 + 1)) {
 			throw new CorruptedTagException("Invalid big decimal value.");
 		}
 		int scale = in.readInt();
-		byte[] tmp = new byte[(int) (valueSize - 4)];
-		in.readFully(tmp);
-		BigInteger unscaled = new BigInteger(tmp);
-		value = new BigDecimal(unscaled, scale);
+		int size = (int) (valueSize - 4);
+		ArenaDataInput arena = ArenaDataInput.of(in);
+		if (arena != null) {
+			int offset = arena.skipView(in, size);
+			if (BigIntTag.isMinimal(arena.getArray(), offset, size)) {
+				value = null;
+				viewOffset = offset;
+				viewLength = size;
+				viewScale = scale;
+				viewArray = arena.getArray();
+				return;
+			}
+			// Redundant bytes are dropped by the serialization, so the view cannot be used.
+			BigInteger unscaled = new BigInteger(Arrays.copyOfRange(arena.getArray(), offset, offset + size));
+			value = new BigDecimal(unscaled, scale);
+		} else {
+			byte[] tmp = new byte[size];
+			in.readFully(tmp);
+			BigInteger unscaled = new BigInteger(tmp);
+			value = new BigDecimal(unscaled, scale);
+		}
+		viewArray = null;
+	}
+
+	/**
+	 * The values are compared without detaching the views. The scale is part of
+	 * the serialization, thus values with different scales are not equal. A null
+	 * value is equal to zero with scale 0 because both are serialized in the same
+	 * way.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		BigDecTag o = (BigDecTag) other;
+		if (viewArray != null) {
+			if (o.viewArray != null) {
+				return (viewScale == o.viewScale) && ByteArrayUtils.equals(viewArray, viewOffset, viewLength,
+						o.viewArray, o.viewOffset, o.viewLength);
+			}
+			return viewEquals(zeroIfNull(o.value));
+		} else if (o.viewArray != null) {
+			return o.viewEquals(zeroIfNull(value));
+		} else {
+			// BigDecimal.equals() also compares the scales.
+			return zeroIfNull(value).equals(zeroIfNull(o.value));
+		}
+	}
+
+	private boolean viewEquals(BigDecimal v) {
+		byte[] encoded = v.unscaledValue().toByteArray();
+		return (viewScale == v.scale())
+				&& ByteArrayUtils.equals(viewArray, viewOffset, viewLength, encoded, 0, encoded.length);
+	}
+
+	/**
+	 * Views are hashed by their bytes, thus the other values are hashed by their
+	 * serialization as well.
+	 */
+	@Override
+	protected int valueHashCode() {
+		if (viewArray != null) {
+			return 31 * viewScale + ByteArrayUtils.hashCode(viewArray, viewOffset, viewLength);
+		}
+		BigDecimal v = zeroIfNull(value);
+		byte[] encoded = v.unscaledValue().toByteArray();
+		return 31 * v.scale() + ByteArrayUtils.hashCode(encoded, 0, encoded.length);
+	}
+
+	private static BigDecimal zeroIfNull(BigDecimal value) {
+		return (value != null) ? value : BigDecimal.ZERO;
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		long size = 2 * HeapSizeUtils.REFERENCE_SIZE + 3 * 4 + HeapSizeUtils.sizeOf(value);
+		if (viewArray != null) {
+			size += HeapSizeUtils.align(viewLength);
+		}
+		return size;
 	}
 
 	/**
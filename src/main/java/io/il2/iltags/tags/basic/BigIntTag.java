@@ -35,18 +35,28 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Arrays;
 
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.CorruptedTagException;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.utils.ByteArrayUtils;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 /**
  * This class implements the big integer tag. If the value is null, it will be
  * treated as zero.
  * 
+ * <p>
+ * When deserialized from an io.il2.iltags.io.ArenaDataInput, the value is kept
+ * as a view into the backing array of the input. It is decoded when the value
+ * is requested or the tag is detached.
+ * </p>
+ * 
  * @author Fabio Jun Takada Chino
  * @since 2022.06.05
  */
@@ -54,21 +64,97 @@ public class BigIntTag extends AbstractILTag {
 
 	protected BigInteger value;
 
+	/**
+	 * Backing array of the view or null if this tag is not a view.
+	 */
+	private byte[] viewArray;
+
+	private int viewOffset;
+
+	private int viewLength;
+
 	public BigIntTag(long tagId) {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the value. If this tag is a view, this method detaches it. Frozen
+	 * tags are never views because freeze() detaches them.
+	 * 
+	 * @return The value.
+	 */
 	public BigInteger getValue() {
+		if (viewArray != null) {
+			detach();
+		}
 		return value;
 	}
 
 	public void setValue(BigInteger value) {
+		checkModifiable();
 		this.value = value;
+		this.viewArray = null;
+	}
+
+	/**
+	 * Returns true if the value of this tag is a view into the backing array of
+	 * the input.
+	 * 
+	 * @return true if this tag is a view or false otherwise.
+	 * @since 2026.10.19
+	 */
+	public boolean isView() {
+		return viewArray != null;
+	}
+
+	/**
+	 * Views are detached before the serialization is cached, thus the frozen tag
+	 * does not depend on the backing array of the input.
+	 */
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		detach();
+	}
+
+	@Override
+	public void detach() {
+		if (viewArray != null) {
+			if (value == null) {
+				value = new BigInteger(Arrays.copyOfRange(viewArray, viewOffset, viewOffset + viewLength));
+			}
+			viewArray = null;
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = null;
+		this.viewArray = null;
+	}
+
+	/**
+	 * Verifies if the two's complement representation has no redundant leading
+	 * bytes, that is, if it is the same as the one produced by
+	 * java.math.BigInteger.toByteArray().
+	 * 
+	 * @param b   The bytes.
+	 * @param off The offset.
+	 * @param len The number of bytes. It must be at least 1.
+	 * @return true if the representation is minimal.
+	 */
+	static boolean isMinimal(byte[] b, int off, int len) {
+		if (len == 1) {
+			return true;
+		}
+		return !(((b[off] == 0) && (b[off + 1] >= 0)) || ((b[off] == -1) && (b[off + 1] < 0)));
 	}
 
 	@Override
 	public long getValueSize() {
-		if (value != null) {
+		if (viewArray != null) {
+			return viewLength;
+		} else if (value != null) {
 			return (value.bitLength() + 8) / 8;
 		} else {
 			return 1;
@@ -77,7 +163,9 @@ public class BigIntTag extends AbstractILTag {
 
 	@Override
 	public void serializeValue(DataOutput out) throws IOException {
-		if (value != null) {
+		if (viewArray != null) {
+			out.write(viewArray, viewOffset, viewLength);
+		} else if (value != null) {
 			byte[] tmp = value.toByteArray();
 			out.write(tmp);
 		} else {
@@ -88,13 +176,80 @@ public class BigIntTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		ILTagUtils.assertTagSizeLimit(valueSize);
 		if (valueSize < 1) {
 			throw new CorruptedTagException("Invalid big integer value.");
 		}
-		byte[] tmp = new byte[(int) valueSize];
-		in.readFully(tmp);
-		value = new BigInteger(tmp);
+		ArenaDataInput arena = ArenaDataInput.of(in);
+		if (arena != null) {
+			int offset = arena.skipView(in, (int) valueSize);
+			if (isMinimal(arena.getArray(), offset, (int) valueSize)) {
+				value = null;
+				viewOffset = offset;
+				viewLength = (int) valueSize;
+				viewArray = arena.getArray();
+			} else {
+				// Redundant bytes are dropped by the serialization, so the view cannot be used.
+				value = new BigInteger(Arrays.copyOfRange(arena.getArray(), offset, offset + (int) valueSize));
+				viewArray = null;
+			}
+		} else {
+			byte[] tmp = new byte[(int) valueSize];
+			in.readFully(tmp);
+			value = new BigInteger(tmp);
+			viewArray = null;
+		}
+	}
+
+	/**
+	 * The values are compared without detaching the views. A null value is equal
+	 * to zero because both are serialized in the same way.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		BigIntTag o = (BigIntTag) other;
+		if (viewArray != null) {
+			if (o.viewArray != null) {
+				return ByteArrayUtils.equals(viewArray, viewOffset, viewLength, o.viewArray, o.viewOffset,
+						o.viewLength);
+			}
+			return viewEquals(zeroIfNull(o.value).toByteArray());
+		} else if (o.viewArray != null) {
+			return o.viewEquals(zeroIfNull(value).toByteArray());
+		} else {
+			return zeroIfNull(value).equals(zeroIfNull(o.value));
+		}
+	}
+
+	private boolean viewEquals(byte[] encoded) {
+		return ByteArrayUtils.equals(viewArray, viewOffset, viewLength, encoded, 0, encoded.length);
+	}
+
+	/**
+	 * Views are hashed by their bytes, thus the other values are hashed by their
+	 * serialization as well.
+	 */
+	@Override
+	protected int valueHashCode() {
+		if (viewArray != null) {
+			return ByteArrayUtils.hashCode(viewArray, viewOffset, viewLength);
+		}
+		byte[] encoded = zeroIfNull(value).toByteArray();
+		return ByteArrayUtils.hashCode(encoded, 0, encoded.length);
+	}
+
+	private static BigInteger zeroIfNull(BigInteger value) {
+		return (value != null) ? value : BigInteger.ZERO;
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		long size = 2 * HeapSizeUtils.REFERENCE_SIZE + 2 * 4 + HeapSizeUtils.sizeOf(value);
+		if (viewArray != null) {
+			size += HeapSizeUtils.align(viewLength);
+		}
+		return size;
 	}
 
 	/**
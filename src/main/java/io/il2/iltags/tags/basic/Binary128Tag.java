@@ -34,12 +34,14 @@ package io.il2.iltags.tags.basic;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.CorruptedTagException;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 /**
  * This class implements the binary 128 tag. Since Java does no have a native
@@ -59,17 +61,32 @@ public class Binary128Tag extends AbstractILTag {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the value. If this tag is frozen, it returns a copy of the value.
+	 * 
+	 * @return The value.
+	 */
 	public byte[] getValue() {
+		if (isFrozen() && (value != null)) {
+			return value.clone();
+		}
 		return value;
 	}
 
 	public void setValue(byte[] value) {
+		checkModifiable();
 		if (value.length != VALUE_SIZE) {
 			throw new IllegalArgumentException("Value must have 16 bytes.");
 		}
 		System.arraycopy(value, 0, this.value, 0, VALUE_SIZE);
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		Arrays.fill(this.value, (byte) 0);
+	}
+
 	@Override
 	public long getValueSize() {
 		return VALUE_SIZE;
@@ -83,12 +100,28 @@ public class Binary128Tag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != VALUE_SIZE) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
 		in.readFully(value);
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return Arrays.equals(this.value, ((Binary128Tag) other).value);
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Arrays.hashCode(this.value);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return HeapSizeUtils.REFERENCE_SIZE + HeapSizeUtils.sizeOf(value);
+	}
+
 	/**
 	 * Creates the standard binary 128 tag.
 	 * 
@@ -60,9 +60,16 @@ public class BooleanTag extends AbstractILTag {
 	}
 
 	public void setValue(boolean value) {
+		checkModifiable();
 		this.value = value;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = false;
+	}
+
 	@Override
 	public long getValueSize() {
 		return 1;
@@ -76,6 +83,7 @@ public class BooleanTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != 1) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
@@ -86,6 +94,21 @@ public class BooleanTag extends AbstractILTag {
 		value = b != 0;
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return this.value == ((BooleanTag) other).value;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Boolean.hashCode(this.value);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 1;
+	}
+
 	/**
 	 * Creates the standard boolean tag.
 	 * 
@@ -34,38 +34,134 @@ package io.il2.iltags.tags.basic;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.utils.ByteArrayUtils;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 /**
  * This class implements the bytes/raw tag.
  * 
+ * <p>
+ * When deserialized from an io.il2.iltags.io.ArenaDataInput, the value is kept
+ * as a view into the backing array of the input until it is detached.
+ * </p>
+ * 
  * @author Fabio Jun Takada Chino
  * @since 2022.05.27
  */
 public class BytesTag extends AbstractILTag {
 
+	private static final byte[] EMPTY = new byte[0];
+
 	protected byte[] value;
 
+	/**
+	 * Backing array of the view or null if this tag is not a view.
+	 */
+	private byte[] viewArray;
+
+	private int viewOffset;
+
+	private int viewLength;
+
 	public BytesTag(long tagId) {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the value.
+	 * 
+	 * <p>
+	 * If this tag is frozen, it returns a new copy of the value on each call.
+	 * Otherwise, if this tag is a view, this method detaches it, thus this tag
+	 * stops referencing the backing array of the input. Frozen tags are never
+	 * views because freeze() detaches them. Use getValueBuffer() to access the
+	 * value without copying it or detaching the view.
+	 * </p>
+	 * 
+	 * @return The value.
+	 */
 	public byte[] getValue() {
+		if (viewArray != null) {
+			detach();
+		}
+		if (isFrozen() && (value != null)) {
+			return value.clone();
+		}
 		return value;
 	}
 
 	public void setValue(byte[] value) {
+		checkModifiable();
 		this.value = value;
+		this.viewArray = null;
+	}
+
+	/**
+	 * Returns the value without copying it. The returned buffer is read-only and
+	 * may be a view into the backing array of the input.
+	 * 
+	 * @return The value or null if the value is null.
+	 * @since 2026.10.19
+	 */
+	public ByteBuffer getValueBuffer() {
+		if (viewArray != null) {
+			return ByteBuffer.wrap(viewArray, viewOffset, viewLength).slice().asReadOnlyBuffer();
+		} else if (value != null) {
+			return ByteBuffer.wrap(value).asReadOnlyBuffer();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns true if the value of this tag is a view into the backing array of
+	 * the input.
+	 * 
+	 * @return true if this tag is a view or false otherwise.
+	 * @since 2026.10.19
+	 */
+	public boolean isView() {
+		return viewArray != null;
+	}
+
+	/**
+	 * Views are detached before the serialization is cached, thus the frozen tag
+	 * does not depend on the backing array of the input.
+	 */
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		detach();
+	}
+
+	@Override
+	public void detach() {
+		if (viewArray != null) {
+			value = Arrays.copyOfRange(viewArray, viewOffset, viewOffset + viewLength);
+			viewArray = null;
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = null;
+		this.viewArray = null;
 	}
 
 	@Override
 	public long getValueSize() {
-		if (value != null) {
+		if (viewArray != null) {
+			return viewLength;
+		} else if (value != null) {
 			return value.length;
 		} else {
 			return 0;
@@ -74,7 +170,9 @@ public class BytesTag extends AbstractILTag {
 
 	@Override
 	public void serializeValue(DataOutput out) throws IOException {
-		if (value != null) {
+		if (viewArray != null) {
+			out.write(viewArray, viewOffset, viewLength);
+		} else if (value != null) {
 			out.write(value);
 		}
 	}
@@ -82,9 +180,62 @@ public class BytesTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		ILTagUtils.assertTagSizeLimit(valueSize);
-		value = new byte[(int) valueSize];
-		in.readFully(value);
+		ArenaDataInput arena = ArenaDataInput.of(in);
+		if (arena != null) {
+			value = null;
+			viewOffset = arena.skipView(in, (int) valueSize);
+			viewLength = (int) valueSize;
+			viewArray = arena.getArray();
+		} else {
+			value = new byte[(int) valueSize];
+			viewArray = null;
+			in.readFully(value);
+		}
+	}
+
+	/**
+	 * The values are compared without detaching the views. A null value is equal
+	 * to an empty value because both are serialized in the same way.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		BytesTag o = (BytesTag) other;
+		return ByteArrayUtils.equals(valueArray(), valueOffset(), (int) getValueSize(), o.valueArray(), o.valueOffset(),
+				(int) o.getValueSize());
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return ByteArrayUtils.hashCode(valueArray(), valueOffset(), (int) getValueSize());
+	}
+
+	private byte[] valueArray() {
+		if (viewArray != null) {
+			return viewArray;
+		} else if (value != null) {
+			return value;
+		} else {
+			return EMPTY;
+		}
+	}
+
+	private int valueOffset() {
+		return (viewArray != null) ? viewOffset : 0;
+	}
+
+	/**
+	 * Views only account for the bytes they use from the backing array of the
+	 * input.
+	 */
+	@Override
+	protected long estimateValueRetainedSize() {
+		long size = 2 * HeapSizeUtils.REFERENCE_SIZE + 2 * 4 + HeapSizeUtils.sizeOf(value);
+		if (viewArray != null) {
+			size += HeapSizeUtils.align(viewLength);
+		}
+		return size;
 	}
 
 	/**
@@ -35,6 +35,9 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -42,11 +45,18 @@ import io.il2.iltags.ilint.ILIntEncoder;
 import io.il2.iltags.io.LimitedDataInput;
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeContext;
+import io.il2.iltags.tags.DecodeLimits;
+import io.il2.iltags.tags.ILContainerTag;
 import io.il2.iltags.tags.ILTag;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
+import io.il2.iltags.tags.ILTagHeader;
 import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.UnexpectedTagException;
+import io.il2.iltags.utils.HeapSizeUtils;
+import io.il2.iltags.utils.UTF8Utils;
 
 /**
  * This class implements the dictionary tag. It maps strings to ILTag instances.
@@ -55,20 +65,63 @@ import io.il2.iltags.tags.TagID;
  * @author Fabio Jun Takada Chino
  * @since 2022.06.05
  */
-public class DictonaryTag extends AbstractILTag {
+public class DictonaryTag extends AbstractILTag implements ILContainerTag {
 
 	protected Map<String, ILTag> values = new LinkedHashMap<>();
 
+	/**
+	 * Key read by beginChild() that waits for its value.
+	 */
+	private String pendingKey;
+
 	public DictonaryTag(long tagId) {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the map of values. If this tag is frozen, the returned map is
+	 * read-only.
+	 * 
+	 * @return The map of values.
+	 */
 	public Map<String, ILTag> getValues() {
+		if (isFrozen()) {
+			return Collections.unmodifiableMap(values);
+		}
 		return values;
 	}
 
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		for (ILTag t : values.values()) {
+			freezeTag(t);
+		}
+	}
+
+	@Override
+	public void detach() {
+		if (this.values != null) {
+			for (ILTag t : this.values.values()) {
+				detachTag(t);
+			}
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		if (this.values != null) {
+			this.values.clear();
+		}
+		this.pendingKey = null;
+	}
+
 	@Override
 	public long getValueSize() {
+		long cached = getCachedValueSize();
+		if (cached >= 0) {
+			return cached;
+		}
 		if (values != null) {
 			long size = ILIntEncoder.encodedSize(values.size());
 			for (Map.Entry<String, ILTag> e : values.entrySet()) {
@@ -98,27 +151,109 @@ public class DictonaryTag extends AbstractILTag {
 		}
 	}
 
-	private void deserializeValueCore(ILTagFactory factory, LimitedDataInput in) throws IOException, ILTagException {
+	private long readCount(ILTagFactory factory, long valueSize, LimitedDataInput in)
+			throws IOException, ILTagException {
+		checkModifiable();
+		ILTagUtils.assertTagSizeLimit(valueSize);
+		if (valueSize < 1) {
+			throw new CorruptedTagException("Invalid dictionary tag.");
+		}
 		long count = ILTagUtils.readILInt(in, "Invalid counter.");
 		ILTagUtils.assertArraySize(count, 1 + 1 + 1, in.remaining());
+		DecodeLimits.of(factory).checkElements(count);
+		return count;
+	}
+
+	@Override
+	public long beginDeserialization(ILTagFactory factory, long valueSize, LimitedDataInput in)
+			throws IOException, ILTagException {
+		long count = readCount(factory, valueSize, in);
 		this.values.clear();
-		for (int i = 0; i < (int) count; i++) {
-			String key = StringTag.deserializeStandardStringTag(in);
-			ILTag value = factory.deserialize(in);
-			this.values.put(key, value);
-		}
+		return count;
+	}
+
+	@Override
+	public void beginChild(ILTagFactory factory, LimitedDataInput in) throws IOException, ILTagException {
+		this.pendingKey = StringTag.deserializeStandardStringTag(in, DecodeLimits.of(factory));
 	}
 
+	@Override
+	public void addChild(ILTag child) {
+		this.values.put(this.pendingKey, child);
+		this.pendingKey = null;
+	}
+
+	@Override
+	public String getChildKey() {
+		return this.pendingKey;
+	}
+
+	/**
+	 * Deserializes the value. The current values are reused by position whenever
+	 * possible, as described by
+	 * io.il2.iltags.tags.ILTagFactory.deserializeReusing(ILTag, DataInput).
+	 * 
+	 * <p>
+	 * While the serialized keys follow the order of the current keys, the entries
+	 * are updated in place and no key is created. From the first key that differs
+	 * on, the remaining entries are replaced by new ones, thus each of them
+	 * allocates a new key and a new map entry. The keys are read into the scratch
+	 * array of the DecodeContext of the current thread.
+	 * </p>
+	 */
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
-		ILTagUtils.assertTagSizeLimit(valueSize);
-		if (valueSize < 1) {
-			throw new CorruptedTagException("Invalid dictionary tag.");
+		LimitedDataInput limitedInput = LimitedDataInput.limit(in, (int) valueSize);
+		DecodeLimits limits = DecodeLimits.of(factory);
+		DecodeContext context = DecodeContext.of(limitedInput);
+		if (context == null) {
+			context = DecodeContext.current();
 		}
-		LimitedDataInput limitedInput = new LimitedDataInput(in, (int) valueSize);
 		try {
-			deserializeValueCore(factory, limitedInput);
+			int count = (int) readCount(factory, valueSize, limitedInput);
+			ArrayList<ILTag> previous = null;
+			byte[] key = null;
+			int pending = -1;
+			int i = 0;
+			Iterator<Map.Entry<String, ILTag>> it = this.values.entrySet().iterator();
+			while ((i < count) && it.hasNext()) {
+				Map.Entry<String, ILTag> e = it.next();
+				pending = readKeySize(limits, limitedInput);
+				key = readKey(context, pending, limitedInput);
+				if (!UTF8Utils.contentEquals(key, 0, pending, StringTag.emptyIfNull(e.getKey()))) {
+					// The order changed, thus the remaining entries are rebuilt.
+					previous = new ArrayList<>();
+					previous.add(e.getValue());
+					it.remove();
+					while (it.hasNext()) {
+						previous.add(it.next().getValue());
+						it.remove();
+					}
+					break;
+				}
+				e.setValue(factory.deserializeReusing(e.getValue(), limitedInput));
+				pending = -1;
+				i++;
+			}
+			while (it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+			for (int j = 0; i < count; i++, j++) {
+				if (pending < 0) {
+					pending = readKeySize(limits, limitedInput);
+					key = readKey(context, pending, limitedInput);
+				}
+				// The key must be created before the value reuses the scratch array.
+				String k = new String(key, 0, pending, UTF8Utils.UTF8);
+				pending = -1;
+				if ((previous != null) && (j < previous.size())) {
+					this.values.put(k, factory.deserializeReusing(previous.get(j), limitedInput));
+				} else {
+					this.values.put(k, factory.deserialize(limitedInput));
+				}
+			}
 		} catch (EOFException e) {
 			throw new CorruptedTagException("Invalid serialization format.");
 		}
@@ -127,6 +262,106 @@ public class DictonaryTag extends AbstractILTag {
 		}
 	}
 
+	/**
+	 * Reads the header of a key.
+	 * 
+	 * @param limits The limits to be enforced.
+	 * @param in     The data input.
+	 * @return The size of the key in bytes.
+	 * @throws IOException    In case of IO error.
+	 * @throws ILTagException If the key is not a standard string tag.
+	 */
+	private static int readKeySize(DecodeLimits limits, LimitedDataInput in) throws IOException, ILTagException {
+		DecodeContext context = DecodeContext.of(in);
+		ILTagHeader header = (context != null) ? context.readHeader(in) : ILTagUtils.readHeader(in);
+		if (header.tagId != TagID.IL_STRING_TAG_ID) {
+			throw new UnexpectedTagException("Expecting string tag with id %1$X but found %2$X.",
+					TagID.IL_STRING_TAG_ID, header.tagId);
+		}
+		limits.checkStringLength(header.valueSize);
+		if (header.valueSize > in.remaining()) {
+			throw new CorruptedTagException("Invalid serialization format.");
+		}
+		return (int) header.valueSize;
+	}
+
+	/**
+	 * Reads the UTF-8 bytes of a key without creating its string.
+	 * 
+	 * @param context The context that provides the scratch array.
+	 * @param size    The size of the key in bytes.
+	 * @param in      The data input.
+	 * @return The array that holds the key at its start.
+	 * @throws IOException    In case of IO error.
+	 * @throws ILTagException If the key is not a valid UTF-8 string.
+	 */
+	private static byte[] readKey(DecodeContext context, int size, LimitedDataInput in)
+			throws IOException, ILTagException {
+		byte[] key = context.getScratchBytes(size);
+		in.readFully(key, 0, size);
+		if (!UTF8Utils.isValid(key, 0, size)) {
+			throw new CorruptedTagException("Invalid UTF-8 string.");
+		}
+		return key;
+	}
+
+	/**
+	 * The entries are compared in order, just like their serializations.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		Map<String, ILTag> a = getValues();
+		Map<String, ILTag> b = ((DictonaryTag) other).getValues();
+		if (a.size() != b.size()) {
+			return false;
+		}
+		Iterator<Map.Entry<String, ILTag>> ib = b.entrySet().iterator();
+		for (Map.Entry<String, ILTag> ea : a.entrySet()) {
+			Map.Entry<String, ILTag> eb = ib.next();
+			if (!StringTag.emptyIfNull(ea.getKey()).equals(StringTag.emptyIfNull(eb.getKey()))
+					|| !tagEquals(ea.getValue(), eb.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		int h = 1;
+		for (Map.Entry<String, ILTag> e : getValues().entrySet()) {
+			h = 31 * h + (StringTag.emptyIfNull(e.getKey()).hashCode() ^ tagHashCode(e.getValue()));
+		}
+		return h;
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		long size = 2 * HeapSizeUtils.REFERENCE_SIZE + HeapSizeUtils.mapSize(values)
+				+ HeapSizeUtils.sizeOf(pendingKey);
+		if (values != null) {
+			for (String key : values.keySet()) {
+				size += HeapSizeUtils.sizeOf(key);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * It reads the map directly in order to avoid the materialization of lazy
+	 * subclasses.
+	 */
+	@Override
+	protected long estimateInnerTagsRetainedSize() {
+		long size = 0;
+		if (values != null) {
+			for (ILTag t : values.values()) {
+				size += estimateTagRetainedSize(t);
+			}
+		}
+		return size;
+	}
+
 	/**
 	 * Creates the standard dictionary tag.
 	 * 
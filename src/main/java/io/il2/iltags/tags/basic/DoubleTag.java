@@ -60,9 +60,16 @@ public class DoubleTag extends AbstractILTag {
 	}
 
 	public void setValue(double value) {
+		checkModifiable();
 		this.value = value;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = 0;
+	}
+
 	@Override
 	public long getValueSize() {
 		return 8;
@@ -76,12 +83,31 @@ public class DoubleTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != 8) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
 		value = in.readDouble();
 	}
 
+	/**
+	 * The values are compared by their raw bits, just like their serializations.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return Double.doubleToRawLongBits(this.value) == Double.doubleToRawLongBits(((DoubleTag) other).value);
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Long.hashCode(Double.doubleToRawLongBits(this.value));
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 8;
+	}
+
 	/**
 	 * Creates the standard double (binary64) tag.
 	 * 
@@ -60,9 +60,16 @@ public class FloatTag extends AbstractILTag {
 	}
 
 	public void setValue(float value) {
+		checkModifiable();
 		this.value = value;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = 0;
+	}
+
 	@Override
 	public long getValueSize() {
 		return 4;
@@ -76,12 +83,31 @@ public class FloatTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != 4) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
 		value = in.readFloat();
 	}
 
+	/**
+	 * The values are compared by their raw bits, just like their serializations.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return Float.floatToRawIntBits(this.value) == Float.floatToRawIntBits(((FloatTag) other).value);
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Float.floatToRawIntBits(this.value);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 4;
+	}
+
 	/**
 	 * Creates the standard float (binary32) tag.
 	 * 
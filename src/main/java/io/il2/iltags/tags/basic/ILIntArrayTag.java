@@ -35,15 +35,18 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.Arrays;
 
 import io.il2.iltags.ilint.ILIntEncoder;
 import io.il2.iltags.io.LimitedDataInput;
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 /**
  * This class implements the ILInt array tag and the OID tag. If values is null,
@@ -54,22 +57,43 @@ import io.il2.iltags.tags.TagID;
  */
 public class ILIntArrayTag extends AbstractILTag {
 
+	private static final long[] EMPTY = new long[0];
+
 	protected long[] values;
 
 	public ILIntArrayTag(long tagId) {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the values. If this tag is frozen, it returns a copy of the values.
+	 * 
+	 * @return The values.
+	 */
 	public long[] getValues() {
+		if (isFrozen() && (values != null)) {
+			return values.clone();
+		}
 		return values;
 	}
 
 	public void setValues(long... values) {
+		checkModifiable();
 		this.values = values;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.values = null;
+	}
+
 	@Override
 	public long getValueSize() {
+		long cached = getCachedValueSize();
+		if (cached >= 0) {
+			return cached;
+		}
 		if (values != null) {
 			long size = ILIntEncoder.encodedSize(values.length);
 			for (long v : values) {
@@ -93,9 +117,10 @@ public class ILIntArrayTag extends AbstractILTag {
 		}
 	}
 
-	private void deserializeValueCore(LimitedDataInput in) throws IOException, ILTagException {
+	private void deserializeValueCore(ILTagFactory factory, LimitedDataInput in) throws IOException, ILTagException {
 		long count = ILTagUtils.readILInt(in, "Invalid counter.");
 		ILTagUtils.assertArraySize(count, 1, in.remaining());
+		DecodeLimits.of(factory).checkElements(count);
 		this.values = new long[(int) count];
 		for (int i = 0; i < (int) count; i++) {
 			this.values[i] = ILTagUtils.readILInt(in, "Invalid value entry.");
@@ -106,13 +131,14 @@ public class ILIntArrayTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		ILTagUtils.assertTagSizeLimit(valueSize);
 		if (valueSize < 1) {
 			throw new CorruptedTagException("Invalid ILInt array.");
 		}
-		LimitedDataInput limitedInput = new LimitedDataInput(in, (int) valueSize);
+		LimitedDataInput limitedInput = LimitedDataInput.limit(in, (int) valueSize);
 		try {
-			deserializeValueCore(limitedInput);
+			deserializeValueCore(factory, limitedInput);
 		} catch (EOFException e) {
 			throw new CorruptedTagException("Invalid serialization format.");
 		}
@@ -121,6 +147,29 @@ public class ILIntArrayTag extends AbstractILTag {
 		}
 	}
 
+	/**
+	 * A null array is equal to an empty array because both are serialized in
+	 * the same way.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return Arrays.equals(nonNull(this.values), nonNull(((ILIntArrayTag) other).values));
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Arrays.hashCode(nonNull(this.values));
+	}
+
+	private static long[] nonNull(long[] values) {
+		return (values != null) ? values : EMPTY;
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return HeapSizeUtils.REFERENCE_SIZE + HeapSizeUtils.sizeOf(values);
+	}
+
 	/**
 	 * Creates the standard ILInt array tag.
 	 * 
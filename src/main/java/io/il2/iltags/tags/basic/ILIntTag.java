@@ -61,9 +61,16 @@ public class ILIntTag extends AbstractILTag {
 	}
 
 	public void setValue(long value) {
+		checkModifiable();
 		this.value = value;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = 0;
+	}
+
 	@Override
 	public long getValueSize() {
 		return ILIntEncoder.encodedSize(value);
@@ -77,9 +84,25 @@ public class ILIntTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		this.value = ILTagUtils.readILInt(in, "Invalid value.");
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return this.value == ((ILIntTag) other).value;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Long.hashCode(this.value);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 8;
+	}
+
 	/**
 	 * Creates the standard ILInt tag.
 	 * 
@@ -36,17 +36,21 @@ import java.io.DataOutput;
 import java.io.EOFException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import io.il2.iltags.ilint.ILIntEncoder;
 import io.il2.iltags.io.LimitedDataInput;
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
+import io.il2.iltags.tags.ILContainerTag;
 import io.il2.iltags.tags.ILTag;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 /**
  * This class implements the ILTag array tag. If values is null, it will be
@@ -56,7 +60,7 @@ import io.il2.iltags.tags.TagID;
  * @author Fabio Jun Takada Chino
  * @since 2022.06.05
  */
-public class ILTagArrayTag extends AbstractILTag {
+public class ILTagArrayTag extends AbstractILTag implements ILContainerTag {
 
 	protected ArrayList<ILTag> values = new ArrayList<>();
 
@@ -64,12 +68,49 @@ public class ILTagArrayTag extends AbstractILTag {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the list of values. If this tag is frozen, the returned list is
+	 * read-only.
+	 * 
+	 * @return The list of values.
+	 */
 	public List<ILTag> getValues() {
+		if (isFrozen()) {
+			return Collections.unmodifiableList(values);
+		}
 		return values;
 	}
 
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		for (ILTag t : values) {
+			freezeTag(t);
+		}
+	}
+
+	@Override
+	public void detach() {
+		if (this.values != null) {
+			for (ILTag t : this.values) {
+				detachTag(t);
+			}
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		if (this.values != null) {
+			this.values.clear();
+		}
+	}
+
 	@Override
 	public long getValueSize() {
+		long cached = getCachedValueSize();
+		if (cached >= 0) {
+			return cached;
+		}
 		long size = ILIntEncoder.encodedSize(values.size());
 		for (ILTag t : values) {
 			if (t != null) {
@@ -93,25 +134,60 @@ public class ILTagArrayTag extends AbstractILTag {
 		}
 	}
 
-	private void deserializeValueCore(ILTagFactory factory, LimitedDataInput in) throws IOException, ILTagException {
+	private long readCount(ILTagFactory factory, long valueSize, LimitedDataInput in)
+			throws IOException, ILTagException {
+		checkModifiable();
+		ILTagUtils.assertTagSizeLimit(valueSize);
+		if (valueSize < 1) {
+			throw new CorruptedTagException("Invalid ILInt array.");
+		}
 		long count = ILTagUtils.readILInt(in, "Invalid counter.");
 		ILTagUtils.assertArraySize(count, 1, in.remaining());
-		this.values = new ArrayList<>();
-		for (int i = 0; i < (int) count; i++) {
-			this.values.add(factory.deserialize(in));
+		DecodeLimits.of(factory).checkElements(count);
+		if (this.values == null) {
+			this.values = new ArrayList<>();
 		}
+		return count;
+	}
+
+	@Override
+	public long beginDeserialization(ILTagFactory factory, long valueSize, LimitedDataInput in)
+			throws IOException, ILTagException {
+		long count = readCount(factory, valueSize, in);
+		this.values.clear();
+		return count;
+	}
+
+	@Override
+	public void beginChild(ILTagFactory factory, LimitedDataInput in) {
 	}
 
+	@Override
+	public void addChild(ILTag child) {
+		this.values.add(child);
+	}
+
+	/**
+	 * Deserializes the value. The current inner tags are reused by position
+	 * whenever possible, as described by
+	 * io.il2.iltags.tags.ILTagFactory.deserializeReusing(ILTag, DataInput).
+	 */
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
-		ILTagUtils.assertTagSizeLimit(valueSize);
-		if (valueSize < 1) {
-			throw new CorruptedTagException("Invalid ILInt array.");
-		}
-		LimitedDataInput limitedInput = new LimitedDataInput(in, (int) valueSize);
+		LimitedDataInput limitedInput = LimitedDataInput.limit(in, (int) valueSize);
 		try {
-			deserializeValueCore(factory, limitedInput);
+			int count = (int) readCount(factory, valueSize, limitedInput);
+			for (int i = 0; i < count; i++) {
+				if (i < this.values.size()) {
+					this.values.set(i, factory.deserializeReusing(this.values.get(i), limitedInput));
+				} else {
+					this.values.add(factory.deserialize(limitedInput));
+				}
+			}
+			for (int i = this.values.size() - 1; i >= count; i--) {
+				this.values.remove(i);
+			}
 		} catch (EOFException e) {
 			throw new CorruptedTagException("Invalid serialization format.");
 		}
@@ -120,6 +196,50 @@ public class ILTagArrayTag extends AbstractILTag {
 		}
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		List<ILTag> a = getValues();
+		List<ILTag> b = ((ILTagArrayTag) other).getValues();
+		if (a.size() != b.size()) {
+			return false;
+		}
+		for (int i = 0; i < a.size(); i++) {
+			if (!tagEquals(a.get(i), b.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		int h = 1;
+		for (ILTag t : getValues()) {
+			h = 31 * h + tagHashCode(t);
+		}
+		return h;
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return HeapSizeUtils.REFERENCE_SIZE + HeapSizeUtils.listSize(values);
+	}
+
+	/**
+	 * The values are accessed directly, thus subclasses that decode them on demand
+	 * must override this method.
+	 */
+	@Override
+	protected long estimateInnerTagsRetainedSize() {
+		long size = 0;
+		if (values != null) {
+			for (ILTag t : values) {
+				size += estimateTagRetainedSize(t);
+			}
+		}
+		return size;
+	}
+
 	/**
 	 * Creates the standard ILTag array tag.
 	 * 
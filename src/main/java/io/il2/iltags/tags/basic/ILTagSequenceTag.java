@@ -36,16 +36,20 @@ import java.io.DataOutput;
 import java.io.EOFException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import io.il2.iltags.io.LimitedDataInput;
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
+import io.il2.iltags.tags.ILContainerTag;
 import io.il2.iltags.tags.ILTag;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 /**
  * This class implements the ILTag sequence tag. If values is null, it will be
@@ -55,7 +59,7 @@ import io.il2.iltags.tags.TagID;
  * @author Fabio Jun Takada Chino
  * @since 2022.06.05
  */
-public class ILTagSequenceTag extends AbstractILTag {
+public class ILTagSequenceTag extends AbstractILTag implements ILContainerTag {
 
 	protected ArrayList<ILTag> values = new ArrayList<>();
 
@@ -63,12 +67,49 @@ public class ILTagSequenceTag extends AbstractILTag {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the list of values. If this tag is frozen, the returned list is
+	 * read-only.
+	 * 
+	 * @return The list of values.
+	 */
 	public List<ILTag> getValues() {
+		if (isFrozen()) {
+			return Collections.unmodifiableList(values);
+		}
 		return values;
 	}
 
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		for (ILTag t : values) {
+			freezeTag(t);
+		}
+	}
+
+	@Override
+	public void detach() {
+		if (this.values != null) {
+			for (ILTag t : this.values) {
+				detachTag(t);
+			}
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		if (this.values != null) {
+			this.values.clear();
+		}
+	}
+
 	@Override
 	public long getValueSize() {
+		long cached = getCachedValueSize();
+		if (cached >= 0) {
+			return cached;
+		}
 		long size = 0;
 		for (ILTag t : values) {
 			if (t != null) {
@@ -91,25 +132,102 @@ public class ILTagSequenceTag extends AbstractILTag {
 		}
 	}
 
-	private void deserializeValueCore(ILTagFactory factory, LimitedDataInput in) throws IOException, ILTagException {
-		this.values = new ArrayList<>();
-		while (in.hasRemaining()) {
-			this.values.add(factory.deserialize(in));
+	@Override
+	public long beginDeserialization(ILTagFactory factory, long valueSize, LimitedDataInput in)
+			throws IOException, ILTagException {
+		checkModifiable();
+		ILTagUtils.assertTagSizeLimit(valueSize);
+		if (this.values == null) {
+			this.values = new ArrayList<>();
 		}
+		this.values.clear();
+		return -1;
+	}
+
+	@Override
+	public void beginChild(ILTagFactory factory, LimitedDataInput in) {
 	}
 
+	@Override
+	public void addChild(ILTag child) {
+		this.values.add(child);
+	}
+
+	/**
+	 * Deserializes the value. The current inner tags are reused by position
+	 * whenever possible, as described by
+	 * io.il2.iltags.tags.ILTagFactory.deserializeReusing(ILTag, DataInput).
+	 */
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		ILTagUtils.assertTagSizeLimit(valueSize);
-		LimitedDataInput limitedInput = new LimitedDataInput(in, (int) valueSize);
+		if (this.values == null) {
+			this.values = new ArrayList<>();
+		}
+		DecodeLimits limits = DecodeLimits.of(factory);
+		LimitedDataInput limitedInput = LimitedDataInput.limit(in, (int) valueSize);
 		try {
-			deserializeValueCore(factory, limitedInput);
+			int count = 0;
+			while (limitedInput.hasRemaining()) {
+				// The number of elements is only known at the end.
+				limits.checkElements(count + 1);
+				if (count < this.values.size()) {
+					this.values.set(count, factory.deserializeReusing(this.values.get(count), limitedInput));
+				} else {
+					this.values.add(factory.deserialize(limitedInput));
+				}
+				count++;
+			}
+			for (int i = this.values.size() - 1; i >= count; i--) {
+				this.values.remove(i);
+			}
 		} catch (EOFException e) {
 			throw new CorruptedTagException("Invalid serialization format.");
 		}
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		List<ILTag> a = getValues();
+		List<ILTag> b = ((ILTagSequenceTag) other).getValues();
+		if (a.size() != b.size()) {
+			return false;
+		}
+		for (int i = 0; i < a.size(); i++) {
+			if (!tagEquals(a.get(i), b.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		int h = 1;
+		for (ILTag t : getValues()) {
+			h = 31 * h + tagHashCode(t);
+		}
+		return h;
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return HeapSizeUtils.REFERENCE_SIZE + HeapSizeUtils.listSize(values);
+	}
+
+	@Override
+	protected long estimateInnerTagsRetainedSize() {
+		long size = 0;
+		if (values != null) {
+			for (ILTag t : values) {
+				size += estimateTagRetainedSize(t);
+			}
+		}
+		return size;
+	}
+
 	/**
 	 * Creates the standard ILTag sequence tag.
 	 * 
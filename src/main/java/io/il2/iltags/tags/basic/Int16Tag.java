@@ -60,6 +60,7 @@ public class Int16Tag extends AbstractILTag {
 	}
 
 	public void setValue(short value) {
+		checkModifiable();
 		this.value = value;
 	}
 
@@ -68,9 +69,16 @@ public class Int16Tag extends AbstractILTag {
 	}
 
 	public void setUnsignedValue(int value) {
+		checkModifiable();
 		this.value = (short) value;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = 0;
+	}
+
 	@Override
 	public long getValueSize() {
 		return 2;
@@ -84,12 +92,28 @@ public class Int16Tag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != 2) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
 		value = in.readShort();
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return this.value == ((Int16Tag) other).value;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Short.hashCode(this.value);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 2;
+	}
+
 	/**
 	 * Creates the standard signed 16-bit integer tag.
 	 * 
@@ -60,6 +60,7 @@ public class Int32Tag extends AbstractILTag {
 	}
 
 	public void setValue(int value) {
+		checkModifiable();
 		this.value = value;
 	}
 
@@ -68,9 +69,16 @@ public class Int32Tag extends AbstractILTag {
 	}
 
 	public void setUnsignedValue(long value) {
+		checkModifiable();
 		this.value = (int) value;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = 0;
+	}
+
 	@Override
 	public long getValueSize() {
 		return 4;
@@ -84,12 +92,28 @@ public class Int32Tag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != 4) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
 		value = in.readInt();
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return this.value == ((Int32Tag) other).value;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Integer.hashCode(this.value);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 4;
+	}
+
 	/**
 	 * Creates the standard signed 32-bit integer tag.
 	 * 
@@ -60,9 +60,16 @@ public class Int64Tag extends AbstractILTag {
 	}
 
 	public void setValue(long value) {
+		checkModifiable();
 		this.value = value;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = 0;
+	}
+
 	@Override
 	public long getValueSize() {
 		return 8;
@@ -76,12 +83,28 @@ public class Int64Tag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != 8) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
 		value = in.readLong();
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return this.value == ((Int64Tag) other).value;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Long.hashCode(this.value);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 8;
+	}
+
 	/**
 	 * Creates the standard signed 64-bit integer tag.
 	 * 
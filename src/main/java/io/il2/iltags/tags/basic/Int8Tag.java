@@ -60,6 +60,7 @@ public class Int8Tag extends AbstractILTag {
 	}
 
 	public void setValue(byte value) {
+		checkModifiable();
 		this.value = value;
 	}
 
@@ -68,9 +69,16 @@ public class Int8Tag extends AbstractILTag {
 	}
 
 	public void setUnsignedValue(int value) {
+		checkModifiable();
 		this.value = (byte) value;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = 0;
+	}
+
 	@Override
 	public long getValueSize() {
 		return 1;
@@ -84,12 +92,28 @@ public class Int8Tag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != 1) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
 		value = in.readByte();
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return this.value == ((Int8Tag) other).value;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return Byte.hashCode(this.value);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 1;
+	}
+
 	/**
 	 * Creates the standard signed 8-bit integer tag.
 	 * 
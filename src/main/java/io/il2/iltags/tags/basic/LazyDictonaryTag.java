@@ -0,0 +1,416 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.basic;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.il2.iltags.ilint.ILIntDecoder;
+import io.il2.iltags.io.LimitedDataInput;
+import io.il2.iltags.tags.AbstractILTag;
+import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.ILTagFactory;
+import io.il2.iltags.tags.ILTagHeader;
+import io.il2.iltags.tags.ILTagUtils;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.UnexpectedTagException;
+import io.il2.iltags.utils.HeapSizeUtils;
+import io.il2.iltags.utils.UTF8Utils;
+
+/**
+ * This class implements a dictionary tag that decodes its entries on demand.
+ * The deserialization only checks the boundaries of the entries and keeps the
+ * serialized value. The values are decoded one at a time by get(String) or all
+ * at once by getValues() or materialize().
+ * 
+ * <p>
+ * Values that were not decoded are serialized by copying their original bytes,
+ * thus the serialization of a container that was not modified is a verbatim
+ * copy of its input. The map of values is only used once the tag is
+ * materialized.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class LazyDictonaryTag extends DictonaryTag {
+
+	private final RawValue raw = new RawValue();
+
+	private final ILTagHeader header = new ILTagHeader();
+
+	private ILTagFactory factory;
+
+	/**
+	 * Depth of this tag when it was deserialized. The inner tags are decoded at
+	 * the next level.
+	 */
+	private int depth;
+
+	/**
+	 * Offsets of the keys and values of each entry followed by the end of the
+	 * value, or null if this tag is materialized.
+	 */
+	private int[] starts;
+
+	private ILTag[] decoded;
+
+	private int decodedCount;
+
+	public LazyDictonaryTag(long tagId) {
+		super(tagId);
+	}
+
+	/**
+	 * Returns true if the entries are held by the map of values.
+	 * 
+	 * @return true if this tag is materialized or false otherwise.
+	 */
+	public boolean isMaterialized() {
+		return this.starts == null;
+	}
+
+	/**
+	 * Returns the number of entries without decoding them. If the serialized
+	 * dictionary repeats a key, all its occurrences are counted until this tag is
+	 * materialized.
+	 * 
+	 * @return The number of entries.
+	 */
+	public int size() {
+		if (this.starts != null) {
+			return this.starts.length / 2;
+		} else {
+			return (this.values != null) ? this.values.size() : 0;
+		}
+	}
+
+	/**
+	 * Returns the value associated with the given key. If this tag is not
+	 * materialized, only the requested value is decoded. Keys are compared
+	 * directly with their serialized form.
+	 * 
+	 * @param key The key.
+	 * @return The value or null if the key is not present.
+	 * @throws ILTagException If the value is corrupted.
+	 */
+	public ILTag get(String key) throws ILTagException {
+		if (this.starts == null) {
+			return this.values.get(key);
+		}
+		byte[] encoded = key.getBytes(UTF8Utils.UTF8);
+		// The last occurrence wins, just like in the map.
+		for (int i = this.starts.length / 2 - 1; i >= 0; i--) {
+			if (keyEquals(i, encoded)) {
+				return getValue(i);
+			}
+		}
+		return null;
+	}
+
+	private boolean keyEquals(int entry, byte[] encoded) throws ILTagException {
+		byte[] buff = this.raw.buffer;
+		int base = this.raw.offset;
+		int start = ILTagUtils.scanHeader(buff, base + this.starts[2 * entry], base + this.starts[2 * entry + 1],
+				this.header);
+		if (this.header.valueSize != encoded.length) {
+			return false;
+		}
+		for (int i = 0; i < encoded.length; i++) {
+			if (buff[start + i] != encoded[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private ILTag getValue(int entry) throws ILTagException {
+		if (this.decoded == null) {
+			this.decoded = new ILTag[this.starts.length / 2];
+		}
+		ILTag tag = this.decoded[entry];
+		if (tag == null) {
+			try {
+				DataInput in = this.raw.open(this.starts[2 * entry + 1], this.starts[2 * entry + 2]);
+				tag = this.factory.deserializeNested(in, this.depth);
+			} catch (IOException e) {
+				throw new CorruptedTagException("Unable to deserialize the tag.", e);
+			}
+			this.decoded[entry] = tag;
+			this.decodedCount++;
+		}
+		return tag;
+	}
+
+	/**
+	 * Decodes all entries and moves them into the map of values. It does nothing
+	 * if this tag is already materialized.
+	 * 
+	 * @throws ILTagException If one of the entries is corrupted.
+	 */
+	public void materialize() throws ILTagException {
+		if (this.starts != null) {
+			int count = this.starts.length / 2;
+			String[] keys = new String[count];
+			try {
+				for (int i = 0; i < count; i++) {
+					DataInput in = this.raw.open(this.starts[2 * i], this.starts[2 * i + 1]);
+					keys[i] = StringTag.deserializeStandardStringTag(in, DecodeLimits.of(this.factory));
+					getValue(i);
+				}
+			} catch (IOException e) {
+				throw new CorruptedTagException("Unable to deserialize the tag.", e);
+			}
+			this.values.clear();
+			for (int i = 0; i < count; i++) {
+				this.values.put(keys[i], this.decoded[i]);
+			}
+			clearLazyState();
+		}
+	}
+
+	private void clearLazyState() {
+		this.raw.clear();
+		this.factory = null;
+		this.depth = 0;
+		this.starts = null;
+		this.decoded = null;
+		this.decodedCount = 0;
+	}
+
+	/**
+	 * Returns the map of values. This tag is materialized first.
+	 * 
+	 * @throws IllegalStateException If the entries cannot be decoded.
+	 */
+	@Override
+	public Map<String, ILTag> getValues() {
+		try {
+			materialize();
+		} catch (ILTagException e) {
+			throw new IllegalStateException("Unable to decode the entries.", e);
+		}
+		return super.getValues();
+	}
+
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		materialize();
+		super.freezeInnerTags();
+	}
+
+	@Override
+	public void detach() {
+		if (this.starts != null) {
+			this.raw.detach();
+			if (this.decoded != null) {
+				for (ILTag t : this.decoded) {
+					detachTag(t);
+				}
+			}
+		} else {
+			super.detach();
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		clearLazyState();
+	}
+
+	@Override
+	public long getValueSize() {
+		if (this.starts == null) {
+			return super.getValueSize();
+		}
+		if (this.decodedCount == 0) {
+			return this.raw.size;
+		}
+		long size = this.starts[0];
+		for (int i = 0; i < this.starts.length / 2; i++) {
+			size += this.starts[2 * i + 1] - this.starts[2 * i];
+			if (this.decoded[i] != null) {
+				size += this.decoded[i].getTagSize();
+			} else {
+				size += this.starts[2 * i + 2] - this.starts[2 * i + 1];
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public void serializeValue(DataOutput out) throws IOException {
+		if (this.starts == null) {
+			super.serializeValue(out);
+		} else if (this.decodedCount == 0) {
+			this.raw.write(0, this.raw.size, out);
+		} else {
+			this.raw.write(0, this.starts[0], out);
+			for (int i = 0; i < this.starts.length / 2; i++) {
+				this.raw.write(this.starts[2 * i], this.starts[2 * i + 1], out);
+				if (this.decoded[i] != null) {
+					ILTagUtils.writeTagOrNull(this.decoded[i], out);
+				} else {
+					this.raw.write(this.starts[2 * i + 1], this.starts[2 * i + 2], out);
+				}
+			}
+		}
+	}
+
+	@Override
+	public long beginDeserialization(ILTagFactory factory, long valueSize, LimitedDataInput in)
+			throws IOException, ILTagException {
+		checkModifiable();
+		clearLazyState();
+		return super.beginDeserialization(factory, valueSize, in);
+	}
+
+	@Override
+	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
+			throws IOException, ILTagException {
+		checkModifiable();
+		clearLazyState();
+		if (valueSize < 1) {
+			throw new CorruptedTagException("Invalid dictionary tag.");
+		}
+		this.raw.read(valueSize, in);
+		try {
+			this.starts = scan(DecodeLimits.of(factory));
+		} catch (ILTagException e) {
+			this.raw.clear();
+			throw e;
+		}
+		this.factory = factory;
+		this.depth = factory.getDecodeDepth();
+		if (this.values != null) {
+			this.values.clear();
+		} else {
+			this.values = new LinkedHashMap<>();
+		}
+	}
+
+	/**
+	 * Values are compared by their serialization, thus neither tag is
+	 * materialized. The original bytes are compared directly while no inner tag
+	 * was decoded.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		LazyDictonaryTag o = (LazyDictonaryTag) other;
+		if (isUntouched() && o.isUntouched()) {
+			return this.raw.sameBytes(o.raw);
+		}
+		return Arrays.equals(RawValue.toValueBytes(this), RawValue.toValueBytes(o));
+	}
+
+	@Override
+	protected int valueHashCode() {
+		if (isUntouched()) {
+			return this.raw.hash();
+		}
+		return Arrays.hashCode(RawValue.toValueBytes(this));
+	}
+
+	/**
+	 * Returns true if the value is still the original serialization.
+	 */
+	private boolean isUntouched() {
+		return (this.starts != null) && (this.decodedCount == 0);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		// The header is a scratch object of this tag.
+		return super.estimateValueRetainedSize() + 5 * HeapSizeUtils.REFERENCE_SIZE + 2 * 4
+				+ this.raw.estimateRetainedSize() + HeapSizeUtils.objectSize(8 + 8)
+				+ HeapSizeUtils.sizeOf(this.starts) + HeapSizeUtils.sizeOf(this.decoded);
+	}
+
+	/**
+	 * Only the inner tags that were already decoded are accounted for.
+	 */
+	@Override
+	protected long estimateInnerTagsRetainedSize() {
+		if (this.starts == null) {
+			return super.estimateInnerTagsRetainedSize();
+		}
+		long size = 0;
+		if (this.decoded != null) {
+			for (ILTag t : this.decoded) {
+				size += estimateTagRetainedSize(t);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Locates the keys and values without decoding them. The keys are validated.
+	 */
+	private int[] scan(DecodeLimits limits) throws ILTagException {
+		byte[] buff = this.raw.buffer;
+		int base = this.raw.offset;
+		int end = base + this.raw.size;
+		long count = ILTagUtils.readILInt(buff, base, end, "Invalid counter.");
+		int pos = base + ILIntDecoder.sizeFromHeader(buff[base]);
+		ILTagUtils.assertArraySize(count, 1 + 1 + 1, end - pos);
+		limits.checkElements(count);
+		int[] offsets = new int[2 * (int) count + 1];
+		for (int i = 0; i < (int) count; i++) {
+			offsets[2 * i] = pos - base;
+			pos = ILTagUtils.scanHeader(buff, pos, end, this.header);
+			if (this.header.tagId != TagID.IL_STRING_TAG_ID) {
+				throw new UnexpectedTagException("Expecting string tag with id %1$X but found %2$X.",
+						TagID.IL_STRING_TAG_ID, this.header.tagId);
+			}
+			limits.checkStringLength(this.header.valueSize);
+			if (!UTF8Utils.isValid(buff, pos, (int) this.header.valueSize)) {
+				throw new CorruptedTagException("Invalid UTF-8 string.");
+			}
+			pos += (int) this.header.valueSize;
+			offsets[2 * i + 1] = pos - base;
+			pos = ILTagUtils.scanHeader(buff, pos, end, this.header) + (int) this.header.valueSize;
+		}
+		offsets[2 * (int) count] = pos - base;
+		if (pos != end) {
+			throw new CorruptedTagException("Bad value size.");
+		}
+		return offsets;
+	}
+}
@@ -0,0 +1,366 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.basic;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.il2.iltags.ilint.ILIntDecoder;
+import io.il2.iltags.io.LimitedDataInput;
+import io.il2.iltags.tags.AbstractILTag;
+import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.ILTagFactory;
+import io.il2.iltags.tags.ILTagHeader;
+import io.il2.iltags.tags.ILTagUtils;
+import io.il2.iltags.utils.HeapSizeUtils;
+
+/**
+ * This class implements an ILTag array tag that decodes its inner tags on
+ * demand. The deserialization only checks the boundaries of the inner tags and
+ * keeps the serialized value. The inner tags are decoded one at a time by
+ * get(int) or all at once by getValues() or materialize().
+ * 
+ * <p>
+ * Inner tags that were not decoded are serialized by copying their original
+ * bytes, thus the serialization of a container that was not modified is a
+ * verbatim copy of its input. The list of values is only used once the tag is
+ * materialized.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class LazyILTagArrayTag extends ILTagArrayTag {
+
+	private final RawValue raw = new RawValue();
+
+	private ILTagFactory factory;
+
+	/**
+	 * Depth of this tag when it was deserialized. The inner tags are decoded at
+	 * the next level.
+	 */
+	private int depth;
+
+	/**
+	 * Offsets of the inner tags followed by the end of the value, or null if this
+	 * tag is materialized.
+	 */
+	private int[] starts;
+
+	private ILTag[] decoded;
+
+	private int decodedCount;
+
+	public LazyILTagArrayTag(long tagId) {
+		super(tagId);
+	}
+
+	/**
+	 * Returns true if the inner tags are held by the list of values.
+	 * 
+	 * @return true if this tag is materialized or false otherwise.
+	 */
+	public boolean isMaterialized() {
+		return this.starts == null;
+	}
+
+	/**
+	 * Returns the number of inner tags without decoding them.
+	 * 
+	 * @return The number of inner tags.
+	 */
+	public int size() {
+		if (this.starts != null) {
+			return this.starts.length - 1;
+		} else {
+			return (this.values != null) ? this.values.size() : 0;
+		}
+	}
+
+	/**
+	 * Returns an inner tag. If this tag is not materialized, only the requested
+	 * tag is decoded.
+	 * 
+	 * @param index The index of the inner tag.
+	 * @return The inner tag.
+	 * @throws IndexOutOfBoundsException If the index is invalid.
+	 * @throws ILTagException            If the inner tag is corrupted.
+	 */
+	public ILTag get(int index) throws ILTagException {
+		if (this.starts == null) {
+			return this.values.get(index);
+		}
+		if ((index < 0) || (index >= this.starts.length - 1)) {
+			throw new IndexOutOfBoundsException(String.format("Invalid index %1$d.", index));
+		}
+		if (this.decoded == null) {
+			this.decoded = new ILTag[this.starts.length - 1];
+		}
+		ILTag tag = this.decoded[index];
+		if (tag == null) {
+			try {
+				DataInput in = this.raw.open(this.starts[index], this.starts[index + 1]);
+				tag = this.factory.deserializeNested(in, this.depth);
+			} catch (IOException e) {
+				throw new CorruptedTagException("Unable to deserialize the tag.", e);
+			}
+			this.decoded[index] = tag;
+			this.decodedCount++;
+		}
+		return tag;
+	}
+
+	/**
+	 * Decodes all inner tags and moves them into the list of values. It does
+	 * nothing if this tag is already materialized.
+	 * 
+	 * @throws ILTagException If one of the inner tags is corrupted.
+	 */
+	public void materialize() throws ILTagException {
+		if (this.starts != null) {
+			int count = this.starts.length - 1;
+			for (int i = 0; i < count; i++) {
+				get(i);
+			}
+			this.values.clear();
+			this.values.ensureCapacity(count);
+			for (int i = 0; i < count; i++) {
+				this.values.add(this.decoded[i]);
+			}
+			clearLazyState();
+		}
+	}
+
+	private void clearLazyState() {
+		this.raw.clear();
+		this.factory = null;
+		this.depth = 0;
+		this.starts = null;
+		this.decoded = null;
+		this.decodedCount = 0;
+	}
+
+	/**
+	 * Returns the list of values. This tag is materialized first.
+	 * 
+	 * @throws IllegalStateException If the inner tags cannot be decoded.
+	 */
+	@Override
+	public List<ILTag> getValues() {
+		try {
+			materialize();
+		} catch (ILTagException e) {
+			throw new IllegalStateException("Unable to decode the inner tags.", e);
+		}
+		return super.getValues();
+	}
+
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		materialize();
+		super.freezeInnerTags();
+	}
+
+	@Override
+	public void detach() {
+		if (this.starts != null) {
+			this.raw.detach();
+			if (this.decoded != null) {
+				for (ILTag t : this.decoded) {
+					detachTag(t);
+				}
+			}
+		} else {
+			super.detach();
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		clearLazyState();
+	}
+
+	@Override
+	public long getValueSize() {
+		if (this.starts == null) {
+			return super.getValueSize();
+		}
+		if (this.decodedCount == 0) {
+			return this.raw.size;
+		}
+		long size = this.starts[0];
+		for (int i = 0; i < this.starts.length - 1; i++) {
+			if (this.decoded[i] != null) {
+				size += this.decoded[i].getTagSize();
+			} else {
+				size += this.starts[i + 1] - this.starts[i];
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public void serializeValue(DataOutput out) throws IOException {
+		if (this.starts == null) {
+			super.serializeValue(out);
+		} else if (this.decodedCount == 0) {
+			this.raw.write(0, this.raw.size, out);
+		} else {
+			this.raw.write(0, this.starts[0], out);
+			for (int i = 0; i < this.starts.length - 1; i++) {
+				if (this.decoded[i] != null) {
+					ILTagUtils.writeTagOrNull(this.decoded[i], out);
+				} else {
+					this.raw.write(this.starts[i], this.starts[i + 1], out);
+				}
+			}
+		}
+	}
+
+	@Override
+	public long beginDeserialization(ILTagFactory factory, long valueSize, LimitedDataInput in)
+			throws IOException, ILTagException {
+		checkModifiable();
+		clearLazyState();
+		return super.beginDeserialization(factory, valueSize, in);
+	}
+
+	@Override
+	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
+			throws IOException, ILTagException {
+		checkModifiable();
+		clearLazyState();
+		if (valueSize < 1) {
+			throw new CorruptedTagException("Invalid ILTag array.");
+		}
+		this.raw.read(valueSize, in);
+		try {
+			this.starts = scan(DecodeLimits.of(factory));
+		} catch (ILTagException e) {
+			this.raw.clear();
+			throw e;
+		}
+		this.factory = factory;
+		this.depth = factory.getDecodeDepth();
+		if (this.values != null) {
+			this.values.clear();
+		} else {
+			this.values = new ArrayList<>();
+		}
+	}
+
+	/**
+	 * Values are compared by their serialization, thus neither tag is
+	 * materialized. The original bytes are compared directly while no inner tag
+	 * was decoded.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		LazyILTagArrayTag o = (LazyILTagArrayTag) other;
+		if (isUntouched() && o.isUntouched()) {
+			return this.raw.sameBytes(o.raw);
+		}
+		return Arrays.equals(RawValue.toValueBytes(this), RawValue.toValueBytes(o));
+	}
+
+	@Override
+	protected int valueHashCode() {
+		if (isUntouched()) {
+			return this.raw.hash();
+		}
+		return Arrays.hashCode(RawValue.toValueBytes(this));
+	}
+
+	/**
+	 * Returns true if the value is still the original serialization.
+	 */
+	private boolean isUntouched() {
+		return (this.starts != null) && (this.decodedCount == 0);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return super.estimateValueRetainedSize() + 4 * HeapSizeUtils.REFERENCE_SIZE + 2 * 4
+				+ this.raw.estimateRetainedSize() + HeapSizeUtils.sizeOf(this.starts)
+				+ HeapSizeUtils.sizeOf(this.decoded);
+	}
+
+	/**
+	 * Only the inner tags that were already decoded are accounted for.
+	 */
+	@Override
+	protected long estimateInnerTagsRetainedSize() {
+		if (this.starts == null) {
+			return super.estimateInnerTagsRetainedSize();
+		}
+		long size = 0;
+		if (this.decoded != null) {
+			for (ILTag t : this.decoded) {
+				size += estimateTagRetainedSize(t);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Locates the inner tags without decoding them.
+	 */
+	private int[] scan(DecodeLimits limits) throws ILTagException {
+		byte[] buff = this.raw.buffer;
+		int base = this.raw.offset;
+		int end = base + this.raw.size;
+		long count = ILTagUtils.readILInt(buff, base, end, "Invalid counter.");
+		int pos = base + ILIntDecoder.sizeFromHeader(buff[base]);
+		ILTagUtils.assertArraySize(count, 1, end - pos);
+		limits.checkElements(count);
+		int[] offsets = new int[(int) count + 1];
+		ILTagHeader header = new ILTagHeader();
+		for (int i = 0; i < (int) count; i++) {
+			offsets[i] = pos - base;
+			pos = ILTagUtils.scanHeader(buff, pos, end, header) + (int) header.valueSize;
+		}
+		offsets[(int) count] = pos - base;
+		if (pos != end) {
+			throw new CorruptedTagException("Bad value size.");
+		}
+		return offsets;
+	}
+}
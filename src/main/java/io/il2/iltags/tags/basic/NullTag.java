@@ -65,11 +65,22 @@ public class NullTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != 0) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return true;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return 0;
+	}
+
 	/**
 	 * Creates the standard null tag.
 	 * 
@@ -65,6 +65,7 @@ public class RangeTag extends AbstractILTag {
 	}
 
 	public void setFirst(long first) {
+		checkModifiable();
 		this.first = first;
 	}
 
@@ -78,9 +79,17 @@ public class RangeTag extends AbstractILTag {
 	 * @param count The count.
 	 */
 	public void setCount(int count) {
+		checkModifiable();
 		this.count = count & 0xFFFF;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.first = 0;
+		this.count = 0;
+	}
+
 	@Override
 	public long getValueSize() {
 		return ILIntEncoder.encodedSize(first) + 2;
@@ -95,10 +104,11 @@ public class RangeTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if ((valueSize < 3) || (valueSize > 11)) {
 			throw new CorruptedTagException("Corrupted range tag.");
 		}
-		LimitedDataInput limited = new LimitedDataInput(in, (int) valueSize);
+		LimitedDataInput limited = LimitedDataInput.limit(in, (int) valueSize);
 		this.first = ILTagUtils.readILInt(limited, "Invalid value.");
 		this.count = limited.readUnsignedShort();
 		if (limited.hasRemaining()) {
@@ -106,6 +116,21 @@ public class RangeTag extends AbstractILTag {
 		}
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return (this.first == ((RangeTag) other).first) && (this.count == ((RangeTag) other).count);
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return 31 * Long.hashCode(this.first) + this.count;
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 8 + 4;
+	}
+
 	/**
 	 * Creates the standard range tag.
 	 * 
@@ -0,0 +1,259 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.basic;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import io.il2.iltags.ilint.ILIntDecoder;
+import io.il2.iltags.ilint.ILIntEncoder;
+import io.il2.iltags.tags.AbstractILTag;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.ILTagFactory;
+import io.il2.iltags.tags.ILTagHeader;
+import io.il2.iltags.tags.ILTagUtils;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.UnsupportedTagException;
+import io.il2.iltags.utils.ByteArrayUtils;
+import io.il2.iltags.utils.HeapSizeUtils;
+
+/**
+ * This class implements a tag that holds the serialization of any other tag,
+ * header included, without decoding its value. It can be used with any tag id,
+ * reserved containers and implicit tags included, thus it allows the parts of
+ * a tag that are not relevant to the application to pass through untouched.
+ * 
+ * <p>
+ * The serialization is kept in a single array, thus the serialization of this
+ * tag is a single copy of it.
+ * </p>
+ * 
+ * <p>
+ * The value is always kept byte by byte, but the header is rebuilt from the
+ * tag id and the value size using the canonical ILInt encoding. Thus, inputs
+ * whose headers use non-canonical ILInts are canonicalized. The headers of the
+ * inner tags of raw containers are part of the value and are never changed.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class RawTag extends AbstractILTag {
+
+	/**
+	 * The header followed by the value.
+	 */
+	private byte[] bytes;
+
+	private int valueOffset;
+
+	/**
+	 * Creates a new instance of this class with an empty value.
+	 * 
+	 * @param tagId The tag id.
+	 */
+	public RawTag(long tagId) {
+		super(tagId);
+		allocate(0);
+	}
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param tagId The tag id.
+	 * @param value The value.
+	 * @throws IllegalArgumentException If the value is not valid for the given
+	 *                                  implicit tag id.
+	 */
+	public RawTag(long tagId, byte[] value) {
+		super(tagId);
+		setValue(value);
+	}
+
+	/**
+	 * Returns a copy of the value.
+	 * 
+	 * @return The value.
+	 */
+	public byte[] getValue() {
+		return Arrays.copyOfRange(bytes, valueOffset, bytes.length);
+	}
+
+	/**
+	 * Sets the value. The values of the implicit tags must have the size required
+	 * by their tag ids.
+	 * 
+	 * @param value The value.
+	 * @throws IllegalArgumentException If the value is not valid for the implicit
+	 *                                  tag id of this tag.
+	 */
+	public void setValue(byte[] value) {
+		checkModifiable();
+		checkImplicitValue(getTagID(), value);
+		allocate(value.length);
+		System.arraycopy(value, 0, bytes, valueOffset, value.length);
+	}
+
+	/**
+	 * Returns the value without copying it.
+	 * 
+	 * @return A read-only buffer with the value.
+	 */
+	public ByteBuffer getValueBuffer() {
+		return ByteBuffer.wrap(bytes, valueOffset, bytes.length - valueOffset).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Decodes the serialization held by this tag.
+	 * 
+	 * @param factory The factory used to decode the tag.
+	 * @return The decoded tag.
+	 * @throws ILTagException If the tag cannot be decoded.
+	 */
+	public ILTag decode(ILTagFactory factory) throws ILTagException {
+		return factory.fromBytes(bytes);
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		allocate(0);
+	}
+
+	@Override
+	public long getValueSize() {
+		return bytes.length - valueOffset;
+	}
+
+	@Override
+	public long getTagSize() {
+		return bytes.length;
+	}
+
+	@Override
+	public void serialize(DataOutput out) throws IOException, ILTagException {
+		out.write(bytes);
+	}
+
+	@Override
+	public byte[] toBytes() throws ILTagException {
+		return bytes.clone();
+	}
+
+	@Override
+	public void serializeValue(DataOutput out) throws IOException {
+		out.write(bytes, valueOffset, bytes.length - valueOffset);
+	}
+
+	/**
+	 * Reads the value. The values of the implicit ILInt tags are read according to
+	 * their own headers.
+	 * 
+	 * @throws UnsupportedTagException If the size of the value cannot be
+	 *                                 determined.
+	 */
+	@Override
+	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
+			throws IOException, ILTagException {
+		checkModifiable();
+		if (valueSize < 0) {
+			if (!isILIntTag(getTagID())) {
+				throw new UnsupportedTagException("Unable to determine the size of the tag %1$X.", getTagID());
+			}
+			int first = in.readUnsignedByte();
+			allocate(ILIntDecoder.sizeFromHeader(first));
+			bytes[valueOffset] = (byte) first;
+			in.readFully(bytes, valueOffset + 1, bytes.length - valueOffset - 1);
+		} else {
+			ILTagUtils.assertTagSizeLimit(valueSize);
+			allocate((int) valueSize);
+			in.readFully(bytes, valueOffset, (int) valueSize);
+		}
+	}
+
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		return Arrays.equals(bytes, ((RawTag) other).bytes);
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return ByteArrayUtils.hashCode(bytes, valueOffset, bytes.length - valueOffset);
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return HeapSizeUtils.REFERENCE_SIZE + 4 + HeapSizeUtils.sizeOf(bytes);
+	}
+
+	/**
+	 * Allocates the array and writes the canonical header.
+	 */
+	private void allocate(int valueSize) {
+		long tagId = getTagID();
+		int headerSize = (int) ILTagHeader.getSerializedSize(tagId, valueSize);
+		byte[] b = new byte[headerSize + valueSize];
+		int off = ILIntEncoder.encode(tagId, b, 0);
+		if (!TagID.isImplicit(tagId)) {
+			ILIntEncoder.encode(valueSize, b, off);
+		}
+		this.bytes = b;
+		this.valueOffset = headerSize;
+	}
+
+	private static boolean isILIntTag(long tagId) {
+		return (tagId == TagID.IL_ILINT_TAG_ID) || (tagId == TagID.IL_SIGNED_ILINT_TAG_ID);
+	}
+
+	private static void checkImplicitValue(long tagId, byte[] value) {
+		if (!TagID.isImplicit(tagId)) {
+			return;
+		}
+		long size = TagID.getImplicitValueSize(tagId);
+		if (size < 0) {
+			if (!isILIntTag(tagId)) {
+				throw new IllegalArgumentException(
+						String.format("The size of the values of the tag %1$X is unknown.", tagId));
+			}
+			if ((value.length == 0) || (ILIntDecoder.sizeFromHeader(value[0]) != value.length)) {
+				throw new IllegalArgumentException("Invalid ILInt value.");
+			}
+		} else if (size != value.length) {
+			throw new IllegalArgumentException(
+					String.format("The value of the tag %1$X must have %2$d bytes.", tagId, size));
+		}
+	}
+}
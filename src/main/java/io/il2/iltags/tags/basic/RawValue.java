@@ -0,0 +1,201 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.basic;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import io.il2.iltags.io.ArenaDataInput;
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.ByteBufferDataOutput;
+import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.ILTagUtils;
+import io.il2.iltags.utils.ByteArrayUtils;
+import io.il2.iltags.utils.HeapSizeUtils;
+
+/**
+ * This class holds the serialized value of a lazy tag. The value is copied from
+ * the input unless the input is an io.il2.iltags.io.ArenaDataInput, in which
+ * case it is a view into its backing array. All positions used by this class
+ * are relative to the start of the value.
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+final class RawValue {
+
+	byte[] buffer;
+
+	int offset;
+
+	int size;
+
+	private boolean shared;
+
+	/**
+	 * Reads the value from the input.
+	 * 
+	 * @param valueSize The size of the value.
+	 * @param in        The data input.
+	 * @throws IOException    In case of IO error.
+	 * @throws ILTagException If the value is too large or truncated.
+	 */
+	void read(long valueSize, DataInput in) throws IOException, ILTagException {
+		ILTagUtils.assertTagSizeLimit(valueSize);
+		int size = (int) valueSize;
+		try {
+			ArenaDataInput arena = ArenaDataInput.of(in);
+			if (arena != null) {
+				this.offset = arena.skipView(in, size);
+				this.buffer = arena.getArray();
+				this.shared = true;
+			} else {
+				byte[] tmp = new byte[size];
+				in.readFully(tmp);
+				this.offset = 0;
+				this.buffer = tmp;
+				this.shared = false;
+			}
+		} catch (EOFException e) {
+			throw new CorruptedTagException("Invalid serialization format.");
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Releases the value.
+	 */
+	void clear() {
+		this.buffer = null;
+		this.shared = false;
+	}
+
+	/**
+	 * Copies the value out of the backing array of the input, if required.
+	 */
+	void detach() {
+		if (this.shared) {
+			this.buffer = Arrays.copyOfRange(this.buffer, this.offset, this.offset + this.size);
+			this.offset = 0;
+			this.shared = false;
+		}
+	}
+
+	/**
+	 * Returns an input that reads a region of the value. Regions of views are read
+	 * through an ArenaDataInput, thus the tags read from it may also be views.
+	 * 
+	 * @param start The start of the region.
+	 * @param end   The end of the region.
+	 * @return The data input.
+	 */
+	DataInput open(int start, int end) {
+		if (this.shared) {
+			return new ArenaDataInput(this.buffer, this.offset + start, end - start);
+		} else {
+			return new ByteBufferDataInput(this.buffer, this.offset + start, end - start);
+		}
+	}
+
+	/**
+	 * Writes a region of the value.
+	 * 
+	 * @param start The start of the region.
+	 * @param end   The end of the region.
+	 * @param out   The data output.
+	 * @throws IOException In case of IO error.
+	 */
+	void write(int start, int end, DataOutput out) throws IOException {
+		out.write(this.buffer, this.offset + start, end - start);
+	}
+
+	/**
+	 * Verifies if both values have the same bytes.
+	 * 
+	 * @param other The other value.
+	 * @return true if the values are equal.
+	 */
+	boolean sameBytes(RawValue other) {
+		return ByteArrayUtils.equals(this.buffer, this.offset, this.size, other.buffer, other.offset, other.size);
+	}
+
+	/**
+	 * Computes the hash code of the value. The result is the same as
+	 * java.util.Arrays.hashCode(byte[]) of the serialized value.
+	 * 
+	 * @return The hash code.
+	 */
+	int hash() {
+		return ByteArrayUtils.hashCode(this.buffer, this.offset, this.size);
+	}
+
+	/**
+	 * Serializes the value of a tag into a new array.
+	 * 
+	 * @param tag The tag.
+	 * @return The serialized value.
+	 * @throws IllegalStateException If the value cannot be serialized.
+	 */
+	static byte[] toValueBytes(ILTag tag) {
+		long valueSize = tag.getValueSize();
+		if (valueSize > Integer.MAX_VALUE) {
+			throw new IllegalStateException("The value is too large.");
+		}
+		ByteBuffer buff = ByteBuffer.allocate((int) valueSize);
+		try {
+			tag.serializeValue(new ByteBufferDataOutput(buff));
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to serialize the value.", e);
+		}
+		return buff.array();
+	}
+
+	/**
+	 * Estimates the heap retained by this instance. If the value is shared with
+	 * the input, only the region used is accounted for.
+	 * 
+	 * @return The estimated size in bytes.
+	 */
+	long estimateRetainedSize() {
+		long size = HeapSizeUtils.objectSize(HeapSizeUtils.REFERENCE_SIZE + 4 + 4 + 1);
+		if (this.buffer != null) {
+			size += this.shared ? HeapSizeUtils.align(this.size) : HeapSizeUtils.sizeOf(this.buffer);
+		}
+		return size;
+	}
+}
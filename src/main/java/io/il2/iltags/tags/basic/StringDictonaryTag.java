@@ -35,6 +35,8 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -42,11 +44,13 @@ import io.il2.iltags.ilint.ILIntEncoder;
 import io.il2.iltags.io.LimitedDataInput;
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
 import io.il2.iltags.tags.UnexpectedTagException;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 /**
  * This class implements the string dictionary tag. It maps strings to ILTag
@@ -63,12 +67,33 @@ public class StringDictonaryTag extends AbstractILTag {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the map of values. If this tag is frozen, the returned map is
+	 * read-only.
+	 * 
+	 * @return The map of values.
+	 */
 	public Map<String, String> getValues() {
+		if (isFrozen()) {
+			return Collections.unmodifiableMap(values);
+		}
 		return values;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		if (this.values != null) {
+			this.values.clear();
+		}
+	}
+
 	@Override
 	public long getValueSize() {
+		long cached = getCachedValueSize();
+		if (cached >= 0) {
+			return cached;
+		}
 		if (values != null) {
 			long size = ILIntEncoder.encodedSize(values.size());
 			for (Map.Entry<String, String> e : values.entrySet()) {
@@ -97,11 +122,13 @@ public class StringDictonaryTag extends AbstractILTag {
 	private void deserializeValueCore(ILTagFactory factory, LimitedDataInput in) throws IOException, ILTagException {
 		long count = ILTagUtils.readILInt(in, "Invalid counter.");
 		ILTagUtils.assertArraySize(count, 1 + 1 + 1 + 1, in.remaining());
+		DecodeLimits limits = DecodeLimits.of(factory);
+		limits.checkElements(count);
 		this.values.clear();
 		try {
 			for (int i = 0; i < (int) count; i++) {
-				String key = StringTag.deserializeStandardStringTag(in);
-				String value = StringTag.deserializeStandardStringTag(in);
+				String key = StringTag.deserializeStandardStringTag(in, limits);
+				String value = StringTag.deserializeStandardStringTag(in, limits);
 				this.values.put(key, value);
 			}
 		} catch (UnexpectedTagException e) {
@@ -112,11 +139,12 @@ public class StringDictonaryTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		ILTagUtils.assertTagSizeLimit(valueSize);
 		if (valueSize < 1) {
 			throw new CorruptedTagException("Invalid dictionary tag.");
 		}
-		LimitedDataInput limitedInput = new LimitedDataInput(in, (int) valueSize);
+		LimitedDataInput limitedInput = LimitedDataInput.limit(in, (int) valueSize);
 		try {
 			deserializeValueCore(factory, limitedInput);
 		} catch (EOFException e) {
@@ -127,6 +155,47 @@ public class StringDictonaryTag extends AbstractILTag {
 		}
 	}
 
+	/**
+	 * The entries are compared in order, just like their serializations.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		Map<String, String> a = getValues();
+		Map<String, String> b = ((StringDictonaryTag) other).getValues();
+		if (a.size() != b.size()) {
+			return false;
+		}
+		Iterator<Map.Entry<String, String>> ib = b.entrySet().iterator();
+		for (Map.Entry<String, String> ea : a.entrySet()) {
+			Map.Entry<String, String> eb = ib.next();
+			if (!StringTag.emptyIfNull(ea.getKey()).equals(StringTag.emptyIfNull(eb.getKey()))
+					|| !StringTag.emptyIfNull(ea.getValue()).equals(StringTag.emptyIfNull(eb.getValue()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	protected int valueHashCode() {
+		int h = 1;
+		for (Map.Entry<String, String> e : getValues().entrySet()) {
+			h = 31 * h + (StringTag.emptyIfNull(e.getKey()).hashCode() ^ StringTag.emptyIfNull(e.getValue()).hashCode());
+		}
+		return h;
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		long size = HeapSizeUtils.REFERENCE_SIZE + HeapSizeUtils.mapSize(values);
+		if (values != null) {
+			for (Map.Entry<String, String> e : values.entrySet()) {
+				size += HeapSizeUtils.sizeOf(e.getKey()) + HeapSizeUtils.sizeOf(e.getValue());
+			}
+		}
+		return size;
+	}
+
 	/**
 	 * Creates the standard string dictionary tag.
 	 * 
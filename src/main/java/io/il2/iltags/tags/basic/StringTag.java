@@ -39,14 +39,20 @@ import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
 
 import io.il2.iltags.ilint.ILIntEncoder;
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeContext;
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.ILTagException;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.ILTagHeader;
 import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
 import io.il2.iltags.tags.UnexpectedTagException;
+import io.il2.iltags.utils.ByteArrayUtils;
+import io.il2.iltags.utils.HeapSizeUtils;
 import io.il2.iltags.utils.UTF8Utils;
 
 /**
@@ -54,6 +60,12 @@ import io.il2.iltags.utils.UTF8Utils;
  * strings as empty strings during the tag serialization but will never leave
  * the value as null during the deserialization of the class.
  * 
+ * <p>
+ * When deserialized from an io.il2.iltags.io.ArenaDataInput, the value is kept
+ * as a view into the UTF-8 bytes in the backing array of the input. It is
+ * decoded when the value is requested or the tag is detached.
+ * </p>
+ * 
  * @author Fabio Jun Takada Chino
  * @since 2022.06.02
  */
@@ -61,21 +73,108 @@ public class StringTag extends AbstractILTag {
 
 	protected String value;
 
+	/**
+	 * Backing array of the view or null if this tag is not a view.
+	 */
+	private byte[] viewArray;
+
+	private int viewOffset;
+
+	private int viewLength;
+
 	public StringTag(long tagId) {
 		super(tagId);
 	}
 
+	/**
+	 * Returns the value.
+	 * 
+	 * <p>
+	 * If this tag is a view, this method detaches it, thus this tag stops
+	 * referencing the backing array of the input. Frozen tags are never views
+	 * because freeze() detaches them. Use getValueBuffer() to access the UTF-8
+	 * bytes without decoding or detaching the view.
+	 * </p>
+	 * 
+	 * @return The value.
+	 */
 	public String getValue() {
+		if (viewArray != null) {
+			detach();
+		}
 		return value;
 	}
 
+	/**
+	 * Returns the UTF-8 encoding of the value without detaching the view. The
+	 * returned buffer is read-only and may be a view into the backing array of
+	 * the input.
+	 * 
+	 * @return The encoded value or null if the value is null.
+	 * @since 2026.10.19
+	 */
+	public ByteBuffer getValueBuffer() {
+		if (viewArray != null) {
+			return ByteBuffer.wrap(viewArray, viewOffset, viewLength).slice().asReadOnlyBuffer();
+		} else if (value != null) {
+			return ByteBuffer.wrap(value.getBytes(UTF8Utils.UTF8)).asReadOnlyBuffer();
+		} else {
+			return null;
+		}
+	}
+
 	public void setValue(String value) {
+		checkModifiable();
 		this.value = value;
+		this.viewArray = null;
+	}
+
+	/**
+	 * Returns true if the value of this tag is a view into the backing array of
+	 * the input.
+	 * 
+	 * @return true if this tag is a view or false otherwise.
+	 * @since 2026.10.19
+	 */
+	public boolean isView() {
+		return viewArray != null;
+	}
+
+	/**
+	 * Views are detached before the serialization is cached, thus the frozen tag
+	 * does not depend on the backing array of the input.
+	 */
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		detach();
+	}
+
+	@Override
+	public void detach() {
+		if (viewArray != null) {
+			if (value == null) {
+				value = new String(viewArray, viewOffset, viewLength, UTF8Utils.UTF8);
+			}
+			viewArray = null;
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		this.value = null;
+		this.viewArray = null;
 	}
 
 	@Override
 	public long getValueSize() {
-		if (value != null) {
+		long cached = getCachedValueSize();
+		if (cached >= 0) {
+			return cached;
+		}
+		if (viewArray != null) {
+			return viewLength;
+		} else if (value != null) {
 			return UTF8Utils.getEncodedSize(value);
 		} else {
 			return 0;
@@ -84,7 +183,9 @@ public class StringTag extends AbstractILTag {
 
 	@Override
 	public void serializeValue(DataOutput out) throws IOException {
-		if (value != null) {
+		if (viewArray != null) {
+			out.write(viewArray, viewOffset, viewLength);
+		} else if (value != null) {
 			writeUTF8String(value, out);
 		}
 	}
@@ -92,8 +193,23 @@ public class StringTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		ILTagUtils.assertTagSizeLimit(valueSize);
-		value = readUTF8String((int) valueSize, in);
+		DecodeLimits.of(factory).checkStringLength(valueSize);
+		ArenaDataInput arena = ArenaDataInput.of(in);
+		if (arena != null) {
+			int offset = arena.skipView(in, (int) valueSize);
+			if (!UTF8Utils.isValid(arena.getArray(), offset, (int) valueSize)) {
+				throw new CorruptedTagException("Invalid UTF-8 string.");
+			}
+			value = null;
+			viewOffset = offset;
+			viewLength = (int) valueSize;
+			viewArray = arena.getArray();
+		} else {
+			value = readUTF8String((int) valueSize, in);
+			viewArray = null;
+		}
 	}
 
 	/**
@@ -120,6 +236,10 @@ public class StringTag extends AbstractILTag {
 	 * @throws ILTagException If the data ins invalid.
 	 */
 	protected static String readUTF8String(int size, DataInput in) throws IOException, ILTagException {
+		DecodeContext context = DecodeContext.of(in);
+		if (context != null) {
+			return context.readUTF8String(size, in);
+		}
 		ByteBuffer buff = ByteBuffer.allocate(size);
 		in.readFully(buff.array(), 0, size);
 		try {
@@ -200,11 +320,31 @@ public class StringTag extends AbstractILTag {
 	 */
 	public static String deserializeStringTag(long id, DataInput in)
 			throws IOException, UnexpectedTagException, ILTagException {
-		ILTagHeader header = ILTagUtils.readHeader(in);
+		return deserializeStringTag(id, in, DecodeLimits.UNLIMITED);
+	}
+
+	/**
+	 * Deserializes a string directly from a string tag. The size of the string is
+	 * verified before it is read.
+	 * 
+	 * @param id     The expected tag id.
+	 * @param in     The data input.
+	 * @param limits The limits to be enforced.
+	 * @return The deserialized string.
+	 * @throws IOException            In case of IO error.
+	 * @throws UnexpectedTagException If the tag id does not match.
+	 * @throws TagTooLargeException   If the string exceeds the limits.
+	 * @throws ILTagException         In case of serialization error.
+	 * @since 2026.10.19
+	 */
+	public static String deserializeStringTag(long id, DataInput in, DecodeLimits limits)
+			throws IOException, UnexpectedTagException, ILTagException {
+		DecodeContext context = DecodeContext.of(in);
+		ILTagHeader header = (context != null) ? context.readHeader(in) : ILTagUtils.readHeader(in);
 		if (header.tagId != id) {
-			throw new UnexpectedTagException(
-					String.format("Expecting string tag with id %1$X but found %2$X.", id, header.tagId));
+			throw new UnexpectedTagException("Expecting string tag with id %1$X but found %2$X.", id, header.tagId);
 		}
+		limits.checkStringLength(header.valueSize);
 		return readUTF8String((int) header.valueSize, in);
 	}
 
@@ -221,6 +361,70 @@ public class StringTag extends AbstractILTag {
 		return deserializeStringTag(TagID.IL_STRING_TAG_ID, in);
 	}
 
+	/**
+	 * Deserializes a string directly from a standard string tag.
+	 * 
+	 * @param in     The data input.
+	 * @param limits The limits to be enforced.
+	 * @return The deserialized string.
+	 * @throws IOException            In case of IO error.
+	 * @throws UnexpectedTagException If the tag id does not match.
+	 * @throws TagTooLargeException   If the string exceeds the limits.
+	 * @throws ILTagException         In case of serialization error.
+	 * @since 2026.10.19
+	 */
+	public static String deserializeStandardStringTag(DataInput in, DecodeLimits limits)
+			throws IOException, ILTagException {
+		return deserializeStringTag(TagID.IL_STRING_TAG_ID, in, limits);
+	}
+
+	/**
+	 * The values are compared without detaching the views. A null value is equal
+	 * to an empty string because both are serialized in the same way.
+	 */
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		StringTag o = (StringTag) other;
+		if (viewArray != null) {
+			if (o.viewArray != null) {
+				return ByteArrayUtils.equals(viewArray, viewOffset, viewLength, o.viewArray, o.viewOffset,
+						o.viewLength);
+			}
+			return UTF8Utils.contentEquals(viewArray, viewOffset, viewLength, emptyIfNull(o.value));
+		} else if (o.viewArray != null) {
+			return UTF8Utils.contentEquals(o.viewArray, o.viewOffset, o.viewLength, emptyIfNull(value));
+		} else {
+			return emptyIfNull(value).equals(emptyIfNull(o.value));
+		}
+	}
+
+	@Override
+	protected int valueHashCode() {
+		if (viewArray != null) {
+			return UTF8Utils.hashCode(viewArray, viewOffset, viewLength);
+		}
+		return emptyIfNull(value).hashCode();
+	}
+
+	/**
+	 * Replaces null strings with empty strings, as done by the serialization.
+	 * 
+	 * @param s The string.
+	 * @return The string or an empty string if it is null.
+	 */
+	static String emptyIfNull(String s) {
+		return (s != null) ? s : "";
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		long size = 2 * HeapSizeUtils.REFERENCE_SIZE + 2 * 4 + HeapSizeUtils.sizeOf(value);
+		if (viewArray != null) {
+			size += HeapSizeUtils.align(viewLength);
+		}
+		return size;
+	}
+
 	/**
 	 * Creates the standard string tag.
 	 * 
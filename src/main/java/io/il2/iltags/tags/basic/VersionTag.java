@@ -63,6 +63,7 @@ public class VersionTag extends AbstractILTag {
 	}
 
 	public void setMajor(int major) {
+		checkModifiable();
 		this.major = major;
 	}
 
@@ -71,6 +72,7 @@ public class VersionTag extends AbstractILTag {
 	}
 
 	public void setMinor(int minor) {
+		checkModifiable();
 		this.minor = minor;
 	}
 
@@ -79,6 +81,7 @@ public class VersionTag extends AbstractILTag {
 	}
 
 	public void setRevision(int revision) {
+		checkModifiable();
 		this.revision = revision;
 	}
 
@@ -87,9 +90,19 @@ public class VersionTag extends AbstractILTag {
 	}
 
 	public void setBuild(int build) {
+		checkModifiable();
 		this.build = build;
 	}
 
+	@Override
+	public void reset() {
+		super.reset();
+		this.major = 0;
+		this.minor = 0;
+		this.revision = 0;
+		this.build = 0;
+	}
+
 	@Override
 	public long getValueSize() {
 		return 4 + 4 + 4 + 4;
@@ -106,6 +119,7 @@ public class VersionTag extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		if (valueSize != 16) {
 			throw new CorruptedTagException("Invalid value size.");
 		}
@@ -115,6 +129,23 @@ public class VersionTag extends AbstractILTag {
 		build = in.readInt();
 	}
 
+	@Override
+	protected boolean valueEquals(AbstractILTag other) {
+		VersionTag o = (VersionTag) other;
+		return (this.major == o.major) && (this.minor == o.minor) && (this.revision == o.revision)
+				&& (this.build == o.build);
+	}
+
+	@Override
+	protected int valueHashCode() {
+		return ((31 * this.major + this.minor) * 31 + this.revision) * 31 + this.build;
+	}
+
+	@Override
+	protected long estimateValueRetainedSize() {
+		return 4 * 4;
+	}
+
 	/**
 	 * Creates the standard version tag.
 	 * 
@@ -155,5 +155,13 @@
  * <td>io.il2.iltags.tags.basic.StringDictionaryTag</td>
  * </tr>
  * </table>
+ * 
+ * <p>
+ * The classes io.il2.iltags.tags.basic.LazyILTagArrayTag and
+ * io.il2.iltags.tags.basic.LazyDictonaryTag are alternative implementations of
+ * IL_ILTAGARRAY_TAG and IL_DICTIONARY_TAG that decode their inner tags on
+ * demand. They are created by io.il2.iltags.tags.factory.TagFactory when
+ * requested.
+ * </p>
  */
 package io.il2.iltags.tags.basic;
\ No newline at end of file
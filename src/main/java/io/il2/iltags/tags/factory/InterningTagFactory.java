@@ -0,0 +1,373 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.factory;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.tags.AbstractILTag;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.utils.ByteArrayUtils;
+
+/**
+ * This class implements a TagFactory that interns small tags. Whenever the
+ * value of a tag fits within the configured size, its serialized value is
+ * looked up in a cache shared by all threads. If the same tag was interned
+ * before, the canonical instance is returned instead of a new one. Otherwise
+ * the tag is deserialized and, if its value was already seen recently, it is
+ * frozen and added to the cache. Thus unique values, like ids and timestamps,
+ * are never copied, frozen or interned.
+ * 
+ * <p>
+ * This factory is useful when the same subtrees appear over and over again,
+ * like the same issuer dictionaries, OIDs or version tags in large amounts of
+ * records kept in memory. All interned tags are frozen, thus they cannot be
+ * modified. Tags larger than the configured size are deserialized as usual,
+ * but their inner tags may still be interned. The shared instances of
+ * TagFlyweights are used by default.
+ * </p>
+ * 
+ * <p>
+ * The cache is bounded by the number of entries. Once it is full, the entries
+ * that were not found since the previous eviction are removed, thus the tags
+ * that keep appearing stay interned. If that is not enough, arbitrary entries
+ * are removed until a quarter of the cache is free. Instances of this class
+ * are thread-safe.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class InterningTagFactory extends TagFactory {
+
+	/**
+	 * Default maximum size of the value of the interned tags.
+	 */
+	public static final int DEFAULT_MAX_VALUE_SIZE = 256;
+
+	/**
+	 * Default maximum number of interned tags.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+	private volatile int maxValueSize = DEFAULT_MAX_VALUE_SIZE;
+
+	private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+	private final ConcurrentHashMap<Key, Entry> cache = new ConcurrentHashMap<>();
+
+	private final Object evictionLock = new Object();
+
+	/**
+	 * Fingerprints of the values seen recently, indexed by their lower bits. A
+	 * value is only interned if its fingerprint is found here.
+	 */
+	private volatile int[] seen = createSeen(DEFAULT_MAX_ENTRIES);
+
+	private final ThreadLocal<Probes> probes = new ThreadLocal<Probes>() {
+		@Override
+		protected Probes initialValue() {
+			return new Probes();
+		}
+	};
+
+	/**
+	 * Creates a new instance of this class with the default limits. The use of
+	 * the flyweights is enabled.
+	 * 
+	 * @param strict Strict mode.
+	 */
+	public InterningTagFactory(boolean strict) {
+		super(strict);
+		setUsingFlyweights(true);
+	}
+
+	/**
+	 * Returns the maximum size of the value of the interned tags.
+	 * 
+	 * @return The maximum value size.
+	 */
+	public int getMaxValueSize() {
+		return maxValueSize;
+	}
+
+	/**
+	 * Sets the maximum size of the value of the interned tags.
+	 * 
+	 * @param maxValueSize The maximum value size.
+	 * @since 2026.10.19
+	 */
+	public void setMaxValueSize(int maxValueSize) {
+		if (maxValueSize < 0) {
+			throw new IllegalArgumentException("The maximum value size cannot be negative.");
+		}
+		this.maxValueSize = maxValueSize;
+	}
+
+	/**
+	 * Returns the maximum number of interned tags.
+	 * 
+	 * @return The maximum number of entries.
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Sets the maximum number of interned tags. It takes effect the next time an
+	 * entry is added to the cache.
+	 * 
+	 * @param maxEntries The maximum number of entries.
+	 * @since 2026.10.19
+	 */
+	public void setMaxEntries(int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("The maximum number of entries must be positive.");
+		}
+		this.maxEntries = maxEntries;
+		this.seen = createSeen(maxEntries);
+	}
+
+	private static int[] createSeen(int maxEntries) {
+		// At least 4 times the number of entries, as a power of 2, in order to make
+		// the collisions rare even in small caches.
+		int size = Integer.highestOneBit(Math.min(maxEntries, 1 << 20) * 4 - 1) << 1;
+		return new int[Math.max(size, 1024)];
+	}
+
+	/**
+	 * Returns the number of interned tags.
+	 * 
+	 * @return The number of entries in the cache.
+	 */
+	public int getCacheSize() {
+		return cache.size();
+	}
+
+	/**
+	 * Removes all interned tags from the cache.
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+
+	@Override
+	protected ILTag deserializeTag(long tagId, long valueSize, DataInput in) throws IOException, ILTagException {
+		ILTag tag;
+		if (isUsingFlyweights() && !isRawTag(tagId)) {
+			tag = deserializeFlyweight(tagId, valueSize, in);
+			if (tag != null) {
+				return tag;
+			}
+		}
+		int max = this.maxValueSize;
+		if ((valueSize < 0) || (valueSize > max)) {
+			return super.deserializeTag(tagId, valueSize, in);
+		}
+		Probes local = probes.get();
+		Key probe = local.get((int) valueSize);
+		in.readFully(probe.data, 0, (int) valueSize);
+		probe.set(tagId, (int) valueSize);
+		Entry entry = cache.get(probe);
+		if (entry != null) {
+			entry.found();
+			return entry.tag;
+		}
+		int[] recent = this.seen;
+		long fingerprint = probe.fingerprint();
+		int slot = (int) fingerprint & (recent.length - 1);
+		int check = (int) (fingerprint >>> 32);
+		if (recent[slot] != check) {
+			// First time seen recently, thus it is decoded from the probe as usual.
+			recent[slot] = check;
+			local.level++;
+			try {
+				return super.deserializeTag(tagId, valueSize,
+						new ByteBufferDataInput(probe.data, 0, (int) valueSize));
+			} finally {
+				local.level--;
+			}
+		}
+		Key key = probe.copy();
+		tag = super.deserializeTag(tagId, valueSize, new ByteBufferDataInput(key.data));
+		if (!(tag instanceof AbstractILTag)) {
+			return tag;
+		}
+		((AbstractILTag) tag).freeze();
+		if (cache.size() >= maxEntries) {
+			evict();
+		}
+		entry = new Entry(tag);
+		Entry previous = cache.putIfAbsent(key, entry);
+		return (previous != null) ? previous.tag : tag;
+	}
+
+	/**
+	 * Removes the entries that were not found since the last eviction. If it
+	 * frees less than a quarter of the cache, other entries are removed as well.
+	 */
+	private void evict() {
+		synchronized (evictionLock) {
+			int max = this.maxEntries;
+			if (cache.size() < max) {
+				return;
+			}
+			Iterator<Entry> it = cache.values().iterator();
+			while (it.hasNext()) {
+				Entry e = it.next();
+				if (e.found) {
+					e.found = false;
+				} else {
+					it.remove();
+				}
+			}
+			int target = max - Math.max(max / 4, 1);
+			it = cache.values().iterator();
+			while ((cache.size() > target) && it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Entry of the cache.
+	 */
+	private static final class Entry {
+
+		final ILTag tag;
+
+		/**
+		 * Set when the entry is found. The races are harmless, as it is only a hint
+		 * for the eviction.
+		 */
+		boolean found;
+
+		Entry(ILTag tag) {
+			this.tag = tag;
+		}
+
+		void found() {
+			if (!this.found) {
+				this.found = true;
+			}
+		}
+	}
+
+	/**
+	 * Probes of a thread, one per nesting level of the values being read. Each
+	 * probe grows with the values read, thus it never retains more than the
+	 * largest value read at its level.
+	 */
+	private static final class Probes {
+
+		private Key[] keys = new Key[8];
+
+		int level;
+
+		Key get(int size) {
+			if (level == keys.length) {
+				keys = Arrays.copyOf(keys, level * 2);
+			}
+			Key probe = keys[level];
+			if ((probe == null) || (probe.data.length < size)) {
+				probe = new Key(new byte[size]);
+				keys[level] = probe;
+			}
+			return probe;
+		}
+	}
+
+	/**
+	 * Key of the cache. It holds the tag id and the serialized value.
+	 */
+	private static final class Key {
+
+		final byte[] data;
+
+		long tagId;
+
+		int length;
+
+		int hash;
+
+		Key(byte[] data) {
+			this.data = data;
+		}
+
+		void set(long tagId, int length) {
+			this.tagId = tagId;
+			this.length = length;
+			this.hash = 31 * Long.hashCode(tagId) + ByteArrayUtils.hashCode(data, 0, length);
+		}
+
+		/**
+		 * Computes a 64-bit FNV-1a hash of the key. Unlike hashCode(), it also
+		 * disperses values that differ in a few bytes, like sequential ids.
+		 */
+		long fingerprint() {
+			long h = 0xCBF29CE484222325L ^ tagId;
+			for (int i = 0; i < length; i++) {
+				h = (h ^ (data[i] & 0xFF)) * 0x100000001B3L;
+			}
+			return h;
+		}
+
+		Key copy() {
+			Key key = new Key(Arrays.copyOf(data, length));
+			key.tagId = tagId;
+			key.length = length;
+			key.hash = hash;
+			return key;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return (this.tagId == other.tagId) && (this.hash == other.hash)
+					&& ByteArrayUtils.equals(this.data, 0, this.length, other.data, 0, other.length);
+		}
+	}
+}
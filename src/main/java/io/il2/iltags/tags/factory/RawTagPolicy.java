@@ -0,0 +1,72 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.factory;
+
+import java.util.Arrays;
+
+/**
+ * This interface defines the policy used by TagFactory to decide which tags
+ * must not be decoded. Those tags are created as
+ * io.il2.iltags.tags.basic.RawTag instances that keep their values untouched.
+ * 
+ * <p>
+ * The policy selects the tags only by their ids, wherever they appear. To
+ * select the raw tags by their paths, use the pass-through mode of
+ * io.il2.iltags.tags.IterativeTagDeserializer with an
+ * io.il2.iltags.tags.ILTagProjection instead.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public interface RawTagPolicy {
+
+	/**
+	 * Verifies if the given tag must be kept raw.
+	 * 
+	 * @param tagId The tag id.
+	 * @return true if the tag must be kept raw or false if it must be decoded.
+	 */
+	boolean isRaw(long tagId);
+
+	/**
+	 * Creates a policy that keeps raw only the given tag ids.
+	 * 
+	 * @param tagIds The tag ids.
+	 * @return The new policy.
+	 */
+	static RawTagPolicy of(long... tagIds) {
+		long[] sorted = tagIds.clone();
+		Arrays.sort(sorted);
+		return (tagId) -> Arrays.binarySearch(sorted, tagId) >= 0;
+	}
+}
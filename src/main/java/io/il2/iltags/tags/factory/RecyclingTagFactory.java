@@ -0,0 +1,135 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.factory;
+
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+
+/**
+ * This class implements a TagFactory that recycles the tag instances. Tags
+ * returned to the factory by release(ILTag) are reset and kept in a pool bound
+ * to the current thread. They are later returned by createTag(long) instead of
+ * new instances.
+ * 
+ * <p>
+ * The released tags must not be used or released again by the caller, as they
+ * will be handed to other calls of createTag(long). Frozen tags are never
+ * recycled. The pools are per thread, thus instances of this class are still
+ * thread-safe.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class RecyclingTagFactory extends TagFactory {
+
+	/**
+	 * Default maximum number of pooled tags per tag id and per thread.
+	 */
+	public static final int DEFAULT_MAX_POOLED = 256;
+
+	private volatile int maxPooled = DEFAULT_MAX_POOLED;
+
+	private final ThreadLocal<TagPool> pools = new ThreadLocal<>();
+
+	/**
+	 * Creates a new instance of this class with the default pool size.
+	 * 
+	 * @param strict Strict mode.
+	 */
+	public RecyclingTagFactory(boolean strict) {
+		super(strict);
+	}
+
+	/**
+	 * Returns the maximum number of pooled tags.
+	 * 
+	 * @return The maximum number of pooled tags per tag id and per thread.
+	 */
+	public int getMaxPooled() {
+		return maxPooled;
+	}
+
+	/**
+	 * Sets the maximum number of pooled tags. The pools are discarded and created
+	 * again with the new size as soon as each thread uses this factory.
+	 * 
+	 * @param maxPooled The maximum number of pooled tags per tag id and per
+	 *                  thread.
+	 * @since 2026.10.19
+	 */
+	public void setMaxPooled(int maxPooled) {
+		if (maxPooled < 1) {
+			throw new IllegalArgumentException("The maximum number of pooled tags must be positive.");
+		}
+		this.maxPooled = maxPooled;
+	}
+
+	/**
+	 * Returns the pool of the current thread.
+	 * 
+	 * @return The pool.
+	 */
+	TagPool getPool() {
+		int max = this.maxPooled;
+		TagPool pool = pools.get();
+		if ((pool == null) || (pool.getMaxPerId() != max)) {
+			pool = new TagPool(max);
+			pools.set(pool);
+		}
+		return pool;
+	}
+
+	@Override
+	public ILTag createTag(long tagId) throws ILTagException {
+		TagPool pool = getPool();
+		ILTag tag = pool.acquire(tagId);
+		if (tag == null) {
+			tag = super.createTag(tagId);
+			pool.register(tag);
+		}
+		return tag;
+	}
+
+	/**
+	 * Returns the tag and all its inner tags to the pool of the current thread.
+	 * 
+	 * @param tag The tag to be released. It may be null.
+	 * @return The number of recycled tags.
+	 */
+	public int release(ILTag tag) {
+		if (tag == null) {
+			return 0;
+		}
+		return getPool().release(tag);
+	}
+}
@@ -31,11 +31,14 @@
  */
 package io.il2.iltags.tags.factory;
 
+import java.io.DataInput;
+import java.io.IOException;
 import java.util.HashMap;
 
 import io.il2.iltags.tags.AbstractTagFactory;
 import io.il2.iltags.tags.ILTag;
 import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.ILTagUtils;
 import io.il2.iltags.tags.TagID;
 import io.il2.iltags.tags.UnsupportedTagException;
 import io.il2.iltags.tags.basic.BigDecTag;
@@ -54,8 +57,11 @@ import io.il2.iltags.tags.basic.Int16Tag;
 import io.il2.iltags.tags.basic.Int32Tag;
 import io.il2.iltags.tags.basic.Int64Tag;
 import io.il2.iltags.tags.basic.Int8Tag;
+import io.il2.iltags.tags.basic.LazyDictonaryTag;
+import io.il2.iltags.tags.basic.LazyILTagArrayTag;
 import io.il2.iltags.tags.basic.NullTag;
 import io.il2.iltags.tags.basic.RangeTag;
+import io.il2.iltags.tags.basic.RawTag;
 import io.il2.iltags.tags.basic.SignedILIntTag;
 import io.il2.iltags.tags.basic.StringDictonaryTag;
 import io.il2.iltags.tags.basic.StringTag;
@@ -72,7 +78,21 @@ import io.il2.iltags.tags.basic.VersionTag;
  * </p>
  * 
  * <p>
- * Instances of this class are thread-safe.
+ * Optionally, the factory may return the shared instances of TagFlyweights
+ * for the common scalar values found during the deserialization. Those
+ * instances are frozen and cannot be modified.
+ * </p>
+ * 
+ * <p>
+ * It may also create LazyILTagArrayTag and LazyDictonaryTag instances for the
+ * standard ILTag array and dictionary tags. Those tags only decode their inner
+ * tags when they are accessed.
+ * </p>
+ * 
+ * <p>
+ * Except for the strict mode, all options are disabled by default and are set
+ * by their setters, which may be called at any time. Instances of this class
+ * are thread-safe.
  * </p>
  * 
  * @author Fabio Jun Takada Chino
@@ -96,10 +116,19 @@ public class TagFactory extends AbstractTagFactory {
 
 	private final boolean strict;
 
+	private volatile boolean flyweights;
+
+	private volatile boolean lazyContainers;
+
 	protected final HashMap<Long, TagCreator> creators = new HashMap<>();
 
+	private volatile RawTagPolicy rawTagPolicy;
+
+	private volatile long memoryBudget;
+
 	/**
-	 * Creates a new instance of this class.
+	 * Creates a new instance of this class. All other options are disabled by
+	 * default and can be changed by their setters.
 	 * 
 	 * @param strict Strict mode.
 	 */
@@ -116,6 +145,118 @@ public class TagFactory extends AbstractTagFactory {
 		return this.strict;
 	}
 
+	/**
+	 * Returns true if the deserialization uses the shared instances of
+	 * TagFlyweights.
+	 * 
+	 * @return True if the flyweights are used or false otherwise.
+	 * @since 2026.10.19
+	 */
+	public boolean isUsingFlyweights() {
+		return this.flyweights;
+	}
+
+	/**
+	 * Enables or disables the use of the shared instances of TagFlyweights.
+	 * 
+	 * @param flyweights If true, the deserialization will return the shared
+	 *                   instances of TagFlyweights whenever possible.
+	 * @since 2026.10.19
+	 */
+	public void setUsingFlyweights(boolean flyweights) {
+		this.flyweights = flyweights;
+	}
+
+	/**
+	 * Returns true if the standard ILTag array and dictionary tags are created as
+	 * lazy tags.
+	 * 
+	 * @return True if the lazy containers are used or false otherwise.
+	 * @since 2026.10.19
+	 */
+	public boolean isUsingLazyContainers() {
+		return this.lazyContainers;
+	}
+
+	/**
+	 * Enables or disables the creation of lazy containers.
+	 * 
+	 * @param lazyContainers If true, the standard ILTag array and dictionary tags
+	 *                       will be created as lazy tags.
+	 * @since 2026.10.19
+	 */
+	public void setUsingLazyContainers(boolean lazyContainers) {
+		this.lazyContainers = lazyContainers;
+	}
+
+	/**
+	 * Returns the policy that selects the tags that are kept raw.
+	 * 
+	 * @return The policy or null if all tags are decoded.
+	 * @since 2026.10.19
+	 */
+	public RawTagPolicy getRawTagPolicy() {
+		return this.rawTagPolicy;
+	}
+
+	/**
+	 * Sets the policy that selects the tags that are kept raw. Those tags are
+	 * created as instances of io.il2.iltags.tags.basic.RawTag, even if their ids
+	 * are reserved or registered. This includes the containers, whose inner tags
+	 * will not be decoded at all.
+	 * 
+	 * @param rawTagPolicy The policy or null to decode all tags.
+	 * @since 2026.10.19
+	 */
+	public void setRawTagPolicy(RawTagPolicy rawTagPolicy) {
+		this.rawTagPolicy = rawTagPolicy;
+	}
+
+	/**
+	 * Returns the memory budget.
+	 * 
+	 * @return The maximum estimated heap retained by a deserialized tag in bytes
+	 *         or 0 if there is no budget.
+	 * @since 2026.10.19
+	 */
+	@Override
+	public long getMemoryBudget() {
+		return this.memoryBudget;
+	}
+
+	/**
+	 * Sets the memory budget. Once set, each deserialization fails as soon as the
+	 * heap retained by the tags already deserialized, as estimated by
+	 * io.il2.iltags.tags.ILTag.estimateOwnRetainedSize(), exceeds the budget. The
+	 * value sizes of the tags that are not containers are also checked before the
+	 * values are read, thus large values are rejected before their allocation.
+	 * This check caps their serialized size. Shared instances such as flyweights
+	 * and interned tags are not accounted for. See
+	 * io.il2.iltags.tags.AbstractTagFactory.deserializeTag(long, long, DataInput).
+	 * 
+	 * @param memoryBudget The maximum estimated heap retained by a deserialized tag
+	 *                     in bytes. Use 0 to disable the budget.
+	 * @since 2026.10.19
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("The memory budget cannot be negative.");
+		}
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Verifies if the given tag must be kept raw according to the current policy.
+	 * 
+	 * @param tagId The tag id.
+	 * @return true if the tag must be created as a RawTag.
+	 * @since 2026.10.19
+	 */
+	protected boolean isRawTag(long tagId) {
+		RawTagPolicy policy = this.rawTagPolicy;
+		return (policy != null) && policy.isRaw(tagId);
+	}
+
 	/**
 	 * Registers a new tag creator.
 	 * 
@@ -156,7 +297,7 @@ public class TagFactory extends AbstractTagFactory {
 			return creator;
 		} else {
 			if (strict) {
-				throw new UnsupportedTagException(String.format("Tag with ID %1$X is not supported.", tagId));
+				throw new UnsupportedTagException("Tag with ID %1$X is not supported.", tagId);
 			} else {
 				return DEFAULT_TAG_CREATOR;
 			}
@@ -230,16 +371,65 @@ public class TagFactory extends AbstractTagFactory {
 		case (int) TagID.IL_STRING_DICTIONARY_TAG_ID:
 			return StringDictonaryTag.createStandard();
 		default:
-			throw new UnsupportedTagException(String.format("Tag with ID %1$X is not supported/defined.", tagId));
+			throw new UnsupportedTagException("Tag with ID %1$X is not supported/defined.", tagId);
 		}
 	}
 
 	@Override
 	public ILTag createTag(long tagId) throws ILTagException {
+		if (isRawTag(tagId)) {
+			return new RawTag(tagId);
+		}
 		if (TagID.isReserved(tagId)) {
+			if (this.lazyContainers) {
+				if (tagId == TagID.IL_ILTAGARRAY_TAG_ID) {
+					return new LazyILTagArrayTag(tagId);
+				} else if (tagId == TagID.IL_DICTIONARY_TAG_ID) {
+					return new LazyDictonaryTag(tagId);
+				}
+			}
 			return createReserved(tagId);
 		} else {
 			return getCreatorForId(tagId).createTag(tagId);
 		}
 	}
+
+	@Override
+	protected ILTag deserializeTag(long tagId, long valueSize, DataInput in) throws IOException, ILTagException {
+		if (this.flyweights && !isRawTag(tagId)) {
+			ILTag tag = deserializeFlyweight(tagId, valueSize, in);
+			if (tag != null) {
+				return tag;
+			}
+		}
+		return super.deserializeTag(tagId, valueSize, in);
+	}
+
+	/**
+	 * Deserializes the tag as a shared instance of TagFlyweights. The depth is
+	 * checked before, just like the tags deserialized by this factory.
+	 * 
+	 * <p>
+	 * The size of the ILInt values is only known once they are read, thus the
+	 * values without a shared instance are set into a tag created by
+	 * createTag(long) and accounted against the memory budget.
+	 * </p>
+	 * 
+	 * @return The tag or null if nothing was read.
+	 */
+	ILTag deserializeFlyweight(long tagId, long valueSize, DataInput in) throws IOException, ILTagException {
+		getDecodeLimits().checkDepth(getDecodeDepth() + 1);
+		if (tagId != TagID.IL_ILINT_TAG_ID) {
+			return TagFlyweights.deserialize(tagId, valueSize, in);
+		}
+		long value = ILTagUtils.readILInt(in, "Invalid value.");
+		ILTag tag = TagFlyweights.getILInt(value);
+		if (tag == null) {
+			ILIntTag created = (ILIntTag) createTag(tagId);
+			created.setValue(value);
+			accountTag(created);
+			tag = created;
+		}
+		return tag;
+	}
 }
@@ -0,0 +1,235 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.factory;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import io.il2.iltags.tags.AbstractILTag;
+import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.basic.BooleanTag;
+import io.il2.iltags.tags.basic.BytesTag;
+import io.il2.iltags.tags.basic.ILIntTag;
+import io.il2.iltags.tags.basic.Int8Tag;
+import io.il2.iltags.tags.basic.NullTag;
+import io.il2.iltags.tags.basic.StringTag;
+
+/**
+ * This class holds shared instances of the most common standard scalar tags.
+ * All instances are frozen, thus they can be shared by any number of tag trees
+ * and threads.
+ * 
+ * <p>
+ * The following values are available: the null tag, both boolean values, all
+ * signed and unsigned 8-bit integers, the ILInt values up to MAX_CACHED_ILINT
+ * and the empty string and byte array.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public final class TagFlyweights {
+
+	/**
+	 * The largest ILInt value with a shared instance. It is the largest value
+	 * encoded in a single byte.
+	 */
+	public static final long MAX_CACHED_ILINT = 0xF7;
+
+	/**
+	 * The shared standard null tag.
+	 */
+	public static final NullTag NULL = freeze(NullTag.createStandard());
+
+	/**
+	 * The shared standard boolean tag with the value true.
+	 */
+	public static final BooleanTag TRUE = freeze(createBoolean(true));
+
+	/**
+	 * The shared standard boolean tag with the value false.
+	 */
+	public static final BooleanTag FALSE = freeze(createBoolean(false));
+
+	/**
+	 * The shared standard string tag with the empty string.
+	 */
+	public static final StringTag EMPTY_STRING = freeze(createEmptyString());
+
+	/**
+	 * The shared standard bytes tag with the empty byte array.
+	 */
+	public static final BytesTag EMPTY_BYTES = freeze(createEmptyBytes());
+
+	private static final Int8Tag[] INT8 = new Int8Tag[256];
+
+	private static final Int8Tag[] UINT8 = new Int8Tag[256];
+
+	private static final ILIntTag[] ILINT = new ILIntTag[(int) MAX_CACHED_ILINT + 1];
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			Int8Tag t = Int8Tag.createStandardSigned();
+			t.setUnsignedValue(i);
+			INT8[i] = freeze(t);
+			t = Int8Tag.createStandardUnsigned();
+			t.setUnsignedValue(i);
+			UINT8[i] = freeze(t);
+		}
+		for (int i = 0; i < ILINT.length; i++) {
+			ILIntTag t = ILIntTag.createStandard();
+			t.setValue(i);
+			ILINT[i] = freeze(t);
+		}
+	}
+
+	private TagFlyweights() {
+	}
+
+	private static <T extends AbstractILTag> T freeze(T tag) {
+		try {
+			tag.freeze();
+		} catch (ILTagException e) {
+			throw new IllegalStateException(e);
+		}
+		return tag;
+	}
+
+	private static BooleanTag createBoolean(boolean value) {
+		BooleanTag t = BooleanTag.createStandard();
+		t.setValue(value);
+		return t;
+	}
+
+	private static StringTag createEmptyString() {
+		StringTag t = StringTag.createStandard();
+		t.setValue("");
+		return t;
+	}
+
+	private static BytesTag createEmptyBytes() {
+		BytesTag t = BytesTag.createStandard();
+		t.setValue(new byte[0]);
+		return t;
+	}
+
+	/**
+	 * Returns the shared standard boolean tag.
+	 * 
+	 * @param value The value.
+	 * @return The shared instance.
+	 */
+	public static BooleanTag getBoolean(boolean value) {
+		return value ? TRUE : FALSE;
+	}
+
+	/**
+	 * Returns the shared standard signed 8-bit integer tag.
+	 * 
+	 * @param value The value.
+	 * @return The shared instance.
+	 */
+	public static Int8Tag getInt8(byte value) {
+		return INT8[value & 0xFF];
+	}
+
+	/**
+	 * Returns the shared standard unsigned 8-bit integer tag.
+	 * 
+	 * @param value The value. Only the lower 8 bits are used.
+	 * @return The shared instance.
+	 */
+	public static Int8Tag getUInt8(int value) {
+		return UINT8[value & 0xFF];
+	}
+
+	/**
+	 * Returns the shared standard ILInt tag.
+	 * 
+	 * @param value The value.
+	 * @return The shared instance or null if the value has no shared instance.
+	 */
+	public static ILIntTag getILInt(long value) {
+		if (Long.compareUnsigned(value, MAX_CACHED_ILINT) <= 0) {
+			return ILINT[(int) value];
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Deserializes the value of a standard tag as a shared instance. It is used
+	 * by the factories after the header of the tag has been read.
+	 * 
+	 * <p>
+	 * Nothing is read if the tag id or the value size does not qualify for a
+	 * shared instance. In this case this method returns null and the caller must
+	 * deserialize the tag as usual. ILInt tags are not handled here because
+	 * their size is only known once their value is read. Use getILInt(long)
+	 * instead.
+	 * </p>
+	 * 
+	 * @param tagId     The tag id.
+	 * @param valueSize The value size. It may be -1 if the size is unknown.
+	 * @param in        The data input positioned at the start of the value.
+	 * @return The deserialized tag or null if nothing was read.
+	 * @throws IOException    In case of IO error.
+	 * @throws ILTagException In case of deserialization error.
+	 */
+	public static ILTag deserialize(long tagId, long valueSize, DataInput in) throws IOException, ILTagException {
+		if (tagId == TagID.IL_NULL_TAG_ID) {
+			return (valueSize == 0) ? NULL : null;
+		} else if (tagId == TagID.IL_BOOL_TAG_ID) {
+			if (valueSize != 1) {
+				return null;
+			}
+			int b = in.readUnsignedByte();
+			if (b > 1) {
+				throw new CorruptedTagException("Invalid boolean value.");
+			}
+			return getBoolean(b != 0);
+		} else if (tagId == TagID.IL_INT8_TAG_ID) {
+			return (valueSize == 1) ? getInt8(in.readByte()) : null;
+		} else if (tagId == TagID.IL_UINT8_TAG_ID) {
+			return (valueSize == 1) ? getUInt8(in.readUnsignedByte()) : null;
+		} else if (tagId == TagID.IL_STRING_TAG_ID) {
+			return (valueSize == 0) ? EMPTY_STRING : null;
+		} else if (tagId == TagID.IL_BYTES_TAG_ID) {
+			return (valueSize == 0) ? EMPTY_BYTES : null;
+		} else {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,241 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.factory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.il2.iltags.tags.AbstractILTag;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.LazyDictonaryTag;
+import io.il2.iltags.tags.basic.LazyILTagArrayTag;
+
+/**
+ * This class implements a pool of released tags indexed by tag id. It is used
+ * by RecyclingTagFactory and it is not thread-safe.
+ * 
+ * <p>
+ * A tag is accepted only if its class matches the class of the tags created by
+ * the factory for the same id. This prevents the pool from returning foreign
+ * implementations.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+class TagPool {
+
+	/**
+	 * Maximum number of distinct non reserved tag ids held by a pool.
+	 */
+	static final int MAX_OTHER_IDS = 64;
+
+	private final int maxPerId;
+
+	private final Slot[] reserved = new Slot[32];
+
+	private final Map<Long, Slot> others = new HashMap<>();
+
+	private final ArrayList<ILTag> pending = new ArrayList<>();
+
+	/**
+	 * Instances currently held by this pool. The same instance may be released
+	 * more than once and it must not be handed out twice.
+	 */
+	private final Set<ILTag> pooled = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	TagPool(int maxPerId) {
+		this.maxPerId = maxPerId;
+	}
+
+	/**
+	 * Returns the maximum number of pooled tags per tag id.
+	 * 
+	 * @return The maximum number of pooled tags per tag id.
+	 */
+	int getMaxPerId() {
+		return maxPerId;
+	}
+
+	private Slot getSlot(long tagId, boolean create) {
+		if (TagID.isReserved(tagId)) {
+			Slot slot = reserved[(int) tagId];
+			if ((slot == null) && create) {
+				slot = new Slot(maxPerId);
+				reserved[(int) tagId] = slot;
+			}
+			return slot;
+		}
+		Slot slot = others.get(tagId);
+		if ((slot == null) && create && (others.size() < MAX_OTHER_IDS)) {
+			slot = new Slot(maxPerId);
+			others.put(tagId, slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns a pooled tag.
+	 * 
+	 * @param tagId The tag id.
+	 * @return The pooled tag or null if the pool is empty.
+	 */
+	ILTag acquire(long tagId) {
+		Slot slot = getSlot(tagId, false);
+		ILTag tag = (slot != null) ? slot.pop() : null;
+		if (tag != null) {
+			pooled.remove(tag);
+		}
+		return tag;
+	}
+
+	/**
+	 * Registers the class of the tags created for the given id. Only instances
+	 * of this class will be accepted for this id.
+	 * 
+	 * @param tag A tag created by the factory.
+	 */
+	void register(ILTag tag) {
+		Slot slot = getSlot(tag.getTagID(), true);
+		if ((slot != null) && (slot.type == null)) {
+			slot.type = tag.getClass();
+		}
+	}
+
+	/**
+	 * Resets the tag and all its inner tags and add them to this pool. Frozen
+	 * tags and their inner tags are ignored, as are the instances already held by
+	 * this pool.
+	 * 
+	 * @param tag The tag to be released.
+	 * @return The number of tags added to the pool.
+	 */
+	int release(ILTag tag) {
+		int count = 0;
+		pending.add(tag);
+		while (!pending.isEmpty()) {
+			ILTag t = pending.remove(pending.size() - 1);
+			if (!(t instanceof AbstractILTag) || ((AbstractILTag) t).isFrozen() || pooled.contains(t)) {
+				continue;
+			}
+			if (isLazy(t)) {
+				// Decoding the inner tags just to recycle them is pointless.
+			} else if (t instanceof ILTagArrayTag) {
+				addInnerTags(((ILTagArrayTag) t).getValues());
+			} else if (t instanceof ILTagSequenceTag) {
+				addInnerTags(((ILTagSequenceTag) t).getValues());
+			} else if (t instanceof DictonaryTag) {
+				addInnerTags(((DictonaryTag) t).getValues().values());
+			}
+			Slot slot = getSlot(t.getTagID(), false);
+			if ((slot != null) && (slot.type == t.getClass()) && slot.push(t)) {
+				pooled.add(t);
+				((AbstractILTag) t).reset();
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static boolean isLazy(ILTag tag) {
+		if (tag instanceof LazyILTagArrayTag) {
+			return !((LazyILTagArrayTag) tag).isMaterialized();
+		} else if (tag instanceof LazyDictonaryTag) {
+			return !((LazyDictonaryTag) tag).isMaterialized();
+		} else {
+			return false;
+		}
+	}
+
+	private void addInnerTags(Iterable<ILTag> values) {
+		if (values != null) {
+			for (ILTag t : values) {
+				if (t != null) {
+					pending.add(t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of pooled tags for the given id.
+	 * 
+	 * @param tagId The tag id.
+	 * @return The number of pooled tags.
+	 */
+	int size(long tagId) {
+		Slot slot = getSlot(tagId, false);
+		return (slot != null) ? slot.size : 0;
+	}
+
+	/**
+	 * Stack of pooled tags of a given id.
+	 */
+	private static class Slot {
+
+		Class<?> type;
+
+		final ILTag[] items;
+
+		int size;
+
+		Slot(int capacity) {
+			this.items = new ILTag[capacity];
+		}
+
+		ILTag pop() {
+			if (size == 0) {
+				return null;
+			}
+			size--;
+			ILTag t = items[size];
+			items[size] = null;
+			return t;
+		}
+
+		boolean push(ILTag t) {
+			if (size == items.length) {
+				return false;
+			}
+			items[size++] = t;
+			return true;
+		}
+	}
+}
@@ -9,5 +9,22 @@
  * io.il2.iltags.tags.factory.TagCreator to deal handle the creation of those
  * tags.
  * </p>
+ * 
+ * <p>
+ * The class io.il2.iltags.tags.factory.RecyclingTagFactory extends it with
+ * per-thread pools of tag instances that are returned to the factory after
+ * use.
+ * </p>
+ * 
+ * <p>
+ * The class io.il2.iltags.tags.factory.TagFlyweights holds frozen shared
+ * instances of the common scalar tags that can be returned by the factory
+ * during the deserialization.
+ * </p>
+ * 
+ * <p>
+ * The class io.il2.iltags.tags.factory.InterningTagFactory goes further and
+ * returns frozen canonical instances of any small tag found more than once.
+ * </p>
  */
 package io.il2.iltags.tags.factory;
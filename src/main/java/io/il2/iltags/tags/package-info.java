@@ -41,5 +41,15 @@
  * io.il2.iltags.tags.basic, io.il2.iltags.tags.factory and
  * io.il2.iltags.tags.payload.
  * </p>
+ * 
+ * <p>
+ * Serialized tags can also be inspected without creating the tag instances.
+ * ILTagNavigator and ILTagPath locate inner tags by walking only their headers,
+ * while ILTagEventParser reports the contents of a tag to an ILTagHandler and
+ * ILTagReader lets the application pull them one tag at a time. In the other
+ * direction, ILTagWriter serializes tags directly from primitive values.
+ * Large amounts of tags can be kept in memory as ILTagDocument instances, which
+ * index the serialized bytes instead of creating one object per tag.
+ * </p>
  */
 package io.il2.iltags.tags;
\ No newline at end of file
@@ -0,0 +1,483 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.parallel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.il2.iltags.ilint.ILIntDecoder;
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.ILTagFactory;
+import io.il2.iltags.tags.ILTagHeader;
+import io.il2.iltags.tags.ILTagUtils;
+import io.il2.iltags.tags.MemoryBudgetExceededException;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+
+/**
+ * This class implements a deserializer that splits the inner tags of large
+ * ILTagArrayTag and ILTagSequenceTag values among the threads of a
+ * ForkJoinPool.
+ * 
+ * <p>
+ * Before decoding a large container, the deserializer scans the headers of its
+ * inner tags in order to locate their boundaries. Disjoint ranges of inner
+ * tags are then decoded independently by the factory and the results are
+ * stored into a presized array, preserving their order. Containers whose
+ * values are smaller than the threshold and all other tags are deserialized
+ * sequentially by the factory.
+ * </p>
+ * 
+ * <p>
+ * The DecodeLimits and the memory budget of the factory are enforced over the
+ * whole tag. The split containers are verified by this class, while the
+ * ranges of inner tags are deserialized by
+ * io.il2.iltags.tags.ILTagFactory.deserializeNested(java.io.DataInput, int),
+ * thus their depth is not reset. The estimated heap retained by each range is
+ * added to the usage of the whole tag once the range is decoded.
+ * </p>
+ * 
+ * <p>
+ * Only the standard ILTag array and sequence tags are split and only if the
+ * factory creates them as the exact classes ILTagArrayTag and
+ * ILTagSequenceTag, as subclasses may change the way their values are
+ * deserialized. The tag id is checked first, thus no other tag is created twice,
+ * and a root container that cannot be split is filled by the factory instead
+ * of being created again.
+ * The factory must be thread-safe. Instances of this class are thread-safe.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class ParallelTagDeserializer {
+
+	/**
+	 * Default threshold in bytes.
+	 */
+	public static final long DEFAULT_THRESHOLD = 64 * 1024;
+
+	private final ILTagFactory factory;
+
+	private final ForkJoinPool pool;
+
+	private final long threshold;
+
+	/**
+	 * Creates a new instance of this class that uses the common pool and the
+	 * default threshold.
+	 * 
+	 * @param factory The factory used to create and deserialize the tags.
+	 */
+	public ParallelTagDeserializer(ILTagFactory factory) {
+		this(factory, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param factory   The factory used to create and deserialize the tags.
+	 * @param pool      The pool that will run the tasks.
+	 * @param threshold The minimum number of bytes that a container value must
+	 *                  have to be split among multiple tasks.
+	 */
+	public ParallelTagDeserializer(ILTagFactory factory, ForkJoinPool pool, long threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("The threshold must be positive.");
+		}
+		this.factory = factory;
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Returns the factory.
+	 * 
+	 * @return The factory used to create and deserialize the tags.
+	 */
+	public ILTagFactory getFactory() {
+		return factory;
+	}
+
+	/**
+	 * Returns the threshold.
+	 * 
+	 * @return The minimum number of bytes that a container value must have to be
+	 *         split among multiple tasks.
+	 */
+	public long getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Deserializes a tag from a byte array. It is equivalent to
+	 * io.il2.iltags.tags.ILTagFactory.fromBytes(byte[]).
+	 * 
+	 * @param bytes The byte array that contains exactly one tag.
+	 * @return The deserialized tag.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 */
+	public ILTag fromBytes(byte[] bytes) throws ILTagException {
+		return fromBytes(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Deserializes a tag from a slice of a byte array. It is equivalent to
+	 * io.il2.iltags.tags.ILTagFactory.fromBytes(byte[], int, int).
+	 * 
+	 * @param bytes The byte array.
+	 * @param off   The offset of the tag.
+	 * @param len   The number of bytes of the slice. It must contain exactly one
+	 *              tag.
+	 * @return The deserialized tag.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 */
+	public ILTag fromBytes(byte[] bytes, int off, int len) throws ILTagException {
+		ILTagHeader header = new ILTagHeader();
+		int valueOff = ILTagUtils.scanHeader(bytes, off, off + len, header);
+		if (valueOff + header.valueSize != off + len) {
+			throw new CorruptedTagException("Too many bytes.");
+		}
+		ILTag tag = createSplittable(header);
+		if (tag == null) {
+			return factory.fromBytes(bytes, off, len);
+		}
+		Usage usage = new Usage(factory.getDecodeLimits(), factory.getMemoryBudget());
+		if (!isSplittable(tag)) {
+			// The instance already created is filled instead of creating another one.
+			try {
+				factory.deserializeInto(tag, new ByteBufferDataInput(ByteBuffer.wrap(bytes, off, len)));
+			} catch (IOException e) {
+				throw new CorruptedTagException("Unable to deserialize the tag.", e);
+			}
+			usage.add(tag.estimateRetainedSize());
+			return tag;
+		}
+		usage.limits.checkTotalBytes(header.valueSize);
+		try {
+			pool.invoke(new ContainerTask(tag, bytes, valueOff, off + len, 1, usage));
+		} catch (RuntimeException e) {
+			throw unwrap(e);
+		}
+		return tag;
+	}
+
+	/**
+	 * Deserializes a tag from the remaining bytes of a ByteBuffer. It is
+	 * equivalent to io.il2.iltags.tags.ILTagFactory.fromByteBuffer(ByteBuffer).
+	 * Buffers that are not backed by an accessible array are always deserialized
+	 * sequentially.
+	 * 
+	 * @param buff The buffer. On success, its position is moved to its limit.
+	 * @return The deserialized tag.
+	 * @throws ILTagException If the tag cannot be deserialized.
+	 */
+	public ILTag fromByteBuffer(ByteBuffer buff) throws ILTagException {
+		if (!buff.hasArray()) {
+			return factory.fromByteBuffer(buff);
+		}
+		ILTag tag = fromBytes(buff.array(), buff.arrayOffset() + buff.position(), buff.remaining());
+		buff.position(buff.limit());
+		return tag;
+	}
+
+	private static ILTagException unwrap(RuntimeException e) {
+		// ForkJoinPool may wrap the original exception when it crosses threads.
+		Throwable t = e;
+		while (t != null) {
+			if (t instanceof ILTagException) {
+				return (ILTagException) t;
+			}
+			t = t.getCause();
+		}
+		throw e;
+	}
+
+	/**
+	 * Creates the tag described by the header if it may be a container that must
+	 * be split. Only the ids of ILTagArrayTag and ILTagSequenceTag are created,
+	 * thus other large tags are never created twice.
+	 * 
+	 * @return The new empty tag or null if it must be deserialized sequentially.
+	 */
+	private ILTag createSplittable(ILTagHeader header) throws ILTagException {
+		if ((header.valueSize < threshold)
+				|| ((header.tagId != TagID.IL_ILTAGARRAY_TAG_ID) && (header.tagId != TagID.IL_ILTAGSEQ_TAG_ID))) {
+			return null;
+		}
+		return factory.createTag(header.tagId);
+	}
+
+	/**
+	 * Verifies if the inner tags of the given tag can be split. Subclasses, such
+	 * as the lazy containers, are deserialized sequentially.
+	 */
+	private static boolean isSplittable(ILTag tag) {
+		return (tag.getClass() == ILTagArrayTag.class) || (tag.getClass() == ILTagSequenceTag.class);
+	}
+
+	/**
+	 * Deserializes an inner tag whose boundaries are already known.
+	 * 
+	 * @param depth The depth of the container of the tag.
+	 */
+	ILTag deserializeInnerTag(byte[] bytes, int off, int end, int depth, Usage usage) throws ILTagException {
+		ILTagHeader header = new ILTagHeader();
+		int valueOff = ILTagUtils.scanHeader(bytes, off, end, header);
+		ILTag tag = createSplittable(header);
+		if ((tag == null) || !isSplittable(tag)) {
+			ILTag[] values = new ILTag[1];
+			deserializeNested(bytes, new int[] { off, end }, 0, 1, values, depth, usage);
+			return values[0];
+		}
+		usage.limits.checkDepth(depth + 1);
+		new ContainerTask(tag, bytes, valueOff, end, depth + 1, usage).compute();
+		return tag;
+	}
+
+	/**
+	 * Deserializes a range of inner tags whose boundaries are already known.
+	 * 
+	 * @param depth The depth of the container of the tags.
+	 */
+	void deserializeNested(byte[] bytes, int[] starts, int from, int to, ILTag[] values, int depth, Usage usage)
+			throws ILTagException {
+		ByteBuffer buff = ByteBuffer.wrap(bytes, starts[from], starts[to] - starts[from]);
+		ByteBufferDataInput in = new ByteBufferDataInput(buff);
+		long size = 0;
+		try {
+			for (int i = from; i < to; i++) {
+				ILTag t = factory.deserializeNested(in, depth);
+				if (buff.position() != starts[i + 1]) {
+					throw new CorruptedTagException("Invalid serialization format.");
+				}
+				values[i] = t;
+				size += t.estimateRetainedSize();
+			}
+		} catch (IOException e) {
+			throw new CorruptedTagException("Unable to deserialize the tag.", e);
+		}
+		usage.add(size);
+	}
+
+	/**
+	 * Limits and memory usage shared by all tasks of a deserialization.
+	 */
+	static final class Usage {
+
+		final DecodeLimits limits;
+
+		final long budget;
+
+		private final AtomicLong used = new AtomicLong();
+
+		Usage(DecodeLimits limits, long budget) {
+			this.limits = limits;
+			this.budget = budget;
+		}
+
+		void add(long size) throws MemoryBudgetExceededException {
+			if ((budget != 0) && (used.addAndGet(size) > budget)) {
+				throw new MemoryBudgetExceededException("The tag exceeds the memory budget of %1$d bytes.", budget);
+			}
+		}
+	}
+
+	/**
+	 * Task that locates the inner tags of a container and deserializes them.
+	 */
+	private class ContainerTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ILTag tag;
+		private final byte[] bytes;
+		private final int valueOff;
+		private final int valueEnd;
+		private final int depth;
+		private final Usage usage;
+
+		ContainerTask(ILTag tag, byte[] bytes, int valueOff, int valueEnd, int depth, Usage usage) {
+			this.tag = tag;
+			this.bytes = bytes;
+			this.valueOff = valueOff;
+			this.valueEnd = valueEnd;
+			this.depth = depth;
+			this.usage = usage;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				int[] starts;
+				int count;
+				if (tag instanceof ILTagArrayTag) {
+					starts = scanArray();
+					count = starts.length - 1;
+				} else {
+					starts = scanSequence();
+					count = 0;
+					while (starts[count] < valueEnd) {
+						count++;
+					}
+				}
+				ILTag[] values = new ILTag[count];
+				new EntriesTask(bytes, starts, 0, count, values, depth, usage).compute();
+				if (tag instanceof ILTagArrayTag) {
+					((ILTagArrayTag) tag).getValues().addAll(Arrays.asList(values));
+				} else {
+					((ILTagSequenceTag) tag).getValues().addAll(Arrays.asList(values));
+				}
+				usage.add(tag.estimateOwnRetainedSize());
+			} catch (ILTagException e) {
+				throw new TaskFailure(e);
+			}
+		}
+
+		private int[] scanArray() throws ILTagException {
+			if ((valueOff >= valueEnd)
+					|| (ILIntDecoder.sizeFromHeader(bytes[valueOff]) > valueEnd - valueOff)) {
+				throw new CorruptedTagException("Invalid serialization format.");
+			}
+			long count;
+			try {
+				count = ILIntDecoder.decode(bytes, valueOff);
+			} catch (IllegalArgumentException e) {
+				throw new CorruptedTagException("Invalid counter.");
+			}
+			int pos = valueOff + ILIntDecoder.sizeFromHeader(bytes[valueOff]);
+			ILTagUtils.assertArraySize(count, 1, valueEnd - pos);
+			usage.limits.checkElements(count);
+			int[] starts = new int[(int) count + 1];
+			ILTagHeader header = new ILTagHeader();
+			for (int i = 0; i < (int) count; i++) {
+				starts[i] = pos;
+				pos = ILTagUtils.scanHeader(bytes, pos, valueEnd, header) + (int) header.valueSize;
+			}
+			starts[(int) count] = pos;
+			if (pos != valueEnd) {
+				throw new CorruptedTagException("Bad value size.");
+			}
+			return starts;
+		}
+
+		/**
+		 * Returns the offsets of the inner tags followed by the end of the value.
+		 * The returned array may have unused entries after the end.
+		 */
+		private int[] scanSequence() throws ILTagException {
+			int[] starts = new int[16];
+			int count = 0;
+			int pos = valueOff;
+			ILTagHeader header = new ILTagHeader();
+			while (pos < valueEnd) {
+				if (count + 1 == starts.length) {
+					starts = Arrays.copyOf(starts, starts.length * 2);
+				}
+				starts[count++] = pos;
+				usage.limits.checkElements(count);
+				pos = ILTagUtils.scanHeader(bytes, pos, valueEnd, header) + (int) header.valueSize;
+			}
+			starts[count] = valueEnd;
+			return starts;
+		}
+	}
+
+	/**
+	 * Task that deserializes a range of inner tags of a container.
+	 */
+	private class EntriesTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final byte[] bytes;
+		private final int[] starts;
+		private final int from;
+		private final int to;
+		private final ILTag[] values;
+		private final int depth;
+		private final Usage usage;
+
+		EntriesTask(byte[] bytes, int[] starts, int from, int to, ILTag[] values, int depth, Usage usage) {
+			this.bytes = bytes;
+			this.starts = starts;
+			this.from = from;
+			this.to = to;
+			this.values = values;
+			this.depth = depth;
+			this.usage = usage;
+		}
+
+		@Override
+		protected void compute() {
+			if ((to - from > 1) && (starts[to] - starts[from] >= threshold)) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new EntriesTask(bytes, starts, from, mid, values, depth, usage),
+						new EntriesTask(bytes, starts, mid, to, values, depth, usage));
+				return;
+			}
+			try {
+				deserializeRange();
+			} catch (ILTagException e) {
+				throw new TaskFailure(e);
+			}
+		}
+
+		private void deserializeRange() throws ILTagException {
+			int i = from;
+			while (i < to) {
+				if (starts[i + 1] - starts[i] >= threshold) {
+					// Large inner containers are split again.
+					values[i] = deserializeInnerTag(bytes, starts[i], starts[i + 1], depth, usage);
+					i++;
+					continue;
+				}
+				// Consecutive small tags are decoded as a single batch.
+				int j = i + 1;
+				while ((j < to) && (starts[j + 1] - starts[j] < threshold)) {
+					j++;
+				}
+				deserializeNested(bytes, starts, i, j, values, depth, usage);
+				i = j;
+			}
+		}
+	}
+}
@@ -0,0 +1,424 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.parallel;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import io.il2.iltags.ilint.ILIntEncoder;
+import io.il2.iltags.io.ByteBufferDataOutput;
+import io.il2.iltags.tags.AbstractILTag;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.ILTagHeader;
+import io.il2.iltags.tags.ILTagUtils;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.LazyDictonaryTag;
+import io.il2.iltags.tags.basic.LazyILTagArrayTag;
+import io.il2.iltags.tags.basic.StringTag;
+
+/**
+ * This class implements a serializer that splits the inner tags of large
+ * ILTagArrayTag, ILTagSequenceTag and DictonaryTag instances among the threads
+ * of a ForkJoinPool.
+ * 
+ * <p>
+ * The size of the serialization is known in advance, thus the serializer
+ * allocates the final output once and each task writes its inner tags directly
+ * into its own region of it. Containers whose values are smaller than the
+ * threshold, frozen tags, lazy containers that are not materialized and all
+ * other tags are serialized sequentially.
+ * </p>
+ * 
+ * <p>
+ * The tags must not be modified while they are being serialized. Instances of
+ * this class are thread-safe.
+ * </p>
+ * 
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class ParallelTagSerializer {
+
+	/**
+	 * Default threshold in bytes.
+	 */
+	public static final long DEFAULT_THRESHOLD = 64 * 1024;
+
+	private final ForkJoinPool pool;
+
+	private final long threshold;
+
+	/**
+	 * Creates a new instance of this class that uses the common pool and the
+	 * default threshold.
+	 */
+	public ParallelTagSerializer() {
+		this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param pool      The pool that will run the tasks.
+	 * @param threshold The minimum number of bytes that a container value must
+	 *                  have to be split among multiple tasks.
+	 */
+	public ParallelTagSerializer(ForkJoinPool pool, long threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("The threshold must be positive.");
+		}
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Returns the threshold.
+	 * 
+	 * @return The minimum number of bytes that a container value must have to be
+	 *         split among multiple tasks.
+	 */
+	public long getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Serializes the tag into a new byte array. It is equivalent to
+	 * io.il2.iltags.tags.ILTag.toBytes().
+	 * 
+	 * @param tag The tag to be serialized.
+	 * @return The serialized tag.
+	 * @throws ILTagException If the tag cannot be serialized.
+	 */
+	public byte[] toBytes(ILTag tag) throws ILTagException {
+		long valueSize = tag.getValueSize();
+		ILTagUtils.assertTagSizeLimit(valueSize);
+		long size = ILTagHeader.getSerializedSize(tag.getTagID(), valueSize) + valueSize;
+		byte[] dst = new byte[(int) size];
+		try {
+			pool.invoke(new TagTask(tag, dst, 0, (int) size));
+		} catch (RuntimeException e) {
+			throw unwrap(e);
+		}
+		return dst;
+	}
+
+	/**
+	 * Serializes the tag. It is equivalent to
+	 * io.il2.iltags.tags.ILTag.serialize(DataOutput).
+	 * 
+	 * @param tag The tag to be serialized.
+	 * @param out The data output.
+	 * @throws IOException    In case of IO error.
+	 * @throws ILTagException If the tag cannot be serialized.
+	 */
+	public void serialize(ILTag tag, DataOutput out) throws IOException, ILTagException {
+		out.write(toBytes(tag));
+	}
+
+	private static ILTagException unwrap(RuntimeException e) {
+		// ForkJoinPool may wrap the original exception when it crosses threads.
+		Throwable t = e;
+		while (t != null) {
+			if (t instanceof ILTagException) {
+				return (ILTagException) t;
+			} else if (t instanceof IOException) {
+				return new ILTagException("Unable to serialize the tag. The tag implementation may be be incorrect.",
+						t);
+			}
+			t = t.getCause();
+		}
+		throw e;
+	}
+
+	/**
+	 * Lazy containers that are not materialized are not split, as their
+	 * serialization copies their original bytes without decoding them.
+	 */
+	private static boolean isSplittable(ILTag tag) {
+		if ((tag instanceof AbstractILTag) && ((AbstractILTag) tag).isFrozen()) {
+			return false;
+		}
+		if (((tag instanceof LazyILTagArrayTag) && !((LazyILTagArrayTag) tag).isMaterialized())
+				|| ((tag instanceof LazyDictonaryTag) && !((LazyDictonaryTag) tag).isMaterialized())) {
+			return false;
+		}
+		return (tag instanceof ILTagArrayTag) || (tag instanceof ILTagSequenceTag) || (tag instanceof DictonaryTag);
+	}
+
+	private static DataOutput regionOutput(byte[] dst, int off, int len) {
+		return new ByteBufferDataOutput(ByteBuffer.wrap(dst, off, len));
+	}
+
+	/**
+	 * Task that serializes a single tag into its region.
+	 */
+	private class TagTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ILTag tag;
+		private final byte[] dst;
+		private final int off;
+		private final int size;
+
+		TagTask(ILTag tag, byte[] dst, int off, int size) {
+			this.tag = tag;
+			this.dst = dst;
+			this.off = off;
+			this.size = size;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				// The size of the whole tag is known, thus small tags are never
+				// split, even before their entries are listed.
+				Entries entries = ((size >= threshold) && isSplittable(tag)) ? Entries.of(tag) : null;
+				if ((entries == null) || (entries.count() < 2)) {
+					tag.serialize(regionOutput(dst, off, size));
+					return;
+				}
+				long[] offsets = new long[entries.count() + 1];
+				long entriesSize = 0;
+				for (int i = 0; i < entries.count(); i++) {
+					offsets[i] = entriesSize;
+					entriesSize += entries.size(i);
+				}
+				offsets[entries.count()] = entriesSize;
+				if (entriesSize < threshold) {
+					tag.serialize(regionOutput(dst, off, size));
+					return;
+				}
+				// Header and prefix
+				long valueSize = entries.prefixSize() + entriesSize;
+				int headerSize = (int) ILTagHeader.getSerializedSize(tag.getTagID(), valueSize);
+				if (headerSize + valueSize != size) {
+					throw new ILTagException("The tag size does not match the size of its inner tags.");
+				}
+				int prefixEnd = off + headerSize + entries.prefixSize();
+				DataOutput out = regionOutput(dst, off, prefixEnd - off);
+				ILTagHeader.serialize(tag.getTagID(), valueSize, out);
+				entries.writePrefix(out);
+				new EntriesTask(entries, offsets, 0, entries.count(), dst, prefixEnd).compute();
+			} catch (IOException | ILTagException e) {
+				throw new TaskFailure(e);
+			}
+		}
+	}
+
+	/**
+	 * Task that serializes a range of entries of a container.
+	 */
+	private class EntriesTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Entries entries;
+		private final long[] offsets;
+		private final int from;
+		private final int to;
+		private final byte[] dst;
+		private final int base;
+
+		EntriesTask(Entries entries, long[] offsets, int from, int to, byte[] dst, int base) {
+			this.entries = entries;
+			this.offsets = offsets;
+			this.from = from;
+			this.to = to;
+			this.dst = dst;
+			this.base = base;
+		}
+
+		@Override
+		protected void compute() {
+			if ((to - from > 1) && (offsets[to] - offsets[from] >= threshold)) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new EntriesTask(entries, offsets, from, mid, dst, base),
+						new EntriesTask(entries, offsets, mid, to, dst, base));
+				return;
+			}
+			try {
+				for (int i = from; i < to; i++) {
+					int entryOff = base + (int) offsets[i];
+					int entrySize = (int) (offsets[i + 1] - offsets[i]);
+					entries.write(i, ParallelTagSerializer.this, dst, entryOff, entrySize);
+				}
+			} catch (IOException | ILTagException e) {
+				throw new TaskFailure(e);
+			}
+		}
+	}
+
+	/**
+	 * Writes a single inner tag. Large inner containers are split again.
+	 */
+	void writeInnerTag(ILTag tag, byte[] dst, int off, int size) throws IOException, ILTagException {
+		if (tag == null) {
+			dst[off] = 0;
+		} else if ((size >= threshold) && isSplittable(tag)) {
+			new TagTask(tag, dst, off, size).compute();
+		} else {
+			tag.serialize(regionOutput(dst, off, size));
+		}
+	}
+
+	/**
+	 * Uniform view of the entries of the supported containers.
+	 */
+	private abstract static class Entries {
+
+		static Entries of(ILTag tag) {
+			List<ILTag> list = null;
+			if (tag instanceof ILTagArrayTag) {
+				list = ((ILTagArrayTag) tag).getValues();
+			} else if (tag instanceof ILTagSequenceTag) {
+				list = ((ILTagSequenceTag) tag).getValues();
+			} else if (tag instanceof DictonaryTag) {
+				Map<String, ILTag> values = ((DictonaryTag) tag).getValues();
+				if (values != null) {
+					return new MapEntries(values);
+				}
+			}
+			if (list != null) {
+				return new ListEntries(list, tag instanceof ILTagArrayTag);
+			}
+			return null;
+		}
+
+		abstract int count();
+
+		abstract int prefixSize();
+
+		abstract void writePrefix(DataOutput out) throws IOException;
+
+		abstract long size(int i);
+
+		abstract void write(int i, ParallelTagSerializer serializer, byte[] dst, int off, int size)
+				throws IOException, ILTagException;
+
+		static long tagSize(ILTag tag) {
+			return (tag != null) ? tag.getTagSize() : 1;
+		}
+	}
+
+	private static class ListEntries extends Entries {
+
+		private final ILTag[] values;
+		private final boolean counted;
+
+		ListEntries(List<ILTag> values, boolean counted) {
+			this.values = values.toArray(new ILTag[values.size()]);
+			this.counted = counted;
+		}
+
+		@Override
+		int count() {
+			return values.length;
+		}
+
+		@Override
+		int prefixSize() {
+			return counted ? ILIntEncoder.encodedSize(values.length) : 0;
+		}
+
+		@Override
+		void writePrefix(DataOutput out) throws IOException {
+			if (counted) {
+				ILIntEncoder.encode(values.length, out);
+			}
+		}
+
+		@Override
+		long size(int i) {
+			return tagSize(values[i]);
+		}
+
+		@Override
+		void write(int i, ParallelTagSerializer serializer, byte[] dst, int off, int size)
+				throws IOException, ILTagException {
+			serializer.writeInnerTag(values[i], dst, off, size);
+		}
+	}
+
+	private static class MapEntries extends Entries {
+
+		private final String[] keys;
+		private final ILTag[] values;
+
+		MapEntries(Map<String, ILTag> map) {
+			this.keys = new String[map.size()];
+			this.values = new ILTag[map.size()];
+			int i = 0;
+			for (Map.Entry<String, ILTag> e : map.entrySet()) {
+				keys[i] = e.getKey();
+				values[i] = e.getValue();
+				i++;
+			}
+		}
+
+		@Override
+		int count() {
+			return keys.length;
+		}
+
+		@Override
+		int prefixSize() {
+			return ILIntEncoder.encodedSize(keys.length);
+		}
+
+		@Override
+		void writePrefix(DataOutput out) throws IOException {
+			ILIntEncoder.encode(keys.length, out);
+		}
+
+		@Override
+		long size(int i) {
+			return StringTag.getStandardStringTagSize(keys[i]) + tagSize(values[i]);
+		}
+
+		@Override
+		void write(int i, ParallelTagSerializer serializer, byte[] dst, int off, int size)
+				throws IOException, ILTagException {
+			int keySize = (int) StringTag.getStandardStringTagSize(keys[i]);
+			StringTag.serializeStandardStringTag(keys[i], regionOutput(dst, off, keySize));
+			serializer.writeInnerTag(values[i], dst, off + keySize, size - keySize);
+		}
+	}
+}
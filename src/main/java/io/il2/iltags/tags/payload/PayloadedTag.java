@@ -67,7 +67,7 @@ public class PayloadedTag<T extends TagPayload> extends AbstractILTag {
 	}
 
 	/**
-	 * Returns the payload.
+	 * Returns the payload. If this tag is frozen, the payload is frozen as well.
 	 * 
 	 * @return The payload.
 	 */
@@ -75,6 +75,15 @@ public class PayloadedTag<T extends TagPayload> extends AbstractILTag {
 		return this.payload;
 	}
 
+	/**
+	 * The payload is frozen before the serialization is cached, thus payloads that
+	 * cannot be frozen also prevent the freezing of this tag.
+	 */
+	@Override
+	protected void freezeInnerTags() throws ILTagException {
+		getPayload().freeze();
+	}
+
 	@Override
 	public long getValueSize() {
 		return getPayload().getValueSize();
@@ -88,8 +97,9 @@ public class PayloadedTag<T extends TagPayload> extends AbstractILTag {
 	@Override
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
 			throws IOException, ILTagException {
+		checkModifiable();
 		ILTagUtils.assertTagSizeLimit(valueSize);
-		LimitedDataInput limited = new LimitedDataInput(in, (int) valueSize);
+		LimitedDataInput limited = LimitedDataInput.limit(in, (int) valueSize);
 		try {
 			getPayload().deserializeValue(factory, valueSize, limited);
 		} catch (EOFException e) {
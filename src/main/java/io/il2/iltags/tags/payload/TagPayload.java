@@ -81,4 +81,17 @@ public interface TagPayload {
 	 * @throws ILTagException In case of deserialization problems.
 	 */
 	public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in) throws IOException, ILTagException;
+
+	/**
+	 * Makes this payload read-only. It is called when the tag that holds this
+	 * payload is frozen, thus any further attempt to change it must fail.
+	 * Payloads that cannot become read-only must keep the default
+	 * implementation, which prevents the freezing of the tag.
+	 * 
+	 * @throws UnsupportedOperationException If this payload cannot be frozen.
+	 * @since 2026.10.19
+	 */
+	public default void freeze() {
+		throw new UnsupportedOperationException("This payload cannot be frozen.");
+	}
 }
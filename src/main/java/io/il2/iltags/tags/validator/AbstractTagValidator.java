@@ -80,7 +80,7 @@ public abstract class AbstractTagValidator implements TagValidator {
 			return;
 		}
 		if (!acceptTagId(tagId)) {
-			throw new UnexpectedTagException(String.format("Unexpected tag with id %1$X.", tagId));
+			throw new UnexpectedTagException("Unexpected tag with id %1$X.", tagId);
 		}
 	}
 
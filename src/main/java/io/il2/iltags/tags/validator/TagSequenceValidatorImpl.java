@@ -63,7 +63,7 @@ public class TagSequenceValidatorImpl implements TagSequenceValidator {
 	public void validate(List<ILTag> sequence) throws UnexpectedTagException {
 		if (sequence.size() != validators.size()) {
 			throw new UnexpectedTagException(
-					String.format("Expecting %1$d tag(s) but found %2$d tag(s).", validators.size(), sequence.size()));
+					"Expecting %1$d tag(s) but found %2$d tag(s).", validators.size(), sequence.size());
 		}
 		for (int i = 0; i < validators.size(); i++) {
 			try {
@@ -0,0 +1,112 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.utils;
+
+/**
+ * Utility methods that work on ranges of byte arrays without copying them.
+ *
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class ByteArrayUtils {
+
+	/**
+	 * Verifies if two ranges have the same contents.
+	 * 
+	 * @param a    The first array.
+	 * @param aOff The offset of the first range.
+	 * @param aLen The length of the first range.
+	 * @param b    The second array.
+	 * @param bOff The offset of the second range.
+	 * @param bLen The length of the second range.
+	 * @return true if both ranges have the same length and the same bytes.
+	 */
+	public static boolean equals(byte[] a, int aOff, int aLen, byte[] b, int bOff, int bLen) {
+		if (aLen != bLen) {
+			return false;
+		}
+		if ((a == b) && (aOff == bOff)) {
+			return true;
+		}
+		for (int i = 0; i < aLen; i++) {
+			if (a[aOff + i] != b[bOff + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the hash code of a range. The result is the same as
+	 * java.util.Arrays.hashCode(byte[]) of a copy of the range.
+	 * 
+	 * @param a   The array.
+	 * @param off The offset of the range.
+	 * @param len The length of the range.
+	 * @return The hash code.
+	 */
+	public static int hashCode(byte[] a, int off, int len) {
+		int h = 1;
+		for (int i = off; i < off + len; i++) {
+			h = 31 * h + a[i];
+		}
+		return h;
+	}
+
+	/**
+	 * Compares two ranges lexicographically, treating the bytes as unsigned
+	 * values. If one range is a prefix of the other, the shorter one comes
+	 * first.
+	 * 
+	 * @param a    The first array.
+	 * @param aOff The offset of the first range.
+	 * @param aLen The length of the first range.
+	 * @param b    The second array.
+	 * @param bOff The offset of the second range.
+	 * @param bLen The length of the second range.
+	 * @return A negative value, zero or a positive value if the first range is
+	 *         less than, equal to or greater than the second range.
+	 */
+	public static int compareUnsigned(byte[] a, int aOff, int aLen, byte[] b, int bOff, int bLen) {
+		int len = Math.min(aLen, bLen);
+		for (int i = 0; i < len; i++) {
+			int d = (a[aOff + i] & 0xFF) - (b[bOff + i] & 0xFF);
+			if (d != 0) {
+				return d;
+			}
+		}
+		return aLen - bLen;
+	}
+
+	private ByteArrayUtils() {
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Utility methods that estimate the amount of heap used by objects. The
+ * estimates assume a 64-bit JVM with compressed references and objects aligned
+ * to 8 bytes, which is the default layout of most JVMs with heaps smaller than
+ * 32GB. They are meant to size caches and budgets, not to be exact.
+ *
+ * @author Fabio Jun Takada Chino
+ * @since 2026.10.19
+ */
+public class HeapSizeUtils {
+
+	/**
+	 * Size of the header of an object.
+	 */
+	public static final int OBJECT_HEADER_SIZE = 12;
+
+	/**
+	 * Size of the header of an array, including its length.
+	 */
+	public static final int ARRAY_HEADER_SIZE = 16;
+
+	/**
+	 * Size of a reference.
+	 */
+	public static final int REFERENCE_SIZE = 4;
+
+	/**
+	 * Alignment of the objects.
+	 */
+	public static final int OBJECT_ALIGNMENT = 8;
+
+	/**
+	 * Size of a java.util.HashMap.Node or java.util.LinkedHashMap.Entry.
+	 */
+	private static final long MAP_ENTRY_SIZE = objectSize(4 + 5 * REFERENCE_SIZE);
+
+	/**
+	 * Size of a java.util.LinkedHashMap without its table.
+	 */
+	private static final long MAP_SIZE = objectSize(7 * REFERENCE_SIZE + 4 * 4 + 1);
+
+	/**
+	 * Size of a java.util.ArrayList without its array.
+	 */
+	private static final long LIST_SIZE = objectSize(REFERENCE_SIZE + 2 * 4);
+
+	/**
+	 * Rounds the size up to the alignment of the objects.
+	 * 
+	 * @param size The size in bytes.
+	 * @return The aligned size.
+	 */
+	public static long align(long size) {
+		return (size + OBJECT_ALIGNMENT - 1) & ~((long) OBJECT_ALIGNMENT - 1);
+	}
+
+	/**
+	 * Estimates the size of an object.
+	 * 
+	 * @param fieldsSize The sum of the sizes of the fields of the object.
+	 * @return The size of the object.
+	 */
+	public static long objectSize(long fieldsSize) {
+		return align(OBJECT_HEADER_SIZE + fieldsSize);
+	}
+
+	/**
+	 * Estimates the size of an array.
+	 * 
+	 * @param length      The length of the array.
+	 * @param elementSize The size of each element.
+	 * @return The size of the array.
+	 */
+	public static long arraySize(long length, int elementSize) {
+		return align(ARRAY_HEADER_SIZE + length * elementSize);
+	}
+
+	/**
+	 * Estimates the size of a byte array.
+	 * 
+	 * @param array The array. May be null.
+	 * @return The size of the array or 0 if it is null.
+	 */
+	public static long sizeOf(byte[] array) {
+		return (array != null) ? arraySize(array.length, 1) : 0;
+	}
+
+	/**
+	 * Estimates the size of a long array.
+	 * 
+	 * @param array The array. May be null.
+	 * @return The size of the array or 0 if it is null.
+	 */
+	public static long sizeOf(long[] array) {
+		return (array != null) ? arraySize(array.length, 8) : 0;
+	}
+
+	/**
+	 * Estimates the size of an int array.
+	 * 
+	 * @param array The array. May be null.
+	 * @return The size of the array or 0 if it is null.
+	 */
+	public static long sizeOf(int[] array) {
+		return (array != null) ? arraySize(array.length, 4) : 0;
+	}
+
+	/**
+	 * Estimates the size of an array of references, excluding the referenced
+	 * objects.
+	 * 
+	 * @param array The array. May be null.
+	 * @return The size of the array or 0 if it is null.
+	 */
+	public static long sizeOf(Object[] array) {
+		return (array != null) ? arraySize(array.length, REFERENCE_SIZE) : 0;
+	}
+
+	/**
+	 * Estimates the size of a string. Strings are assumed to use 2 bytes per
+	 * character, thus the estimate is an upper bound for JVMs that use compact
+	 * strings.
+	 * 
+	 * @param s The string. May be null.
+	 * @return The size of the string and its characters or 0 if it is null.
+	 */
+	public static long sizeOf(String s) {
+		return (s != null) ? objectSize(REFERENCE_SIZE + 4) + arraySize(s.length(), 2) : 0;
+	}
+
+	/**
+	 * Estimates the size of a BigInteger.
+	 * 
+	 * @param v The value. May be null.
+	 * @return The size of the value or 0 if it is null.
+	 */
+	public static long sizeOf(BigInteger v) {
+		if (v == null) {
+			return 0;
+		}
+		return objectSize(REFERENCE_SIZE + 5 * 4) + arraySize((v.bitLength() + 31) / 32, 4);
+	}
+
+	/**
+	 * Estimates the size of a BigDecimal. The unscaled values that fit in a long
+	 * are not stored as BigInteger instances.
+	 * 
+	 * @param v The value. May be null.
+	 * @return The size of the value or 0 if it is null.
+	 */
+	public static long sizeOf(BigDecimal v) {
+		if (v == null) {
+			return 0;
+		}
+		long size = objectSize(2 * REFERENCE_SIZE + 2 * 4 + 8);
+		BigInteger unscaled = v.unscaledValue();
+		if (unscaled.bitLength() > 63) {
+			size += sizeOf(unscaled);
+		}
+		return size;
+	}
+
+	/**
+	 * Estimates the size of an ArrayList or any other list backed by an array,
+	 * excluding its elements.
+	 * 
+	 * @param c The collection. May be null.
+	 * @return The size of the list and its array or 0 if it is null.
+	 */
+	public static long listSize(Collection<?> c) {
+		return (c != null) ? LIST_SIZE + arraySize(c.size(), REFERENCE_SIZE) : 0;
+	}
+
+	/**
+	 * Estimates the size of a HashMap or LinkedHashMap, excluding its keys and
+	 * values. The table is assumed to use the default load factor.
+	 * 
+	 * @param m The map. May be null.
+	 * @return The size of the map, its table and its entries or 0 if it is null.
+	 */
+	public static long mapSize(Map<?, ?> m) {
+		if (m == null) {
+			return 0;
+		}
+		int size = m.size();
+		long table = 0;
+		if (size > 0) {
+			long capacity = Long.highestOneBit(Math.max(16, (size * 4L + 2) / 3) - 1) << 1;
+			table = arraySize(capacity, REFERENCE_SIZE);
+		}
+		return MAP_SIZE + table + size * MAP_ENTRY_SIZE;
+	}
+}
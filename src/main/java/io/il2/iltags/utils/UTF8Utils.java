@@ -135,6 +135,57 @@ public class UTF8Utils {
 		}
 	}
 
+	/**
+	 * Verifies if the given bytes are a valid UTF-8 sequence. Overlong encodings,
+	 * surrogates and codepoints above U+10FFFF are rejected, just like the decoder
+	 * returned by newDecoder() does. This method does not allocate memory.
+	 * 
+	 * @param b   The bytes.
+	 * @param off The offset.
+	 * @param len The number of bytes.
+	 * @return true if the bytes are valid or false otherwise.
+	 * @since 2026.10.19
+	 */
+	public static boolean isValid(byte[] b, int off, int len) {
+		int end = off + len;
+		int i = off;
+		while (i < end) {
+			int cp = b[i++] & 0xFF;
+			if (cp <= 0x7F) {
+				continue;
+			}
+			int count;
+			int min;
+			if ((cp & 0b11100000) == 0b11000000) {
+				count = 1;
+				min = 0x80;
+			} else if ((cp & 0b11110000) == 0b11100000) {
+				count = 2;
+				min = 0x800;
+			} else if ((cp & 0b11111000) == 0b11110000) {
+				count = 3;
+				min = 0x10000;
+			} else {
+				return false;
+			}
+			if (end - i < count) {
+				return false;
+			}
+			cp = cp & UTF8_1ST_CLEAR_MASK[count];
+			for (; count > 0; count--) {
+				int c = b[i++] & 0xFF;
+				if ((c & 0b11000000) != 0b10000000) {
+					return false;
+				}
+				cp = (cp << 6) | (c & 0b00111111);
+			}
+			if ((cp < min) || (cp > 0x10FFFF) || ((cp >= 0xD800) && (cp <= 0xDFFF))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Creates a new UTF-8 decoder set to be as strict as possible.
 	 * 
@@ -230,6 +281,85 @@ public class UTF8Utils {
 		return len;
 	}
 
+	/**
+	 * Decodes the codepoint that starts at the given offset of a valid UTF-8
+	 * sequence.
+	 */
+	private static int decodeAt(byte[] b, int off, int size) {
+		int cp = b[off] & UTF8_1ST_CLEAR_MASK[size - 1];
+		for (int i = 1; i < size; i++) {
+			cp = (cp << 6) | (b[off + i] & 0b00111111);
+		}
+		return cp;
+	}
+
+	/**
+	 * Computes the hash code of the string encoded by the given bytes. The result
+	 * is the same as String.hashCode() of the decoded string, but the string is
+	 * never created. The bytes must be a valid UTF-8 sequence as defined by
+	 * isValid(byte[], int, int).
+	 * 
+	 * @param b   The bytes.
+	 * @param off The offset.
+	 * @param len The number of bytes.
+	 * @return The hash code of the decoded string.
+	 * @since 2026.10.19
+	 */
+	public static int hashCode(byte[] b, int off, int len) {
+		int end = off + len;
+		int h = 0;
+		int i = off;
+		while (i < end) {
+			int size = getUTF8EncodedCharSize(b[i]);
+			int cp = decodeAt(b, i, size);
+			i += size;
+			if (Character.isBmpCodePoint(cp)) {
+				h = 31 * h + cp;
+			} else {
+				h = 31 * h + Character.highSurrogate(cp);
+				h = 31 * h + Character.lowSurrogate(cp);
+			}
+		}
+		return h;
+	}
+
+	/**
+	 * Verifies if the given bytes encode the given string. The bytes are decoded
+	 * on the fly, thus this method does not allocate memory. The bytes must be a
+	 * valid UTF-8 sequence as defined by isValid(byte[], int, int).
+	 * 
+	 * @param b   The bytes.
+	 * @param off The offset.
+	 * @param len The number of bytes.
+	 * @param s   The string.
+	 * @return true if the decoded bytes are equal to the string.
+	 * @since 2026.10.19
+	 */
+	public static boolean contentEquals(byte[] b, int off, int len, CharSequence s) {
+		int end = off + len;
+		int i = off;
+		int j = 0;
+		int length = s.length();
+		while (i < end) {
+			int size = getUTF8EncodedCharSize(b[i]);
+			int cp = decodeAt(b, i, size);
+			i += size;
+			if (Character.isBmpCodePoint(cp)) {
+				if ((j >= length) || (s.charAt(j) != cp)) {
+					return false;
+				}
+				j++;
+			} else {
+				if ((j + 1 >= length) || (s.charAt(j) != Character.highSurrogate(cp))
+						|| (s.charAt(j + 1) != Character.lowSurrogate(cp))) {
+					return false;
+				}
+				j += 2;
+			}
+		}
+		return j == length;
+	}
+
 	private UTF8Utils() {
 	}
 }
@@ -93,6 +93,45 @@ class ILIntDecoderTest {
 		}
 	}
 
+	@Test
+	void testDecodeByteArray() throws Exception {
+		for (ILIntBaseTest.Sample s : ILIntBaseTest.SAMPLES) {
+			byte[] buff = new byte[s.getEncodedSize() + 2];
+			System.arraycopy(s.getEncoded(), 0, buff, 2, s.getEncodedSize());
+			assertEquals(s.getValue(), ILIntDecoder.decode(buff, 2));
+		}
+		// Truncated
+		assertThrows(IllegalArgumentException.class, () -> {
+			ILIntDecoder.decode(new byte[] { 0, (byte) 0xF9, 0 }, 1);
+		});
+		// Overflow
+		assertThrows(IllegalArgumentException.class, () -> {
+			ILIntDecoder.decode(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+					(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x08 }, 0);
+		});
+	}
+
+	@Test
+	void testDecodeByteBuffer() throws Exception {
+		for (ILIntBaseTest.Sample s : ILIntBaseTest.SAMPLES) {
+			ByteBuffer buff = ByteBuffer.allocateDirect(s.getEncodedSize() + 2);
+			buff.position(2);
+			buff.put(s.getEncoded(), 0, s.getEncodedSize());
+			buff.position(1);
+			assertEquals(s.getValue(), ILIntDecoder.decode(buff, 2));
+			assertEquals(1, buff.position());
+		}
+		// Truncated
+		assertThrows(IllegalArgumentException.class, () -> {
+			ILIntDecoder.decode(ByteBuffer.wrap(new byte[] { 0, (byte) 0xF9, 0 }), 1);
+		});
+		// Overflow
+		assertThrows(IllegalArgumentException.class, () -> {
+			ILIntDecoder.decode(ByteBuffer.wrap(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+					(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x08 }), 0);
+		});
+	}
+
 	@Test
 	void testDecodeSigned() throws Exception {
 		for (ILIntBaseTest.Sample s : ILIntBaseTest.SIGNED_SAMPLES) {
@@ -35,6 +35,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
@@ -89,6 +90,18 @@ class ILIntEncoderTest {
 		}
 	}
 
+	@Test
+	void testEncodeByteArray() throws Exception {
+		for (ILIntBaseTest.Sample s : ILIntBaseTest.SAMPLES) {
+			byte[] buff = new byte[s.getEncodedSize() + 2];
+			assertEquals(s.getEncodedSize(), ILIntEncoder.encode(s.getValue(), buff, 1));
+			assertEquals(0, buff[0]);
+			assertEquals(0, buff[buff.length - 1]);
+			assertArrayEquals(s.getEncoded(), Arrays.copyOfRange(buff, 1, 1 + s.getEncodedSize()),
+					String.format("%1$X", s.getValue()));
+		}
+	}
+
 	@Test
 	void testEncodeSigned() throws Exception {
 		for (ILIntBaseTest.Sample s : ILIntBaseTest.SIGNED_SAMPLES) {
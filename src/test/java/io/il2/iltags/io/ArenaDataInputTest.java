@@ -0,0 +1,97 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+class ArenaDataInputTest {
+
+	private static final byte[] SAMPLE = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+
+	@Test
+	void testArenaDataInput() throws Exception {
+		ArenaDataInput in = new ArenaDataInput(SAMPLE);
+		assertSame(SAMPLE, in.getArray());
+		assertEquals(0, in.readByte());
+
+		in = new ArenaDataInput(SAMPLE, 2, 4);
+		assertSame(SAMPLE, in.getArray());
+		assertEquals(2, in.readByte());
+
+		in = new ArenaDataInput(ByteBuffer.wrap(SAMPLE));
+		assertSame(SAMPLE, in.getArray());
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ArenaDataInput(ByteBuffer.allocateDirect(4));
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ArenaDataInput(ByteBuffer.wrap(SAMPLE).asReadOnlyBuffer());
+		});
+	}
+
+	@Test
+	void testSkipView() throws Exception {
+		ArenaDataInput in = new ArenaDataInput(SAMPLE, 1, 8);
+		assertEquals(1, in.skipView(in, 2));
+		assertEquals(3, in.readByte());
+
+		LimitedDataInput limited = new LimitedDataInput(new LimitedDataInput(in, 5), 4);
+		assertEquals(4, in.skipView(limited, 3));
+		assertEquals(1, limited.remaining());
+		assertEquals(7, limited.readByte());
+		assertThrows(EOFException.class, () -> {
+			in.skipView(limited, 1);
+		});
+
+		// Sliced buffers
+		ByteBuffer buff = ByteBuffer.wrap(SAMPLE);
+		buff.position(5);
+		ArenaDataInput sliced = new ArenaDataInput(buff.slice());
+		assertEquals(5, sliced.skipView(sliced, 1));
+	}
+
+	@Test
+	void testOf() throws Exception {
+		ArenaDataInput in = new ArenaDataInput(SAMPLE);
+		assertSame(in, ArenaDataInput.of(in));
+		assertSame(in, ArenaDataInput.of(new LimitedDataInput(in, 4)));
+		assertSame(in, ArenaDataInput.of(new LimitedDataInput(new LimitedDataInput(in, 4), 2)));
+		assertNull(ArenaDataInput.of(new ByteBufferDataInput(SAMPLE)));
+		assertNull(ArenaDataInput.of(new LimitedDataInput(new ByteBufferDataInput(SAMPLE), 4)));
+		assertNull(ArenaDataInput.of(null));
+	}
+}
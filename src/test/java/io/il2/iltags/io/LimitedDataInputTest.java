@@ -52,6 +52,44 @@ class LimitedDataInputTest {
 		assertEquals(10, in.remaining());
 	}
 
+	@Test
+	void testReset() throws Exception {
+		LimitedDataInput in = new LimitedDataInput(null, 0);
+		ByteBufferDataInput src = new ByteBufferDataInput(SAMPLE);
+		in.reset(src, 3);
+		assertSame(src, in.source);
+		assertEquals(3, in.remaining());
+		assertEquals(0, in.readByte());
+		assertEquals(2, in.remaining());
+
+		in.reset(null, 0);
+		assertNull(in.source);
+		assertFalse(in.hasRemaining());
+	}
+
+	@Test
+	void testGetSource() throws Exception {
+		ByteBufferDataInput src = new ByteBufferDataInput(SAMPLE);
+		LimitedDataInput in = new LimitedDataInput(src, 10);
+		assertSame(src, in.getSource());
+		in.reset(null, 0);
+		assertNull(in.getSource());
+	}
+
+	@Test
+	void testLimit() throws Exception {
+		ByteBufferDataInput src = new ByteBufferDataInput(SAMPLE);
+		LimitedDataInput in = LimitedDataInput.limit(src, 10);
+		assertSame(src, in.source);
+		assertEquals(10, in.remaining());
+
+		assertSame(in, LimitedDataInput.limit(in, 10));
+		LimitedDataInput in2 = LimitedDataInput.limit(in, 9);
+		assertNotSame(in, in2);
+		assertSame(in, in2.source);
+		assertEquals(9, in2.remaining());
+	}
+
 	@Test
 	void testUpdateRead() throws Exception {
 		LimitedDataInput in = new LimitedDataInput(new ByteBufferDataInput(SAMPLE), 10);
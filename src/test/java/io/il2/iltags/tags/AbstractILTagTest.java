@@ -171,4 +171,107 @@ class AbstractILTagTest {
 		}
 		assertArrayEquals(bOut.toByteArray(), t.toBytes());
 	}
+
+	@Test
+	void testReset() throws Exception {
+		BaseILTagX t = new BaseILTagX(0x123123123123l, 2);
+		t.reset();
+		t.freeze();
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.reset();
+		});
+	}
+
+	@Test
+	void testFreeze() throws Exception {
+		BaseILTagX t = new BaseILTagX(0x123123123123l, 2);
+		assertFalse(t.isFrozen());
+		assertEquals(-1, t.getCachedValueSize());
+		t.checkModifiable();
+		byte[] exp = t.toBytes();
+
+		t.freeze();
+		assertTrue(t.isFrozen());
+		assertEquals(2, t.getCachedValueSize());
+		assertEquals(exp.length, t.getTagSize());
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.checkModifiable();
+		});
+
+		// The serialization comes from the cache
+		t.out = null;
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bOut)) {
+			t.serialize(out);
+		}
+		assertNull(t.out);
+		assertArrayEquals(exp, bOut.toByteArray());
+		byte[] bytes = t.toBytes();
+		assertArrayEquals(exp, bytes);
+		bytes[0] = 0;
+		assertArrayEquals(exp, t.toBytes());
+
+		// Freezing again does nothing
+		t.freeze();
+		assertTrue(t.isFrozen());
+	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		BaseILTagX a = new BaseILTagX(0x123123, 2);
+		BaseILTagX b = new BaseILTagX(0x123123, 2);
+		BaseILTagX c = new BaseILTagX(0x123124, 2);
+
+		assertEquals(a, a);
+		assertNotEquals(a, b);
+		assertNotEquals(a, null);
+		assertNotEquals(a, "a");
+
+		a.freeze();
+		assertNotEquals(a, b);
+		assertNotEquals(b, a);
+		b.freeze();
+		c.freeze();
+		assertEquals(a, b);
+		assertEquals(b, a);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, c);
+	}
+
+	@Test
+	void testTagEqualsHashCode() throws Exception {
+		BaseILTagX a = new BaseILTagX(0x123123, 2);
+		BaseILTagX b = new BaseILTagX(0x123123, 2);
+		BaseILTagX n = new BaseILTagX(TagID.IL_NULL_TAG_ID, 0);
+
+		assertTrue(AbstractILTag.tagEquals(null, null));
+		assertTrue(AbstractILTag.tagEquals(a, a));
+		assertFalse(AbstractILTag.tagEquals(a, b));
+		assertFalse(AbstractILTag.tagEquals(a, null));
+		assertFalse(AbstractILTag.tagEquals(null, a));
+		assertTrue(AbstractILTag.tagEquals(n, null));
+		assertTrue(AbstractILTag.tagEquals(null, n));
+		a.freeze();
+		b.freeze();
+		assertTrue(AbstractILTag.tagEquals(a, b));
+
+		assertEquals(0, AbstractILTag.tagHashCode(null));
+		assertEquals(0, AbstractILTag.tagHashCode(n));
+		assertEquals(a.hashCode(), AbstractILTag.tagHashCode(a));
+		assertEquals(a.hashCode(), AbstractILTag.tagHashCode(b));
+	}
+
+	@Test
+	void testEstimateRetainedSize() throws Exception {
+		BaseILTagX t = new BaseILTagX(12345, 0);
+		assertEquals(24, t.estimateOwnRetainedSize());
+		assertEquals(24, t.estimateRetainedSize());
+		// The image holds a 4 byte serialization
+		t.freeze();
+		assertEquals(24 + 32 + 24, t.estimateOwnRetainedSize());
+		assertEquals(24 + 32 + 24, t.estimateRetainedSize());
+
+		assertEquals(0, AbstractILTag.estimateTagRetainedSize(null));
+		assertEquals(t.estimateRetainedSize(), AbstractILTag.estimateTagRetainedSize(t));
+	}
 }
@@ -35,14 +35,18 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.io.DataInput;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 
 import org.junit.jupiter.api.Test;
 
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.tags.basic.BytesTag;
 import io.il2.iltags.tags.basic.ILIntTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
 import io.il2.iltags.tags.basic.Int16Tag;
 import io.il2.iltags.tags.basic.NullTag;
+import io.il2.iltags.tags.factory.TagFactory;
 
 class AbstractTagFactoryTest {
 
@@ -146,6 +150,79 @@ class AbstractTagFactoryTest {
 		});
 	}
 
+	@Test
+	void testFromBytesSlice() throws Exception {
+		AbstractTagFactoryX f = new AbstractTagFactoryX();
+		byte[] bytes = new byte[] { 0x7F, 0x7F, (byte) 0x4, (byte) 0x12, (byte) 0x34, (byte) 0xA, 0x7F };
+
+		ILTag t = f.fromBytes(bytes, 2, 3);
+		assertInstanceOf(Int16Tag.class, t);
+		assertEquals(0x1234, ((Int16Tag) t).getValue());
+
+		t = f.fromBytes(bytes, 5, 2);
+		assertInstanceOf(ILIntTag.class, t);
+		assertEquals(0x7F, ((ILIntTag) t).getValue());
+
+		assertThrows(CorruptedTagException.class, () -> {
+			f.fromBytes(bytes, 2, 2);
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			f.fromBytes(bytes, 2, 4);
+		});
+	}
+
+	@Test
+	void testFromByteBuffer() throws Exception {
+		AbstractTagFactoryX f = new AbstractTagFactoryX();
+		ByteBuffer buff = ByteBuffer.wrap(new byte[] { 0x7F, (byte) 0x4, (byte) 0x12, (byte) 0x34, 0x7F });
+		buff.position(1);
+		buff.limit(4);
+
+		ILTag t = f.fromByteBuffer(buff);
+		assertInstanceOf(Int16Tag.class, t);
+		assertEquals(0x1234, ((Int16Tag) t).getValue());
+		assertEquals(4, buff.position());
+		assertFalse(buff.hasRemaining());
+
+		ByteBuffer bad = ByteBuffer.wrap(new byte[] { 0x00, 0x00 });
+		assertThrows(CorruptedTagException.class, () -> {
+			f.fromByteBuffer(bad);
+		});
+		assertEquals(0, bad.position());
+	}
+
+	@Test
+	void testDeserializeAll() throws Exception {
+		AbstractTagFactoryX f = new AbstractTagFactoryX();
+		byte[] bytes = new byte[] { 0x7F, 0x00, (byte) 0x4, (byte) 0x12, (byte) 0x34, (byte) 0xA, (byte) 0xf8, 0x00,
+				(byte) 0x10, 0x02, 0x12, 0x34, 0x7F };
+
+		ArrayList<ILTag> tags = new ArrayList<>();
+		assertEquals(4, f.deserializeAll(bytes, 1, bytes.length - 2, tags));
+		assertEquals(4, tags.size());
+		assertInstanceOf(NullTag.class, tags.get(0));
+		assertEquals(0x1234, ((Int16Tag) tags.get(1)).getValue());
+		assertEquals(0xF8, ((ILIntTag) tags.get(2)).getValue());
+		assertArrayEquals(new byte[] { 0x12, 0x34 }, ((BytesTag) tags.get(3)).getValue());
+
+		// Empty batch
+		assertEquals(0, f.deserializeAll(bytes, 1, 0, tags));
+		assertEquals(4, tags.size());
+
+		ByteBuffer buff = ByteBuffer.wrap(bytes, 1, 4);
+		tags.clear();
+		assertEquals(2, f.deserializeAll(buff, tags));
+		assertEquals(2, tags.size());
+		assertEquals(5, buff.position());
+
+		// Truncated last tag
+		ByteBuffer bad = ByteBuffer.wrap(bytes, 1, 3);
+		assertThrows(CorruptedTagException.class, () -> {
+			f.deserializeAll(bad, new ArrayList<>());
+		});
+		assertEquals(1, bad.position());
+	}
+
 	@Test
 	void testDeserializeDataInput() throws Exception {
 		AbstractTagFactoryX f = new AbstractTagFactoryX();
@@ -225,6 +302,32 @@ class AbstractTagFactoryTest {
 		});
 	}
 
+	@Test
+	void testDeserializeReusing() throws Exception {
+		AbstractTagFactoryX f = new AbstractTagFactoryX();
+		Int16Tag candidate = Int16Tag.createStandardSigned();
+
+		assertSame(candidate, f.deserializeReusing(candidate, new ByteBufferDataInput(new byte[] { 4, 0x12, 0x34 })));
+		assertEquals(0x1234, candidate.getValue());
+
+		// Different tag id
+		ILTag t = f.deserializeReusing(candidate, new ByteBufferDataInput(new byte[] { 0 }));
+		assertInstanceOf(NullTag.class, t);
+		assertEquals(0x1234, candidate.getValue());
+
+		// Null
+		t = f.deserializeReusing(null, new ByteBufferDataInput(new byte[] { 4, 0x43, 0x21 }));
+		assertNotSame(candidate, t);
+		assertEquals(0x4321, ((Int16Tag) t).getValue());
+
+		// Frozen
+		candidate.freeze();
+		t = f.deserializeReusing(candidate, new ByteBufferDataInput(new byte[] { 4, 0x43, 0x21 }));
+		assertNotSame(candidate, t);
+		assertEquals(0x4321, ((Int16Tag) t).getValue());
+		assertEquals(0x1234, candidate.getValue());
+	}
+
 	@Test
 	void testDeserializeInto() throws Exception {
 		AbstractTagFactoryX f = new AbstractTagFactoryX();
@@ -242,4 +345,75 @@ class AbstractTagFactoryTest {
 			f.deserializeInto(t2, new ByteBufferDataInput(new byte[] { (byte) 0x4, (byte) 0x12, (byte) 0x34 }));
 		});
 	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory f = new TagFactory(false);
+		assertSame(DecodeLimits.UNLIMITED, f.getDecodeLimits());
+		assertThrows(IllegalArgumentException.class, () -> {
+			f.setDecodeLimits(null);
+		});
+
+		// 3 levels of nested arrays
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		ILTagArrayTag inner = ILTagArrayTag.createStandard();
+		inner.getValues().add(NullTag.createStandard());
+		root.getValues().add(inner);
+		byte[] serialized = root.toBytes();
+
+		f.setDecodeLimits(new DecodeLimits(3, 10, 100, 100));
+		assertArrayEquals(serialized, f.fromBytes(serialized).toBytes());
+		f.setDecodeLimits(new DecodeLimits(2, 10, 100, 100));
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(serialized);
+		});
+		// The depth is not carried over to the next deserialization
+		assertArrayEquals(inner.toBytes(), f.fromBytes(inner.toBytes()).toBytes());
+
+		// Only the outermost tag is checked against the total size
+		f.setDecodeLimits(new DecodeLimits(3, 10, root.getValueSize(), 100));
+		assertArrayEquals(serialized, f.fromBytes(serialized).toBytes());
+		f.setDecodeLimits(new DecodeLimits(3, 10, root.getValueSize() - 1, 100));
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(serialized);
+		});
+		// The value is rejected before being read
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(new byte[] { 16, (byte) 0xF9, 0x10, 0x00 });
+		});
+	}
+
+	@Test
+	void testDeserializeNested() throws Exception {
+		TagFactory f = new TagFactory(false);
+		// Array with a null tag at depth 2
+		byte[] serialized = new byte[] { 21, 2, 1, 0 };
+		assertEquals(0, f.getDecodeDepth());
+		assertArrayEquals(serialized, f.deserializeNested(new ByteBufferDataInput(serialized), 5).toBytes());
+		assertThrows(IllegalArgumentException.class, () -> {
+			f.deserializeNested(new ByteBufferDataInput(serialized), -1);
+		});
+
+		f.setDecodeLimits(new DecodeLimits(3, 10, 1, 100));
+		assertEquals(0, f.getDecodeDepth());
+		// The total size is not checked for nested tags
+		assertArrayEquals(serialized, f.deserializeNested(new ByteBufferDataInput(serialized), 1).toBytes());
+		assertThrows(TagTooLargeException.class, () -> {
+			f.deserializeNested(new ByteBufferDataInput(serialized), 2);
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			f.deserializeNested(new ByteBufferDataInput(serialized), 0);
+		});
+		// The depth is restored afterwards
+		assertEquals(0, f.getDecodeDepth());
+
+		// The default implementation ignores the depth
+		ILTagFactory plain = mock(ILTagFactory.class, CALLS_REAL_METHODS);
+		ILTag tag = NullTag.createStandard();
+		DataInput in = new ByteBufferDataInput(serialized);
+		doReturn(tag).when(plain).deserialize(in);
+		assertSame(tag, plain.deserializeNested(in, 10));
+		assertEquals(0, plain.getDecodeDepth());
+		assertEquals(0, plain.getMemoryBudget());
+	}
 }
@@ -0,0 +1,211 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.LimitedDataInput;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.StringTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class DecodeContextTest {
+
+	@Test
+	void testCurrent() throws Exception {
+		DecodeContext ctx = DecodeContext.current();
+		assertNotNull(ctx);
+		assertSame(ctx, DecodeContext.current());
+
+		AtomicReference<DecodeContext> other = new AtomicReference<>();
+		Thread t = new Thread(() -> other.set(DecodeContext.current()));
+		t.start();
+		t.join();
+		assertNotNull(other.get());
+		assertNotSame(ctx, other.get());
+	}
+
+	@Test
+	void testPushPop() throws Exception {
+		DecodeContext ctx = new DecodeContext();
+		ByteBufferDataInput src = new ByteBufferDataInput(new byte[64]);
+		assertNull(DecodeContext.of(src));
+		assertNull(DecodeContext.of(new LimitedDataInput(src, 1)));
+		assertEquals(0, ctx.getDepth());
+
+		LimitedDataInput[] inputs = new LimitedDataInput[40];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = ctx.push(src, 64 - i);
+			assertSame(ctx, DecodeContext.of(inputs[i]));
+			assertEquals(64 - i, inputs[i].remaining());
+			assertEquals(i + 1, ctx.getDepth());
+		}
+		for (int i = inputs.length - 1; i >= 0; i--) {
+			ctx.pop();
+			assertEquals(i, ctx.getDepth());
+			assertFalse(inputs[i].hasRemaining());
+		}
+		assertThrows(IllegalStateException.class, () -> {
+			ctx.pop();
+		});
+
+		// Inputs are reused
+		assertSame(inputs[0], ctx.push(src, 10));
+		LimitedDataInput unlimited = ctx.pushUnlimited(src);
+		assertSame(inputs[1], unlimited);
+		assertEquals(Integer.MAX_VALUE, unlimited.remaining());
+	}
+
+	@Test
+	void testReadHeader() throws Exception {
+		DecodeContext ctx = new DecodeContext();
+		ILTagHeader h = ctx.readHeader(new ByteBufferDataInput(new byte[] { 16, 17 }));
+		assertEquals(16, h.tagId);
+		assertEquals(17, h.valueSize);
+		assertSame(h, ctx.readHeader(new ByteBufferDataInput(new byte[] { 1 })));
+		assertEquals(1, h.tagId);
+		assertEquals(1, h.valueSize);
+	}
+
+	@Test
+	void testReadUTF8String() throws Exception {
+		DecodeContext ctx = new DecodeContext();
+		for (String s : TagTestUtils.createSampleStrings(20)) {
+			byte[] enc = s.getBytes(StandardCharsets.UTF_8);
+			assertEquals(s, ctx.readUTF8String(enc.length, new ByteBufferDataInput(enc)));
+		}
+		char[] large = new char[1000];
+		Arrays.fill(large, 'á');
+		String s = new String(large);
+		byte[] enc = s.getBytes(StandardCharsets.UTF_8);
+		assertEquals(s, ctx.readUTF8String(enc.length, new ByteBufferDataInput(enc)));
+		assertEquals("", ctx.readUTF8String(0, new ByteBufferDataInput(enc)));
+
+		assertThrows(CorruptedTagException.class, () -> {
+			ctx.readUTF8String(2, new ByteBufferDataInput(new byte[] { (byte) 0xC3, 0x20 }));
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ctx.readUTF8String(1, new ByteBufferDataInput(new byte[] { (byte) 0xC3 }));
+		});
+		assertEquals("a", ctx.readUTF8String(1, new ByteBufferDataInput(new byte[] { 'a' })));
+	}
+
+	@Test
+	void testFactoryDeserialize() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		DecodeContext ctx = new DecodeContext();
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		root.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(50)));
+		DictonaryTag dict = DictonaryTag.createStandard();
+		for (String s : TagTestUtils.createSampleStrings(10)) {
+			StringTag v = StringTag.createStandard();
+			v.setValue(s);
+			dict.getValues().put(s, v);
+		}
+		root.getValues().add(dict);
+		byte[] serialized = root.toBytes();
+
+		for (int i = 0; i < 3; i++) {
+			ILTag tag = factory.deserialize(new ByteBufferDataInput(serialized), ctx);
+			TagTestUtils.assertTagEquals(root, tag);
+			assertEquals(0, ctx.getDepth());
+			tag = factory.deserialize(root.getTagID(), new ByteBufferDataInput(serialized), ctx);
+			TagTestUtils.assertTagEquals(root, tag);
+			assertEquals(0, ctx.getDepth());
+		}
+		TagTestUtils.assertTagEquals(root, factory.deserialize(new ByteBufferDataInput(serialized), null));
+		TagTestUtils.assertTagEquals(root,
+				factory.deserialize(root.getTagID(), new ByteBufferDataInput(serialized), null));
+
+		assertThrows(UnexpectedTagException.class, () -> {
+			factory.deserialize(1234, new ByteBufferDataInput(serialized), ctx);
+		});
+		assertEquals(0, ctx.getDepth());
+		assertThrows(CorruptedTagException.class, () -> {
+			factory.deserialize(new ByteBufferDataInput(Arrays.copyOf(serialized, serialized.length - 1)), ctx);
+		});
+		assertEquals(0, ctx.getDepth());
+	}
+
+	@Test
+	void testReadUTF8StringScratchSize() throws Exception {
+		DecodeContext ctx = new DecodeContext();
+		char[] large = new char[DecodeContext.MAX_SCRATCH_SIZE - 1];
+		Arrays.fill(large, 'a');
+		String s = new String(large);
+		byte[] enc = s.getBytes(StandardCharsets.UTF_8);
+		assertEquals(s, ctx.readUTF8String(enc.length, new ByteBufferDataInput(enc)));
+		ByteBuffer scratch = ctx.scratch;
+		CharBuffer chars = ctx.chars;
+		assertTrue(scratch.capacity() <= DecodeContext.MAX_SCRATCH_SIZE);
+		assertTrue(chars.capacity() <= DecodeContext.MAX_SCRATCH_SIZE);
+
+		// Larger strings do not grow the scratch buffers
+		large = new char[DecodeContext.MAX_SCRATCH_SIZE * 3];
+		Arrays.fill(large, 'é');
+		s = new String(large);
+		enc = s.getBytes(StandardCharsets.UTF_8);
+		assertEquals(s, ctx.readUTF8String(enc.length, new ByteBufferDataInput(enc)));
+		assertSame(scratch, ctx.scratch);
+		assertSame(chars, ctx.chars);
+		assertEquals("a", ctx.readUTF8String(1, new ByteBufferDataInput(new byte[] { 'a' })));
+	}
+
+	@Test
+	void testGetScratchBytes() throws Exception {
+		DecodeContext ctx = new DecodeContext();
+		byte[] b = ctx.getScratchBytes(10);
+		assertTrue(b.length >= 10);
+		assertSame(b, ctx.getScratchBytes(b.length));
+		assertSame(ctx.scratch.array(), b);
+
+		b = ctx.getScratchBytes(1000);
+		assertTrue(b.length >= 1000);
+		assertSame(b, ctx.getScratchBytes(10));
+
+		// Larger arrays are not kept
+		byte[] large = ctx.getScratchBytes(DecodeContext.MAX_SCRATCH_SIZE + 1);
+		assertEquals(DecodeContext.MAX_SCRATCH_SIZE + 1, large.length);
+		assertSame(b, ctx.getScratchBytes(10));
+	}
+}
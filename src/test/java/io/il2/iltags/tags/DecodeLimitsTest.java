@@ -0,0 +1,129 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.factory.TagFactory;
+
+class DecodeLimitsTest {
+
+	@Test
+	void testDecodeLimits() {
+		DecodeLimits l = new DecodeLimits(1, 2, 3, 4);
+		assertEquals(1, l.getMaxDepth());
+		assertEquals(2, l.getMaxElements());
+		assertEquals(3, l.getMaxTotalBytes());
+		assertEquals(4, l.getMaxStringLength());
+
+		l = new DecodeLimits(1, 0, 0, 0);
+		assertEquals(0, l.getMaxElements());
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			new DecodeLimits(0, 2, 3, 4);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new DecodeLimits(1, -1, 3, 4);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new DecodeLimits(1, 2, -1, 4);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new DecodeLimits(1, 2, 3, -1);
+		});
+	}
+
+	@Test
+	void testConstants() {
+		assertEquals(Integer.MAX_VALUE, DecodeLimits.UNLIMITED.getMaxDepth());
+		assertEquals(Integer.MAX_VALUE, DecodeLimits.UNLIMITED.getMaxElements());
+		assertEquals(ILTag.MAX_TAG_VALUE_SIZE, DecodeLimits.UNLIMITED.getMaxTotalBytes());
+		assertEquals(ILTag.MAX_TAG_VALUE_SIZE, DecodeLimits.UNLIMITED.getMaxStringLength());
+		assertEquals(IterativeTagDeserializer.DEFAULT_MAX_DEPTH, DecodeLimits.UNTRUSTED.getMaxDepth());
+		assertTrue(DecodeLimits.UNTRUSTED.getMaxElements() < DecodeLimits.UNLIMITED.getMaxElements());
+		assertTrue(DecodeLimits.UNTRUSTED.getMaxTotalBytes() < DecodeLimits.UNLIMITED.getMaxTotalBytes());
+		assertTrue(DecodeLimits.UNTRUSTED.getMaxStringLength() < DecodeLimits.UNLIMITED.getMaxStringLength());
+	}
+
+	@Test
+	void testOf() {
+		assertSame(DecodeLimits.UNLIMITED, DecodeLimits.of(null));
+		TagFactory f = new TagFactory(false);
+		assertSame(DecodeLimits.UNLIMITED, DecodeLimits.of(f));
+		f.setDecodeLimits(DecodeLimits.UNTRUSTED);
+		assertSame(DecodeLimits.UNTRUSTED, DecodeLimits.of(f));
+	}
+
+	@Test
+	void testCheckDepth() throws Exception {
+		DecodeLimits l = new DecodeLimits(2, 2, 3, 4);
+		l.checkDepth(1);
+		l.checkDepth(2);
+		assertThrows(TagTooLargeException.class, () -> {
+			l.checkDepth(3);
+		});
+	}
+
+	@Test
+	void testCheckElements() throws Exception {
+		DecodeLimits l = new DecodeLimits(1, 2, 3, 4);
+		l.checkElements(0);
+		l.checkElements(2);
+		assertThrows(TagTooLargeException.class, () -> {
+			l.checkElements(3);
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			l.checkElements(-1);
+		});
+	}
+
+	@Test
+	void testCheckTotalBytes() throws Exception {
+		DecodeLimits l = new DecodeLimits(1, 2, 3, 4);
+		l.checkTotalBytes(-1);
+		l.checkTotalBytes(3);
+		assertThrows(TagTooLargeException.class, () -> {
+			l.checkTotalBytes(4);
+		});
+	}
+
+	@Test
+	void testCheckStringLength() throws Exception {
+		DecodeLimits l = new DecodeLimits(1, 2, 3, 4);
+		l.checkStringLength(4);
+		assertThrows(TagTooLargeException.class, () -> {
+			l.checkStringLength(5);
+		});
+	}
+}
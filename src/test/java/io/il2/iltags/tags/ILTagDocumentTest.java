@@ -0,0 +1,356 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.StringDictonaryTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class ILTagDocumentTest {
+
+	private static byte[] createSample() throws Exception {
+		ILTagWriter w = new ILTagWriter();
+		w.beginDictionary(TagID.IL_DICTIONARY_TAG_ID);
+		w.key("bool");
+		w.writeBoolean(TagID.IL_BOOL_TAG_ID, true);
+		w.key("int");
+		w.writeInt32(TagID.IL_INT32_TAG_ID, -2);
+		w.key("ilint");
+		w.writeILInt(TagID.IL_ILINT_TAG_ID, 1000);
+		w.key("list");
+		w.beginArray(TagID.IL_ILTAGARRAY_TAG_ID);
+		w.writeString(TagID.IL_STRING_TAG_ID, "a");
+		w.beginSequence(TagID.IL_ILTAGSEQ_TAG_ID);
+		w.endSequence();
+		w.writeDouble(TagID.IL_BIN64_TAG_ID, 1.5);
+		w.endArray();
+		w.key("int");
+		w.writeSignedILInt(TagID.IL_SIGNED_ILINT_TAG_ID, -3);
+		w.key("float");
+		w.writeFloat(TagID.IL_BIN32_TAG_ID, 2.5f);
+		w.endDictionary();
+		return w.toBytes();
+	}
+
+	@Test
+	void testParse() throws Exception {
+		byte[] sample = createSample();
+		ILTagDocument doc = ILTagDocument.parse(sample);
+		assertSame(sample, doc.getBytes());
+		// root + 6 keys + 6 values + 3 list entries
+		assertEquals(16, doc.getNodeCount());
+		assertEquals(TagID.IL_DICTIONARY_TAG_ID, doc.getTagId(0));
+		assertEquals(0, doc.getOffset(0));
+		assertEquals(sample.length, doc.getTagSize(0));
+		assertEquals(-1, doc.getParent(0));
+		assertEquals(-1, doc.getNextSibling(0));
+		assertEquals(12, doc.getChildCount(0));
+
+		byte[] padded = new byte[sample.length + 4];
+		System.arraycopy(sample, 0, padded, 2, sample.length);
+		ILTagDocument doc2 = ILTagDocument.parse(padded, 2, sample.length);
+		assertEquals(16, doc2.getNodeCount());
+		assertEquals(2, doc2.getOffset(0));
+		assertEquals("a", doc2.getString(doc2.getChild(doc2.getEntry(0, "list"), 0)));
+
+		assertThrows(IndexOutOfBoundsException.class, () -> doc.getTagId(16));
+		assertThrows(IndexOutOfBoundsException.class, () -> doc.getTagId(-1));
+	}
+
+	@Test
+	void testNavigation() throws Exception {
+		ILTagDocument doc = ILTagDocument.parse(createSample());
+		int list = doc.getEntry(0, "list");
+		assertEquals(TagID.IL_ILTAGARRAY_TAG_ID, doc.getTagId(list));
+		assertEquals(0, doc.getParent(list));
+		assertEquals(3, doc.getChildCount(list));
+		int a = doc.getFirstChild(list);
+		assertEquals(list + 1, a);
+		int seq = doc.getNextSibling(a);
+		assertEquals(TagID.IL_ILTAGSEQ_TAG_ID, doc.getTagId(seq));
+		assertEquals(-1, doc.getFirstChild(seq));
+		assertEquals(0, doc.getChildCount(seq));
+		int d = doc.getNextSibling(seq);
+		assertEquals(d, doc.getChild(list, 2));
+		assertEquals(-1, doc.getNextSibling(d));
+		assertEquals(-1, doc.getChild(list, 3));
+		assertEquals(-1, doc.getChild(list, -1));
+		assertEquals(list, doc.getParent(d));
+		// The key after the list
+		assertEquals("int", doc.getString(doc.getNextSibling(list)));
+
+		assertEquals(-1, doc.getEntry(0, "missing"));
+		assertEquals(-1, doc.getEntry(list, "a"));
+	}
+
+	@Test
+	void testTypedAccessors() throws Exception {
+		ILTagDocument doc = ILTagDocument.parse(createSample());
+		assertTrue(doc.getBoolean(doc.getEntry(0, "bool")));
+		// Last occurrence wins
+		assertEquals(-3, doc.getInt64(doc.getEntry(0, "int")));
+		assertEquals(-2, doc.getInt64(doc.getChild(0, 3)));
+		assertEquals(1000, doc.getInt64(doc.getEntry(0, "ilint")));
+		assertEquals(2.5f, doc.getFloat(doc.getEntry(0, "float")));
+		int list = doc.getEntry(0, "list");
+		assertEquals(1.5, doc.getDouble(doc.getChild(list, 2)));
+
+		assertThrows(UnexpectedTagException.class, () -> doc.getBoolean(list));
+		assertThrows(UnexpectedTagException.class, () -> doc.getInt64(list));
+		assertThrows(UnexpectedTagException.class, () -> doc.getFloat(list));
+		assertThrows(UnexpectedTagException.class, () -> doc.getDouble(list));
+		assertThrows(UnexpectedTagException.class, () -> doc.getString(list));
+
+		ByteBuffer value = doc.getValueBuffer(doc.getChild(list, 0));
+		assertTrue(value.isReadOnly());
+		assertEquals(1, value.remaining());
+		assertEquals('a', value.get());
+
+		ILTagDocument bool = ILTagDocument.parse(new byte[] { 1, 2 });
+		assertThrows(CorruptedTagException.class, () -> bool.getBoolean(0));
+		ILTagDocument str = ILTagDocument.parse(new byte[] { 17, 1, (byte) 0xFF });
+		assertThrows(CorruptedTagException.class, () -> str.getString(0));
+	}
+
+	@Test
+	void testIntegers() throws Exception {
+		long[] values = { 0, 1, -1, 127, -128, 255, 32767, -32768, Integer.MAX_VALUE, Integer.MIN_VALUE,
+				Long.MAX_VALUE, Long.MIN_VALUE };
+		for (long v : values) {
+			ILTagWriter w = new ILTagWriter();
+			w.beginSequence(TagID.IL_ILTAGSEQ_TAG_ID);
+			w.writeInt8(TagID.IL_INT8_TAG_ID, (byte) v);
+			w.writeInt16(TagID.IL_INT16_TAG_ID, (short) v);
+			w.writeInt32(TagID.IL_INT32_TAG_ID, (int) v);
+			w.writeInt64(TagID.IL_INT64_TAG_ID, v);
+			w.writeSignedILInt(TagID.IL_SIGNED_ILINT_TAG_ID, v);
+			w.writeILInt(TagID.IL_ILINT_TAG_ID, v);
+			w.endSequence();
+			ILTagDocument doc = ILTagDocument.parse(w.toBytes());
+			assertEquals((byte) v, doc.getInt64(1));
+			assertEquals((short) v, doc.getInt64(2));
+			assertEquals((int) v, doc.getInt64(3));
+			assertEquals(v, doc.getInt64(4));
+			assertEquals(v, doc.getInt64(5));
+			assertEquals(v, doc.getInt64(6));
+		}
+		assertEquals(0xFF, ILTagDocument.parse(new byte[] { 3, (byte) 0xFF }).getInt64(0));
+		assertEquals(0xFFFF, ILTagDocument.parse(new byte[] { 5, (byte) 0xFF, (byte) 0xFF }).getInt64(0));
+		assertEquals(0xFFFFFFFFl,
+				ILTagDocument.parse(new byte[] { 7, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF }).getInt64(0));
+
+		// Tag 0x800000000000000A must not be aliased to the int64 tag
+		ILTagWriter w = new ILTagWriter();
+		w.writeInt64(0x800000000000000AL, 1);
+		ILTagDocument large = ILTagDocument.parse(w.toBytes());
+		assertThrows(UnexpectedTagException.class, () -> large.getInt64(0));
+	}
+
+	@Test
+	void testToTag() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		seq.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(20)));
+		root.getValues().add(seq);
+		DictonaryTag dict = DictonaryTag.createStandard();
+		for (int i = 0; i < 10; i++) {
+			dict.getValues().put("key" + i, TagTestUtils.createRandomTag());
+		}
+		root.getValues().add(dict);
+		StringDictonaryTag strDict = StringDictonaryTag.createStandard();
+		strDict.getValues().put("k", "v");
+		root.getValues().add(strDict);
+		root.getValues().add(null);
+		byte[] serialized = root.toBytes();
+
+		ILTagDocument doc = ILTagDocument.parse(serialized);
+		TagTestUtils.assertTagEquals(root, doc.toTag(0, factory));
+		TagTestUtils.assertTagEquals(seq, doc.toTag(doc.getChild(0, 0), factory));
+		int d = doc.getChild(0, 1);
+		for (int i = 0; i < 10; i++) {
+			TagTestUtils.assertTagEquals(dict.getValues().get("key" + i), doc.toTag(doc.getEntry(d, "key" + i), factory));
+		}
+		assertEquals("v", doc.getString(doc.getEntry(doc.getChild(0, 2), "k")));
+		assertEquals(TagID.IL_NULL_TAG_ID, doc.getTagId(doc.getChild(0, 3)));
+
+		// Every node covers exactly its bytes
+		for (int node = 0; node < doc.getNodeCount(); node++) {
+			byte[] expected = Arrays.copyOfRange(serialized, doc.getOffset(node),
+					doc.getOffset(node) + doc.getTagSize(node));
+			assertArrayEquals(expected, doc.toTag(node, factory).toBytes());
+		}
+	}
+
+	@Test
+	void testCursor() throws Exception {
+		ILTagDocument doc = ILTagDocument.parse(createSample());
+		ILTagDocument.Cursor c = doc.cursor();
+		assertEquals(0, c.getNode());
+		assertFalse(c.moveToParent());
+		assertFalse(c.moveToNextSibling());
+		assertTrue(c.moveToEntry("list"));
+		assertEquals(TagID.IL_ILTAGARRAY_TAG_ID, c.getTagId());
+		assertFalse(c.moveToEntry("list"));
+		assertTrue(c.moveToFirstChild());
+		assertEquals(TagID.IL_STRING_TAG_ID, c.getTagId());
+		assertFalse(c.moveToFirstChild());
+		assertTrue(c.moveToNextSibling());
+		assertTrue(c.moveToNextSibling());
+		assertFalse(c.moveToNextSibling());
+		assertEquals(TagID.IL_BIN64_TAG_ID, c.getTagId());
+		assertTrue(c.moveToParent());
+		assertTrue(c.moveToParent());
+		assertEquals(0, c.getNode());
+		c.moveTo(3);
+		assertEquals(3, c.getNode());
+		assertThrows(IndexOutOfBoundsException.class, () -> c.moveTo(100));
+	}
+
+	@Test
+	void testCorrupted() throws Exception {
+		byte[] sample = createSample();
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagDocument.parse(Arrays.copyOf(sample, sample.length + 1));
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagDocument.parse(Arrays.copyOf(sample, sample.length - 1));
+		});
+		// Inner container larger than its container
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagDocument.parse(new byte[] { 21, 4, 1, 21, 3, 1, 0 });
+		});
+		// Missing entries
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagDocument.parse(new byte[] { 21, 3, 3, 0, 0 });
+		});
+		// Unused bytes
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagDocument.parse(new byte[] { 21, 3, 1, 0, 0 });
+		});
+		// Key that is not a string
+		assertThrows(UnexpectedTagException.class, () -> {
+			ILTagDocument.parse(new byte[] { 30, 4, 1, 0, 0, 0 });
+		});
+		// Value of a string dictionary that is not a string
+		assertThrows(UnexpectedTagException.class, () -> {
+			ILTagDocument.parse(new byte[] { 31, 5, 1, 17, 0, 0, 0 });
+		});
+	}
+
+	@Test
+	void testDepth() throws Exception {
+		ILTagWriter w = new ILTagWriter();
+		for (int i = 0; i < IterativeTagDeserializer.DEFAULT_MAX_DEPTH; i++) {
+			w.beginSequence(TagID.IL_ILTAGSEQ_TAG_ID);
+		}
+		for (int i = 0; i < IterativeTagDeserializer.DEFAULT_MAX_DEPTH; i++) {
+			w.endSequence();
+		}
+		ILTagDocument doc = ILTagDocument.parse(w.toBytes());
+		assertEquals(IterativeTagDeserializer.DEFAULT_MAX_DEPTH, doc.getNodeCount());
+		assertEquals(IterativeTagDeserializer.DEFAULT_MAX_DEPTH - 2, doc.getParent(doc.getNodeCount() - 1));
+
+		w.reset();
+		for (int i = 0; i <= IterativeTagDeserializer.DEFAULT_MAX_DEPTH; i++) {
+			w.beginSequence(TagID.IL_ILTAGSEQ_TAG_ID);
+		}
+		for (int i = 0; i <= IterativeTagDeserializer.DEFAULT_MAX_DEPTH; i++) {
+			w.endSequence();
+		}
+		byte[] deeper = w.toBytes();
+		assertThrows(TagTooLargeException.class, () -> ILTagDocument.parse(deeper));
+		doc = ILTagDocument.parse(deeper, 0, deeper.length, IterativeTagDeserializer.DEFAULT_MAX_DEPTH + 1);
+		assertEquals(IterativeTagDeserializer.DEFAULT_MAX_DEPTH + 1, doc.getNodeCount());
+		assertThrows(TagTooLargeException.class, () -> ILTagDocument.parse(deeper, 0, deeper.length, 3));
+		assertThrows(IllegalArgumentException.class, () -> ILTagDocument.parse(deeper, 0, deeper.length, 0));
+	}
+
+	@Test
+	void testNonCanonical() throws Exception {
+		// Array with 2 tags whose ids use non-canonical ILInts (256 as F9 00 08)
+		byte[] serialized = new byte[] { 21, 11, 2, (byte) 0xF9, 0x00, 0x08, 1, 0x7A, (byte) 0xF9, 0x00, 0x08, 1,
+				0x7B };
+		ILTagDocument doc = ILTagDocument.parse(serialized);
+		assertEquals(3, doc.getNodeCount());
+		int child = doc.getChild(0, 1);
+		assertEquals(8, doc.getOffset(child));
+		assertEquals(256, doc.getTagId(child));
+		assertEquals(12, doc.getValueOffset(child));
+		assertEquals(5, doc.getTagSize(child));
+		assertEquals(0x7B, doc.getValueBuffer(child).get());
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		// Null tag at depth 4
+		byte[] nested = new byte[] { 21, 8, 1, 21, 5, 1, 21, 2, 1, 0 };
+		byte[] array = new byte[] { 21, 4, 3, 0, 0, 0 };
+		byte[] seq = new byte[] { 22, 3, 0, 0, 0 };
+		byte[] dict = new byte[] { 30, 7, 1, 17, 3, 'a', 'b', 'c', 0 };
+		DecodeLimits limits = new DecodeLimits(4, 3, 8, 3);
+		for (byte[] serialized : new byte[][] { nested, array, seq, dict }) {
+			ILTagDocument doc = ILTagDocument.parse(serialized, 0, serialized.length, limits);
+			assertEquals(ILTagDocument.parse(serialized).getNodeCount(), doc.getNodeCount());
+		}
+
+		// Depth
+		assertThrows(TagTooLargeException.class, () -> {
+			ILTagDocument.parse(nested, 0, nested.length, new DecodeLimits(3, 3, 8, 3));
+		});
+		// Elements
+		assertThrows(TagTooLargeException.class, () -> {
+			ILTagDocument.parse(array, 0, array.length, new DecodeLimits(4, 2, 8, 3));
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			ILTagDocument.parse(seq, 0, seq.length, new DecodeLimits(4, 2, 8, 3));
+		});
+		// Total bytes
+		assertThrows(TagTooLargeException.class, () -> {
+			ILTagDocument.parse(seq, 0, seq.length, new DecodeLimits(4, 3, 2, 3));
+		});
+		// String length
+		assertThrows(TagTooLargeException.class, () -> {
+			ILTagDocument.parse(dict, 0, dict.length, new DecodeLimits(4, 3, 8, 2));
+		});
+	}
+}
@@ -0,0 +1,509 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.basic.BigDecTag;
+import io.il2.iltags.tags.basic.BigIntTag;
+import io.il2.iltags.tags.basic.Binary128Tag;
+import io.il2.iltags.tags.basic.BooleanTag;
+import io.il2.iltags.tags.basic.BytesTag;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.DoubleTag;
+import io.il2.iltags.tags.basic.FloatTag;
+import io.il2.iltags.tags.basic.ILIntArrayTag;
+import io.il2.iltags.tags.basic.ILIntTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.Int16Tag;
+import io.il2.iltags.tags.basic.Int32Tag;
+import io.il2.iltags.tags.basic.Int64Tag;
+import io.il2.iltags.tags.basic.Int8Tag;
+import io.il2.iltags.tags.basic.NullTag;
+import io.il2.iltags.tags.basic.RangeTag;
+import io.il2.iltags.tags.basic.SignedILIntTag;
+import io.il2.iltags.tags.basic.StringDictonaryTag;
+import io.il2.iltags.tags.basic.StringTag;
+import io.il2.iltags.tags.basic.VersionTag;
+import io.il2.iltags.utils.UTF8Utils;
+
+class ILTagEventParserTest {
+
+	/**
+	 * Handler that records all events as text. Containers whose ids are listed
+	 * in skip are skipped.
+	 */
+	private static class LogHandler implements ILTagHandler {
+
+		final StringBuilder log = new StringBuilder();
+
+		final long skip;
+
+		LogHandler(long skip) {
+			this.skip = skip;
+		}
+
+		private void add(String s) {
+			log.append(s).append(';');
+		}
+
+		private static String text(byte[] buff, int off, int len) {
+			return new String(buff, off, len, UTF8Utils.UTF8);
+		}
+
+		@Override
+		public void onNull(long tagId) {
+			add("null");
+		}
+
+		@Override
+		public void onBoolean(long tagId, boolean value) {
+			add("bool:" + value);
+		}
+
+		@Override
+		public void onInt64(long tagId, long value) {
+			add("int" + tagId + ":" + value);
+		}
+
+		@Override
+		public void onUInt64(long tagId, long value) {
+			add("uint" + tagId + ":" + Long.toUnsignedString(value));
+		}
+
+		@Override
+		public void onFloat(long tagId, float value) {
+			add("float:" + value);
+		}
+
+		@Override
+		public void onDouble(long tagId, double value) {
+			add("double:" + value);
+		}
+
+		@Override
+		public void onBytes(long tagId, byte[] buff, int off, int len) {
+			add("bytes" + tagId + ":" + len + ":" + buff[off]);
+		}
+
+		@Override
+		public void onString(long tagId, byte[] buff, int off, int len) {
+			add("string:" + text(buff, off, len));
+		}
+
+		@Override
+		public void onBigDecimal(long tagId, int scale, byte[] buff, int off, int len) {
+			add("bdec:" + new BigDecimal(new BigInteger(Arrays.copyOfRange(buff, off, off + len)), scale));
+		}
+
+		@Override
+		public void onRange(long tagId, long first, int count) {
+			add("range:" + first + ":" + count);
+		}
+
+		@Override
+		public void onVersion(long tagId, int major, int minor, int revision, int build) {
+			add("version:" + major + "." + minor + "." + revision + "." + build);
+		}
+
+		@Override
+		public boolean onArrayStart(long tagId, long count) {
+			add("array" + tagId + ":" + count);
+			return tagId != skip;
+		}
+
+		@Override
+		public boolean onSequenceStart(long tagId) {
+			add("seq");
+			return tagId != skip;
+		}
+
+		@Override
+		public boolean onDictStart(long tagId, long count) {
+			add("dict" + tagId + ":" + count);
+			return tagId != skip;
+		}
+
+		@Override
+		public void onDictKey(byte[] buff, int off, int len) {
+			add("key:" + text(buff, off, len));
+		}
+
+		@Override
+		public void onEnd(long tagId) {
+			add("end" + tagId);
+		}
+
+		@Override
+		public void onOpaque(long tagId, byte[] buff, int off, int len) {
+			add("opaque" + tagId + ":" + len);
+		}
+	}
+
+	private static StringTag createString(String s) {
+		StringTag t = StringTag.createStandard();
+		t.setValue(s);
+		return t;
+	}
+
+	private static ILTag createSample() {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		root.getValues().add(NullTag.createStandard());
+		BooleanTag b = BooleanTag.createStandard();
+		b.setValue(true);
+		root.getValues().add(b);
+		Int8Tag i8 = Int8Tag.createStandardSigned();
+		i8.setValue((byte) -2);
+		root.getValues().add(i8);
+		Int8Tag u8 = Int8Tag.createStandardUnsigned();
+		u8.setUnsignedValue(254);
+		root.getValues().add(u8);
+		Int16Tag i16 = Int16Tag.createStandardSigned();
+		i16.setValue((short) -300);
+		root.getValues().add(i16);
+		Int16Tag u16 = Int16Tag.createStandardUnsigned();
+		u16.setUnsignedValue(65000);
+		root.getValues().add(u16);
+		Int32Tag i32 = Int32Tag.createStandardSigned();
+		i32.setValue(-70000);
+		root.getValues().add(i32);
+		Int32Tag u32 = Int32Tag.createStandardUnsigned();
+		u32.setUnsignedValue(4000000000l);
+		root.getValues().add(u32);
+		Int64Tag i64 = Int64Tag.createStandardSigned();
+		i64.setValue(-5000000000l);
+		root.getValues().add(i64);
+		Int64Tag u64 = Int64Tag.createStandardUnsigned();
+		u64.setValue(-1);
+		root.getValues().add(u64);
+		ILIntTag ilint = ILIntTag.createStandard();
+		ilint.setValue(1000);
+		root.getValues().add(ilint);
+		FloatTag f = FloatTag.createStandard();
+		f.setValue(1.5f);
+		root.getValues().add(f);
+		DoubleTag d = DoubleTag.createStandard();
+		d.setValue(-2.25);
+		root.getValues().add(d);
+		Binary128Tag b128 = Binary128Tag.createStandard();
+		byte[] b128Value = new byte[16];
+		b128Value[0] = 7;
+		b128.setValue(b128Value);
+		root.getValues().add(b128);
+		SignedILIntTag silint = SignedILIntTag.createStandard();
+		silint.setValue(-1000);
+		root.getValues().add(silint);
+		BytesTag bytes = BytesTag.createStandard();
+		bytes.setValue(new byte[] { 9, 8, 7 });
+		root.getValues().add(bytes);
+		root.getValues().add(createString("ação"));
+		BigIntTag bint = BigIntTag.createStandard();
+		bint.setValue(BigInteger.valueOf(-129));
+		root.getValues().add(bint);
+		BigDecTag bdec = BigDecTag.createStandard();
+		bdec.setValue(new BigDecimal("-12.345"));
+		root.getValues().add(bdec);
+		ILIntArrayTag ilintArray = ILIntArrayTag.createStandard();
+		ilintArray.setValues(1, 300);
+		root.getValues().add(ilintArray);
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		seq.getValues().add(createString("in seq"));
+		seq.getValues().add(ILTagSequenceTag.createStandard());
+		root.getValues().add(seq);
+		RangeTag range = RangeTag.createStandard();
+		range.setFirst(1000);
+		range.setCount(65535);
+		root.getValues().add(range);
+		VersionTag version = VersionTag.createStandard();
+		version.setMajor(1);
+		version.setMinor(2);
+		version.setRevision(3);
+		version.setBuild(-4);
+		root.getValues().add(version);
+		ILIntArrayTag oid = ILIntArrayTag.createStandardOIDTag();
+		oid.setValues(2, 5);
+		root.getValues().add(oid);
+		DictonaryTag dict = DictonaryTag.createStandard();
+		dict.getValues().put("a", createString("x"));
+		dict.getValues().put("b", null);
+		root.getValues().add(dict);
+		StringDictonaryTag strDict = StringDictonaryTag.createStandard();
+		strDict.getValues().put("k", "v");
+		root.getValues().add(strDict);
+		BytesTag opaque = new BytesTag(1234);
+		opaque.setValue(new byte[] { 1, 2 });
+		root.getValues().add(opaque);
+		return root;
+	}
+
+	private static final String SAMPLE_LOG = "array21:27;null;bool:true;int2:-2;uint3:254;int4:-300;uint5:65000;"
+			+ "int6:-70000;uint7:4000000000;int8:-5000000000;uint9:18446744073709551615;uint10:1000;float:1.5;"
+			+ "double:-2.25;bytes13:16:7;int14:-1000;bytes16:3:9;string:ação;bytes18:2:-1;bdec:-12.345;array20:2;"
+			+ "uint10:1;uint10:300;end20;seq;string:in seq;seq;end22;end22;range:1000:65535;version:1.2.3.-4;"
+			+ "array25:2;uint10:2;uint10:5;end25;dict30:2;key:a;string:x;key:b;null;end30;dict31:1;key:k;string:v;"
+			+ "end31;opaque1234:2;end21;";
+
+	@Test
+	void testILTagEventParser() {
+		assertEquals(IterativeTagDeserializer.DEFAULT_MAX_DEPTH, new ILTagEventParser().getMaxDepth());
+		assertEquals(3, new ILTagEventParser(3).getMaxDepth());
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ILTagEventParser(0);
+		});
+	}
+
+	@Test
+	void testParse() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		ILTagEventParser p = new ILTagEventParser();
+		LogHandler h = new LogHandler(-1);
+		p.parse(serialized, h);
+		assertEquals(SAMPLE_LOG, h.log.toString());
+
+		// The instance can be reused
+		h = new LogHandler(-1);
+		p.parse(serialized, h);
+		assertEquals(SAMPLE_LOG, h.log.toString());
+
+		// Region
+		byte[] padded = new byte[serialized.length + 4];
+		System.arraycopy(serialized, 0, padded, 2, serialized.length);
+		h = new LogHandler(-1);
+		p.parse(padded, 2, serialized.length, h);
+		assertEquals(SAMPLE_LOG, h.log.toString());
+
+		// Default handler
+		p.parse(serialized, new ILTagHandler() {
+		});
+	}
+
+	@Test
+	void testParseByteBuffer() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		ILTagEventParser p = new ILTagEventParser();
+
+		ByteBuffer buff = ByteBuffer.allocate(serialized.length + 2);
+		buff.position(2);
+		buff.put(serialized);
+		buff.position(2);
+		LogHandler h = new LogHandler(-1);
+		p.parse(buff.slice(), h);
+		assertEquals(SAMPLE_LOG, h.log.toString());
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(serialized.length);
+		direct.put(serialized);
+		direct.flip();
+		h = new LogHandler(-1);
+		p.parse(direct, h);
+		assertEquals(SAMPLE_LOG, h.log.toString());
+		assertFalse(direct.hasRemaining());
+	}
+
+	@Test
+	void testSkip() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		ILTagEventParser p = new ILTagEventParser();
+
+		LogHandler h = new LogHandler(TagID.IL_ILTAGSEQ_TAG_ID);
+		p.parse(serialized, h);
+		assertEquals(SAMPLE_LOG.replace("seq;string:in seq;seq;end22;end22;", "seq;"), h.log.toString());
+
+		h = new LogHandler(TagID.IL_DICTIONARY_TAG_ID);
+		p.parse(serialized, h);
+		assertEquals(SAMPLE_LOG.replace("key:a;string:x;key:b;null;end30;", ""), h.log.toString());
+
+		h = new LogHandler(TagID.IL_ILINTARRAY_TAG_ID);
+		p.parse(serialized, h);
+		assertEquals(SAMPLE_LOG.replace("uint10:1;uint10:300;end20;", ""), h.log.toString());
+
+		h = new LogHandler(TagID.IL_ILTAGARRAY_TAG_ID);
+		p.parse(serialized, h);
+		assertEquals("array21:27;", h.log.toString());
+	}
+
+	@Test
+	void testAbort() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		ILTagEventParser p = new ILTagEventParser();
+		CorruptedTagException e = new CorruptedTagException("Stop.");
+		assertSame(e, assertThrows(CorruptedTagException.class, () -> {
+			p.parse(serialized, new ILTagHandler() {
+				@Override
+				public void onDictKey(byte[] buff, int off, int len) throws ILTagException {
+					throw e;
+				}
+			});
+		}));
+		LogHandler h = new LogHandler(-1);
+		p.parse(serialized, h);
+		assertEquals(SAMPLE_LOG, h.log.toString());
+	}
+
+	@Test
+	void testMaxDepth() throws Exception {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		ILTagArrayTag inner = ILTagArrayTag.createStandard();
+		root.getValues().add(inner);
+		inner.getValues().add(ILTagSequenceTag.createStandard());
+		byte[] serialized = root.toBytes();
+
+		new ILTagEventParser(3).parse(serialized, new LogHandler(-1));
+		assertThrows(TagTooLargeException.class, () -> {
+			new ILTagEventParser(2).parse(serialized, new LogHandler(-1));
+		});
+		// Skipped containers do not count
+		new ILTagEventParser(2).parse(serialized, new LogHandler(TagID.IL_ILTAGSEQ_TAG_ID));
+	}
+
+	@Test
+	void testCorrupted() throws Exception {
+		ILTagEventParser p = new ILTagEventParser();
+		LogHandler h = new LogHandler(-1);
+		byte[] serialized = createSample().toBytes();
+		byte[][] samples = new byte[][] { //
+				// Truncated and too long
+				Arrays.copyOf(serialized, serialized.length - 1),
+				Arrays.copyOf(serialized, serialized.length + 1),
+				// Inner container larger than its container
+				{ 21, 4, 1, 21, 3, 1, 0 },
+				// Missing entries
+				{ 21, 3, 3, 0, 0 },
+				// Unused bytes
+				{ 21, 3, 1, 0, 0 },
+				// Truncated entry of a sequence
+				{ 22, 2, 0, 1 },
+				// Invalid boolean
+				{ 1, 2 },
+				// Invalid key
+				{ 30, 4, 1, 0, 0, 0 },
+				// Invalid string dictionary value
+				{ 31, 5, 1, 17, 0, 1, 1 },
+				// Invalid range
+				{ 23, 4, 1, 0, 0, 0 },
+				// Invalid version
+				{ 24, 1, 0 },
+				// Invalid big decimal
+				{ 19, 4, 0, 0, 0, 0 },
+				// Invalid big integer
+				{ 18, 0 } };
+		for (byte[] sample : samples) {
+			assertThrows(ILTagException.class, () -> {
+				p.parse(sample, h);
+			}, Arrays.toString(sample));
+		}
+		assertThrows(UnexpectedTagException.class, () -> {
+			p.parse(new byte[] { 30, 4, 1, 0, 0, 0 }, h);
+		});
+		assertThrows(UnsupportedTagException.class, () -> {
+			p.parse(new byte[] { 15, 0 }, h);
+		});
+	}
+
+	@Test
+	void testParseNonCanonical() throws Exception {
+		// Array with 2 tags whose ids use non-canonical ILInts (256 as F9 00 08)
+		byte[] serialized = new byte[] { 21, 11, 2, (byte) 0xF9, 0x00, 0x08, 1, 0x7A, (byte) 0xF9, 0x00, 0x08, 1,
+				0x7B };
+		LogHandler h = new LogHandler(-1);
+		new ILTagEventParser().parse(serialized, h);
+		assertEquals("array21:2;opaque256:1;opaque256:1;end21;", h.log.toString());
+	}
+
+	@Test
+	void testParseLargeTagId() throws Exception {
+		// Tag 0x8000000000000001 must not be aliased to the boolean tag
+		long tagId = 0x8000000000000001L;
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bOut)) {
+			ILTagHeader.serialize(tagId, 0, out);
+		}
+		LogHandler h = new LogHandler(-1);
+		new ILTagEventParser().parse(bOut.toByteArray(), h);
+		assertEquals("opaque" + tagId + ":0;", h.log.toString());
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		// Null tag at depth 4
+		byte[] nested = new byte[] { 21, 8, 1, 21, 5, 1, 21, 2, 1, 0 };
+		byte[] array = new byte[] { 21, 4, 3, 0, 0, 0 };
+		byte[] seq = new byte[] { 22, 3, 0, 0, 0 };
+		byte[] dict = new byte[] { 30, 7, 1, 17, 3, 'a', 'b', 'c', 0 };
+		byte[] strDict = new byte[] { 31, 9, 1, 17, 1, 'k', 17, 3, 'a', 'b', 'c' };
+		DecodeLimits limits = new DecodeLimits(4, 3, 9, 3);
+		ILTagEventParser p = new ILTagEventParser(limits);
+		assertSame(limits, p.getDecodeLimits());
+		assertEquals(4, p.getMaxDepth());
+		assertSame(DecodeLimits.UNLIMITED, new ILTagEventParser().getDecodeLimits());
+		for (byte[] serialized : new byte[][] { nested, array, seq, dict, strDict }) {
+			p.parse(serialized, new LogHandler(-1));
+		}
+
+		// Depth
+		assertThrows(TagTooLargeException.class, () -> {
+			new ILTagEventParser(new DecodeLimits(3, 3, 9, 3)).parse(nested, new LogHandler(-1));
+		});
+		// Elements
+		ILTagEventParser few = new ILTagEventParser(new DecodeLimits(4, 2, 9, 3));
+		assertThrows(TagTooLargeException.class, () -> {
+			few.parse(array, new LogHandler(-1));
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			few.parse(seq, new LogHandler(-1));
+		});
+		// Total bytes
+		assertThrows(TagTooLargeException.class, () -> {
+			new ILTagEventParser(new DecodeLimits(4, 3, 2, 3)).parse(seq, new LogHandler(-1));
+		});
+		// String length
+		ILTagEventParser shortStrings = new ILTagEventParser(new DecodeLimits(4, 3, 9, 2));
+		assertThrows(TagTooLargeException.class, () -> {
+			shortStrings.parse(dict, new LogHandler(-1));
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			shortStrings.parse(strDict, new LogHandler(-1));
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			shortStrings.parse(new byte[] { 17, 3, 'a', 'b', 'c' }, new LogHandler(-1));
+		});
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+class ILTagExceptionTest {
+
+	@Test
+	void testILTagException() {
+		ILTagException e = new ILTagException();
+		assertNull(e.getMessage());
+		assertNull(e.getMessageFormat());
+		assertEquals(0, e.getMessageArguments().length);
+		assertEquals(!ILTagException.isLightweight(), e.getStackTrace().length > 0);
+
+		e = new ILTagException("message");
+		assertEquals("message", e.getMessage());
+		assertNull(e.getMessageFormat());
+
+		Exception cause = new Exception("cause");
+		e = new ILTagException(cause);
+		assertSame(cause, e.getCause());
+		assertEquals(cause.toString(), e.getMessage());
+		assertNull(new ILTagException((Throwable) null).getMessage());
+
+		e = new ILTagException("message", cause);
+		assertEquals("message", e.getMessage());
+		assertSame(cause, e.getCause());
+
+		e = new ILTagException("message", cause, true, false);
+		assertEquals(0, e.getStackTrace().length);
+	}
+
+	@Test
+	void testFormattedMessage() {
+		ILTagException e = new ILTagException("Tag %1$X with %2$d bytes.", 0x10l, 5);
+		assertEquals("Tag %1$X with %2$d bytes.", e.getMessageFormat());
+		assertArrayEquals(new Object[] { 0x10l, 5 }, e.getMessageArguments());
+		assertEquals("Tag 10 with 5 bytes.", e.getMessage());
+		assertSame(e.getMessage(), e.getMessage());
+		assertEquals(!ILTagException.isLightweight(), e.getStackTrace().length > 0);
+
+		// The arguments are protected
+		e.getMessageArguments()[0] = 1;
+		assertEquals(0x10l, e.getMessageArguments()[0]);
+
+		e = new CorruptedTagException("Offset %1$d.", 3);
+		assertEquals("Offset 3.", e.getMessage());
+		assertEquals("Offset 3.", new UnexpectedTagException("Offset %1$d.", 3).getMessage());
+		assertEquals("Offset 3.", new TagTooLargeException("Offset %1$d.", 3).getMessage());
+		assertEquals("Offset 3.", new UnsupportedTagException("Offset %1$d.", 3).getMessage());
+		assertEquals("Offset 3.", new MemoryBudgetExceededException("Offset %1$d.", 3).getMessage());
+	}
+
+	@Test
+	void testLightweight() {
+		// The mode is read once from the system property
+		assertEquals("io.il2.iltags.lightweightExceptions", ILTagException.LIGHTWEIGHT_PROPERTY);
+		boolean lightweight = Boolean.getBoolean(ILTagException.LIGHTWEIGHT_PROPERTY);
+		assertEquals(lightweight, ILTagException.isLightweight());
+
+		ILTagException[] all = new ILTagException[] { new ILTagException(), new CorruptedTagException("message"),
+				new UnexpectedTagException(new Exception()), new TagTooLargeException("Size %1$d.", 10) };
+		for (ILTagException e : all) {
+			assertEquals(lightweight, e.getStackTrace().length == 0);
+		}
+		assertEquals("Size 10.", all[3].getMessage());
+		assertEquals(10, all[3].getMessageArguments()[0]);
+
+		// Explicit requests are not affected by the mode
+		assertEquals(0, new ILTagException("message", null, true, false).getStackTrace().length);
+		assertTrue(new ILTagException("message", null, true, true).getStackTrace().length > 0);
+	}
+
+	@Test
+	void testSerialization() throws Exception {
+		ILTagException e = new CorruptedTagException("Tag %1$s.", new StringBuilder("AB"));
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bOut)) {
+			out.writeObject(e);
+		}
+		ILTagException r;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bOut.toByteArray()))) {
+			r = (ILTagException) in.readObject();
+		}
+		assertTrue(r instanceof CorruptedTagException);
+		assertEquals("Tag AB.", r.getMessage());
+		assertEquals("Tag %1$s.", r.getMessageFormat());
+		assertEquals(0, r.getMessageArguments().length);
+	}
+}
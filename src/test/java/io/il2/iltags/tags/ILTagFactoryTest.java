@@ -0,0 +1,140 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.tags.basic.Int16Tag;
+import io.il2.iltags.tags.basic.NullTag;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class ILTagFactoryTest {
+
+	/**
+	 * Implements only the methods that were never optional.
+	 */
+	private static class MinimalFactory implements ILTagFactory {
+
+		private final TagFactory factory = new TagFactory(false);
+
+		@Override
+		public ILTag createTag(long id) throws ILTagException {
+			return factory.createTag(id);
+		}
+
+		@Override
+		public ILTag fromBytes(byte[] bytes) throws ILTagException {
+			return factory.fromBytes(bytes);
+		}
+
+		@Override
+		public ILTag deserialize(DataInput in) throws IOException, ILTagException {
+			return factory.deserialize(in);
+		}
+
+		@Override
+		public ILTag deserialize(long id, DataInput in) throws IOException, ILTagException {
+			return factory.deserialize(id, in);
+		}
+
+		@Override
+		public void deserializeInto(ILTag tag, DataInput in) throws IOException, ILTagException {
+			factory.deserializeInto(tag, in);
+		}
+	}
+
+	private static final byte[] SAMPLE = { 0x55, 0x00, 0x04, 0x12, 0x34, 0x00, 0x55 };
+
+	@Test
+	void testFromBytes() throws Exception {
+		MinimalFactory f = new MinimalFactory();
+		Int16Tag t = (Int16Tag) f.fromBytes(SAMPLE, 2, 3);
+		assertEquals(0x1234, t.getValue());
+		assertThrows(CorruptedTagException.class, () -> {
+			f.fromBytes(SAMPLE, 2, 4);
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			f.fromBytes(SAMPLE, 2, 2);
+		});
+	}
+
+	@Test
+	void testFromByteBuffer() throws Exception {
+		MinimalFactory f = new MinimalFactory();
+		ByteBuffer buff = ByteBuffer.wrap(SAMPLE, 1, 1);
+		assertInstanceOf(NullTag.class, f.fromByteBuffer(buff));
+		assertEquals(2, buff.position());
+	}
+
+	@Test
+	void testDeserializeAll() throws Exception {
+		MinimalFactory f = new MinimalFactory();
+		ArrayList<ILTag> tags = new ArrayList<>();
+		assertEquals(3, f.deserializeAll(SAMPLE, 1, 5, tags));
+		assertInstanceOf(NullTag.class, tags.get(0));
+		assertEquals(0x1234, ((Int16Tag) tags.get(1)).getValue());
+		assertInstanceOf(NullTag.class, tags.get(2));
+		assertThrows(CorruptedTagException.class, () -> {
+			f.deserializeAll(SAMPLE, 1, 3, tags);
+		});
+	}
+
+	@Test
+	void testDeserializeWithContext() throws Exception {
+		MinimalFactory f = new MinimalFactory();
+		DecodeContext context = DecodeContext.current();
+		Int16Tag t = (Int16Tag) f.deserialize(new ByteBufferDataInput(SAMPLE, 2, 3), context);
+		assertEquals(0x1234, t.getValue());
+		t = (Int16Tag) f.deserialize(TagID.IL_INT16_TAG_ID, new ByteBufferDataInput(SAMPLE, 2, 3), context);
+		assertEquals(0x1234, t.getValue());
+		assertThrows(UnexpectedTagException.class, () -> {
+			f.deserialize(TagID.IL_INT32_TAG_ID, new ByteBufferDataInput(SAMPLE, 2, 3), context);
+		});
+	}
+
+	@Test
+	void testDeserializeReusing() throws Exception {
+		MinimalFactory f = new MinimalFactory();
+		Int16Tag candidate = new Int16Tag(TagID.IL_INT16_TAG_ID);
+		Int16Tag t = (Int16Tag) f.deserializeReusing(candidate, new ByteBufferDataInput(SAMPLE, 2, 3));
+		assertNotSame(candidate, t);
+		assertEquals(0x1234, t.getValue());
+	}
+}
@@ -0,0 +1,317 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.basic.BytesTag;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.Int64Tag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class ILTagNavigatorTest {
+
+	private static final TagFactory FACTORY = new TagFactory(false);
+
+	private static ILTagArrayTag createArray(ILTag[] values) {
+		ILTagArrayTag array = ILTagArrayTag.createStandard();
+		array.getValues().addAll(Arrays.asList(values));
+		return array;
+	}
+
+	@Test
+	void testILTagNavigator() throws Exception {
+		Int64Tag t = Int64Tag.createStandardSigned();
+		t.setValue(1234);
+		byte[] serialized = t.toBytes();
+		byte[] buff = new byte[serialized.length + 4];
+		System.arraycopy(serialized, 0, buff, 2, serialized.length);
+
+		ILTagNavigator n = new ILTagNavigator(buff, 2, serialized.length + 1);
+		assertEquals(t.getTagID(), n.getTagId());
+		assertEquals(2, n.getOffset());
+		assertEquals(3, n.getValueOffset());
+		assertEquals(8, n.getValueSize());
+		assertEquals(2 + serialized.length, n.getEnd());
+		assertFalse(n.isList());
+		assertFalse(n.isDictionary());
+		TagTestUtils.assertTagEquals(t, n.deserialize(FACTORY));
+
+		n = new ILTagNavigator(serialized);
+		assertEquals(0, n.getOffset());
+		ByteBuffer value = n.getValueBuffer();
+		assertTrue(value.isReadOnly());
+		assertEquals(8, value.remaining());
+		assertEquals(1234, value.getLong());
+
+		ByteBuffer b = ByteBuffer.wrap(buff);
+		b.position(2);
+		n = new ILTagNavigator(b);
+		assertEquals(2, n.getOffset());
+		assertEquals(2, b.position());
+
+		// Truncated
+		assertThrows(CorruptedTagException.class, () -> {
+			new ILTagNavigator(serialized, 0, serialized.length - 1);
+		});
+		// Not a container
+		ILTagNavigator scalar = new ILTagNavigator(serialized);
+		assertThrows(UnexpectedTagException.class, () -> {
+			scalar.getChildCount();
+		});
+		assertThrows(UnexpectedTagException.class, () -> {
+			scalar.getChild(0);
+		});
+		assertThrows(UnexpectedTagException.class, () -> {
+			scalar.buildIndex();
+		});
+		assertThrows(UnexpectedTagException.class, () -> {
+			scalar.getKey(0);
+		});
+	}
+
+	@Test
+	void testArray() throws Exception {
+		ILTag[] values = TagTestUtils.createSampleTags(20);
+		byte[] serialized = createArray(values).toBytes();
+
+		ILTagNavigator n = new ILTagNavigator(serialized);
+		assertTrue(n.isList());
+		assertFalse(n.isDictionary());
+		assertFalse(n.isIndexed());
+		assertEquals(values.length, n.getChildCount());
+		for (int i = values.length - 1; i >= 0; i--) {
+			ILTagNavigator c = n.getChild(i);
+			assertEquals(values[i].getTagID(), c.getTagId());
+			assertEquals(values[i].getTagSize(), c.getEnd() - c.getOffset());
+			assertEquals(c.getOffset(), n.getChildOffset(i));
+			TagTestUtils.assertTagEquals(values[i], c.deserialize(FACTORY));
+		}
+
+		assertSame(n, n.buildIndex());
+		assertTrue(n.isIndexed());
+		assertSame(n, n.buildIndex());
+		assertEquals(values.length, n.getChildCount());
+		for (int i = 0; i < values.length; i++) {
+			TagTestUtils.assertTagEquals(values[i], n.getChild(i).deserialize(FACTORY));
+		}
+
+		assertThrows(IndexOutOfBoundsException.class, () -> {
+			n.getChild(-1);
+		});
+		assertThrows(IndexOutOfBoundsException.class, () -> {
+			n.getChild(values.length);
+		});
+		assertThrows(UnexpectedTagException.class, () -> {
+			n.getKey(0);
+		});
+	}
+
+	@Test
+	void testNested() throws Exception {
+		ILTag[] inner = TagTestUtils.createSampleTags(5);
+		ILTagArrayTag root = createArray(TagTestUtils.createSampleTags(3));
+		root.getValues().add(createArray(inner));
+
+		ILTagNavigator n = new ILTagNavigator(root.toBytes()).getChild(3);
+		assertEquals(TagID.IL_ILTAGARRAY_TAG_ID, n.getTagId());
+		assertEquals(inner.length, n.getChildCount());
+		TagTestUtils.assertTagEquals(inner[4], n.getChild(4).deserialize(FACTORY));
+	}
+
+	@Test
+	void testSequence() throws Exception {
+		ILTag[] values = TagTestUtils.createSampleTags(10);
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		seq.getValues().addAll(Arrays.asList(values));
+		byte[] serialized = seq.toBytes();
+
+		// Walk without index
+		ILTagNavigator n = new ILTagNavigator(serialized);
+		assertTrue(n.isList());
+		TagTestUtils.assertTagEquals(values[7], FACTORY.fromBytes(serialized, n.getChildOffset(7),
+				(int) values[7].getTagSize()));
+
+		// The size of sequences requires the index
+		n = new ILTagNavigator(serialized);
+		assertEquals(values.length, n.getChildCount());
+		assertTrue(n.isIndexed());
+		for (int i = 0; i < values.length; i++) {
+			TagTestUtils.assertTagEquals(values[i], n.getChild(i).deserialize(FACTORY));
+		}
+
+		// Empty
+		n = new ILTagNavigator(ILTagSequenceTag.createStandard().toBytes());
+		assertEquals(0, n.getChildCount());
+	}
+
+	@Test
+	void testDictionary() throws Exception {
+		DictonaryTag dict = DictonaryTag.createStandard();
+		for (int i = 0; i < 10; i++) {
+			dict.getValues().put("key" + i, TagTestUtils.createRandomTag());
+		}
+		dict.getValues().put("áé", null);
+		byte[] serialized = dict.toBytes();
+		ILTag[] values = dict.getValues().values().toArray(new ILTag[0]);
+		String[] keys = dict.getValues().keySet().toArray(new String[0]);
+
+		// The position of the buffer must point to the tag
+		assertThrows(CorruptedTagException.class, () -> {
+			new ILTagNavigator(ByteBuffer.allocateDirect(serialized.length).put(serialized));
+		});
+		ByteBuffer direct = ByteBuffer.allocateDirect(serialized.length);
+		direct.put(serialized);
+		direct.flip();
+		ILTagNavigator n = new ILTagNavigator(direct);
+		assertTrue(n.isDictionary());
+		assertFalse(n.isList());
+		assertEquals(keys.length, n.getChildCount());
+		for (int pass = 0; pass < 2; pass++) {
+			for (int i = keys.length - 1; i >= 0; i--) {
+				assertEquals(keys[i], n.getKey(i).getString());
+				ILTagNavigator v = n.getChild(i);
+				if (values[i] == null) {
+					assertEquals(TagID.IL_NULL_TAG_ID, v.getTagId());
+				} else {
+					TagTestUtils.assertTagEquals(values[i], v.deserialize(FACTORY));
+				}
+			}
+			n.buildIndex();
+			assertEquals(keys.length, n.getChildCount());
+		}
+		ILTagNavigator dn = n;
+		assertThrows(IndexOutOfBoundsException.class, () -> {
+			dn.getKey(keys.length);
+		});
+		assertThrows(IndexOutOfBoundsException.class, () -> {
+			dn.getChild(-1);
+		});
+		assertEquals("key0", dn.getKey(0).getString());
+	}
+
+	@Test
+	void testFindKey() throws Exception {
+		DictonaryTag dict = DictonaryTag.createStandard();
+		for (int i = 0; i < 10; i++) {
+			dict.getValues().put("key" + i, TagTestUtils.createRandomTag());
+		}
+		dict.getValues().put("ação", null);
+		ILTagNavigator n = new ILTagNavigator(dict.toBytes());
+		for (int pass = 0; pass < 2; pass++) {
+			for (int i = 0; i < 10; i++) {
+				assertEquals(i, n.findKey("key" + i));
+			}
+			assertEquals(10, n.findKey("ação"));
+			assertEquals(-1, n.findKey("key"));
+			assertEquals(-1, n.findKey("key10"));
+			assertEquals(-1, n.findKey(""));
+			n.buildIndex();
+		}
+
+		// The last occurrence prevails
+		byte[] duplicated = new byte[] { 30, 9, 2, 17, 1, 'a', 0, 17, 1, 'a', 0 };
+		assertEquals(1, new ILTagNavigator(duplicated).findKey("a"));
+
+		assertThrows(UnexpectedTagException.class, () -> {
+			new ILTagNavigator(ILTagArrayTag.createStandard().toBytes()).findKey("a");
+		});
+	}
+
+	@Test
+	void testCorrupted() throws Exception {
+		// Missing entries
+		ILTagNavigator missing = new ILTagNavigator(new byte[] { 21, 3, 3, 0, 0 });
+		assertEquals(3, missing.getChildCount());
+		assertThrows(CorruptedTagException.class, () -> {
+			missing.getChild(2);
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			missing.buildIndex();
+		});
+		assertFalse(missing.isIndexed());
+
+		// Unused bytes
+		ILTagNavigator unused = new ILTagNavigator(new byte[] { 21, 3, 1, 0, 0 });
+		assertEquals(3, unused.getChild(0).getOffset());
+		assertThrows(CorruptedTagException.class, () -> {
+			unused.buildIndex();
+		});
+
+		// Counter too large
+		assertThrows(CorruptedTagException.class, () -> {
+			new ILTagNavigator(new byte[] { 21, 2, 9, 0 }).getChildCount();
+		});
+
+		// Inner tag larger than its container
+		ILTagNavigator bad = new ILTagNavigator(new byte[] { 21, 4, 1, 21, 3, 1, 0 });
+		assertThrows(CorruptedTagException.class, () -> {
+			bad.getChild(0);
+		});
+
+		// Invalid key
+		ILTagNavigator badKey = new ILTagNavigator(new byte[] { 30, 3, 1, 0, 0 });
+		assertThrows(UnexpectedTagException.class, () -> {
+			badKey.getKey(0);
+		});
+		BytesTag s = BytesTag.createStandard();
+		assertThrows(UnexpectedTagException.class, () -> {
+			new ILTagNavigator(s.toBytes()).getString();
+		});
+	}
+
+	@Test
+	void testNonCanonical() throws Exception {
+		// Array with two opaque tags 256 whose ids use non-canonical ILInts
+		byte[] serialized = { 21, 11, 2, (byte) 0xF9, 0x00, 0x08, 1, 0x7A, (byte) 0xF9, 0x00, 0x08, 1, 0x7B };
+		ILTagNavigator n = new ILTagNavigator(serialized);
+		assertEquals(2, n.getChildCount());
+		assertEquals(3, n.getChildOffset(0));
+		assertEquals(8, n.getChildOffset(1));
+		ILTagNavigator c = n.getChild(1);
+		assertEquals(256, c.getTagId());
+		assertEquals(12, c.getValueOffset());
+		assertEquals(ByteBuffer.wrap(new byte[] { 0x7B }), c.getValueBuffer());
+
+		n = new ILTagNavigator(ByteBuffer.wrap(serialized));
+		assertEquals(2, n.getChildCount());
+		assertEquals(256, n.getChild(0).getTagId());
+	}
+}
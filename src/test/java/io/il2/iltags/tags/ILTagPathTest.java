@@ -0,0 +1,181 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.StringDictonaryTag;
+import io.il2.iltags.tags.basic.StringTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class ILTagPathTest {
+
+	private static final TagFactory FACTORY = new TagFactory(false);
+
+	private static StringTag createString(String s) {
+		StringTag t = StringTag.createStandard();
+		t.setValue(s);
+		return t;
+	}
+
+	private static DictonaryTag createSample() {
+		DictonaryTag root = DictonaryTag.createStandard();
+		root.getValues().put("id", TagTestUtils.createRandomTag());
+		ILTagArrayTag payload = ILTagArrayTag.createStandard();
+		for (int i = 0; i < 5; i++) {
+			payload.getValues().add(createString("value" + i));
+		}
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		seq.getValues().add(TagTestUtils.createRandomTag());
+		seq.getValues().add(createString("inner"));
+		payload.getValues().add(seq);
+		root.getValues().put("payload", payload);
+		StringDictonaryTag names = StringDictonaryTag.createStandard();
+		names.getValues().put("a/b", "slash");
+		names.getValues().put("[x]", "bracket");
+		names.getValues().put("ação", "utf-8");
+		root.getValues().put("names", names);
+		root.getValues().put("empty", null);
+		return root;
+	}
+
+	@Test
+	void testCompile() {
+		ILTagPath p = ILTagPath.compile("payload/[3]");
+		assertEquals(2, p.size());
+		assertEquals("payload", p.getKey(0));
+		assertEquals(-1, p.getIndex(0));
+		assertNull(p.getKey(1));
+		assertEquals(3, p.getIndex(1));
+		assertEquals("payload/[3]", p.toString());
+
+		assertEquals(0, ILTagPath.compile("").size());
+
+		p = ILTagPath.compile("a\\/b/\\[x]/\\\\");
+		assertEquals(3, p.size());
+		assertEquals("a/b", p.getKey(0));
+		assertEquals("[x]", p.getKey(1));
+		assertEquals("\\", p.getKey(2));
+
+		assertEquals(2147483647, ILTagPath.compile("[2147483647]").getIndex(0));
+
+		for (String bad : new String[] { "/", "a//b", "a/", "[", "[]", "[1", "[-1]", "[a]", "[2147483648]", "a\\" }) {
+			assertThrows(IllegalArgumentException.class, () -> {
+				ILTagPath.compile(bad);
+			}, bad);
+		}
+	}
+
+	@Test
+	void testSelect() throws Exception {
+		DictonaryTag sample = createSample();
+		byte[] serialized = sample.toBytes();
+
+		ILTagNavigator n = ILTagPath.compile("payload/[3]").select(serialized);
+		assertEquals("value3", n.getString());
+		n = ILTagPath.compile("payload/[5]/[1]").select(serialized);
+		assertEquals("inner", n.getString());
+		n = ILTagPath.compile("names/a\\/b").select(serialized);
+		assertEquals("slash", n.getString());
+		n = ILTagPath.compile("names/\\[x]").select(serialized);
+		assertEquals("bracket", n.getString());
+		n = ILTagPath.compile("names/ação").select(serialized);
+		assertEquals("utf-8", n.getString());
+		n = ILTagPath.compile("empty").select(serialized);
+		assertEquals(TagID.IL_NULL_TAG_ID, n.getTagId());
+		n = ILTagPath.compile("").select(serialized);
+		assertEquals(serialized.length, n.getEnd());
+
+		// No match
+		assertNull(ILTagPath.compile("missing").select(serialized));
+		assertNull(ILTagPath.compile("payload/[6]").select(serialized));
+		assertNull(ILTagPath.compile("payload/key").select(serialized));
+		assertNull(ILTagPath.compile("[0]").select(serialized));
+		assertNull(ILTagPath.compile("payload/[0]/[0]").select(serialized));
+		assertNull(ILTagPath.compile("names/aÇão").select(serialized));
+
+		// Buffer
+		ByteBuffer buff = ByteBuffer.allocateDirect(serialized.length + 3);
+		buff.position(3);
+		buff.put(serialized);
+		buff.position(3);
+		assertEquals("value1", ILTagPath.compile("payload/[1]").select(buff).getString());
+		assertEquals(3, buff.position());
+	}
+
+	@Test
+	void testSelectSlice() throws Exception {
+		DictonaryTag sample = createSample();
+		byte[] serialized = sample.toBytes();
+		ILTag payload = sample.getValues().get("payload");
+
+		ByteBuffer slice = ILTagPath.compile("payload").selectSlice(serialized);
+		assertTrue(slice.isReadOnly());
+		byte[] bytes = new byte[slice.remaining()];
+		slice.get(bytes);
+		assertArrayEquals(payload.toBytes(), bytes);
+		assertNull(ILTagPath.compile("payload/[9]").selectSlice(serialized));
+	}
+
+	@Test
+	void testSelectTag() throws Exception {
+		DictonaryTag sample = createSample();
+		byte[] serialized = sample.toBytes();
+
+		TagTestUtils.assertTagEquals(sample.getValues().get("id"), ILTagPath.compile("id").selectTag(FACTORY, serialized));
+		TagTestUtils.assertTagEquals(sample.getValues().get("payload"),
+				ILTagPath.compile("payload").selectTag(FACTORY, serialized));
+		assertNull(ILTagPath.compile("id/[0]").selectTag(FACTORY, serialized));
+	}
+
+	@Test
+	void testSelectCorrupted() throws Exception {
+		// Dictionary with a non string key
+		byte[] badKey = new byte[] { 30, 3, 1, 0, 0 };
+		assertThrows(UnexpectedTagException.class, () -> {
+			ILTagPath.compile("a").select(badKey);
+		});
+		// Missing entries
+		byte[] missing = new byte[] { 21, 3, 3, 0, 0 };
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagPath.compile("[2]").select(missing);
+		});
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ILTagProjectionTest {
+
+	@Test
+	void testAll() {
+		ILTagProjection all = ILTagProjection.all();
+		assertTrue(all.isAll());
+		assertSame(all, all.getKey("a"));
+		assertSame(all, all.getIndex(10));
+		assertSame(all, ILTagProjection.of(""));
+		assertSame(all, ILTagProjection.of("a", ""));
+	}
+
+	@Test
+	void testOf() {
+		ILTagProjection p = ILTagProjection.of("header", "items/[0]/id", "items/[2]", "\\[x]");
+		assertFalse(p.isAll());
+		assertTrue(p.getKey("header").isAll());
+		assertNull(p.getKey("body"));
+		assertNull(p.getIndex(0));
+		assertTrue(p.getKey("[x]").isAll());
+
+		ILTagProjection items = p.getKey("items");
+		assertFalse(items.isAll());
+		assertNull(items.getKey("id"));
+		assertNull(items.getIndex(1));
+		assertTrue(items.getIndex(2).isAll());
+		ILTagProjection first = items.getIndex(0);
+		assertFalse(first.isAll());
+		assertTrue(first.getKey("id").isAll());
+		assertNull(first.getKey("name"));
+
+		assertFalse(ILTagProjection.none().isAll());
+		assertNull(ILTagProjection.none().getKey("a"));
+	}
+
+	@Test
+	void testOfPrefixes() {
+		// The shorter path selects the whole subtree
+		ILTagProjection p = ILTagProjection.of("a/b/c", "a/b", "a/b/d");
+		assertTrue(p.getKey("a").getKey("b").isAll());
+		p = ILTagProjection.of("a/b", "a/b/c");
+		assertTrue(p.getKey("a").getKey("b").isAll());
+		assertFalse(p.getKey("a").isAll());
+	}
+
+	@Test
+	void testOfPaths() {
+		ILTagProjection p = ILTagProjection.of(ILTagPath.compile("a"), ILTagPath.compile("[1]"));
+		assertTrue(p.getKey("a").isAll());
+		assertTrue(p.getIndex(1).isAll());
+		assertSame(ILTagProjection.all(), ILTagProjection.of(ILTagPath.compile("")));
+	}
+
+	@Test
+	void testOfInvalid() {
+		assertThrows(IllegalArgumentException.class, () -> ILTagProjection.of("a//b"));
+		assertThrows(IllegalArgumentException.class, () -> ILTagProjection.of("[x"));
+	}
+}
@@ -0,0 +1,510 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.ByteBufferDataOutput;
+import io.il2.iltags.tags.basic.BooleanTag;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.DoubleTag;
+import io.il2.iltags.tags.basic.FloatTag;
+import io.il2.iltags.tags.basic.ILIntTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.Int16Tag;
+import io.il2.iltags.tags.basic.Int32Tag;
+import io.il2.iltags.tags.basic.Int64Tag;
+import io.il2.iltags.tags.basic.Int8Tag;
+import io.il2.iltags.tags.basic.SignedILIntTag;
+import io.il2.iltags.tags.basic.StringDictonaryTag;
+import io.il2.iltags.tags.basic.StringTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+
+class ILTagReaderTest {
+
+	private static StringTag createString(String s) {
+		StringTag t = StringTag.createStandard();
+		t.setValue(s);
+		return t;
+	}
+
+	/**
+	 * Creates a dictionary with the entries "id" (int64), "payload" (array of
+	 * strings), "names" (string dictionary), "flag" (boolean) and "seq" (sequence
+	 * with random tags).
+	 */
+	private static DictonaryTag createSample() {
+		DictonaryTag root = DictonaryTag.createStandard();
+		Int64Tag id = Int64Tag.createStandardSigned();
+		id.setValue(-1234567890123l);
+		root.getValues().put("id", id);
+		ILTagArrayTag payload = ILTagArrayTag.createStandard();
+		for (int i = 0; i < 4; i++) {
+			payload.getValues().add(createString("value" + i));
+		}
+		root.getValues().put("payload", payload);
+		StringDictonaryTag names = StringDictonaryTag.createStandard();
+		names.getValues().put("k1", "v1");
+		names.getValues().put("k2", "v2");
+		root.getValues().put("names", names);
+		BooleanTag flag = BooleanTag.createStandard();
+		flag.setValue(true);
+		root.getValues().put("flag", flag);
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		for (ILTag t : TagTestUtils.createSampleTags(5)) {
+			seq.getValues().add(t);
+		}
+		root.getValues().put("seq", seq);
+		return root;
+	}
+
+	@Test
+	void testILTagReader() throws Exception {
+		ILTagReader r = new ILTagReader(new ByteBufferDataInput(new byte[0]));
+		assertEquals(IterativeTagDeserializer.DEFAULT_MAX_DEPTH, r.getMaxDepth());
+		assertEquals(0, r.getDepth());
+		assertThrows(IllegalStateException.class, () -> {
+			r.getTagId();
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			r.getValueSize();
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			r.isKey();
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			r.exit();
+		});
+		assertEquals(3, new ILTagReader(new ByteBufferDataInput(new byte[0]), 0, 3).getMaxDepth());
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ILTagReader(new ByteBufferDataInput(new byte[0]), 0, 0);
+		});
+	}
+
+	@Test
+	void testRead() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		ILTagReader r = new ILTagReader(new ByteBufferDataInput(serialized));
+		byte[] tmp = new byte[16];
+
+		assertTrue(r.next());
+		assertEquals(TagID.IL_DICTIONARY_TAG_ID, r.getTagId());
+		assertFalse(r.isKey());
+		r.enter();
+		assertEquals(1, r.getDepth());
+
+		assertTrue(r.next());
+		assertTrue(r.isKey());
+		assertEquals(2, r.readStringBytes(tmp, 0));
+		assertEquals("id", new String(tmp, 0, 2, "utf-8"));
+		assertTrue(r.next());
+		assertFalse(r.isKey());
+		assertEquals(TagID.IL_INT64_TAG_ID, r.getTagId());
+		assertEquals(8, r.getValueSize());
+		assertEquals(-1234567890123l, r.readInt64());
+		assertThrows(IllegalStateException.class, () -> {
+			r.readInt64();
+		});
+
+		assertTrue(r.next());
+		assertEquals("payload", r.readString());
+		assertTrue(r.next());
+		r.enter();
+		for (int i = 0; i < 4; i++) {
+			assertTrue(r.next());
+			assertFalse(r.isKey());
+			assertEquals("value" + i, r.readString());
+		}
+		assertFalse(r.next());
+		assertFalse(r.next());
+		assertEquals(TagID.IL_ILTAGARRAY_TAG_ID, r.exit());
+		assertEquals(1, r.getDepth());
+
+		assertTrue(r.next());
+		assertEquals("names", r.readString());
+		assertTrue(r.next());
+		r.enter();
+		for (int i = 1; i <= 2; i++) {
+			assertTrue(r.next());
+			assertTrue(r.isKey());
+			assertEquals("k" + i, r.readString());
+			assertTrue(r.next());
+			assertFalse(r.isKey());
+			assertEquals("v" + i, r.readString());
+		}
+		assertFalse(r.next());
+		assertEquals(TagID.IL_STRING_DICTIONARY_TAG_ID, r.exit());
+
+		assertTrue(r.next());
+		assertEquals("flag", r.readString());
+		assertTrue(r.next());
+		assertThrows(UnexpectedTagException.class, () -> {
+			r.readInt64();
+		});
+		assertThrows(UnexpectedTagException.class, () -> {
+			r.readString();
+		});
+		assertTrue(r.readBoolean());
+
+		assertTrue(r.next());
+		assertEquals("seq", r.readString());
+		assertTrue(r.next());
+		assertEquals(TagID.IL_ILTAGSEQ_TAG_ID, r.getTagId());
+		r.enter();
+		int count = 0;
+		while (r.next()) {
+			count++;
+		}
+		assertEquals(5, count);
+		r.exit();
+
+		assertFalse(r.next());
+		assertEquals(TagID.IL_DICTIONARY_TAG_ID, r.exit());
+		assertEquals(0, r.getDepth());
+		assertFalse(r.next());
+	}
+
+	@Test
+	void testSkip() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		ILTagReader r = new ILTagReader(new DataInputStream(new ByteArrayInputStream(serialized)));
+
+		assertTrue(r.next());
+		r.enter();
+		// Skip id
+		assertTrue(r.next());
+		assertTrue(r.next());
+		// Skip payload without entering it
+		assertTrue(r.next());
+		assertTrue(r.next());
+		r.skip();
+		r.skip();
+		assertThrows(IllegalStateException.class, () -> {
+			r.enter();
+		});
+		// Leaves names early
+		assertTrue(r.next());
+		assertTrue(r.next());
+		r.enter();
+		assertTrue(r.next());
+		assertEquals("k1", r.readString());
+		r.exit();
+		assertTrue(r.next());
+		assertEquals("flag", r.readString());
+		// Leaves the root early
+		assertEquals(TagID.IL_DICTIONARY_TAG_ID, r.exit());
+		assertFalse(r.next());
+	}
+
+	@Test
+	void testMultipleTags() throws Exception {
+		ILTag[] tags = TagTestUtils.createSampleTags(10);
+		ByteBuffer buff = ByteBuffer.allocate(4096);
+		for (ILTag t : tags) {
+			buff.put(t.toBytes());
+		}
+		buff.flip();
+		ILTagReader r = new ILTagReader(buff);
+		for (ILTag t : tags) {
+			assertTrue(r.next());
+			assertEquals(t.getTagID(), r.getTagId());
+			if (t.getTagID() == TagID.IL_ILINT_TAG_ID) {
+				assertEquals(((ILIntTag) t).getValue(), r.readILInt());
+			} else if (t.getTagID() == TagID.IL_INT64_TAG_ID) {
+				assertEquals(((Int64Tag) t).getValue(), r.readInt64());
+			}
+		}
+		assertFalse(r.next());
+		assertFalse(buff.hasRemaining());
+
+		// Single tag
+		byte[] serialized = tags[0].toBytes();
+		r = new ILTagReader(new ByteBufferDataInput(ByteBuffer.wrap(serialized, 0, serialized.length)));
+		assertTrue(r.next());
+		assertFalse(r.next());
+	}
+
+	@Test
+	void testReadInt64() throws Exception {
+		ILTagArrayTag array = ILTagArrayTag.createStandard();
+		Int8Tag i8 = Int8Tag.createStandardSigned();
+		i8.setValue((byte) -1);
+		array.getValues().add(i8);
+		Int8Tag u8 = Int8Tag.createStandardUnsigned();
+		u8.setUnsignedValue(255);
+		array.getValues().add(u8);
+		Int16Tag i16 = Int16Tag.createStandardSigned();
+		i16.setValue((short) -2);
+		array.getValues().add(i16);
+		Int16Tag u16 = Int16Tag.createStandardUnsigned();
+		u16.setUnsignedValue(65534);
+		array.getValues().add(u16);
+		Int32Tag i32 = Int32Tag.createStandardSigned();
+		i32.setValue(-3);
+		array.getValues().add(i32);
+		Int32Tag u32 = Int32Tag.createStandardUnsigned();
+		u32.setUnsignedValue(0xFFFFFFFDl);
+		array.getValues().add(u32);
+		Int64Tag i64 = Int64Tag.createStandardSigned();
+		i64.setValue(-4);
+		array.getValues().add(i64);
+		Int64Tag u64 = Int64Tag.createStandardUnsigned();
+		u64.setValue(-5);
+		array.getValues().add(u64);
+		ILIntTag ilint = ILIntTag.createStandard();
+		ilint.setValue(0x12345678l);
+		array.getValues().add(ilint);
+		SignedILIntTag silint = SignedILIntTag.createStandard();
+		silint.setValue(-6);
+		array.getValues().add(silint);
+		FloatTag f = FloatTag.createStandard();
+		f.setValue(1.5f);
+		array.getValues().add(f);
+		DoubleTag d = DoubleTag.createStandard();
+		d.setValue(2.5);
+		array.getValues().add(d);
+
+		ILTagReader r = new ILTagReader(new ByteBufferDataInput(array.toBytes()));
+		assertTrue(r.next());
+		r.enter();
+		long[] expected = { -1, 255, -2, 65534, -3, 0xFFFFFFFDl, -4, -5, 0x12345678l, -6 };
+		for (long e : expected) {
+			assertTrue(r.next());
+			assertEquals(e, r.readInt64());
+		}
+		assertTrue(r.next());
+		assertThrows(UnexpectedTagException.class, () -> {
+			r.readInt64();
+		});
+		assertThrows(UnexpectedTagException.class, () -> {
+			r.readDouble();
+		});
+		assertEquals(1.5f, r.readFloat());
+		assertTrue(r.next());
+		assertThrows(UnexpectedTagException.class, () -> {
+			r.readFloat();
+		});
+		assertEquals(2.5, r.readDouble());
+		assertFalse(r.next());
+		r.exit();
+
+		// ILInt values
+		ILTagReader r2 = new ILTagReader(new ByteBufferDataInput(silint.toBytes()));
+		assertTrue(r2.next());
+		assertEquals(1, r2.getValueSize());
+		assertThrows(UnexpectedTagException.class, () -> {
+			r2.readILInt();
+		});
+		assertThrows(UnexpectedTagException.class, () -> {
+			r2.readBytes(new byte[16], 0);
+		});
+		ILTagReader r3 = new ILTagReader(new ByteBufferDataInput(ilint.toBytes()));
+		assertTrue(r3.next());
+		assertEquals(5, r3.getValueSize());
+		assertEquals(0x12345678l, r3.readILInt());
+	}
+
+	@Test
+	void testReadBytes() throws Exception {
+		byte[] serialized = createString("abc").toBytes();
+		ILTagReader r = new ILTagReader(new ByteBufferDataInput(serialized));
+		assertTrue(r.next());
+		byte[] tmp = new byte[5];
+		assertThrows(IllegalArgumentException.class, () -> {
+			r.readBytes(tmp, 3);
+		});
+		assertEquals(3, r.readBytes(tmp, 2));
+		assertArrayEquals(new byte[] { 0, 0, 'a', 'b', 'c' }, tmp);
+
+		ILTagReader bad = new ILTagReader(new ByteBufferDataInput(new byte[] { 17, 1, (byte) 0xFF }));
+		assertTrue(bad.next());
+		assertThrows(CorruptedTagException.class, () -> {
+			bad.readString();
+		});
+	}
+
+	@Test
+	void testMaxDepth() throws Exception {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		ILTagArrayTag inner = ILTagArrayTag.createStandard();
+		root.getValues().add(inner);
+		inner.getValues().add(ILTagSequenceTag.createStandard());
+		byte[] serialized = root.toBytes();
+
+		ILTagReader r = new ILTagReader(new ByteBufferDataInput(serialized), serialized.length, 2);
+		assertTrue(r.next());
+		r.enter();
+		assertTrue(r.next());
+		r.enter();
+		assertTrue(r.next());
+		assertThrows(TagTooLargeException.class, () -> {
+			r.enter();
+		});
+	}
+
+	@Test
+	void testCorrupted() throws Exception {
+		// Inner container larger than its container
+		ILTagReader r1 = new ILTagReader(new ByteBufferDataInput(new byte[] { 21, 4, 1, 21, 3, 1, 0 }));
+		assertTrue(r1.next());
+		r1.enter();
+		assertThrows(CorruptedTagException.class, () -> {
+			r1.next();
+		});
+
+		// Missing entries
+		ILTagReader r2 = new ILTagReader(new ByteBufferDataInput(new byte[] { 21, 3, 3, 0, 0 }));
+		assertTrue(r2.next());
+		assertThrows(CorruptedTagException.class, () -> {
+			r2.enter();
+		});
+
+		// Unused bytes
+		ILTagReader r3 = new ILTagReader(new ByteBufferDataInput(new byte[] { 21, 3, 1, 0, 0 }));
+		assertTrue(r3.next());
+		r3.enter();
+		assertTrue(r3.next());
+		assertFalse(r3.next());
+		assertThrows(CorruptedTagException.class, () -> {
+			r3.exit();
+		});
+
+		// Invalid key
+		ILTagReader r4 = new ILTagReader(new ByteBufferDataInput(new byte[] { 30, 4, 1, 0, 0, 0 }));
+		assertTrue(r4.next());
+		r4.enter();
+		assertThrows(UnexpectedTagException.class, () -> {
+			r4.next();
+		});
+
+		// Not a container
+		ILTagReader r5 = new ILTagReader(new ByteBufferDataInput(new byte[] { 1, 2 }));
+		assertTrue(r5.next());
+		assertThrows(UnexpectedTagException.class, () -> {
+			r5.enter();
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			r5.readBoolean();
+		});
+
+		// Truncated
+		ILTagReader r6 = new ILTagReader(new ByteBufferDataInput(new byte[] { 16, 5, 1 }));
+		assertTrue(r6.next());
+		assertThrows(EOFException.class, () -> {
+			r6.skip();
+		});
+
+		// Unknown size
+		ILTagReader r7 = new ILTagReader(new ByteBufferDataInput(new byte[] { 15, 0 }));
+		assertThrows(UnsupportedTagException.class, () -> {
+			r7.next();
+		});
+	}
+
+	@Test
+	void testReadInt64LargeTagId() throws Exception {
+		// Tag 0x800000000000000A must not be aliased to the int64 tag
+		long tagId = 0x800000000000000AL;
+		ByteBuffer buff = ByteBuffer.allocate(32);
+		ILTagHeader.serialize(tagId, 8, new ByteBufferDataOutput(buff));
+		buff.putLong(1);
+		buff.flip();
+		ILTagReader r = new ILTagReader(buff);
+		assertTrue(r.next());
+		assertEquals(tagId, r.getTagId());
+		assertThrows(UnexpectedTagException.class, () -> {
+			r.readInt64();
+		});
+	}
+
+	private static void readAll(ILTagReader r) throws Exception {
+		while (r.next()) {
+			long id = r.getTagId();
+			if ((id == TagID.IL_ILTAGARRAY_TAG_ID) || (id == TagID.IL_ILTAGSEQ_TAG_ID)
+					|| (id == TagID.IL_DICTIONARY_TAG_ID)) {
+				r.enter();
+				readAll(r);
+				r.exit();
+			}
+		}
+	}
+
+	private static ILTagReader createReader(byte[] serialized, DecodeLimits limits) {
+		return new ILTagReader(new ByteBufferDataInput(serialized), serialized.length, limits);
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		// Null tag at depth 4
+		byte[] nested = new byte[] { 21, 8, 1, 21, 5, 1, 21, 2, 1, 0 };
+		byte[] array = new byte[] { 21, 4, 3, 0, 0, 0 };
+		byte[] seq = new byte[] { 22, 3, 0, 0, 0 };
+		byte[] dict = new byte[] { 30, 7, 1, 17, 3, 'a', 'b', 'c', 0 };
+		DecodeLimits limits = new DecodeLimits(4, 3, 8, 3);
+		ILTagReader r = createReader(nested, limits);
+		assertSame(limits, r.getDecodeLimits());
+		assertEquals(4, r.getMaxDepth());
+		assertSame(DecodeLimits.UNLIMITED, new ILTagReader(ByteBuffer.wrap(nested)).getDecodeLimits());
+		for (byte[] serialized : new byte[][] { nested, array, seq, dict }) {
+			readAll(createReader(serialized, limits));
+		}
+
+		// Depth
+		assertThrows(TagTooLargeException.class, () -> {
+			readAll(createReader(nested, new DecodeLimits(3, 3, 8, 3)));
+		});
+		// Elements
+		assertThrows(TagTooLargeException.class, () -> {
+			readAll(createReader(array, new DecodeLimits(4, 2, 8, 3)));
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			readAll(createReader(seq, new DecodeLimits(4, 2, 8, 3)));
+		});
+		// Total bytes
+		assertThrows(TagTooLargeException.class, () -> {
+			readAll(createReader(seq, new DecodeLimits(4, 3, 2, 3)));
+		});
+		// String length
+		assertThrows(TagTooLargeException.class, () -> {
+			readAll(createReader(dict, new DecodeLimits(4, 3, 8, 2)));
+		});
+	}
+}
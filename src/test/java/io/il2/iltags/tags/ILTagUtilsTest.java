@@ -37,6 +37,7 @@ import static org.mockito.Mockito.*;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.junit.jupiter.api.Test;
 
@@ -85,6 +86,157 @@ class ILTagUtilsTest {
 		});
 	}
 
+	@Test
+	void testReadHeaderInto() throws Exception {
+		ILTagHeader h = new ILTagHeader();
+
+		assertSame(h, ILTagUtils.readHeader(new ByteBufferDataInput(new byte[] { 1, 1 }), h));
+		assertEquals(1, h.tagId);
+		assertEquals(1, h.valueSize);
+
+		assertSame(h, ILTagUtils.readHeader(new ByteBufferDataInput(new byte[] { 16, 17 }), h));
+		assertEquals(16, h.tagId);
+		assertEquals(17, h.valueSize);
+
+		assertThrows(TagTooLargeException.class, () -> {
+			ILTagUtils.readHeader(new ByteBufferDataInput(new byte[] { 16, (byte) 0xFB, 0x20, 0x00, 0x00, 0x00 }),
+					new ILTagHeader());
+		});
+	}
+
+	@Test
+	void testReadILIntByteArray() throws Exception {
+		byte[] buff = new byte[] { 0, 1, (byte) 0xF8, 0, (byte) 0xFF };
+		assertEquals(1, ILTagUtils.readILInt(buff, 1, buff.length, "x"));
+		assertEquals(0xF8, ILTagUtils.readILInt(buff, 2, buff.length, "x"));
+		// Truncated
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.readILInt(buff, 2, 3, "x");
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.readILInt(buff, 4, buff.length, "x");
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.readILInt(buff, 5, buff.length, "x");
+		});
+	}
+
+	@Test
+	void testReadILIntByteBuffer() throws Exception {
+		ByteBuffer buff = ByteBuffer.wrap(new byte[] { 0, 1, (byte) 0xF8, 0, (byte) 0xFF });
+		assertEquals(1, ILTagUtils.readILInt(buff, 1, buff.limit(), "x"));
+		assertEquals(0xF8, ILTagUtils.readILInt(buff, 2, buff.limit(), "x"));
+		assertEquals(0, buff.position());
+		// Truncated
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.readILInt(buff, 2, 3, "x");
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.readILInt(buff, 4, buff.limit(), "x");
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.readILInt(buff, 5, buff.limit(), "x");
+		});
+	}
+
+	@Test
+	void testScanHeader() throws Exception {
+		ILTagHeader h = new ILTagHeader();
+		byte[] buff = new byte[] { 0, 1, 1, 10, (byte) 0xF8, 0, 16, 2, 1, 2, 15, 0 };
+
+		assertEquals(2, ILTagUtils.scanHeader(buff, 1, buff.length, h));
+		assertEquals(1, h.tagId);
+		assertEquals(1, h.valueSize);
+
+		// The size of ILInt based implicit tags is resolved
+		assertEquals(4, ILTagUtils.scanHeader(buff, 3, buff.length, h));
+		assertEquals(10, h.tagId);
+		assertEquals(2, h.valueSize);
+
+		assertEquals(8, ILTagUtils.scanHeader(buff, 6, buff.length, h));
+		assertEquals(16, h.tagId);
+		assertEquals(2, h.valueSize);
+
+		// Truncated
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 6, 9, new ILTagHeader());
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 3, 5, new ILTagHeader());
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 6, 7, new ILTagHeader());
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 6, 6, new ILTagHeader());
+		});
+		// Unknown size
+		assertThrows(UnsupportedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 10, buff.length, new ILTagHeader());
+		});
+		// Too large
+		assertThrows(TagTooLargeException.class, () -> {
+			ILTagUtils.scanHeader(new byte[] { 16, (byte) 0xFB, 0x20, 0x00, 0x00, 0x00 }, 0, 6, new ILTagHeader());
+		});
+	}
+
+	@Test
+	void testScanHeaderByteBuffer() throws Exception {
+		ILTagHeader h = new ILTagHeader();
+		ByteBuffer buff = ByteBuffer.allocateDirect(12);
+		buff.put(new byte[] { 0, 1, 1, 10, (byte) 0xF8, 0, 16, 2, 1, 2, 15, 0 });
+		buff.position(5);
+
+		assertEquals(2, ILTagUtils.scanHeader(buff, 1, buff.limit(), h));
+		assertEquals(1, h.tagId);
+		assertEquals(1, h.valueSize);
+
+		assertEquals(4, ILTagUtils.scanHeader(buff, 3, buff.limit(), h));
+		assertEquals(10, h.tagId);
+		assertEquals(2, h.valueSize);
+
+		assertEquals(8, ILTagUtils.scanHeader(buff, 6, buff.limit(), h));
+		assertEquals(16, h.tagId);
+		assertEquals(2, h.valueSize);
+		assertEquals(5, buff.position());
+
+		// Truncated
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 6, 9, new ILTagHeader());
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 3, 5, new ILTagHeader());
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 6, 6, new ILTagHeader());
+		});
+		// Unknown size
+		assertThrows(UnsupportedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 10, buff.limit(), new ILTagHeader());
+		});
+		// Too large
+		assertThrows(TagTooLargeException.class, () -> {
+			ILTagUtils.scanHeader(ByteBuffer.wrap(new byte[] { 16, (byte) 0xFB, 0x20, 0x00, 0x00, 0x00 }), 0, 6,
+					new ILTagHeader());
+		});
+
+		// Slice of a heap buffer
+		ByteBuffer slice = ByteBuffer.wrap(new byte[] { 99, 99, 10, (byte) 0xF8, 0, 16, 2, 1, 2 }, 2, 7).slice();
+		assertEquals(1, ILTagUtils.scanHeader(slice, 0, slice.limit(), h));
+		assertEquals(10, h.tagId);
+		assertEquals(2, h.valueSize);
+		assertEquals(5, ILTagUtils.scanHeader(slice, 3, slice.limit(), h));
+		assertEquals(16, h.tagId);
+		assertEquals(2, h.valueSize);
+		assertEquals(0xF8, ILTagUtils.readILInt(slice, 1, slice.limit(), "Test"));
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(slice, 3, 6, new ILTagHeader());
+		});
+		assertThrows(IndexOutOfBoundsException.class, () -> {
+			ILTagUtils.scanHeader(slice, 0, slice.limit() + 1, new ILTagHeader());
+		});
+	}
+
 	@Test
 	void testReadILInt() throws Exception {
 
@@ -171,4 +323,28 @@ class ILTagUtilsTest {
 			});
 		}
 	}
+
+	@Test
+	void testScanHeaderNonCanonical() throws Exception {
+		ILTagHeader h = new ILTagHeader();
+		// Tag 256 with 248 bytes, both encoded with 3 bytes
+		byte[] buff = new byte[6 + 248];
+		buff[0] = (byte) 0xF9;
+		buff[2] = 0x08;
+		buff[3] = (byte) 0xF9;
+		assertEquals(6, ILTagUtils.scanHeader(buff, 0, buff.length, h));
+		assertEquals(256, h.tagId);
+		assertEquals(248, h.valueSize);
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(buff, 0, buff.length - 1, new ILTagHeader());
+		});
+
+		ILTagHeader h2 = new ILTagHeader();
+		assertEquals(6, ILTagUtils.scanHeader(ByteBuffer.wrap(buff), 0, buff.length, h2));
+		assertEquals(256, h2.tagId);
+		assertEquals(248, h2.valueSize);
+		assertThrows(CorruptedTagException.class, () -> {
+			ILTagUtils.scanHeader(ByteBuffer.wrap(buff), 0, buff.length - 1, new ILTagHeader());
+		});
+	}
 }
@@ -0,0 +1,324 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ByteBufferDataOutput;
+import io.il2.iltags.tags.basic.BooleanTag;
+import io.il2.iltags.tags.basic.BytesTag;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.DoubleTag;
+import io.il2.iltags.tags.basic.FloatTag;
+import io.il2.iltags.tags.basic.ILIntTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.Int16Tag;
+import io.il2.iltags.tags.basic.Int32Tag;
+import io.il2.iltags.tags.basic.Int64Tag;
+import io.il2.iltags.tags.basic.Int8Tag;
+import io.il2.iltags.tags.basic.NullTag;
+import io.il2.iltags.tags.basic.SignedILIntTag;
+import io.il2.iltags.tags.basic.StringDictonaryTag;
+import io.il2.iltags.tags.basic.StringTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+
+class ILTagWriterTest {
+
+	private static StringTag createString(String s) {
+		StringTag t = StringTag.createStandard();
+		t.setValue(s);
+		return t;
+	}
+
+	@Test
+	void testILTagWriter() {
+		ILTagWriter w = new ILTagWriter();
+		assertEquals(0, w.size());
+		assertEquals(0, w.getDepth());
+		assertArrayEquals(new byte[0], w.toBytes());
+		w = new ILTagWriter(0);
+		assertEquals(0, w.size());
+	}
+
+	@Test
+	void testPrimitives() throws Exception {
+		ILTagWriter w = new ILTagWriter(1);
+		ByteBuffer expected = ByteBuffer.allocate(1024);
+		ByteBufferDataOutput out = new ByteBufferDataOutput(expected);
+
+		w.writeNull(TagID.IL_NULL_TAG_ID);
+		NullTag.createStandard().serialize(out);
+
+		w.writeBoolean(TagID.IL_BOOL_TAG_ID, true);
+		BooleanTag b = BooleanTag.createStandard();
+		b.setValue(true);
+		b.serialize(out);
+
+		w.writeInt8(TagID.IL_INT8_TAG_ID, (byte) -3);
+		Int8Tag i8 = Int8Tag.createStandardSigned();
+		i8.setValue((byte) -3);
+		i8.serialize(out);
+
+		w.writeInt16(TagID.IL_UINT16_TAG_ID, (short) 0xFEDC);
+		Int16Tag u16 = Int16Tag.createStandardUnsigned();
+		u16.setValue((short) 0xFEDC);
+		u16.serialize(out);
+
+		w.writeInt32(TagID.IL_INT32_TAG_ID, 0x12345678);
+		Int32Tag i32 = Int32Tag.createStandardSigned();
+		i32.setValue(0x12345678);
+		i32.serialize(out);
+
+		w.writeInt64(TagID.IL_INT64_TAG_ID, -1234567890123l);
+		Int64Tag i64 = Int64Tag.createStandardSigned();
+		i64.setValue(-1234567890123l);
+		i64.serialize(out);
+
+		w.writeILInt(TagID.IL_ILINT_TAG_ID, 0x123456789l);
+		ILIntTag ilint = ILIntTag.createStandard();
+		ilint.setValue(0x123456789l);
+		ilint.serialize(out);
+
+		w.writeSignedILInt(TagID.IL_SIGNED_ILINT_TAG_ID, -1000);
+		SignedILIntTag silint = SignedILIntTag.createStandard();
+		silint.setValue(-1000);
+		silint.serialize(out);
+
+		w.writeFloat(TagID.IL_BIN32_TAG_ID, 1.25f);
+		FloatTag f = FloatTag.createStandard();
+		f.setValue(1.25f);
+		f.serialize(out);
+
+		w.writeDouble(TagID.IL_BIN64_TAG_ID, -0.5);
+		DoubleTag d = DoubleTag.createStandard();
+		d.setValue(-0.5);
+		d.serialize(out);
+
+		byte[] bytes = new byte[300];
+		bytes[5] = 5;
+		w.writeBytes(TagID.IL_BYTES_TAG_ID, bytes, 2, 298);
+		BytesTag bt = BytesTag.createStandard();
+		bt.setValue(Arrays.copyOfRange(bytes, 2, 300));
+		bt.serialize(out);
+
+		String s = "ação 😀 ߿ࠀ";
+		w.writeString(TagID.IL_STRING_TAG_ID, s);
+		createString(s).serialize(out);
+
+		// Custom tags
+		w.writeInt64(1234, 5);
+		Int64Tag custom = new Int64Tag(1234);
+		custom.setValue(5);
+		custom.serialize(out);
+
+		w.writeILInt(1235, 300);
+		ILIntTag customILInt = new ILIntTag(1235);
+		customILInt.setValue(300);
+		customILInt.serialize(out);
+
+		assertArrayEquals(Arrays.copyOf(expected.array(), expected.position()), w.toBytes());
+		assertEquals(expected.position(), w.size());
+	}
+
+	@Test
+	void testContainers() throws Exception {
+		DictonaryTag root = DictonaryTag.createStandard();
+		ILTagArrayTag array = ILTagArrayTag.createStandard();
+		ILTagWriter w = new ILTagWriter(16);
+		w.beginDictionary(TagID.IL_DICTIONARY_TAG_ID);
+		w.key("id");
+		w.writeInt64(TagID.IL_INT64_TAG_ID, 42);
+		Int64Tag id = Int64Tag.createStandardSigned();
+		id.setValue(42);
+		root.getValues().put("id", id);
+
+		w.key("payload");
+		w.beginArray(TagID.IL_ILTAGARRAY_TAG_ID);
+		assertEquals(2, w.getDepth());
+		for (int i = 0; i < 100; i++) {
+			w.writeString(TagID.IL_STRING_TAG_ID, "value" + i);
+			array.getValues().add(createString("value" + i));
+		}
+		ILTag[] samples = TagTestUtils.createSampleTags(20);
+		for (ILTag t : samples) {
+			w.writeTag(t);
+			array.getValues().add(t);
+		}
+		w.writeTag(null);
+		array.getValues().add(null);
+		w.endArray();
+		root.getValues().put("payload", array);
+
+		w.key("seq");
+		w.beginSequence(TagID.IL_ILTAGSEQ_TAG_ID);
+		w.beginSequence(TagID.IL_ILTAGSEQ_TAG_ID);
+		w.endSequence();
+		w.writeBoolean(TagID.IL_BOOL_TAG_ID, false);
+		w.endSequence();
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		seq.getValues().add(ILTagSequenceTag.createStandard());
+		BooleanTag b = BooleanTag.createStandard();
+		seq.getValues().add(b);
+		root.getValues().put("seq", seq);
+
+		w.key("names");
+		w.beginDictionary(TagID.IL_STRING_DICTIONARY_TAG_ID);
+		w.key("k");
+		w.writeString(TagID.IL_STRING_TAG_ID, "v");
+		w.endDictionary();
+		StringDictonaryTag names = StringDictonaryTag.createStandard();
+		names.getValues().put("k", "v");
+		root.getValues().put("names", names);
+
+		w.key("empty");
+		w.beginArray(TagID.IL_ILTAGARRAY_TAG_ID);
+		w.endArray();
+		root.getValues().put("empty", ILTagArrayTag.createStandard());
+		w.endDictionary();
+		assertEquals(0, w.getDepth());
+
+		byte[] serialized = root.toBytes();
+		assertArrayEquals(serialized, w.toBytes());
+
+		ByteBuffer buff = ByteBuffer.allocate(serialized.length);
+		w.writeTo(new ByteBufferDataOutput(buff));
+		assertArrayEquals(serialized, buff.array());
+
+		// Reuse
+		w.reset();
+		assertEquals(0, w.size());
+		w.writeNull(TagID.IL_NULL_TAG_ID);
+		assertArrayEquals(new byte[] { 0 }, w.toBytes());
+	}
+
+	@Test
+	void testDeepNesting() throws Exception {
+		ILTagWriter w = new ILTagWriter(16);
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		ILTagArrayTag current = root;
+		w.beginArray(TagID.IL_ILTAGARRAY_TAG_ID);
+		for (int i = 0; i < 1000; i++) {
+			w.writeString(TagID.IL_STRING_TAG_ID, "value" + i);
+			current.getValues().add(createString("value" + i));
+			ILTagArrayTag inner = ILTagArrayTag.createStandard();
+			current.getValues().add(inner);
+			w.beginArray(TagID.IL_ILTAGARRAY_TAG_ID);
+			current = inner;
+		}
+		ILTag[] samples = TagTestUtils.createSampleTags(100);
+		for (ILTag t : samples) {
+			w.writeTag(t);
+			current.getValues().add(t);
+		}
+		for (int i = 0; i <= 1000; i++) {
+			w.endArray();
+		}
+		assertEquals(0, w.getDepth());
+		byte[] serialized = root.toBytes();
+		assertEquals(serialized.length, w.size());
+		assertArrayEquals(serialized, w.toBytes());
+
+		// More tags after the compaction
+		w.writeNull(TagID.IL_NULL_TAG_ID);
+		w.beginSequence(TagID.IL_ILTAGSEQ_TAG_ID);
+		w.writeTag(root);
+		w.endSequence();
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		seq.getValues().add(root);
+		ByteBuffer expected = ByteBuffer.allocate(serialized.length + 1 + (int) seq.getTagSize());
+		expected.put(serialized);
+		expected.put((byte) 0);
+		expected.put(seq.toBytes());
+		assertEquals(expected.capacity(), w.size());
+		ByteBuffer buff = ByteBuffer.allocate(expected.capacity());
+		w.writeTo(new ByteBufferDataOutput(buff));
+		assertArrayEquals(expected.array(), buff.array());
+	}
+
+	@Test
+	void testInvalidUse() throws Exception {
+		ILTagWriter w = new ILTagWriter();
+		assertThrows(IllegalArgumentException.class, () -> {
+			w.writeInt32(TagID.IL_INT64_TAG_ID, 1);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			w.writeILInt(TagID.IL_INT8_TAG_ID, 1000);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			w.beginArray(TagID.IL_BOOL_TAG_ID);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			w.writeString(TagID.IL_STRING_TAG_ID, "\uD83D");
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			w.writeString(TagID.IL_STRING_TAG_ID, "\uDE00a");
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			w.writeString(TagID.IL_STRING_TAG_ID, "\uD83Da");
+		});
+		assertEquals(0, w.size());
+		assertThrows(IllegalStateException.class, () -> {
+			w.key("a");
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			w.endArray();
+		});
+
+		w.beginArray(TagID.IL_ILTAGARRAY_TAG_ID);
+		assertThrows(IllegalStateException.class, () -> {
+			w.toBytes();
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			w.key("a");
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			w.endDictionary();
+		});
+		w.beginDictionary(TagID.IL_DICTIONARY_TAG_ID);
+		assertThrows(IllegalStateException.class, () -> {
+			w.writeNull(TagID.IL_NULL_TAG_ID);
+		});
+		w.key("a");
+		assertThrows(IllegalStateException.class, () -> {
+			w.key("b");
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			w.endDictionary();
+		});
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.Int64Tag;
+import io.il2.iltags.tags.basic.StringTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class IndexedTagImageTest {
+
+	private static byte[] createSample() throws Exception {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		root.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(50)));
+		DictonaryTag dict = DictonaryTag.createStandard();
+		StringTag status = StringTag.createStandard();
+		status.setValue("pending");
+		dict.getValues().put("status", status);
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		seq.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(50)));
+		dict.getValues().put("seq", seq);
+		dict.getValues().put("null", null);
+		root.getValues().add(dict);
+		root.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(50)));
+		return root.toBytes();
+	}
+
+	@Test
+	void testLoad() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		byte[] bytes = createSample();
+		IndexedTagImage image = IndexedTagImage.load(factory, bytes);
+
+		ILTagArrayTag root = (ILTagArrayTag) image.getRoot();
+		TagTestUtils.assertTagEquals(factory.fromBytes(bytes), root);
+		assertTrue(image.isIndexed(root));
+		assertEquals(0, image.getOffset(root));
+		assertFalse(image.isModified(root));
+		for (ILTag t : root.getValues()) {
+			assertTrue(image.isIndexed(t));
+			int off = image.getOffset(t);
+			byte[] exp = t.toBytes();
+			assertArrayEquals(exp, Arrays.copyOfRange(bytes, off, off + exp.length));
+		}
+		assertFalse(image.isIndexed(StringTag.createStandard()));
+		assertEquals(-1, image.getOffset(StringTag.createStandard()));
+		assertTrue(image.isModified(StringTag.createStandard()));
+		assertEquals(bytes.length, image.getTagSize());
+		assertArrayEquals(bytes, image.toBytes());
+
+		assertThrows(CorruptedTagException.class, () -> {
+			IndexedTagImage.load(factory, Arrays.copyOf(bytes, bytes.length + 1));
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			IndexedTagImage.load(factory, Arrays.copyOf(bytes, bytes.length - 1));
+		});
+	}
+
+	@Test
+	void testMarkModified() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		IndexedTagImage image = IndexedTagImage.load(factory, createSample());
+		ILTagArrayTag root = (ILTagArrayTag) image.getRoot();
+		DictonaryTag dict = (DictonaryTag) root.getValues().get(50);
+		StringTag status = (StringTag) dict.getValues().get("status");
+		ILTagSequenceTag seq = (ILTagSequenceTag) dict.getValues().get("seq");
+
+		// Scalar change
+		status.setValue("approved by the reviewer");
+		image.markModified(status);
+		assertTrue(image.isModified(status));
+		assertTrue(image.isModified(dict));
+		assertTrue(image.isModified(root));
+		assertFalse(image.isModified(seq));
+		assertFalse(image.isModified(root.getValues().get(0)));
+		assertEquals(root.getTagSize(), image.getTagSize());
+		assertArrayEquals(root.toBytes(), image.toBytes());
+
+		// Structural changes
+		Int64Tag v = Int64Tag.createStandardSigned();
+		v.setValue(1234);
+		seq.getValues().add(v);
+		seq.getValues().remove(0);
+		image.markModified(seq);
+		dict.getValues().put("new", v);
+		dict.getValues().remove("null");
+		image.markModified(dict);
+		root.getValues().remove(0);
+		root.getValues().add(null);
+		image.markModified(root);
+		assertArrayEquals(root.toBytes(), image.toBytes());
+
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bOut)) {
+			image.serialize(out);
+		}
+		assertArrayEquals(root.toBytes(), bOut.toByteArray());
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			image.markModified(v);
+		});
+	}
+
+	@Test
+	void testLazyContainers() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		factory.setUsingLazyContainers(true);
+		IndexedTagImage image = IndexedTagImage.load(factory, createSample());
+		ILTagArrayTag root = (ILTagArrayTag) image.getRoot();
+		assertEquals(ILTagArrayTag.class, root.getClass());
+		DictonaryTag dict = (DictonaryTag) root.getValues().get(50);
+		assertEquals(DictonaryTag.class, dict.getClass());
+		StringTag status = (StringTag) dict.getValues().get("status");
+		assertTrue(image.isIndexed(status));
+
+		status.setValue("approved");
+		image.markModified(status);
+		assertTrue(image.isModified(root));
+		assertArrayEquals(root.toBytes(), image.toBytes());
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		factory.setDecodeLimits(new DecodeLimits(2, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+		byte[] bytes = createSample();
+		assertThrows(TagTooLargeException.class, () -> {
+			factory.fromBytes(bytes);
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			IndexedTagImage.load(factory, bytes);
+		});
+	}
+
+	@Test
+	void testNonCanonical() throws Exception {
+		// The id of the inner tag (256) uses a non-canonical ILInt
+		byte[] bytes = new byte[] { 21, 6, 1, (byte) 0xF9, 0x00, 0x08, 1, 0x7A };
+		IndexedTagImage image = IndexedTagImage.load(new TagFactory(false), bytes);
+		ILTagArrayTag root = (ILTagArrayTag) image.getRoot();
+		ILTag inner = root.getValues().get(0);
+		assertEquals(0, image.getOffset(root));
+		assertEquals(3, image.getOffset(inner));
+		assertEquals(bytes.length, image.getTagSize());
+
+		// The inner tag is copied verbatim
+		image.markModified(root);
+		assertEquals(bytes.length, image.getTagSize());
+		assertArrayEquals(bytes, image.toBytes());
+	}
+
+	@Test
+	void testMemoryBudget() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		byte[] bytes = createSample();
+		long size = factory.fromBytes(bytes).estimateRetainedSize();
+		factory.setMemoryBudget(size);
+		assertArrayEquals(bytes, IndexedTagImage.load(factory, bytes).toBytes());
+		factory.setMemoryBudget(size / 2);
+		assertThrows(MemoryBudgetExceededException.class, () -> {
+			IndexedTagImage.load(factory, bytes);
+		});
+	}
+}
@@ -0,0 +1,322 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.ByteBufferDataOutput;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.RawTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class IterativeTagDeserializerTest {
+
+	private static ILTag createSample() {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		for (int i = 0; i < 4; i++) {
+			ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+			seq.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(20)));
+			seq.getValues().add(ILTagArrayTag.createStandard());
+			root.getValues().add(seq);
+			DictonaryTag dict = DictonaryTag.createStandard();
+			for (int j = 0; j < 10; j++) {
+				dict.getValues().put("key" + j, TagTestUtils.createRandomTag());
+			}
+			dict.getValues().put("seq", seq);
+			root.getValues().add(dict);
+			root.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(10)));
+		}
+		root.getValues().add(null);
+		return root;
+	}
+
+	/**
+	 * Creates arrays nested up to the given depth. The innermost tag is an empty
+	 * sequence.
+	 */
+	private static byte[] createNested(int depth) throws Exception {
+		long[] valueSizes = new long[depth];
+		valueSizes[depth - 1] = 0;
+		long total = ILTagHeader.getSerializedSize(TagID.IL_ILTAGSEQ_TAG_ID, 0);
+		for (int i = depth - 2; i >= 0; i--) {
+			valueSizes[i] = 1 + total;
+			total = ILTagHeader.getSerializedSize(TagID.IL_ILTAGARRAY_TAG_ID, valueSizes[i]) + valueSizes[i];
+		}
+		ByteBuffer buff = ByteBuffer.allocate((int) total);
+		ByteBufferDataOutput out = new ByteBufferDataOutput(buff);
+		for (int i = 0; i < depth - 1; i++) {
+			ILTagHeader.serialize(TagID.IL_ILTAGARRAY_TAG_ID, valueSizes[i], out);
+			out.write(1);
+		}
+		ILTagHeader.serialize(TagID.IL_ILTAGSEQ_TAG_ID, 0, out);
+		return buff.array();
+	}
+
+	@Test
+	void testIterativeTagDeserializer() {
+		TagFactory factory = new TagFactory(false);
+		IterativeTagDeserializer d = new IterativeTagDeserializer(factory);
+		assertSame(factory, d.getFactory());
+		assertEquals(IterativeTagDeserializer.DEFAULT_MAX_DEPTH, d.getMaxDepth());
+
+		d = new IterativeTagDeserializer(factory, 1);
+		assertEquals(1, d.getMaxDepth());
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			new IterativeTagDeserializer(factory, 0);
+		});
+	}
+
+	@Test
+	void testDeserialize() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		IterativeTagDeserializer d = new IterativeTagDeserializer(factory);
+		for (int i = 0; i < 4; i++) {
+			ILTag sample = createSample();
+			byte[] serialized = sample.toBytes();
+			ILTag tag = d.deserialize(new ByteBufferDataInput(serialized));
+			TagTestUtils.assertTagEquals(factory.fromBytes(serialized), tag);
+			assertArrayEquals(serialized, tag.toBytes());
+		}
+
+		// Non container tags
+		for (ILTag t : TagTestUtils.createSampleTags(50)) {
+			byte[] serialized = t.toBytes();
+			assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+		}
+	}
+
+	@Test
+	void testDeepInput() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		byte[] serialized = createNested(100000);
+
+		IterativeTagDeserializer d = new IterativeTagDeserializer(factory, 100000);
+		ILTag tag = d.fromBytes(serialized);
+		for (int i = 1; i < 100000; i++) {
+			tag = ((ILTagArrayTag) tag).getValues().get(0);
+		}
+		assertTrue(tag instanceof ILTagSequenceTag);
+
+		IterativeTagDeserializer limited = new IterativeTagDeserializer(factory);
+		assertThrows(TagTooLargeException.class, () -> {
+			limited.fromBytes(serialized);
+		});
+		assertArrayEquals(createNested(256), limited.fromBytes(createNested(256)).toBytes());
+	}
+
+	@Test
+	void testProjection() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		IterativeTagDeserializer d = new IterativeTagDeserializer(factory);
+		ILTagArrayTag root = (ILTagArrayTag) createSample();
+		byte[] serialized = root.toBytes();
+
+		ILTag tag = d.fromBytes(serialized, ILTagProjection.of("[1]/key3", "[1]/seq/[20]", "[0]/[2]"));
+		List<ILTag> values = ((ILTagArrayTag) tag).getValues();
+		assertEquals(2, values.size());
+		ILTagSequenceTag seq = (ILTagSequenceTag) values.get(0);
+		assertEquals(1, seq.getValues().size());
+		ILTagSequenceTag expectedSeq = (ILTagSequenceTag) root.getValues().get(0);
+		TagTestUtils.assertTagEquals(expectedSeq.getValues().get(2), seq.getValues().get(0));
+
+		DictonaryTag expectedDict = (DictonaryTag) root.getValues().get(1);
+		DictonaryTag dict = (DictonaryTag) values.get(1);
+		assertEquals(2, dict.getValues().size());
+		TagTestUtils.assertTagEquals(expectedDict.getValues().get("key3"), dict.getValues().get("key3"));
+		ILTagSequenceTag innerSeq = (ILTagSequenceTag) dict.getValues().get("seq");
+		assertEquals(1, innerSeq.getValues().size());
+		assertTrue(innerSeq.getValues().get(0) instanceof ILTagArrayTag);
+
+		// Everything
+		assertArrayEquals(serialized, d.fromBytes(serialized, ILTagProjection.all()).toBytes());
+		// Nothing
+		assertEquals(0, ((ILTagArrayTag) d.fromBytes(serialized, ILTagProjection.none())).getValues().size());
+		// Non container tags ignore the projection
+		for (ILTag t : TagTestUtils.createSampleTags(50)) {
+			byte[] bytes = t.toBytes();
+			assertArrayEquals(bytes, d.fromBytes(bytes, ILTagProjection.none()).toBytes());
+		}
+
+		// Skipped values must still fit in their containers
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(new byte[] { 21, 4, 1, 16, 3, 0 }, ILTagProjection.none());
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(new byte[] { 21, 3, 1, 10, (byte) 0xF9 }, ILTagProjection.none());
+		});
+		// Skipped ILInt values
+		byte[] ilints = new byte[] { 21, 5, 2, 10, (byte) 0xF8, 1, 0 };
+		ILTag partial = d.fromBytes(ilints, ILTagProjection.of("[1]"));
+		assertEquals(1, ((ILTagArrayTag) partial).getValues().size());
+	}
+
+	@Test
+	void testCorrupted() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		IterativeTagDeserializer d = new IterativeTagDeserializer(factory);
+		byte[] serialized = createSample().toBytes();
+
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(Arrays.copyOf(serialized, serialized.length + 1));
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(Arrays.copyOf(serialized, serialized.length - 1));
+		});
+
+		// Inner container larger than its container
+		byte[] bad = new byte[] { 21, 4, 1, 21, 3, 1, 0 };
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(bad);
+		});
+
+		// Missing entries
+		byte[] missing = new byte[] { 21, 3, 3, 0, 0 };
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(missing);
+		});
+
+		// Unused bytes
+		byte[] unused = new byte[] { 21, 3, 1, 0, 0 };
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(unused);
+		});
+
+		// The instance is still usable
+		assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+	}
+
+	@Test
+	void testPassThrough() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		IterativeTagDeserializer d = new IterativeTagDeserializer(factory);
+		ILTagArrayTag root = (ILTagArrayTag) createSample();
+		byte[] serialized = root.toBytes();
+
+		ILTag tag = d.fromBytes(serialized, ILTagProjection.of("[1]/key3", "[0]/[2]"), true);
+		assertArrayEquals(serialized, tag.toBytes());
+		List<ILTag> values = ((ILTagArrayTag) tag).getValues();
+		assertEquals(root.getValues().size(), values.size());
+		assertInstanceOf(ILTagSequenceTag.class, values.get(0));
+		assertInstanceOf(DictonaryTag.class, values.get(1));
+		for (int i = 2; i < values.size(); i++) {
+			assertInstanceOf(RawTag.class, values.get(i));
+		}
+		List<ILTag> seq = ((ILTagSequenceTag) values.get(0)).getValues();
+		assertInstanceOf(RawTag.class, seq.get(0));
+		TagTestUtils.assertTagEquals(((ILTagSequenceTag) root.getValues().get(0)).getValues().get(2), seq.get(2));
+		DictonaryTag dict = (DictonaryTag) values.get(1);
+		assertInstanceOf(RawTag.class, dict.getValues().get("seq"));
+		assertArrayEquals(((DictonaryTag) root.getValues().get(1)).getValues().get("seq").toBytes(),
+				dict.getValues().get("seq").toBytes());
+
+		assertArrayEquals(serialized, d.fromBytes(serialized, ILTagProjection.none(), true).toBytes());
+
+		// Implicit ILInt values
+		byte[] ilints = new byte[] { 21, 5, 2, 10, (byte) 0xF8, 1, 0 };
+		assertArrayEquals(ilints, d.fromBytes(ilints, ILTagProjection.none(), true).toBytes());
+		// Raw values must still fit in their containers
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(new byte[] { 21, 4, 1, 16, 3, 0 }, ILTagProjection.none(), true);
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(new byte[] { 21, 3, 1, 10, (byte) 0xF9 }, ILTagProjection.none(), true);
+		});
+		assertThrows(UnsupportedTagException.class, () -> {
+			d.fromBytes(new byte[] { 21, 3, 1, 15, 0 }, ILTagProjection.none(), true);
+		});
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		IterativeTagDeserializer d = new IterativeTagDeserializer(factory);
+		byte[] nested = createNested(10);
+		factory.setDecodeLimits(new DecodeLimits(10, 10, 1000, 1000));
+		assertArrayEquals(nested, d.fromBytes(nested).toBytes());
+		factory.setDecodeLimits(new DecodeLimits(9, 10, 1000, 1000));
+		assertThrows(TagTooLargeException.class, () -> {
+			d.fromBytes(nested);
+		});
+		factory.setDecodeLimits(new DecodeLimits(10, 10, 10, 1000));
+		assertThrows(TagTooLargeException.class, () -> {
+			d.fromBytes(nested);
+		});
+
+		// Sequences are checked while they are read
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		seq.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(11)));
+		byte[] serialized = seq.toBytes();
+		factory.setDecodeLimits(new DecodeLimits(10, 11, 1000000, 1000));
+		assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+		factory.setDecodeLimits(new DecodeLimits(10, 10, 1000000, 1000));
+		assertThrows(TagTooLargeException.class, () -> {
+			d.fromBytes(serialized);
+		});
+	}
+
+	@Test
+	void testMemoryBudget() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		IterativeTagDeserializer d = new IterativeTagDeserializer(factory);
+		byte[] serialized = createSample().toBytes();
+		long size = factory.fromBytes(serialized).estimateRetainedSize();
+
+		factory.setMemoryBudget(size);
+		assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+		factory.setMemoryBudget(size / 2);
+		assertThrows(MemoryBudgetExceededException.class, () -> {
+			d.fromBytes(serialized);
+		});
+		// The usage is not carried over to the next deserialization
+		factory.setMemoryBudget(size);
+		assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+
+		// Large values are rejected before being read
+		factory.setMemoryBudget(500);
+		assertThrows(MemoryBudgetExceededException.class, () -> {
+			d.fromBytes(new byte[] { 21, 5, 1, 16, (byte) 0xF9, 0x10, 0x00 });
+		});
+		factory.setMemoryBudget(0);
+		assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.basic.TagTestUtils;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class SerializedTagComparatorTest {
+
+	@Test
+	void testCompare() {
+		SerializedTagComparator c = SerializedTagComparator.INSTANCE;
+		assertEquals(0, c.compare(new byte[] { 1, 0 }, new byte[] { 1, 0 }));
+		assertTrue(c.compare(new byte[] { 1, 0 }, new byte[] { 1, 1 }) < 0);
+		assertTrue(c.compare(new byte[] { 3, (byte) 0x80 }, new byte[] { 3, 0x7F }) > 0);
+		assertTrue(c.compare(new byte[] { 0 }, new byte[] { 0, 0 }) < 0);
+	}
+
+	@Test
+	void testCompareRanges() {
+		byte[] a = { 9, 1, 0, 9 };
+		byte[] b = { 1, 0 };
+		assertEquals(0, SerializedTagComparator.compare(a, 1, 2, b, 0, 2));
+		assertTrue(SerializedTagComparator.compare(a, 1, 3, b, 0, 2) > 0);
+		assertTrue(SerializedTagComparator.compare(a, 0, 2, b, 0, 2) > 0);
+	}
+
+	@Test
+	void testCompareByteBuffer() {
+		ByteBuffer a = ByteBuffer.wrap(new byte[] { 9, 3, (byte) 0x80 }, 1, 2);
+		ByteBuffer b = ByteBuffer.wrap(new byte[] { 3, 0x7F });
+		ByteBuffer d = ByteBuffer.allocateDirect(2);
+		d.put((byte) 3).put((byte) 0x80).flip();
+		assertTrue(SerializedTagComparator.compare(a, b) > 0);
+		assertTrue(SerializedTagComparator.compare(b, a) < 0);
+		assertEquals(0, SerializedTagComparator.compare(a, d));
+		assertEquals(0, SerializedTagComparator.compare(d, a.slice()));
+		assertTrue(SerializedTagComparator.compare(b, d) < 0);
+		d.limit(1);
+		assertTrue(SerializedTagComparator.compare(d, a) < 0);
+		assertEquals(1, a.position());
+		assertEquals(0, d.position());
+	}
+
+	@Test
+	void testDeduplicate() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		TreeSet<byte[]> set = new TreeSet<>(SerializedTagComparator.INSTANCE);
+		ILTag[] tags = TagTestUtils.createSampleTags(50);
+		for (ILTag t : tags) {
+			set.add(t.toBytes());
+			set.add(t.toBytes());
+		}
+		byte[] previous = null;
+		for (byte[] b : set) {
+			if (previous != null) {
+				assertTrue(SerializedTagComparator.INSTANCE.compare(previous, b) < 0);
+				assertNotEquals(factory.fromBytes(previous), factory.fromBytes(b));
+			}
+			previous = b;
+		}
+		for (ILTag t : tags) {
+			assertTrue(set.contains(t.toBytes()));
+			assertEquals(t, factory.fromBytes(Arrays.copyOf(t.toBytes(), (int) t.getTagSize())));
+		}
+	}
+}
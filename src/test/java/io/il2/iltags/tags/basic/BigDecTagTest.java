@@ -37,9 +37,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.tags.CorruptedTagException;
 import io.il2.iltags.tags.TagID;
@@ -113,9 +115,100 @@ class BigDecTagTest {
 		});
 	}
 
+	@Test
+	void testReset() throws Exception {
+		BigDecTag t = BigDecTag.createStandard();
+		t.setValue(new BigDecimal("123.45"));
+		TagTestUtils.assertReset(t, BigDecTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		BigDecTag t = BigDecTag.createStandard();
 		assertEquals(t.getTagID(), TagID.IL_BDEC_TAG_ID);
 	}
+
+	@Test
+	void testDeserializeValueArena() throws Exception {
+		byte[] data = new byte[] { -1, -1, -1, -15, 35, -27, 14, -68 };
+		BigDecimal v = new BigDecimal("6.02214076E23");
+		BigDecTag t = new BigDecTag(123456);
+		t.deserializeValue(null, 8, new ArenaDataInput(data));
+		assertTrue(t.isView());
+		assertEquals(8, t.getValueSize());
+		BigDecTag exp = new BigDecTag(123456);
+		exp.setValue(v);
+		assertArrayEquals(exp.toBytes(), t.toBytes());
+		assertEquals(v, t.getValue());
+		assertFalse(t.isView());
+
+		t.deserializeValue(null, 8, new ArenaDataInput(data));
+		t.detach();
+		assertFalse(t.isView());
+		assertEquals(v, t.getValue());
+
+		// Frozen tags are detached
+		byte[] reused = data.clone();
+		t.deserializeValue(null, 8, new ArenaDataInput(reused));
+		t.freeze();
+		assertFalse(t.isView());
+		Arrays.fill(reused, (byte) 0);
+		assertEquals(v, t.getValue());
+		assertSame(t.getValue(), t.getValue());
+
+		// Redundant bytes are never kept as views
+		BigDecTag t2 = new BigDecTag(123456);
+		t2.deserializeValue(null, 6, new ArenaDataInput(new byte[] { 0, 0, 0, 1, 0, 1 }));
+		assertFalse(t2.isView());
+		assertEquals(new BigDecimal("0.1"), t2.getValue());
+
+		t2.deserializeValue(null, 5, new ArenaDataInput(new byte[] { 0, 0, 0, 1, 1 }));
+		assertTrue(t2.isView());
+		t2.reset();
+		assertFalse(t2.isView());
+		assertNull(t2.getValue());
+	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		BigDecimal v = new BigDecimal("-1234567890.1234567890");
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bOut)) {
+			out.writeInt(v.scale());
+			out.write(v.unscaledValue().toByteArray());
+		}
+		byte[] data = bOut.toByteArray();
+		BigDecTag a = new BigDecTag(123456);
+		a.setValue(v);
+		BigDecTag b = new BigDecTag(123456);
+		b.setValue(new BigDecimal(v.unscaledValue(), v.scale()));
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, BigDecTag.createStandard());
+
+		BigDecTag v1 = new BigDecTag(123456);
+		v1.deserializeValue(null, data.length, new ArenaDataInput(data));
+		BigDecTag v2 = new BigDecTag(123456);
+		v2.deserializeValue(null, data.length, new ArenaDataInput(data.clone()));
+		assertEquals(v1, v2);
+		assertEquals(a, v1);
+		assertEquals(v1, a);
+		assertEquals(a.hashCode(), v1.hashCode());
+		assertEquals(v1.hashCode(), v2.hashCode());
+		assertTrue(v1.isView());
+
+		// The scale is part of the serialization
+		b.setValue(v.setScale(v.scale() + 1));
+		assertNotEquals(a, b);
+		assertNotEquals(b, v1);
+		assertNotEquals(v1, b);
+
+		// Null and zero with scale 0 have the same serialization
+		BigDecTag n = new BigDecTag(123456);
+		b.setValue(BigDecimal.ZERO);
+		assertEquals(n, b);
+		assertEquals(n.hashCode(), b.hashCode());
+		b.setValue(BigDecimal.ZERO.setScale(2));
+		assertNotEquals(n, b);
+	}
 }
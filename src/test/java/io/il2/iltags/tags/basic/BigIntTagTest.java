@@ -37,9 +37,11 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.io.ByteBufferDataOutput;
 import io.il2.iltags.tags.CorruptedTagException;
@@ -110,10 +112,107 @@ class BigIntTagTest {
 		});			
 	}
 
+	@Test
+	void testReset() throws Exception {
+		BigIntTag t = BigIntTag.createStandard();
+		t.setValue(BigInteger.TEN);
+		TagTestUtils.assertReset(t, BigIntTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		BigIntTag t = BigIntTag.createStandard();
 		assertEquals(t.getTagID(), TagID.IL_BINT_TAG_ID);
 	}
 
+	@Test
+	void testDeserializeValueArena() throws Exception {
+		BigInteger v = new BigInteger("-123456789012345678901234567890");
+		byte[] data = v.toByteArray();
+		BigIntTag t = new BigIntTag(123456);
+		t.deserializeValue(null, data.length, new ArenaDataInput(data));
+		assertTrue(t.isView());
+		assertEquals(data.length, t.getValueSize());
+		BigIntTag exp = new BigIntTag(123456);
+		exp.setValue(v);
+		assertArrayEquals(exp.toBytes(), t.toBytes());
+		assertEquals(v, t.getValue());
+		assertFalse(t.isView());
+
+		t.deserializeValue(null, data.length, new ArenaDataInput(data));
+		t.detach();
+		assertFalse(t.isView());
+		assertEquals(v, t.getValue());
+
+		// Frozen tags are detached
+		byte[] reused = data.clone();
+		t.deserializeValue(null, data.length, new ArenaDataInput(reused));
+		t.freeze();
+		assertFalse(t.isView());
+		Arrays.fill(reused, (byte) 0);
+		assertEquals(v, t.getValue());
+		assertSame(t.getValue(), t.getValue());
+
+		// Redundant bytes are never kept as views
+		BigIntTag t2 = new BigIntTag(123456);
+		t2.deserializeValue(null, 2, new ArenaDataInput(new byte[] { 0, 1 }));
+		assertFalse(t2.isView());
+		assertEquals(BigInteger.ONE, t2.getValue());
+		assertEquals(1, t2.getValueSize());
+		t2.deserializeValue(null, 2, new ArenaDataInput(new byte[] { -1, -1 }));
+		assertFalse(t2.isView());
+		assertEquals(BigInteger.ONE.negate(), t2.getValue());
+
+		t2.deserializeValue(null, 1, new ArenaDataInput(new byte[] { 0 }));
+		assertTrue(t2.isView());
+		t2.reset();
+		assertFalse(t2.isView());
+		assertNull(t2.getValue());
+	}
+
+	@Test
+	void testIsMinimal() {
+		assertTrue(BigIntTag.isMinimal(new byte[] { 0 }, 0, 1));
+		assertTrue(BigIntTag.isMinimal(new byte[] { -1 }, 0, 1));
+		assertTrue(BigIntTag.isMinimal(new byte[] { 0, -1 }, 0, 2));
+		assertTrue(BigIntTag.isMinimal(new byte[] { -1, 0 }, 0, 2));
+		assertTrue(BigIntTag.isMinimal(new byte[] { 1, 0 }, 0, 2));
+		assertFalse(BigIntTag.isMinimal(new byte[] { 0, 1 }, 0, 2));
+		assertFalse(BigIntTag.isMinimal(new byte[] { -1, -1 }, 0, 2));
+		assertFalse(BigIntTag.isMinimal(new byte[] { 5, 0, 0 }, 1, 2));
+	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		BigInteger v = new BigInteger("-12345678901234567890");
+		byte[] data = v.toByteArray();
+		BigIntTag a = new BigIntTag(123456);
+		a.setValue(v);
+		BigIntTag b = new BigIntTag(123456);
+		b.setValue(new BigInteger(data));
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, BigIntTag.createStandard());
+
+		BigIntTag v1 = new BigIntTag(123456);
+		v1.deserializeValue(null, data.length, new ArenaDataInput(data));
+		BigIntTag v2 = new BigIntTag(123456);
+		v2.deserializeValue(null, data.length, new ArenaDataInput(data.clone()));
+		assertEquals(v1, v2);
+		assertEquals(a, v1);
+		assertEquals(v1, a);
+		assertEquals(a.hashCode(), v1.hashCode());
+		assertEquals(v1.hashCode(), v2.hashCode());
+		assertTrue(v1.isView());
+		b.setValue(v.negate());
+		assertNotEquals(b, v1);
+		assertNotEquals(v1, b);
+		assertNotEquals(a, b);
+
+		// Null and zero have the same serialization
+		BigIntTag n = new BigIntTag(123456);
+		b.setValue(BigInteger.ZERO);
+		assertEquals(n, b);
+		assertEquals(n.hashCode(), b.hashCode());
+	}
 }
@@ -35,6 +35,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
@@ -101,10 +102,32 @@ class Binary128TagTest {
 		});				
 	}
 
+	@Test
+	void testReset() throws Exception {
+		Binary128Tag t = Binary128Tag.createStandard();
+		byte[] v = new byte[16];
+		Arrays.fill(v, (byte) 0xFF);
+		t.setValue(v);
+		TagTestUtils.assertReset(t, Binary128Tag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		Binary128Tag t = Binary128Tag.createStandard();
 		assertEquals(t.getTagID(), TagID.IL_BIN128_TAG_ID);
 	}
 
+	@Test
+	void testEqualsHashCode() throws Exception {
+		Binary128Tag a = Binary128Tag.createStandard();
+		Binary128Tag b = Binary128Tag.createStandard();
+		assertEquals(a, b);
+		byte[] v = new byte[16];
+		v[15] = 1;
+		a.setValue(v);
+		assertNotEquals(a, b);
+		b.setValue(v.clone());
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+	}
 }
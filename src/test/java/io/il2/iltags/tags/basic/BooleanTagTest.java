@@ -119,6 +119,13 @@ class BooleanTagTest {
 		});
 	}
 
+	@Test
+	void testReset() throws Exception {
+		BooleanTag t = BooleanTag.createStandard();
+		t.setValue(true);
+		TagTestUtils.assertReset(t, BooleanTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		BooleanTag t = BooleanTag.createStandard();
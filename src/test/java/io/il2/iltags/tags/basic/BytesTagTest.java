@@ -36,9 +36,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.io.ByteBufferDataOutput;
 import io.il2.iltags.tags.ILTagException;
@@ -99,10 +101,126 @@ class BytesTagTest {
 		});
 	}
 
+	@Test
+	void testReset() throws Exception {
+		BytesTag t = BytesTag.createStandard();
+		t.setValue(new byte[] { 1, 2, 3 });
+		TagTestUtils.assertReset(t, BytesTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		BytesTag t = BytesTag.createStandard();
 		assertEquals(t.getTagID(), TagID.IL_BYTES_TAG_ID);
 	}
 
+	@Test
+	void testFreeze() throws Exception {
+		BytesTag t = new BytesTag(123456);
+		byte[] v = new byte[] { 1, 2, 3 };
+		t.setValue(v);
+		t.freeze();
+
+		byte[] copy = t.getValue();
+		assertNotSame(v, copy);
+		assertArrayEquals(v, copy);
+		copy[0] = 0;
+		assertArrayEquals(v, t.getValue());
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.setValue(null);
+		});
+	}
+
+	@Test
+	void testDeserializeValueArena() throws Exception {
+		byte[] data = new byte[SAMPLE_IDS.length + 1];
+		System.arraycopy(SAMPLE_IDS, 0, data, 1, SAMPLE_IDS.length);
+		ArenaDataInput in = new ArenaDataInput(data);
+		in.readByte();
+		BytesTag t = new BytesTag(123456);
+		t.deserializeValue(null, 4, in);
+		assertTrue(t.isView());
+		assertEquals(4, t.getValueSize());
+		assertEquals(ByteBuffer.wrap(SAMPLE_IDS), t.getValueBuffer());
+		assertTrue(t.getValueBuffer().isReadOnly());
+		BytesTag exp = new BytesTag(123456);
+		exp.setValue(SAMPLE_IDS);
+		assertArrayEquals(exp.toBytes(), t.toBytes());
+
+		// The view shares the backing array until it is detached
+		data[1] = 0;
+		assertEquals(0, t.getValueBuffer().get(0));
+		data[1] = SAMPLE_IDS[0];
+		t.detach();
+		assertFalse(t.isView());
+		Arrays.fill(data, (byte) 0);
+		assertArrayEquals(SAMPLE_IDS, t.getValue());
+		assertArrayEquals(exp.toBytes(), t.toBytes());
+
+		// getValue() detaches
+		t.deserializeValue(null, 4, new ArenaDataInput(SAMPLE_IDS));
+		assertTrue(t.isView());
+		byte[] v = t.getValue();
+		assertArrayEquals(SAMPLE_IDS, v);
+		assertNotSame(SAMPLE_IDS, v);
+		assertFalse(t.isView());
+
+		// Frozen tags are detached
+		byte[] reused = SAMPLE_IDS.clone();
+		t.deserializeValue(null, 4, new ArenaDataInput(reused));
+		t.freeze();
+		assertFalse(t.isView());
+		Arrays.fill(reused, (byte) 9);
+		assertArrayEquals(SAMPLE_IDS, t.getValue());
+		assertNotSame(t.getValue(), t.getValue());
+		assertEquals(ByteBuffer.wrap(SAMPLE_IDS), t.getValueBuffer());
+		assertArrayEquals(exp.toBytes(), t.toBytes());
+
+		BytesTag t2 = new BytesTag(123456);
+		t2.deserializeValue(null, 4, new ArenaDataInput(SAMPLE_IDS));
+		t2.setValue(new byte[1]);
+		assertFalse(t2.isView());
+		t2.deserializeValue(null, 4, new ArenaDataInput(SAMPLE_IDS));
+		t2.reset();
+		assertFalse(t2.isView());
+		assertNull(t2.getValueBuffer());
+		assertThrows(EOFException.class, () -> {
+			t2.deserializeValue(null, 5, new ArenaDataInput(SAMPLE_IDS));
+		});
+	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		BytesTag a = new BytesTag(123456);
+		a.setValue(SAMPLE_IDS.clone());
+		BytesTag b = new BytesTag(123456);
+		b.deserializeValue(null, 4, new ArenaDataInput(SAMPLE_IDS));
+		assertTrue(b.isView());
+		assertEquals(a, b);
+		assertEquals(b, a);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertTrue(b.isView());
+		assertNotEquals(a, BytesTag.createStandard());
+
+		b.setValue(Arrays.copyOf(SAMPLE_IDS, 3));
+		assertNotEquals(a, b);
+
+		// Null and empty values have the same serialization
+		BytesTag n = new BytesTag(123456);
+		b.setValue(new byte[0]);
+		assertEquals(n, b);
+		assertEquals(n.hashCode(), b.hashCode());
+	}
+
+	@Test
+	void testEstimateRetainedSize() throws Exception {
+		BytesTag t = BytesTag.createStandard();
+		assertEquals(40, t.estimateRetainedSize());
+		t.setValue(new byte[10]);
+		assertEquals(72, t.estimateRetainedSize());
+
+		// Views only count the bytes they use
+		t.deserializeValue(null, 4, new ArenaDataInput(new byte[100]));
+		assertEquals(48, t.estimateRetainedSize());
+	}
 }
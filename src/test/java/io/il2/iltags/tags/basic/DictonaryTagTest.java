@@ -35,17 +35,24 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
 import io.il2.iltags.ilint.ILIntEncoder;
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.LimitedDataInput;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.ILTag;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
 import io.il2.iltags.tags.factory.TagFactory;
+import io.il2.iltags.utils.HeapSizeUtils;
 
 class DictonaryTagTest {
 
@@ -170,6 +177,105 @@ class DictonaryTagTest {
 		}
 	}
 
+	@Test
+	void testDeserializeValueReusing() throws Exception {
+		ILTagFactory f = new TagFactory(false);
+		DictonaryTag src = DictonaryTag.createStandard();
+		String[] keys = TagTestUtils.createSampleStrings(20);
+		for (String k : keys) {
+			src.getValues().put(k, TagTestUtils.createRandomTag());
+		}
+
+		DictonaryTag t = DictonaryTag.createStandard();
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		Map<String, ILTag> values = t.getValues();
+		Map<String, ILTag> children = new HashMap<>(values);
+
+		// Same shape
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertSame(values, t.getValues());
+		for (String k : keys) {
+			assertSame(children.get(k), values.get(k));
+		}
+
+		// Different tag for the key 10 and fewer entries
+		ILTag other = (src.getValues().get(keys[10]) instanceof NullTag) ? BooleanTag.createStandard()
+				: NullTag.createStandard();
+		src.getValues().put(keys[10], other);
+		src.getValues().remove(keys[19]);
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertEquals(19, values.size());
+		assertArrayEquals(src.toBytes(), t.toBytes());
+		for (int i = 0; i < 19; i++) {
+			if (i == 10) {
+				assertNotSame(children.get(keys[i]), values.get(keys[i]));
+			} else {
+				assertSame(children.get(keys[i]), values.get(keys[i]));
+			}
+		}
+	}
+
+	@Test
+	void testDeserializeValueReusingKeys() throws Exception {
+		ILTagFactory f = new TagFactory(false);
+		DictonaryTag src = DictonaryTag.createStandard();
+		String[] keys = TagTestUtils.createSampleStrings(10);
+		for (String k : keys) {
+			src.getValues().put(k, NullTag.createStandard());
+		}
+		DictonaryTag t = DictonaryTag.createStandard();
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		String[] decoded = t.getValues().keySet().toArray(new String[0]);
+
+		// Same order, thus the keys are kept
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		String[] current = t.getValues().keySet().toArray(new String[0]);
+		assertEquals(decoded.length, current.length);
+		for (int i = 0; i < decoded.length; i++) {
+			assertSame(decoded[i], current[i]);
+		}
+
+		// Different order from the key 5 on
+		ILTag moved = src.getValues().remove(keys[5]);
+		src.getValues().put(keys[5], moved);
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertArrayEquals(src.toBytes(), t.toBytes());
+		current = t.getValues().keySet().toArray(new String[0]);
+		for (int i = 0; i < 5; i++) {
+			assertSame(decoded[i], current[i]);
+		}
+		assertNotSame(decoded[5], current[9]);
+		assertEquals(keys[5], current[9]);
+
+		// Fewer entries
+		src.getValues().remove(keys[5]);
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertArrayEquals(src.toBytes(), t.toBytes());
+	}
+
+	@Test
+	void testReset() throws Exception {
+		DictonaryTag t = DictonaryTag.createStandard();
+		t.getValues().put("key", NullTag.createStandard());
+		Map<String, ILTag> values = t.getValues();
+		t.reset();
+		assertTrue(values.isEmpty());
+		assertSame(values, t.getValues());
+		TagTestUtils.assertReset(t, DictonaryTag.createStandard());
+	}
+
+	@Test
+	void testGetChildKey() throws Exception {
+		DictonaryTag t = DictonaryTag.createStandard();
+		assertNull(t.getChildKey());
+		ILTagFactory factory = new TagFactory(false);
+		t.beginChild(factory, new LimitedDataInput(new ByteBufferDataInput(new byte[] { 17, 1, 'k' }), 3));
+		assertEquals("k", t.getChildKey());
+		t.addChild(NullTag.createStandard());
+		assertNull(t.getChildKey());
+		assertTrue(t.getValues().containsKey("k"));
+	}
+
 	@Test
 	void testCreateStandard() {
 		DictonaryTag t = DictonaryTag.createStandard();
@@ -177,4 +283,130 @@ class DictonaryTagTest {
 		assertEquals(0, t.getValues().size());
 	}
 
+	@Test
+	void testFreeze() throws Exception {
+		DictonaryTag t = new DictonaryTag(1234);
+		StringTag s = StringTag.createStandard();
+		s.setValue("value");
+		t.getValues().put("a", s);
+		t.getValues().put("b", null);
+		byte[] exp = t.toBytes();
+
+		t.freeze();
+		assertTrue(t.isFrozen());
+		assertTrue(s.isFrozen());
+		assertArrayEquals(exp, t.toBytes());
+		assertEquals(exp.length, t.getTagSize());
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.getValues().put("c", null);
+		});
+		assertThrows(UnsupportedOperationException.class, () -> {
+			s.setValue("other");
+		});
+	}
+
+	@Test
+	void testDetach() throws Exception {
+		DictonaryTag t = DictonaryTag.createStandard();
+		BytesTag b = BytesTag.createStandard();
+		b.setValue(new byte[] { 1, 2, 3 });
+		StringTag s = StringTag.createStandard();
+		s.setValue("abc");
+		t.getValues().put("b", b);
+		t.getValues().put("s", s);
+		t.getValues().put("n", null);
+		byte[] serialized = t.toBytes();
+
+		TagFactory f = new TagFactory(true);
+		t = (DictonaryTag) f.deserialize(new ArenaDataInput(serialized));
+		assertTrue(((BytesTag) t.getValues().get("b")).isView());
+		assertTrue(((StringTag) t.getValues().get("s")).isView());
+		t.detach();
+		assertFalse(((BytesTag) t.getValues().get("b")).isView());
+		assertFalse(((StringTag) t.getValues().get("s")).isView());
+		Arrays.fill(serialized, (byte) 0);
+		assertArrayEquals(new byte[] { 1, 2, 3 }, ((BytesTag) t.getValues().get("b")).getValue());
+		assertEquals("abc", ((StringTag) t.getValues().get("s")).getValue());
+	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		DictonaryTag a = DictonaryTag.createStandard();
+		DictonaryTag b = DictonaryTag.createStandard();
+		for (ILTag t : TagTestUtils.createSampleTags(20)) {
+			String key = "k" + a.getValues().size();
+			a.getValues().put(key, t);
+			b.getValues().put(key, new TagFactory(false).fromBytes(t.toBytes()));
+		}
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		a.freeze();
+		assertEquals(a, b);
+		assertEquals(b, a);
+		assertEquals(a.hashCode(), b.hashCode());
+
+		// The order matters because it changes the serialization
+		DictonaryTag c = DictonaryTag.createStandard();
+		c.getValues().put("x", NullTag.createStandard());
+		c.getValues().put("y", BooleanTag.createStandard());
+		DictonaryTag d = DictonaryTag.createStandard();
+		d.getValues().put("y", BooleanTag.createStandard());
+		d.getValues().put("x", NullTag.createStandard());
+		assertNotEquals(c, d);
+
+		// Null values are serialized as null tags
+		d.getValues().clear();
+		d.getValues().put("x", null);
+		d.getValues().put("y", BooleanTag.createStandard());
+		assertEquals(c, d);
+		assertEquals(c.hashCode(), d.hashCode());
+		d.getValues().put("y", null);
+		assertNotEquals(c, d);
+	}
+
+	@Test
+	void testEstimateRetainedSize() throws Exception {
+		DictonaryTag t = DictonaryTag.createStandard();
+		long empty = t.estimateRetainedSize();
+		assertEquals(HeapSizeUtils.align(24 + 8) + HeapSizeUtils.mapSize(t.getValues()), empty);
+		t.getValues().put("abc", Int32Tag.createStandardSigned());
+		t.getValues().put("d", null);
+		long own = HeapSizeUtils.align(24 + 8) + HeapSizeUtils.mapSize(t.getValues()) + HeapSizeUtils.sizeOf("abc")
+				+ HeapSizeUtils.sizeOf("d");
+		assertEquals(own, t.estimateOwnRetainedSize());
+		assertEquals(own + 32, t.estimateRetainedSize());
+
+		// The decoding does not leave scratch objects behind
+		char[] key = new char[60000];
+		Arrays.fill(key, 'k');
+		DictonaryTag large = DictonaryTag.createStandard();
+		large.getValues().put("abc", Int32Tag.createStandardSigned());
+		large.getValues().put(new String(key), Int32Tag.createStandardSigned());
+		TagFactory f = new TagFactory(false);
+		DictonaryTag decoded = DictonaryTag.createStandard();
+		f.deserializeInto(decoded, new ByteBufferDataInput(large.toBytes()));
+		assertEquals(large.estimateRetainedSize(), decoded.estimateRetainedSize());
+		f.deserializeInto(decoded, new ByteBufferDataInput(large.toBytes()));
+		assertEquals(large.estimateRetainedSize(), decoded.estimateRetainedSize());
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory f = new TagFactory(false);
+		f.setDecodeLimits(new DecodeLimits(16, 2, 1000, 3));
+		DictonaryTag t = DictonaryTag.createStandard();
+		t.getValues().put("a", null);
+		t.getValues().put("bcd", null);
+		assertArrayEquals(t.toBytes(), f.fromBytes(t.toBytes()).toBytes());
+		t.getValues().put("c", null);
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(t.toBytes());
+		});
+		// Keys
+		DictonaryTag longKey = DictonaryTag.createStandard();
+		longKey.getValues().put("abcd", null);
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(longKey.toBytes());
+		});
+	}
 }
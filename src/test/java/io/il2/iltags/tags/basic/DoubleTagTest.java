@@ -79,10 +79,29 @@ class DoubleTagTest {
 		});		
 	}
 
+	@Test
+	void testReset() throws Exception {
+		DoubleTag t = DoubleTag.createStandard();
+		t.setValue(1.5);
+		TagTestUtils.assertReset(t, DoubleTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		DoubleTag t = DoubleTag.createStandard();
 		assertEquals(t.getTagID(), TagID.IL_BIN64_TAG_ID);
 	}
 
+	@Test
+	void testEqualsHashCode() throws Exception {
+		DoubleTag a = DoubleTag.createStandard();
+		DoubleTag b = DoubleTag.createStandard();
+		a.setValue(1.5);
+		b.setValue(1.5);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		a.setValue(0.0);
+		b.setValue(-0.0);
+		assertNotEquals(a, b);
+	}
 }
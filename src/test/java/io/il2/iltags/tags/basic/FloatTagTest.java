@@ -110,10 +110,29 @@ class FloatTagTest {
 		});			
 	}
 
+	@Test
+	void testReset() throws Exception {
+		FloatTag t = FloatTag.createStandard();
+		t.setValue(1.5f);
+		TagTestUtils.assertReset(t, FloatTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		FloatTag t = FloatTag.createStandard();
 		assertEquals(t.getTagID(), TagID.IL_BIN32_TAG_ID);
 	}
 
+	@Test
+	void testEqualsHashCode() throws Exception {
+		FloatTag a = FloatTag.createStandard();
+		FloatTag b = FloatTag.createStandard();
+		a.setValue(Float.NaN);
+		b.setValue(Float.NaN);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		a.setValue(0.0f);
+		b.setValue(-0.0f);
+		assertNotEquals(a, b);
+	}
 }
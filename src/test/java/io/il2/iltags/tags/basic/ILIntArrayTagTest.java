@@ -44,7 +44,10 @@ import io.il2.iltags.ilint.ILIntEncoder;
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.io.ByteBufferDataOutput;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
+import io.il2.iltags.tags.factory.TagFactory;
 
 class ILIntArrayTagTest {
 
@@ -164,6 +167,13 @@ class ILIntArrayTagTest {
 		}
 	}
 
+	@Test
+	void testReset() throws Exception {
+		ILIntArrayTag t = ILIntArrayTag.createStandard();
+		t.setValues(1, 2, 3);
+		TagTestUtils.assertReset(t, ILIntArrayTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		ILIntArrayTag t = ILIntArrayTag.createStandard();
@@ -177,4 +187,36 @@ class ILIntArrayTagTest {
 		assertEquals(TagID.IL_OID_TAG_ID, t.getTagID());
 		assertNull(t.values);
 	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		ILIntArrayTag a = ILIntArrayTag.createStandard();
+		ILIntArrayTag b = ILIntArrayTag.createStandard();
+		assertEquals(a, b);
+		a.setValues(1, 2, 3);
+		b.setValues(1, 2, 3);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		b.setValues(1, 2);
+		assertNotEquals(a, b);
+		assertNotEquals(a, ILIntArrayTag.createStandardOIDTag());
+		// Null and empty arrays have the same serialization
+		a.setValues(new long[0]);
+		b.setValues((long[]) null);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory f = new TagFactory(false);
+		f.setDecodeLimits(new DecodeLimits(16, 2, 1000, 1000));
+		ILIntArrayTag t = ILIntArrayTag.createStandard();
+		t.setValues(new long[] { 1, 2 });
+		assertArrayEquals(t.toBytes(), f.fromBytes(t.toBytes()).toBytes());
+		t.setValues(new long[] { 1, 2, 3 });
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(t.toBytes());
+		});
+	}
 }
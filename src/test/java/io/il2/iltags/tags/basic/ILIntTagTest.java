@@ -117,4 +117,10 @@ class ILIntTagTest {
 		});		
 	}
 
+	@Test
+	void testReset() throws Exception {
+		ILIntTag t = ILIntTag.createStandard();
+		t.setValue(1234);
+		TagTestUtils.assertReset(t, ILIntTag.createStandard());
+	}
 }
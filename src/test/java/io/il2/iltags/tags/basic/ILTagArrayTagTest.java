@@ -36,16 +36,21 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import io.il2.iltags.ilint.ILIntEncoder;
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.ILTag;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
 import io.il2.iltags.tags.factory.TagFactory;
+import io.il2.iltags.tags.AbstractILTag;
 
 class ILTagArrayTagTest {
 
@@ -150,10 +155,220 @@ class ILTagArrayTagTest {
 		}
 	}
 
+	@Test
+	void testDeserializeValueReusing() throws Exception {
+		ILTagFactory f = new TagFactory(false);
+		ILTagArrayTag src = ILTagArrayTag.createStandard();
+		src.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(100)));
+
+		ILTagArrayTag t = ILTagArrayTag.createStandard();
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		List<ILTag> values = t.getValues();
+		ILTag[] children = values.toArray(new ILTag[values.size()]);
+
+		// Same shape
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertSame(values, t.getValues());
+		for (int i = 0; i < children.length; i++) {
+			assertSame(children[i], values.get(i));
+		}
+
+		// Different tag at position 10 and fewer entries
+		ILTag other = (src.getValues().get(10) instanceof NullTag) ? BooleanTag.createStandard()
+				: NullTag.createStandard();
+		src.getValues().set(10, other);
+		src.getValues().subList(50, 100).clear();
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertSame(values, t.getValues());
+		assertEquals(50, values.size());
+		for (int i = 0; i < 50; i++) {
+			TagTestUtils.assertTagEquals(src.getValues().get(i), values.get(i));
+			if (i == 10) {
+				assertNotSame(children[i], values.get(i));
+			} else {
+				assertSame(children[i], values.get(i));
+			}
+		}
+
+		// More entries
+		src.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(10)));
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertArrayEquals(src.toBytes(), t.toBytes());
+		assertSame(children[0], values.get(0));
+	}
+
+	@Test
+	void testDeserializeValueReusingShared() throws Exception {
+		ILTagFactory f = new TagFactory(false);
+		ILTagArrayTag src = ILTagArrayTag.createStandard();
+		StringTag a = StringTag.createStandard();
+		a.setValue("a");
+		StringTag b = StringTag.createStandard();
+		b.setValue("b");
+		src.getValues().add(a);
+		src.getValues().add(b);
+
+		// The same instance at two positions
+		StringTag shared = StringTag.createStandard();
+		ILTagArrayTag t = ILTagArrayTag.createStandard();
+		t.getValues().add(shared);
+		t.getValues().add(shared);
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertSame(shared, t.getValues().get(0));
+		assertNotSame(shared, t.getValues().get(1));
+		assertEquals("a", ((StringTag) t.getValues().get(0)).getValue());
+		assertEquals("b", ((StringTag) t.getValues().get(1)).getValue());
+
+		// The same instance below two inner containers
+		ILTagArrayTag outer = ILTagArrayTag.createStandard();
+		outer.getValues().add(src);
+		outer.getValues().add(src);
+		ILTagArrayTag inner = ILTagArrayTag.createStandard();
+		inner.getValues().add(shared);
+		t = ILTagArrayTag.createStandard();
+		t.getValues().add(inner);
+		t.getValues().add(ILTagArrayTag.createStandard());
+		((ILTagArrayTag) t.getValues().get(1)).getValues().add(shared);
+		f.deserializeInto(t, new ByteBufferDataInput(outer.toBytes()));
+		assertArrayEquals(outer.toBytes(), t.toBytes());
+		assertNotSame(((ILTagArrayTag) t.getValues().get(0)).getValues().get(0),
+				((ILTagArrayTag) t.getValues().get(1)).getValues().get(0));
+
+		// The instances are reused again by the next pass
+		f.deserializeInto(t, new ByteBufferDataInput(outer.toBytes()));
+		assertSame(shared, ((ILTagArrayTag) t.getValues().get(0)).getValues().get(0));
+	}
+
+	@Test
+	void testReset() throws Exception {
+		ILTagArrayTag t = ILTagArrayTag.createStandard();
+		t.getValues().add(NullTag.createStandard());
+		List<ILTag> values = t.getValues();
+		t.reset();
+		assertTrue(values.isEmpty());
+		assertSame(values, t.getValues());
+		TagTestUtils.assertReset(t, ILTagArrayTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		ILTagArrayTag t = ILTagArrayTag.createStandard();
 		assertEquals(TagID.IL_ILTAGARRAY_TAG_ID, t.getTagID());
 		assertEquals(0, t.getValues().size());
 	}
+
+	@Test
+	void testFreeze() throws Exception {
+		ILTagArrayTag t = new ILTagArrayTag(1234);
+		ILTag[] sample = TagTestUtils.createSampleTags(16);
+		t.getValues().addAll(Arrays.asList(sample));
+		t.getValues().add(null);
+		byte[] exp = t.toBytes();
+		long valueSize = t.getValueSize();
+
+		t.freeze();
+		assertTrue(t.isFrozen());
+		assertEquals(valueSize, t.getValueSize());
+		assertArrayEquals(exp, t.toBytes());
+		for (int i = 0; i < sample.length; i++) {
+			assertTrue(((AbstractILTag) t.getValues().get(i)).isFrozen());
+		}
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.getValues().add(NullTag.createStandard());
+		});
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.deserializeValue(new TagFactory(false), 1, new ByteBufferDataInput(new byte[] { 0 }));
+		});
+	}
+
+	@Test
+	void testDetach() throws Exception {
+		ILTagArrayTag t = ILTagArrayTag.createStandard();
+		BytesTag b = BytesTag.createStandard();
+		b.setValue(new byte[] { 1, 2, 3 });
+		StringTag s = StringTag.createStandard();
+		s.setValue("abc");
+		t.getValues().add(b);
+		t.getValues().add(s);
+		t.getValues().add(null);
+		byte[] serialized = t.toBytes();
+
+		TagFactory f = new TagFactory(true);
+		t = (ILTagArrayTag) f.deserialize(new ArenaDataInput(serialized));
+		assertTrue(((BytesTag) t.getValues().get(0)).isView());
+		assertTrue(((StringTag) t.getValues().get(1)).isView());
+		t.detach();
+		assertFalse(((BytesTag) t.getValues().get(0)).isView());
+		assertFalse(((StringTag) t.getValues().get(1)).isView());
+		Arrays.fill(serialized, (byte) 0);
+		assertArrayEquals(new byte[] { 1, 2, 3 }, ((BytesTag) t.getValues().get(0)).getValue());
+		assertEquals("abc", ((StringTag) t.getValues().get(1)).getValue());
+	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		ILTagArrayTag a = ILTagArrayTag.createStandard();
+		ILTagArrayTag b = ILTagArrayTag.createStandard();
+		TagFactory factory = new TagFactory(false);
+		for (ILTag t : TagTestUtils.createSampleTags(20)) {
+			a.getValues().add(t);
+			b.getValues().add(factory.fromBytes(t.toBytes()));
+		}
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, ILTagSequenceTag.createStandard());
+
+		a.getValues().add(null);
+		b.getValues().add(NullTag.createStandard());
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		b.getValues().add(NullTag.createStandard());
+		assertNotEquals(a, b);
+
+		// Nested containers
+		ILTagArrayTag c = ILTagArrayTag.createStandard();
+		c.getValues().add(a);
+		ILTagArrayTag d = ILTagArrayTag.createStandard();
+		d.getValues().add(factory.fromBytes(a.toBytes()));
+		assertEquals(c, d);
+		assertEquals(c.hashCode(), d.hashCode());
+	}
+
+	@Test
+	void testEstimateRetainedSize() throws Exception {
+		ILTagArrayTag t = ILTagArrayTag.createStandard();
+		assertEquals(72, t.estimateRetainedSize());
+		t.getValues().add(Int32Tag.createStandardSigned());
+		t.getValues().add(null);
+		t.getValues().add(Int32Tag.createStandardSigned());
+		assertEquals(88, t.estimateOwnRetainedSize());
+		assertEquals(88 + 2 * 32, t.estimateRetainedSize());
+
+		t.getValues().add(BytesTag.createStandard());
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		root.getValues().add(t);
+		assertEquals(root.estimateOwnRetainedSize() + t.estimateRetainedSize(), root.estimateRetainedSize());
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory f = new TagFactory(false);
+		f.setDecodeLimits(new DecodeLimits(16, 2, 1000, 1000));
+		ILTagArrayTag t = ILTagArrayTag.createStandard();
+		t.getValues().add(null);
+		t.getValues().add(null);
+		assertArrayEquals(t.toBytes(), f.fromBytes(t.toBytes()).toBytes());
+		t.getValues().add(null);
+		byte[] serialized = t.toBytes();
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(serialized);
+		});
+		// The count is checked before the list is filled
+		ILTagArrayTag target = ILTagArrayTag.createStandard();
+		assertThrows(TagTooLargeException.class, () -> {
+			target.deserializeValue(f, serialized.length - 2,
+					new ByteBufferDataInput(Arrays.copyOfRange(serialized, 2, serialized.length)));
+		});
+		assertEquals(0, target.getValues().size());
+	}
 }
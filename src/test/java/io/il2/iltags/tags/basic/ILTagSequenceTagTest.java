@@ -36,14 +36,18 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.ILTag;
 import io.il2.iltags.tags.ILTagFactory;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
 import io.il2.iltags.tags.factory.TagFactory;
 
 class ILTagSequenceTagTest {
@@ -137,6 +141,59 @@ class ILTagSequenceTagTest {
 		}
 	}
 
+	@Test
+	void testDeserializeValueReusing() throws Exception {
+		ILTagFactory f = new TagFactory(false);
+		ILTagSequenceTag src = ILTagSequenceTag.createStandard();
+		src.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(100)));
+
+		ILTagSequenceTag t = ILTagSequenceTag.createStandard();
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		List<ILTag> values = t.getValues();
+		ILTag[] children = values.toArray(new ILTag[values.size()]);
+
+		// Same shape
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertSame(values, t.getValues());
+		for (int i = 0; i < children.length; i++) {
+			assertSame(children[i], values.get(i));
+		}
+
+		// Different tag at position 10 and fewer entries
+		ILTag other = (src.getValues().get(10) instanceof NullTag) ? BooleanTag.createStandard()
+				: NullTag.createStandard();
+		src.getValues().set(10, other);
+		src.getValues().subList(50, 100).clear();
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertSame(values, t.getValues());
+		assertEquals(50, values.size());
+		for (int i = 0; i < 50; i++) {
+			TagTestUtils.assertTagEquals(src.getValues().get(i), values.get(i));
+			if (i == 10) {
+				assertNotSame(children[i], values.get(i));
+			} else {
+				assertSame(children[i], values.get(i));
+			}
+		}
+
+		// More entries
+		src.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(10)));
+		f.deserializeInto(t, new ByteBufferDataInput(src.toBytes()));
+		assertArrayEquals(src.toBytes(), t.toBytes());
+		assertSame(children[0], values.get(0));
+	}
+
+	@Test
+	void testReset() throws Exception {
+		ILTagSequenceTag t = ILTagSequenceTag.createStandard();
+		t.getValues().add(NullTag.createStandard());
+		List<ILTag> values = t.getValues();
+		t.reset();
+		assertTrue(values.isEmpty());
+		assertSame(values, t.getValues());
+		TagTestUtils.assertReset(t, ILTagSequenceTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		ILTagSequenceTag t = ILTagSequenceTag.createStandard();
@@ -144,4 +201,41 @@ class ILTagSequenceTagTest {
 		assertEquals(0, t.getValues().size());
 	}
 
+	@Test
+	void testDetach() throws Exception {
+		ILTagSequenceTag t = ILTagSequenceTag.createStandard();
+		BytesTag b = BytesTag.createStandard();
+		b.setValue(new byte[] { 1, 2, 3 });
+		StringTag s = StringTag.createStandard();
+		s.setValue("abc");
+		t.getValues().add(b);
+		t.getValues().add(s);
+		t.getValues().add(null);
+		byte[] serialized = t.toBytes();
+
+		TagFactory f = new TagFactory(true);
+		t = (ILTagSequenceTag) f.deserialize(new ArenaDataInput(serialized));
+		assertTrue(((BytesTag) t.getValues().get(0)).isView());
+		assertTrue(((StringTag) t.getValues().get(1)).isView());
+		t.detach();
+		assertFalse(((BytesTag) t.getValues().get(0)).isView());
+		assertFalse(((StringTag) t.getValues().get(1)).isView());
+		Arrays.fill(serialized, (byte) 0);
+		assertArrayEquals(new byte[] { 1, 2, 3 }, ((BytesTag) t.getValues().get(0)).getValue());
+		assertEquals("abc", ((StringTag) t.getValues().get(1)).getValue());
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory f = new TagFactory(false);
+		f.setDecodeLimits(new DecodeLimits(16, 2, 1000, 1000));
+		ILTagSequenceTag t = ILTagSequenceTag.createStandard();
+		t.getValues().add(null);
+		t.getValues().add(null);
+		assertArrayEquals(t.toBytes(), f.fromBytes(t.toBytes()).toBytes());
+		t.getValues().add(null);
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(t.toBytes());
+		});
+	}
 }
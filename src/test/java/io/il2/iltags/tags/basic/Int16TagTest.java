@@ -122,6 +122,13 @@ class Int16TagTest {
 		
 	}
 
+	@Test
+	void testReset() throws Exception {
+		Int16Tag t = Int16Tag.createStandardSigned();
+		t.setValue((short) 1234);
+		TagTestUtils.assertReset(t, Int16Tag.createStandardSigned());
+	}
+
 	@Test
 	void testCreateStandardSigned() {
 		Int16Tag t = Int16Tag.createStandardSigned();
@@ -120,6 +120,13 @@ class Int32TagTest {
 
 	}
 
+	@Test
+	void testReset() throws Exception {
+		Int32Tag t = Int32Tag.createStandardSigned();
+		t.setValue(1234);
+		TagTestUtils.assertReset(t, Int32Tag.createStandardSigned());
+	}
+
 	@Test
 	void testCreateStandardSigned() {
 		Int32Tag t = Int32Tag.createStandardSigned();
@@ -132,4 +139,10 @@ class Int32TagTest {
 		assertEquals(t.getTagID(), TagID.IL_UINT32_TAG_ID);
 	}
 
+	@Test
+	void testEstimateRetainedSize() {
+		Int32Tag t = Int32Tag.createStandardSigned();
+		assertEquals(32, t.estimateRetainedSize());
+		assertEquals(32, t.estimateOwnRetainedSize());
+	}
 }
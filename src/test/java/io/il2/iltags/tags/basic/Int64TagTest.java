@@ -78,6 +78,13 @@ class Int64TagTest {
 		});				
 	}
 
+	@Test
+	void testReset() throws Exception {
+		Int64Tag t = Int64Tag.createStandardSigned();
+		t.setValue(1234);
+		TagTestUtils.assertReset(t, Int64Tag.createStandardSigned());
+	}
+
 	@Test
 	void testCreateStandardSigned() {
 		Int64Tag t = Int64Tag.createStandardSigned();
@@ -90,4 +97,23 @@ class Int64TagTest {
 		assertEquals(t.getTagID(), TagID.IL_UINT64_TAG_ID);
 	}
 
+	@Test
+	void testFreeze() throws Exception {
+		Int64Tag t = Int64Tag.createStandardSigned();
+		t.setValue(0x1234567890ABCDEFl);
+		t.freeze();
+		assertEquals(0x1234567890ABCDEFl, t.getValue());
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.setValue(0);
+		});
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.deserializeValue(null, 8, new ByteBufferDataInput(new byte[8]));
+		});
+
+		Int64Tag t2 = Int64Tag.createStandardSigned();
+		t2.setValue(0x1234567890ABCDEFl);
+		t2.freeze();
+		assertEquals(t, t2);
+		assertEquals(t.hashCode(), t2.hashCode());
+	}
 }
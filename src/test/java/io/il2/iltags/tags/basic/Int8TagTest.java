@@ -123,4 +123,11 @@ class Int8TagTest {
 			t.deserializeValue(null, 1, in);
 		});	
 	}
+
+	@Test
+	void testReset() throws Exception {
+		Int8Tag t = Int8Tag.createStandardSigned();
+		t.setValue((byte) 12);
+		TagTestUtils.assertReset(t, Int8Tag.createStandardSigned());
+	}
 }
@@ -0,0 +1,284 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.basic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ArenaDataInput;
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
+import io.il2.iltags.tags.UnexpectedTagException;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class LazyDictonaryTagTest {
+
+	private static TagFactory createLazyFactory() {
+		TagFactory f = new TagFactory(false);
+		f.setUsingLazyContainers(true);
+		return f;
+	}
+
+	private static DictonaryTag createSample() {
+		DictonaryTag t = DictonaryTag.createStandard();
+		BytesTag b = BytesTag.createStandard();
+		b.setValue(new byte[] { 1, 2, 3 });
+		t.getValues().put("bytes", b);
+		for (int i = 0; i < 10; i++) {
+			t.getValues().put("key" + i, TagTestUtils.createRandomTag());
+		}
+		DictonaryTag inner = DictonaryTag.createStandard();
+		inner.getValues().put("á", TagTestUtils.createRandomTag());
+		t.getValues().put("inner", inner);
+		t.getValues().put("null", null);
+		return t;
+	}
+
+	private static LazyDictonaryTag deserialize(byte[] serialized) throws Exception {
+		return (LazyDictonaryTag) createLazyFactory().fromBytes(serialized);
+	}
+
+	@Test
+	void testLazyDictonaryTag() {
+		LazyDictonaryTag t = new LazyDictonaryTag(123456);
+		assertEquals(123456, t.getTagID());
+		assertTrue(t.isMaterialized());
+		assertEquals(0, t.size());
+		assertEquals(1, t.getValueSize());
+	}
+
+	@Test
+	void testDeserializeValue() throws Exception {
+		DictonaryTag sample = createSample();
+		byte[] serialized = sample.toBytes();
+		LazyDictonaryTag t = deserialize(serialized);
+		assertFalse(t.isMaterialized());
+		assertEquals(13, t.size());
+		assertEquals(sample.getValueSize(), t.getValueSize());
+		assertArrayEquals(serialized, t.toBytes());
+
+		// Only the requested value is decoded
+		TagTestUtils.assertTagEquals(sample.getValues().get("key3"), t.get("key3"));
+		assertSame(t.get("key3"), t.get("key3"));
+		assertNull(t.get("key"));
+		assertNull(t.get("key10"));
+		assertFalse(t.isMaterialized());
+		assertArrayEquals(serialized, t.toBytes());
+
+		// Inner containers are lazy too
+		LazyDictonaryTag inner = (LazyDictonaryTag) t.get("inner");
+		assertFalse(inner.isMaterialized());
+		TagTestUtils.assertTagEquals(((DictonaryTag) sample.getValues().get("inner")).getValues().get("á"),
+				inner.get("á"));
+		assertEquals(TagID.IL_NULL_TAG_ID, t.get("null").getTagID());
+
+		// Changes in decoded values are serialized
+		ILIntTag i = ILIntTag.createStandard();
+		i.setValue(123456789);
+		inner.getValues().put("x", i);
+		((DictonaryTag) sample.getValues().get("inner")).getValues().put("x", i);
+		assertEquals(sample.getValueSize(), t.getValueSize());
+		assertArrayEquals(sample.toBytes(), t.toBytes());
+
+		// Materialization
+		assertEquals(13, t.getValues().size());
+		assertTrue(t.isMaterialized());
+		assertSame(inner, t.get("inner"));
+		assertArrayEquals(sample.toBytes(), t.toBytes());
+		t.getValues().remove("null");
+		assertEquals(12, t.size());
+	}
+
+	@Test
+	void testDuplicatedKeys() throws Exception {
+		// {"a": true, "a": false}
+		byte[] value = new byte[] { 2, 17, 1, 'a', 1, 1, 17, 1, 'a', 1, 0 };
+		LazyDictonaryTag t = new LazyDictonaryTag(TagID.IL_DICTIONARY_TAG_ID);
+		t.deserializeValue(new TagFactory(false), value.length, new ByteBufferDataInput(value));
+		assertEquals(2, t.size());
+		assertFalse(((BooleanTag) t.get("a")).getValue());
+		assertEquals(1, t.getValues().size());
+		assertFalse(((BooleanTag) t.get("a")).getValue());
+	}
+
+	@Test
+	void testDeserializeValueCorrupted() throws Exception {
+		DictonaryTag sample = createSample();
+		byte[] serialized = sample.toBytes();
+		byte[] value = Arrays.copyOfRange(serialized, serialized.length - (int) sample.getValueSize(),
+				serialized.length);
+		LazyDictonaryTag t = new LazyDictonaryTag(TagID.IL_DICTIONARY_TAG_ID);
+		TagFactory f = new TagFactory(false);
+
+		assertThrows(CorruptedTagException.class, () -> {
+			t.deserializeValue(f, 0, new ByteBufferDataInput(value));
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			t.deserializeValue(f, value.length + 1, new ByteBufferDataInput(value));
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			t.deserializeValue(f, value.length - 1, new ByteBufferDataInput(value));
+		});
+		byte[] badKeyId = new byte[] { 1, 16, 1, 'a', 0 };
+		assertThrows(UnexpectedTagException.class, () -> {
+			t.deserializeValue(f, badKeyId.length, new ByteBufferDataInput(badKeyId));
+		});
+		byte[] badKey = new byte[] { 1, 17, 1, (byte) 0xFF, 0 };
+		assertThrows(CorruptedTagException.class, () -> {
+			t.deserializeValue(f, badKey.length, new ByteBufferDataInput(badKey));
+		});
+		assertTrue(t.isMaterialized());
+
+		// Corrupted values are only detected when they are decoded
+		byte[] bad = new byte[] { 2, 17, 1, 'a', 0, 17, 1, 'b', 1, 2 };
+		t.deserializeValue(f, bad.length, new ByteBufferDataInput(bad));
+		assertEquals(TagID.IL_NULL_TAG_ID, t.get("a").getTagID());
+		assertThrows(CorruptedTagException.class, () -> {
+			t.get("b");
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			t.getValues();
+		});
+		assertFalse(t.isMaterialized());
+	}
+
+	@Test
+	void testDetach() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		byte[] copy = serialized.clone();
+		LazyDictonaryTag t = (LazyDictonaryTag) createLazyFactory()
+				.deserialize(new ArenaDataInput(serialized));
+		BytesTag b = (BytesTag) t.get("bytes");
+		assertTrue(b.isView());
+		t.detach();
+		Arrays.fill(serialized, (byte) 0);
+		assertArrayEquals(copy, t.toBytes());
+		assertFalse(b.isView());
+		assertEquals(13, t.getValues().size());
+		assertArrayEquals(copy, t.toBytes());
+	}
+
+	@Test
+	void testReset() throws Exception {
+		LazyDictonaryTag t = deserialize(createSample().toBytes());
+		t.reset();
+		TagTestUtils.assertReset(t, new LazyDictonaryTag(TagID.IL_DICTIONARY_TAG_ID));
+		assertTrue(t.isMaterialized());
+		assertEquals(0, t.size());
+	}
+
+	@Test
+	void testFreeze() throws Exception {
+		DictonaryTag sample = createSample();
+		LazyDictonaryTag t = deserialize(sample.toBytes());
+		t.freeze();
+		assertTrue(t.isMaterialized());
+		assertArrayEquals(sample.toBytes(), t.toBytes());
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.getValues().clear();
+		});
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory f = createLazyFactory();
+		DictonaryTag t = DictonaryTag.createStandard();
+		t.getValues().put("a", null);
+		t.getValues().put("bcd", null);
+		f.setDecodeLimits(new DecodeLimits(16, 2, 1000, 3));
+		assertArrayEquals(t.toBytes(), f.fromBytes(t.toBytes()).toBytes());
+		t.getValues().put("c", null);
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(t.toBytes());
+		});
+		DictonaryTag longKey = DictonaryTag.createStandard();
+		longKey.getValues().put("abcd", null);
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(longKey.toBytes());
+		});
+	}
+
+	@Test
+	void testDecodeLimitsNested() throws Exception {
+		TagFactory f = createLazyFactory();
+		// {"a": {"b": {"c": null}}}, the null tag is at depth 4
+		byte[] serialized = new byte[] { 30, 17, 1, 17, 1, 'a', 30, 11, 1, 17, 1, 'b', 30, 5, 1, 17, 1, 'c', 0 };
+
+		f.setDecodeLimits(new DecodeLimits(4, 10, 100, 100));
+		LazyDictonaryTag t = (LazyDictonaryTag) f.fromBytes(serialized);
+		LazyDictonaryTag inner = (LazyDictonaryTag) ((LazyDictonaryTag) t.get("a")).get("b");
+		assertEquals(TagID.IL_NULL_TAG_ID, inner.get("c").getTagID());
+
+		// The values are decoded at their actual depth
+		f.setDecodeLimits(new DecodeLimits(3, 10, 100, 100));
+		LazyDictonaryTag t2 = (LazyDictonaryTag) f.fromBytes(serialized);
+		LazyDictonaryTag inner2 = (LazyDictonaryTag) ((LazyDictonaryTag) t2.get("a")).get("b");
+		assertThrows(TagTooLargeException.class, () -> {
+			inner2.get("c");
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			inner2.materialize();
+		});
+	}
+
+	@Test
+	void testEquals() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		LazyDictonaryTag a = deserialize(serialized);
+		LazyDictonaryTag b = deserialize(serialized);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertFalse(a.isMaterialized());
+		assertFalse(b.isMaterialized());
+
+		// Decoded values are compared by their serialization
+		a.get("key3");
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertFalse(a.isMaterialized());
+
+		a.materialize();
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertFalse(b.isMaterialized());
+
+		((BytesTag) a.get("bytes")).setValue(new byte[] { 1, 2, 4 });
+		assertNotEquals(a, b);
+		assertNotEquals(a, deserialize(DictonaryTag.createStandard().toBytes()));
+	}
+}
@@ -0,0 +1,315 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.basic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ArenaDataInput;
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.IterativeTagDeserializer;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class LazyILTagArrayTagTest {
+
+	private static TagFactory createLazyFactory() {
+		TagFactory f = new TagFactory(false);
+		f.setUsingLazyContainers(true);
+		return f;
+	}
+
+	private static ILTagArrayTag createSample() {
+		ILTagArrayTag t = ILTagArrayTag.createStandard();
+		BytesTag b = BytesTag.createStandard();
+		b.setValue(new byte[] { 1, 2, 3 });
+		t.getValues().add(b);
+		t.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(10)));
+		ILTagArrayTag inner = ILTagArrayTag.createStandard();
+		inner.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(3)));
+		t.getValues().add(inner);
+		t.getValues().add(null);
+		return t;
+	}
+
+	private static LazyILTagArrayTag deserialize(byte[] serialized) throws Exception {
+		return (LazyILTagArrayTag) createLazyFactory().fromBytes(serialized);
+	}
+
+	@Test
+	void testLazyILTagArrayTag() {
+		LazyILTagArrayTag t = new LazyILTagArrayTag(123456);
+		assertEquals(123456, t.getTagID());
+		assertTrue(t.isMaterialized());
+		assertEquals(0, t.size());
+		assertEquals(1, t.getValueSize());
+	}
+
+	@Test
+	void testDeserializeValue() throws Exception {
+		ILTagArrayTag sample = createSample();
+		byte[] serialized = sample.toBytes();
+		LazyILTagArrayTag t = deserialize(serialized);
+		assertFalse(t.isMaterialized());
+		assertEquals(13, t.size());
+		assertEquals(sample.getValueSize(), t.getValueSize());
+		assertArrayEquals(serialized, t.toBytes());
+
+		// Only the requested tag is decoded
+		TagTestUtils.assertTagEquals(sample.getValues().get(3), t.get(3));
+		assertSame(t.get(3), t.get(3));
+		assertFalse(t.isMaterialized());
+		assertArrayEquals(serialized, t.toBytes());
+		assertThrows(IndexOutOfBoundsException.class, () -> {
+			t.get(13);
+		});
+		assertThrows(IndexOutOfBoundsException.class, () -> {
+			t.get(-1);
+		});
+
+		// Inner containers are lazy too
+		LazyILTagArrayTag inner = (LazyILTagArrayTag) t.get(11);
+		assertFalse(inner.isMaterialized());
+		assertEquals(TagID.IL_NULL_TAG_ID, t.get(12).getTagID());
+
+		// Changes in decoded tags are serialized
+		ILIntTag i = ILIntTag.createStandard();
+		i.setValue(123456789);
+		inner.getValues().set(0, i);
+		((ILTagArrayTag) sample.getValues().get(11)).getValues().set(0, i);
+		assertEquals(sample.getValueSize(), t.getValueSize());
+		assertArrayEquals(sample.toBytes(), t.toBytes());
+
+		// Materialization
+		assertEquals(13, t.getValues().size());
+		assertTrue(t.isMaterialized());
+		assertSame(inner, t.get(11));
+		assertArrayEquals(sample.toBytes(), t.toBytes());
+		t.getValues().remove(12);
+		assertEquals(12, t.size());
+	}
+
+	@Test
+	void testDeserializeValueCorrupted() throws Exception {
+		ILTagArrayTag sample = createSample();
+		byte[] serialized = sample.toBytes();
+		byte[] value = Arrays.copyOfRange(serialized, serialized.length - (int) sample.getValueSize(),
+				serialized.length);
+		LazyILTagArrayTag t = new LazyILTagArrayTag(TagID.IL_ILTAGARRAY_TAG_ID);
+		TagFactory f = new TagFactory(false);
+
+		assertThrows(CorruptedTagException.class, () -> {
+			t.deserializeValue(f, 0, new ByteBufferDataInput(value));
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			t.deserializeValue(f, value.length + 1, new ByteBufferDataInput(value));
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			t.deserializeValue(f, value.length - 1, new ByteBufferDataInput(value));
+		});
+		t.deserializeValue(f, value.length, new ByteBufferDataInput(value));
+		assertArrayEquals(serialized, t.toBytes());
+		byte[] missing = new byte[] { 2, 0 };
+		assertThrows(CorruptedTagException.class, () -> {
+			t.deserializeValue(f, missing.length, new ByteBufferDataInput(missing));
+		});
+		byte[] unused = new byte[] { 1, 0, 0 };
+		assertThrows(CorruptedTagException.class, () -> {
+			t.deserializeValue(f, unused.length, new ByteBufferDataInput(unused));
+		});
+		assertTrue(t.isMaterialized());
+
+		// Corrupted inner tags are only detected when they are decoded
+		byte[] bad = new byte[] { 2, 0, 1, 2 };
+		t.deserializeValue(f, bad.length, new ByteBufferDataInput(bad));
+		assertEquals(TagID.IL_NULL_TAG_ID, t.get(0).getTagID());
+		assertThrows(CorruptedTagException.class, () -> {
+			t.get(1);
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			t.getValues();
+		});
+		assertFalse(t.isMaterialized());
+	}
+
+	@Test
+	void testDetach() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		byte[] copy = serialized.clone();
+		LazyILTagArrayTag t = (LazyILTagArrayTag) createLazyFactory()
+				.deserialize(new ArenaDataInput(serialized));
+		BytesTag b = (BytesTag) t.get(0);
+		assertTrue(b.isView());
+		t.detach();
+		Arrays.fill(serialized, (byte) 0);
+		assertArrayEquals(copy, t.toBytes());
+		assertFalse(b.isView());
+		assertEquals(13, t.getValues().size());
+		assertArrayEquals(copy, t.toBytes());
+	}
+
+	@Test
+	void testReset() throws Exception {
+		LazyILTagArrayTag t = deserialize(createSample().toBytes());
+		t.reset();
+		TagTestUtils.assertReset(t, new LazyILTagArrayTag(TagID.IL_ILTAGARRAY_TAG_ID));
+		assertTrue(t.isMaterialized());
+		assertEquals(0, t.size());
+	}
+
+	@Test
+	void testFreeze() throws Exception {
+		ILTagArrayTag sample = createSample();
+		LazyILTagArrayTag t = deserialize(sample.toBytes());
+		t.freeze();
+		assertTrue(t.isMaterialized());
+		assertArrayEquals(sample.toBytes(), t.toBytes());
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.getValues().clear();
+		});
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.deserializeValue(null, 1, new ByteBufferDataInput(new byte[] { 0 }));
+		});
+	}
+
+	@Test
+	void testBeginDeserialization() throws Exception {
+		ILTagArrayTag sample = createSample();
+		LazyILTagArrayTag t = deserialize(sample.toBytes());
+		// The iterative deserializer fills the list of values directly
+		ILTag tag = new IterativeTagDeserializer(createLazyFactory()).fromBytes(sample.toBytes());
+		assertTrue(((LazyILTagArrayTag) tag).isMaterialized());
+		assertEquals(13, ((LazyILTagArrayTag) tag).size());
+		assertArrayEquals(sample.toBytes(), tag.toBytes());
+		assertFalse(t.isMaterialized());
+	}
+
+	@Test
+	void testEstimateRetainedSize() throws Exception {
+		ILTagArrayTag sample = createSample();
+		byte[] serialized = sample.toBytes();
+		LazyILTagArrayTag t = deserialize(serialized);
+		long size = t.estimateRetainedSize();
+		assertTrue(size > sample.getValueSize());
+		assertFalse(t.isMaterialized());
+		assertEquals(size, t.estimateOwnRetainedSize());
+
+		ILTag first = t.get(0);
+		assertTrue(t.estimateRetainedSize() >= size + first.estimateRetainedSize());
+		assertFalse(t.isMaterialized());
+
+		// Views only count the bytes they use
+		byte[] padded = Arrays.copyOf(serialized, serialized.length + 100000);
+		LazyILTagArrayTag view = (LazyILTagArrayTag) createLazyFactory()
+				.deserialize(new ArenaDataInput(padded));
+		assertTrue(view.estimateRetainedSize() < 100000);
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory f = createLazyFactory();
+		byte[] serialized = createSample().toBytes();
+		f.setDecodeLimits(new DecodeLimits(16, 13, 100000, 1000));
+		assertArrayEquals(serialized, f.fromBytes(serialized).toBytes());
+		f.setDecodeLimits(new DecodeLimits(16, 12, 100000, 1000));
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(serialized);
+		});
+	}
+
+	@Test
+	void testNonCanonical() throws Exception {
+		// Array with 2 tags whose ids use non-canonical ILInts (256 as F9 00 08)
+		byte[] serialized = new byte[] { 21, 11, 2, (byte) 0xF9, 0x00, 0x08, 1, 0x7A, (byte) 0xF9, 0x00, 0x08, 1,
+				0x7B };
+		LazyILTagArrayTag t = deserialize(serialized);
+		assertEquals(2, t.size());
+		assertEquals(256, t.get(1).getTagID());
+		assertArrayEquals(new byte[] { 0x7B }, ((BytesTag) t.get(1)).getValue());
+	}
+
+	@Test
+	void testDecodeLimitsNested() throws Exception {
+		TagFactory f = createLazyFactory();
+		// Null tag at depth 4
+		byte[] serialized = new byte[] { 21, 8, 1, 21, 5, 1, 21, 2, 1, 0 };
+
+		f.setDecodeLimits(new DecodeLimits(4, 10, 100, 100));
+		LazyILTagArrayTag t = (LazyILTagArrayTag) f.fromBytes(serialized);
+		LazyILTagArrayTag inner = (LazyILTagArrayTag) ((LazyILTagArrayTag) t.get(0)).get(0);
+		assertEquals(TagID.IL_NULL_TAG_ID, inner.get(0).getTagID());
+
+		// The inner tags are decoded at their actual depth
+		f.setDecodeLimits(new DecodeLimits(3, 10, 100, 100));
+		LazyILTagArrayTag t2 = (LazyILTagArrayTag) f.fromBytes(serialized);
+		LazyILTagArrayTag inner2 = (LazyILTagArrayTag) ((LazyILTagArrayTag) t2.get(0)).get(0);
+		assertThrows(TagTooLargeException.class, () -> {
+			inner2.get(0);
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			inner2.materialize();
+		});
+	}
+
+	@Test
+	void testEquals() throws Exception {
+		byte[] serialized = createSample().toBytes();
+		LazyILTagArrayTag a = deserialize(serialized);
+		LazyILTagArrayTag b = deserialize(serialized);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertFalse(a.isMaterialized());
+		assertFalse(b.isMaterialized());
+
+		// Decoded inner tags are compared by their serialization
+		a.get(3);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertFalse(a.isMaterialized());
+
+		a.materialize();
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertFalse(b.isMaterialized());
+
+		((BytesTag) a.get(0)).setValue(new byte[] { 1, 2, 4 });
+		assertNotEquals(a, b);
+		assertNotEquals(a, deserialize(ILTagArrayTag.createStandard().toBytes()));
+	}
+}
@@ -147,10 +147,31 @@ class RangeTagTest {
 		});
 	}
 
+	@Test
+	void testReset() throws Exception {
+		RangeTag t = RangeTag.createStandard();
+		t.setFirst(1234);
+		t.setCount(12);
+		TagTestUtils.assertReset(t, RangeTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		RangeTag t = RangeTag.createStandard();
 		assertEquals(t.getTagID(), TagID.IL_RANGE_TAG_ID);
 	}
 
+	@Test
+	void testEqualsHashCode() throws Exception {
+		RangeTag a = RangeTag.createStandard();
+		RangeTag b = RangeTag.createStandard();
+		a.setFirst(10);
+		a.setCount(2);
+		b.setFirst(10);
+		b.setCount(2);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		b.setCount(3);
+		assertNotEquals(a, b);
+	}
 }
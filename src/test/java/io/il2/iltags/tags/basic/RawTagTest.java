@@ -0,0 +1,187 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.basic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.ByteBufferDataOutput;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.UnsupportedTagException;
+import io.il2.iltags.tags.factory.RawTagPolicy;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class RawTagTest {
+
+	@Test
+	void testRawTag() throws Exception {
+		RawTag t = new RawTag(123456);
+		assertEquals(123456, t.getTagID());
+		assertEquals(0, t.getValueSize());
+		assertArrayEquals(new BytesTag(123456).toBytes(), t.toBytes());
+
+		t = new RawTag(123456, new byte[] { 1, 2, 3 });
+		assertArrayEquals(new byte[] { 1, 2, 3 }, t.getValue());
+		BytesTag bytes = new BytesTag(123456);
+		bytes.setValue(new byte[] { 1, 2, 3 });
+		assertArrayEquals(bytes.toBytes(), t.toBytes());
+
+		t = new RawTag(TagID.IL_INT32_TAG_ID, new byte[] { 1, 2, 3, 4 });
+		assertArrayEquals(new byte[] { 6, 1, 2, 3, 4 }, t.toBytes());
+		t = new RawTag(TagID.IL_ILINT_TAG_ID, new byte[] { (byte) 0xF8, 1 });
+		assertArrayEquals(new byte[] { 10, (byte) 0xF8, 1 }, t.toBytes());
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			new RawTag(TagID.IL_INT32_TAG_ID, new byte[3]);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new RawTag(TagID.IL_ILINT_TAG_ID, new byte[] { (byte) 0xF8 });
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new RawTag(TagID.IL_SIGNED_ILINT_TAG_ID, new byte[0]);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new RawTag(15, new byte[1]);
+		});
+	}
+
+	@Test
+	void testGetValueBuffer() throws Exception {
+		RawTag t = new RawTag(1234, new byte[] { 1, 2, 3 });
+		ByteBuffer b = t.getValueBuffer();
+		assertTrue(b.isReadOnly());
+		assertEquals(0, b.position());
+		assertEquals(3, b.remaining());
+		assertEquals(1, b.get());
+		assertEquals(3, b.get(2));
+	}
+
+	@Test
+	void testSerialize() throws Exception {
+		RawTag t = new RawTag(1234, new byte[] { 1, 2, 3 });
+		byte[] exp = t.toBytes();
+		assertEquals(exp.length, t.getTagSize());
+
+		ByteBuffer buff = ByteBuffer.allocate(exp.length);
+		t.serialize(new ByteBufferDataOutput(buff));
+		assertArrayEquals(exp, buff.array());
+
+		buff = ByteBuffer.allocate(3);
+		t.serializeValue(new ByteBufferDataOutput(buff));
+		assertArrayEquals(new byte[] { 1, 2, 3 }, buff.array());
+
+		t.freeze();
+		assertArrayEquals(exp, t.toBytes());
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t.setValue(new byte[1]);
+		});
+	}
+
+	@Test
+	void testDeserializeValue() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		RawTag t = new RawTag(1234);
+		t.deserializeValue(factory, 3, new ByteBufferDataInput(new byte[] { 1, 2, 3, 4 }));
+		assertArrayEquals(new byte[] { 1, 2, 3 }, t.getValue());
+		assertEquals(3, t.getValueSize());
+
+		RawTag ilint = new RawTag(TagID.IL_SIGNED_ILINT_TAG_ID);
+		ilint.deserializeValue(factory, -1, new ByteBufferDataInput(new byte[] { (byte) 0xF9, 1, 2, 3 }));
+		assertArrayEquals(new byte[] { 14, (byte) 0xF9, 1, 2 }, ilint.toBytes());
+
+		RawTag unknown = new RawTag(15);
+		assertThrows(UnsupportedTagException.class, () -> {
+			unknown.deserializeValue(factory, -1, new ByteBufferDataInput(new byte[] { 1 }));
+		});
+		assertThrows(EOFException.class, () -> {
+			t.deserializeValue(factory, 3, new ByteBufferDataInput(new byte[] { 1, 2 }));
+		});
+	}
+
+	@Test
+	void testDecode() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		for (ILTag sample : TagTestUtils.createSampleTags(20)) {
+			byte[] serialized = sample.toBytes();
+			RawTag t = new RawTag(sample.getTagID());
+			ByteBufferDataInput in = new ByteBufferDataInput(serialized);
+			factory.deserializeInto(t, in);
+			assertArrayEquals(serialized, t.toBytes());
+			TagTestUtils.assertTagEquals(sample, t.decode(factory));
+		}
+	}
+
+	@Test
+	void testReset() throws Exception {
+		TagTestUtils.assertReset(new RawTag(1234, new byte[] { 1, 2, 3 }), new RawTag(1234));
+	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		RawTag a = new RawTag(1234, new byte[] { 1, 2, 3 });
+		RawTag b = new RawTag(1234, new byte[] { 1, 2, 3 });
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, new RawTag(1234, new byte[] { 1, 2 }));
+		assertNotEquals(a, new RawTag(1235, new byte[] { 1, 2, 3 }));
+		b.freeze();
+		assertEquals(a, b);
+	}
+
+	@Test
+	void testEstimateRetainedSize() throws Exception {
+		RawTag t = new RawTag(1234, new byte[10]);
+		// 2 bytes for the id and 1 for the size
+		assertEquals(32 + 32, t.estimateRetainedSize());
+	}
+
+	@Test
+	void testNonCanonicalHeader() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		factory.setRawTagPolicy(RawTagPolicy.of(256, TagID.IL_ILTAGARRAY_TAG_ID));
+
+		// The header of the tag 256 is canonicalized but the value is kept
+		ILTag t = factory.fromBytes(new byte[] { (byte) 0xF9, 0x00, 0x08, 0x01, 0x7A });
+		assertInstanceOf(RawTag.class, t);
+		assertArrayEquals(new byte[] { (byte) 0xF8, 0x08, 0x01, 0x7A }, t.toBytes());
+
+		// The headers of the inner tags of a raw container are part of its value
+		byte[] array = { 21, 6, 1, (byte) 0xF9, 0x00, 0x08, 1, 0x7A };
+		assertArrayEquals(array, factory.fromBytes(array).toBytes());
+	}
+}
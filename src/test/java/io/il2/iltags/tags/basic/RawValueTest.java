@@ -0,0 +1,115 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.basic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInput;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ArenaDataInput;
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.io.ByteBufferDataOutput;
+import io.il2.iltags.tags.CorruptedTagException;
+
+class RawValueTest {
+
+	private static final byte[] SAMPLE = { 0, 1, 2, 3, 4, 5, 6, 7 };
+
+	@Test
+	void testRead() throws Exception {
+		RawValue raw = new RawValue();
+		ByteBufferDataInput in = new ByteBufferDataInput(SAMPLE);
+		in.readByte();
+		raw.read(4, in);
+		assertNotSame(SAMPLE, raw.buffer);
+		assertEquals(0, raw.offset);
+		assertEquals(4, raw.size);
+		assertEquals(5, in.readByte());
+		assertFalse(raw.open(0, 4) instanceof ArenaDataInput);
+
+		ArenaDataInput arena = new ArenaDataInput(SAMPLE);
+		arena.readByte();
+		raw.read(4, arena);
+		assertSame(SAMPLE, raw.buffer);
+		assertEquals(1, raw.offset);
+		assertEquals(4, raw.size);
+		assertEquals(5, arena.readByte());
+		assertTrue(raw.open(0, 4) instanceof ArenaDataInput);
+
+		assertThrows(CorruptedTagException.class, () -> {
+			raw.read(10, new ByteBufferDataInput(SAMPLE));
+		});
+		assertThrows(CorruptedTagException.class, () -> {
+			raw.read(10, new ArenaDataInput(SAMPLE));
+		});
+	}
+
+	@Test
+	void testOpenWrite() throws Exception {
+		RawValue raw = new RawValue();
+		ArenaDataInput arena = new ArenaDataInput(SAMPLE);
+		arena.readByte();
+		raw.read(6, arena);
+
+		DataInput in = raw.open(1, 3);
+		assertEquals(2, in.readByte());
+		assertEquals(3, in.readByte());
+		assertThrows(Exception.class, () -> {
+			in.readByte();
+		});
+
+		byte[] out = new byte[3];
+		raw.write(2, 5, new ByteBufferDataOutput(ByteBuffer.wrap(out)));
+		assertArrayEquals(new byte[] { 3, 4, 5 }, out);
+	}
+
+	@Test
+	void testDetach() throws Exception {
+		RawValue raw = new RawValue();
+		byte[] data = SAMPLE.clone();
+		ArenaDataInput arena = new ArenaDataInput(data);
+		arena.readByte();
+		raw.read(4, arena);
+		raw.detach();
+		assertNotSame(data, raw.buffer);
+		assertEquals(0, raw.offset);
+		assertEquals(4, raw.size);
+		assertArrayEquals(new byte[] { 1, 2, 3, 4 }, raw.buffer);
+		assertFalse(raw.open(0, 4) instanceof ArenaDataInput);
+
+		raw.clear();
+		assertNull(raw.buffer);
+	}
+}
@@ -117,6 +117,13 @@ class SignedILIntTagTest {
 		});
 	}
 
+	@Test
+	void testReset() throws Exception {
+		SignedILIntTag t = SignedILIntTag.createStandard();
+		t.setValue(-1234);
+		TagTestUtils.assertReset(t, SignedILIntTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		SignedILIntTag t = SignedILIntTag.createStandard();
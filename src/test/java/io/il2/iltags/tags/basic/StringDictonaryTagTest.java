@@ -44,7 +44,10 @@ import org.junit.jupiter.api.Test;
 import io.il2.iltags.ilint.ILIntEncoder;
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
+import io.il2.iltags.tags.factory.TagFactory;
 
 class StringDictonaryTagTest {
 
@@ -175,10 +178,69 @@ class StringDictonaryTagTest {
 		}
 	}
 
+	@Test
+	void testReset() throws Exception {
+		StringDictonaryTag t = StringDictonaryTag.createStandard();
+		t.getValues().put("key", "value");
+		Map<String, String> values = t.getValues();
+		t.reset();
+		assertTrue(values.isEmpty());
+		assertSame(values, t.getValues());
+		TagTestUtils.assertReset(t, StringDictonaryTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		StringDictonaryTag t = StringDictonaryTag.createStandard();
 		assertEquals(TagID.IL_STRING_DICTIONARY_TAG_ID, t.getTagID());
 	}
 
+	@Test
+	void testEqualsHashCode() throws Exception {
+		StringDictonaryTag a = StringDictonaryTag.createStandard();
+		StringDictonaryTag b = StringDictonaryTag.createStandard();
+		a.getValues().put("a", "1");
+		a.getValues().put("b", "2");
+		b.getValues().put("a", "1");
+		b.getValues().put("b", "2");
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		b.getValues().put("b", "3");
+		assertNotEquals(a, b);
+
+		// The order matters because it changes the serialization
+		b.getValues().clear();
+		b.getValues().put("b", "2");
+		b.getValues().put("a", "1");
+		assertNotEquals(a, b);
+		b.getValues().remove("a");
+		assertNotEquals(a, b);
+
+		// Null and empty strings have the same serialization
+		a.getValues().clear();
+		b.getValues().clear();
+		a.getValues().put("a", null);
+		b.getValues().put("a", "");
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory f = new TagFactory(false);
+		f.setDecodeLimits(new DecodeLimits(16, 2, 1000, 3));
+		StringDictonaryTag t = StringDictonaryTag.createStandard();
+		t.getValues().put("a", "b");
+		t.getValues().put("c", "def");
+		assertArrayEquals(t.toBytes(), f.fromBytes(t.toBytes()).toBytes());
+		t.getValues().put("g", "h");
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(t.toBytes());
+		});
+		StringDictonaryTag longValue = StringDictonaryTag.createStandard();
+		longValue.getValues().put("a", "bcde");
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(longValue.toBytes());
+		});
+	}
 }
@@ -37,15 +37,21 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
 import io.il2.iltags.TestUtils;
 import io.il2.iltags.ilint.ILIntEncoder;
+import io.il2.iltags.io.ArenaDataInput;
 import io.il2.iltags.io.ByteBufferDataInput;
 import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
 import io.il2.iltags.tags.UnexpectedTagException;
+import io.il2.iltags.tags.factory.TagFactory;
+import io.il2.iltags.utils.HeapSizeUtils;
 import io.il2.iltags.utils.UTF8Utils;
 
 class StringTagTest {
@@ -286,10 +292,144 @@ class StringTagTest {
 		});
 	}
 
+	@Test
+	void testReset() throws Exception {
+		StringTag t = StringTag.createStandard();
+		t.setValue("value");
+		TagTestUtils.assertReset(t, StringTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		StringTag t = StringTag.createStandard();
 		assertEquals(null, t.getValue());
 		assertEquals(TagID.IL_STRING_TAG_ID, t.getTagID());
 	}
+
+	@Test
+	void testDeserializeValueArena() throws Exception {
+		String s = "\u00e1bc\u20ac";
+		byte[] data = s.getBytes(UTF8Utils.UTF8);
+		StringTag t = new StringTag(123456);
+		t.deserializeValue(null, data.length, new ArenaDataInput(data));
+		assertTrue(t.isView());
+		assertEquals(data.length, t.getValueSize());
+		StringTag exp = new StringTag(123456);
+		exp.setValue(s);
+		assertArrayEquals(exp.toBytes(), t.toBytes());
+		assertEquals(s, t.getValue());
+		assertFalse(t.isView());
+		assertArrayEquals(exp.toBytes(), t.toBytes());
+
+		t.deserializeValue(null, data.length, new ArenaDataInput(data));
+		t.detach();
+		assertFalse(t.isView());
+		assertEquals(s, t.getValue());
+
+		// Frozen tags are detached
+		byte[] reused = data.clone();
+		t.deserializeValue(null, data.length, new ArenaDataInput(reused));
+		t.freeze();
+		assertFalse(t.isView());
+		Arrays.fill(reused, (byte) 'x');
+		assertEquals(s, t.getValue());
+		assertSame(t.getValue(), t.getValue());
+		assertArrayEquals(exp.toBytes(), t.toBytes());
+
+		StringTag t2 = new StringTag(123456);
+		t2.deserializeValue(null, data.length, new ArenaDataInput(data));
+		t2.setValue("x");
+		assertFalse(t2.isView());
+		t2.deserializeValue(null, data.length, new ArenaDataInput(data));
+		t2.reset();
+		assertFalse(t2.isView());
+		assertNull(t2.getValue());
+		assertThrows(CorruptedTagException.class, () -> {
+			t2.deserializeValue(null, 1, new ArenaDataInput(data));
+		});
+	}
+
+	@Test
+	void testGetValueBuffer() throws Exception {
+		String s = "\u00e1bc\u20ac";
+		byte[] data = s.getBytes(UTF8Utils.UTF8);
+		StringTag t = new StringTag(123456);
+		assertNull(t.getValueBuffer());
+
+		t.setValue(s);
+		assertEquals(ByteBuffer.wrap(data), t.getValueBuffer());
+		assertTrue(t.getValueBuffer().isReadOnly());
+
+		// The view is not detached
+		t.deserializeValue(null, data.length, new ArenaDataInput(data));
+		assertEquals(ByteBuffer.wrap(data), t.getValueBuffer());
+		assertTrue(t.getValueBuffer().isReadOnly());
+		assertTrue(t.isView());
+	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		String s = "ab\u00E7\u4E2D\uD83D\uDE00";
+		byte[] data = s.getBytes(UTF8Utils.UTF8);
+		StringTag a = new StringTag(123456);
+		a.setValue(s);
+		StringTag b = new StringTag(123456);
+		b.setValue(new String(s));
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, StringTag.createStandard());
+
+		StringTag v1 = new StringTag(123456);
+		v1.deserializeValue(null, data.length, new ArenaDataInput(data));
+		StringTag v2 = new StringTag(123456);
+		v2.deserializeValue(null, data.length, new ArenaDataInput(data.clone()));
+		assertEquals(v1, v2);
+		assertEquals(a, v1);
+		assertEquals(v1, a);
+		assertEquals(a.hashCode(), v1.hashCode());
+		assertTrue(v1.isView());
+		b.setValue(s.substring(0, s.length() - 1));
+		assertNotEquals(b, v1);
+		assertNotEquals(v1, b);
+		b.setValue(s + "x");
+		assertNotEquals(b, v1);
+
+		// Null and empty strings have the same serialization
+		StringTag n = new StringTag(123456);
+		b.setValue("");
+		assertEquals(n, b);
+		assertEquals(n.hashCode(), b.hashCode());
+	}
+
+	@Test
+	void testEstimateRetainedSize() throws Exception {
+		StringTag t = StringTag.createStandard();
+		assertEquals(40, t.estimateRetainedSize());
+		t.setValue("abc");
+		assertEquals(88, t.estimateRetainedSize());
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory f = new TagFactory(false);
+		f.setDecodeLimits(new DecodeLimits(16, 2, 1000, 3));
+		StringTag t = StringTag.createStandard();
+		t.setValue("abc");
+		assertArrayEquals(t.toBytes(), f.fromBytes(t.toBytes()).toBytes());
+		t.setValue("abcd");
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(t.toBytes());
+		});
+
+		byte[] serialized = t.toBytes();
+		assertEquals("abcd", StringTag.deserializeStandardStringTag(new ByteBufferDataInput(serialized),
+				DecodeLimits.UNLIMITED));
+		assertThrows(TagTooLargeException.class, () -> {
+			StringTag.deserializeStandardStringTag(new ByteBufferDataInput(serialized), f.getDecodeLimits());
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			StringTag.deserializeStringTag(TagID.IL_STRING_TAG_ID, new ByteBufferDataInput(serialized),
+					f.getDecodeLimits());
+		});
+	}
 }
@@ -36,6 +36,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.util.Random;
 
 import io.il2.iltags.TestUtils;
+import io.il2.iltags.tags.AbstractILTag;
 import io.il2.iltags.tags.ILTag;
 import io.il2.iltags.tags.ILTagException;
 
@@ -63,6 +64,23 @@ public class TagTestUtils {
 		}
 	}
 
+	/**
+	 * Resets the tag and asserts that it is equal to a new instance. It also
+	 * asserts that frozen tags cannot be reset.
+	 * 
+	 * @param tag   The tag to be reset.
+	 * @param fresh A new instance of the same tag.
+	 * @throws ILTagException If the tags cannot be serialized.
+	 */
+	public static void assertReset(AbstractILTag tag, AbstractILTag fresh) throws ILTagException {
+		tag.reset();
+		assertTagEquals(fresh, tag);
+		tag.freeze();
+		assertThrows(UnsupportedOperationException.class, () -> {
+			tag.reset();
+		});
+	}
+
 	/**
 	 * Creates a sample with unique strings.
 	 * 
@@ -120,9 +120,33 @@ class VersionTagTest {
 		});
 	}
 
+	@Test
+	void testReset() throws Exception {
+		VersionTag t = VersionTag.createStandard();
+		t.setMajor(1);
+		t.setMinor(2);
+		t.setRevision(3);
+		t.setBuild(4);
+		TagTestUtils.assertReset(t, VersionTag.createStandard());
+	}
+
 	@Test
 	void testCreateStandard() {
 		VersionTag t = VersionTag.createStandard();
 		assertEquals(t.getTagID(), TagID.IL_VERSION_TAG_ID);
 	}
+
+	@Test
+	void testEqualsHashCode() throws Exception {
+		VersionTag a = VersionTag.createStandard();
+		VersionTag b = VersionTag.createStandard();
+		a.setMajor(1);
+		a.setBuild(4);
+		b.setMajor(1);
+		b.setBuild(4);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		b.setRevision(3);
+		assertNotEquals(a, b);
+	}
 }
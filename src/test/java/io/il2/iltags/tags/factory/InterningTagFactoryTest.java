@@ -0,0 +1,278 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.factory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.AbstractILTag;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.MemoryBudgetExceededException;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILIntArrayTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.Int64Tag;
+import io.il2.iltags.tags.basic.NullTag;
+import io.il2.iltags.tags.basic.StringTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+
+class InterningTagFactoryTest {
+
+	private static DictonaryTag createIssuer(String name) {
+		DictonaryTag dict = DictonaryTag.createStandard();
+		StringTag s = StringTag.createStandard();
+		s.setValue(name);
+		dict.getValues().put("name", s);
+		ILIntArrayTag oid = ILIntArrayTag.createStandardOIDTag();
+		oid.setValues(1, 3, 6, 1, 4, 1);
+		dict.getValues().put("oid", oid);
+		return dict;
+	}
+
+	private static byte[] createRecords(int n) throws Exception {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		for (int i = 0; i < n; i++) {
+			ILTagArrayTag record = ILTagArrayTag.createStandard();
+			record.getValues().add(createIssuer("issuer" + (i % 2)));
+			Int64Tag v = Int64Tag.createStandardSigned();
+			v.setValue(1000 + i);
+			record.getValues().add(v);
+			root.getValues().add(record);
+		}
+		return root.toBytes();
+	}
+
+	private static InterningTagFactory create(boolean strict, int maxValueSize, int maxEntries) {
+		InterningTagFactory f = new InterningTagFactory(strict);
+		f.setMaxValueSize(maxValueSize);
+		f.setMaxEntries(maxEntries);
+		return f;
+	}
+
+	@Test
+	void testInterningTagFactory() {
+		InterningTagFactory f = new InterningTagFactory(true);
+		assertTrue(f.isStrict());
+		assertTrue(f.isUsingFlyweights());
+		assertEquals(InterningTagFactory.DEFAULT_MAX_VALUE_SIZE, f.getMaxValueSize());
+		assertEquals(InterningTagFactory.DEFAULT_MAX_ENTRIES, f.getMaxEntries());
+		assertEquals(0, f.getCacheSize());
+
+		f = create(false, 0, 1);
+		assertFalse(f.isStrict());
+		assertEquals(0, f.getMaxValueSize());
+		assertEquals(1, f.getMaxEntries());
+
+		InterningTagFactory f2 = f;
+		assertThrows(IllegalArgumentException.class, () -> f2.setMaxValueSize(-1));
+		assertThrows(IllegalArgumentException.class, () -> f2.setMaxEntries(0));
+		assertEquals(0, f.getMaxValueSize());
+		assertEquals(1, f.getMaxEntries());
+	}
+
+	@Test
+	void testDeserialize() throws Exception {
+		InterningTagFactory f = create(true, 64, 100);
+		byte[] serialized = createRecords(10);
+		ILTagArrayTag root = (ILTagArrayTag) f.fromBytes(serialized);
+		assertArrayEquals(serialized, root.toBytes());
+		assertFalse(root.isFrozen());
+
+		// The values are only interned once they are seen for the second time
+		ILTag first = ((ILTagArrayTag) root.getValues().get(0)).getValues().get(0);
+		ILTag issuer0 = ((ILTagArrayTag) root.getValues().get(2)).getValues().get(0);
+		ILTag issuer1 = ((ILTagArrayTag) root.getValues().get(3)).getValues().get(0);
+		assertFalse(((AbstractILTag) first).isFrozen());
+		assertEquals(issuer0, first);
+		assertTrue(((AbstractILTag) issuer0).isFrozen());
+		assertNotSame(issuer0, issuer1);
+		for (int i = 2; i < 10; i++) {
+			ILTagArrayTag record = (ILTagArrayTag) root.getValues().get(i);
+			assertSame((i % 2 == 0) ? issuer0 : issuer1, record.getValues().get(0));
+		}
+		// The inner tags of the issuers are shared too
+		assertSame(((DictonaryTag) issuer0).getValues().get("oid"), ((DictonaryTag) issuer1).getValues().get("oid"));
+
+		// The records are interned by the second pass, thus the next ones only hit
+		// the cache
+		ILTagArrayTag root2 = (ILTagArrayTag) f.fromBytes(serialized);
+		assertSame(issuer0, ((ILTagArrayTag) root2.getValues().get(0)).getValues().get(0));
+		int size = f.getCacheSize();
+		ILTagArrayTag root3 = (ILTagArrayTag) f.fromBytes(serialized);
+		assertEquals(size, f.getCacheSize());
+		assertSame(root2.getValues().get(3), root3.getValues().get(3));
+
+		f.clearCache();
+		assertEquals(0, f.getCacheSize());
+		ILTagArrayTag root4 = (ILTagArrayTag) f.fromBytes(serialized);
+		assertNotSame(issuer0, ((ILTagArrayTag) root4.getValues().get(0)).getValues().get(0));
+		assertEquals(issuer0, ((ILTagArrayTag) root4.getValues().get(0)).getValues().get(0));
+	}
+
+	@Test
+	void testDeserializeLargeMaxValueSize() throws Exception {
+		// The probe follows the size of the values, not the maximum
+		InterningTagFactory f = create(true, Integer.MAX_VALUE - 16, 100);
+		byte[] serialized = createRecords(10);
+		ILTagArrayTag root = (ILTagArrayTag) f.fromBytes(serialized);
+		assertArrayEquals(serialized, root.toBytes());
+		assertFalse(root.isFrozen());
+		root = (ILTagArrayTag) f.fromBytes(serialized);
+		assertTrue(root.isFrozen());
+		assertSame(root, f.fromBytes(serialized));
+	}
+
+	@Test
+	void testLimits() throws Exception {
+		byte[] serialized = createRecords(10);
+		// Nothing but the flyweights
+		InterningTagFactory f = create(true, 0, 100);
+		assertArrayEquals(serialized, f.fromBytes(serialized).toBytes());
+		assertEquals(0, f.getCacheSize());
+
+		// The cache never grows beyond its limit
+		f = create(true, 64, 3);
+		f.fromBytes(serialized);
+		assertArrayEquals(serialized, f.fromBytes(serialized).toBytes());
+		assertTrue(f.getCacheSize() <= 3);
+		assertTrue(f.getCacheSize() > 0);
+
+		f = create(false, 64, 3);
+		for (ILTag t : TagTestUtils.createSampleTags(50)) {
+			byte[] bytes = t.toBytes();
+			ILTag d = f.fromBytes(bytes);
+			assertArrayEquals(bytes, d.toBytes());
+			assertEquals(t, d);
+		}
+	}
+
+	@Test
+	void testEviction() throws Exception {
+		InterningTagFactory f = create(true, 64, 8);
+		byte[] issuer = createIssuer("issuer").toBytes();
+		f.fromBytes(issuer);
+		ILTag shared = f.fromBytes(issuer);
+		assertTrue(((AbstractILTag) shared).isFrozen());
+		for (int i = 0; i < 10000; i++) {
+			// Unique values are never interned
+			Int64Tag v = Int64Tag.createStandardSigned();
+			v.setValue(1000000 + i);
+			assertFalse(((AbstractILTag) f.fromBytes(v.toBytes())).isFrozen());
+			if (i % 100 == 0) {
+				assertSame(shared, f.fromBytes(issuer));
+			}
+		}
+		assertSame(shared, f.fromBytes(issuer));
+
+		// Repeated values fill the cache, but the ones found keep their place
+		for (int i = 0; i < 100; i++) {
+			StringTag v = StringTag.createStandard();
+			v.setValue("value" + i);
+			byte[] bytes = v.toBytes();
+			f.fromBytes(bytes);
+			f.fromBytes(bytes);
+			assertTrue(f.getCacheSize() <= 8);
+			assertSame(shared, f.fromBytes(issuer));
+		}
+	}
+
+	@Test
+	void testConcurrent() throws Exception {
+		InterningTagFactory f = new InterningTagFactory(true);
+		byte[] serialized = createRecords(100);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<ILTag>> results = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				results.add(executor.submit(() -> f.fromBytes(serialized)));
+			}
+			ILTag first = null;
+			for (Future<ILTag> r : results) {
+				ILTag tag = r.get();
+				assertArrayEquals(serialized, tag.toBytes());
+				if (first == null) {
+					first = tag;
+				} else {
+					assertEquals(first, tag);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+		ILTagArrayTag a = (ILTagArrayTag) f.fromBytes(serialized);
+		ILTagArrayTag b = (ILTagArrayTag) f.fromBytes(Arrays.copyOf(serialized, serialized.length));
+		assertSame(a.getValues().get(5), b.getValues().get(5));
+	}
+
+	@Test
+	void testSetUsingFlyweights() throws Exception {
+		InterningTagFactory f = create(true, 0, 100);
+		byte[] serialized = NullTag.createStandard().toBytes();
+		assertSame(TagFlyweights.NULL, f.fromBytes(serialized));
+		f.setUsingFlyweights(false);
+		assertNotSame(TagFlyweights.NULL, f.fromBytes(serialized));
+
+		// The new size is used by the next deserialization
+		byte[] records = createRecords(4);
+		f.setMaxValueSize(64);
+		assertArrayEquals(records, f.fromBytes(records).toBytes());
+		assertTrue(f.getCacheSize() > 0);
+	}
+
+	@Test
+	void testMemoryBudget() throws Exception {
+		// The interned inner tags are not accounted for
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		for (int i = 0; i < 1000; i++) {
+			root.getValues().add(createIssuer("issuer"));
+		}
+		byte[] serialized = root.toBytes();
+		InterningTagFactory f = create(true, 64, 100);
+		f.setMemoryBudget(serialized.length / 2);
+		ILTagArrayTag decoded = (ILTagArrayTag) f.fromBytes(serialized);
+		assertArrayEquals(serialized, decoded.toBytes());
+		assertSame(decoded.getValues().get(1), decoded.getValues().get(999));
+		TagFactory plain = new TagFactory(true);
+		plain.setMemoryBudget(serialized.length / 2);
+		assertThrows(MemoryBudgetExceededException.class, () -> {
+			plain.fromBytes(serialized);
+		});
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.factory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.Int64Tag;
+import io.il2.iltags.tags.basic.StringTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+
+class RecyclingTagFactoryTest {
+
+	@Test
+	void testRecyclingTagFactory() {
+		RecyclingTagFactory f = new RecyclingTagFactory(true);
+		assertTrue(f.isStrict());
+		assertEquals(RecyclingTagFactory.DEFAULT_MAX_POOLED, f.getMaxPooled());
+
+		f = new RecyclingTagFactory(false);
+		assertFalse(f.isStrict());
+		f.setMaxPooled(10);
+		assertEquals(10, f.getMaxPooled());
+
+		RecyclingTagFactory f2 = f;
+		assertThrows(IllegalArgumentException.class, () -> {
+			f2.setMaxPooled(0);
+		});
+		assertEquals(10, f.getMaxPooled());
+	}
+
+	@Test
+	void testCreateTagRelease() throws Exception {
+		RecyclingTagFactory f = new RecyclingTagFactory(false);
+
+		Int64Tag t = (Int64Tag) f.createTag(TagID.IL_INT64_TAG_ID);
+		t.setValue(1234);
+		assertEquals(1, f.release(t));
+		assertEquals(0, t.getValue());
+		assertSame(t, f.createTag(TagID.IL_INT64_TAG_ID));
+		assertNotSame(t, f.createTag(TagID.IL_INT64_TAG_ID));
+		assertEquals(0, f.release(null));
+
+		// Tags not created by the factory are accepted if they have the same class
+		StringTag s = StringTag.createStandard();
+		assertEquals(0, f.release(s));
+		f.createTag(TagID.IL_STRING_TAG_ID);
+		assertEquals(1, f.release(s));
+		assertSame(s, f.createTag(TagID.IL_STRING_TAG_ID));
+
+		// Frozen tags are ignored
+		Int64Tag frozen = (Int64Tag) f.createTag(TagID.IL_INT64_TAG_ID);
+		frozen.freeze();
+		assertEquals(0, f.release(frozen));
+		assertNotSame(frozen, f.createTag(TagID.IL_INT64_TAG_ID));
+	}
+
+	@Test
+	void testReleaseTree() throws Exception {
+		RecyclingTagFactory f = new RecyclingTagFactory(false);
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		root.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(100)));
+		DictonaryTag dict = DictonaryTag.createStandard();
+		dict.getValues().put("a", TagTestUtils.createRandomTag());
+		dict.getValues().put("b", null);
+		root.getValues().add(dict);
+		root.getValues().add(null);
+		byte[] serialized = root.toBytes();
+
+		ILTag decoded = f.fromBytes(serialized);
+		IdentityHashMap<ILTag, Boolean> instances = new IdentityHashMap<>();
+		collect(decoded, instances);
+		int released = f.release(decoded);
+		assertEquals(instances.size(), released);
+
+		// The second decoding uses only recycled instances
+		ILTag decoded2 = f.fromBytes(serialized);
+		TagTestUtils.assertTagEquals(root, decoded2);
+		IdentityHashMap<ILTag, Boolean> instances2 = new IdentityHashMap<>();
+		collect(decoded2, instances2);
+		assertEquals(instances.size(), instances2.size());
+		for (ILTag t : instances2.keySet()) {
+			assertTrue(instances.containsKey(t));
+		}
+	}
+
+	@Test
+	void testPerThread() throws Exception {
+		RecyclingTagFactory f = new RecyclingTagFactory(false);
+		Int64Tag t = (Int64Tag) f.createTag(TagID.IL_INT64_TAG_ID);
+		f.release(t);
+
+		AtomicReference<ILTag> other = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try {
+				other.set(f.createTag(TagID.IL_INT64_TAG_ID));
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		thread.start();
+		thread.join();
+		assertNotNull(other.get());
+		assertNotSame(t, other.get());
+		assertSame(t, f.createTag(TagID.IL_INT64_TAG_ID));
+	}
+
+	private static void collect(ILTag tag, IdentityHashMap<ILTag, Boolean> instances) {
+		instances.put(tag, Boolean.TRUE);
+		if (tag instanceof ILTagArrayTag) {
+			for (ILTag t : ((ILTagArrayTag) tag).getValues()) {
+				collect(t, instances);
+			}
+		} else if (tag instanceof DictonaryTag) {
+			for (ILTag t : ((DictonaryTag) tag).getValues().values()) {
+				collect(t, instances);
+			}
+		}
+	}
+
+	@Test
+	void testSetMaxPooled() throws Exception {
+		RecyclingTagFactory f = new RecyclingTagFactory(false);
+		f.setMaxPooled(1);
+		Int64Tag t1 = (Int64Tag) f.createTag(TagID.IL_INT64_TAG_ID);
+		Int64Tag t2 = (Int64Tag) f.createTag(TagID.IL_INT64_TAG_ID);
+		assertEquals(1, f.release(t1));
+		assertEquals(0, f.release(t2));
+		assertEquals(1, f.getPool().getMaxPerId());
+
+		// The pool is replaced
+		f.setMaxPooled(2);
+		assertEquals(2, f.getPool().getMaxPerId());
+		assertEquals(0, f.getPool().size(TagID.IL_INT64_TAG_ID));
+		assertNotSame(t1, f.createTag(TagID.IL_INT64_TAG_ID));
+		assertEquals(1, f.release(t1));
+		assertEquals(1, f.release(t2));
+	}
+}
@@ -34,10 +34,16 @@ package io.il2.iltags.tags.factory;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
+import io.il2.iltags.tags.DecodeLimits;
 import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.MemoryBudgetExceededException;
 import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.TagTooLargeException;
 import io.il2.iltags.tags.UnsupportedTagException;
 import io.il2.iltags.tags.basic.BigDecTag;
 import io.il2.iltags.tags.basic.BigIntTag;
@@ -55,8 +61,11 @@ import io.il2.iltags.tags.basic.Int16Tag;
 import io.il2.iltags.tags.basic.Int32Tag;
 import io.il2.iltags.tags.basic.Int64Tag;
 import io.il2.iltags.tags.basic.Int8Tag;
+import io.il2.iltags.tags.basic.LazyDictonaryTag;
+import io.il2.iltags.tags.basic.LazyILTagArrayTag;
 import io.il2.iltags.tags.basic.NullTag;
 import io.il2.iltags.tags.basic.RangeTag;
+import io.il2.iltags.tags.basic.RawTag;
 import io.il2.iltags.tags.basic.SignedILIntTag;
 import io.il2.iltags.tags.basic.StringDictonaryTag;
 import io.il2.iltags.tags.basic.StringTag;
@@ -109,7 +118,128 @@ class TagFactoryTest {
 
 		f = new TagFactory(true);
 		assertTrue(f.isStrict());
+		assertFalse(f.isUsingFlyweights());
+		assertFalse(f.isUsingLazyContainers());
 		assertEquals(0, f.creators.size());
+
+		f.setUsingFlyweights(true);
+		assertTrue(f.isUsingFlyweights());
+		assertFalse(f.isUsingLazyContainers());
+		f.setUsingFlyweights(false);
+		assertFalse(f.isUsingFlyweights());
+
+		f.setUsingLazyContainers(true);
+		assertFalse(f.isUsingFlyweights());
+		assertTrue(f.isUsingLazyContainers());
+		f.setUsingLazyContainers(false);
+		assertFalse(f.isUsingLazyContainers());
+	}
+
+	@Test
+	void testCreateTagLazyContainers() throws Exception {
+		TagFactory f = new TagFactory(true);
+		f.setUsingLazyContainers(true);
+		assertInstanceOf(LazyILTagArrayTag.class, f.createTag(TagID.IL_ILTAGARRAY_TAG_ID));
+		assertInstanceOf(LazyDictonaryTag.class, f.createTag(TagID.IL_DICTIONARY_TAG_ID));
+		assertSame(ILTagSequenceTag.class, f.createTag(TagID.IL_ILTAGSEQ_TAG_ID).getClass());
+		assertSame(StringDictonaryTag.class, f.createTag(TagID.IL_STRING_DICTIONARY_TAG_ID).getClass());
+
+		f = new TagFactory(true);
+		assertSame(ILTagArrayTag.class, f.createTag(TagID.IL_ILTAGARRAY_TAG_ID).getClass());
+		assertSame(DictonaryTag.class, f.createTag(TagID.IL_DICTIONARY_TAG_ID).getClass());
+	}
+
+	@Test
+	void testDeserializeTagFlyweights() throws Exception {
+		ILTagArrayTag array = ILTagArrayTag.createStandard();
+		array.getValues().add(NullTag.createStandard());
+		BooleanTag b = BooleanTag.createStandard();
+		b.setValue(true);
+		array.getValues().add(b);
+		ILIntTag small = ILIntTag.createStandard();
+		small.setValue(10);
+		array.getValues().add(small);
+		ILIntTag large = ILIntTag.createStandard();
+		large.setValue(1000);
+		array.getValues().add(large);
+		StringTag s = StringTag.createStandard();
+		s.setValue("abc");
+		array.getValues().add(s);
+		byte[] serialized = array.toBytes();
+
+		TagFactory f = new TagFactory(true);
+		f.setUsingFlyweights(true);
+		ILTagArrayTag a1 = (ILTagArrayTag) f.fromBytes(serialized);
+		ILTagArrayTag a2 = (ILTagArrayTag) f.fromBytes(serialized);
+		assertNotSame(a1, a2);
+		assertSame(TagFlyweights.NULL, a1.getValues().get(0));
+		assertSame(TagFlyweights.TRUE, a1.getValues().get(1));
+		assertSame(TagFlyweights.getILInt(10), a1.getValues().get(2));
+		assertNotSame(a1.getValues().get(3), a2.getValues().get(3));
+		assertEquals(1000, ((ILIntTag) a1.getValues().get(3)).getValue());
+		assertNotSame(a1.getValues().get(4), a2.getValues().get(4));
+		assertArrayEquals(serialized, a1.toBytes());
+
+		// Without the option
+		f = new TagFactory(true);
+		a1 = (ILTagArrayTag) f.fromBytes(serialized);
+		assertNotSame(TagFlyweights.NULL, a1.getValues().get(0));
+		assertNotSame(TagFlyweights.TRUE, a1.getValues().get(1));
+		assertArrayEquals(serialized, a1.toBytes());
+	}
+
+	@Test
+	void testDeserializeTagFlyweightsLimits() throws Exception {
+		TagFactory f = new TagFactory(true);
+		f.setUsingFlyweights(true);
+		// Null tag and large ILInt at depth 3
+		byte[] nullTag = new byte[] { 21, 5, 1, 21, 2, 1, 0 };
+		byte[] ilint = new byte[] { 21, 7, 1, 21, 4, 1, 10, (byte) 0xF8, 0x10 };
+		f.setDecodeLimits(new DecodeLimits(3, 10, 100, 100));
+		ILTagArrayTag a = (ILTagArrayTag) f.fromBytes(nullTag);
+		assertSame(TagFlyweights.NULL, ((ILTagArrayTag) a.getValues().get(0)).getValues().get(0));
+		a = (ILTagArrayTag) f.fromBytes(ilint);
+		assertEquals(0xF8 + 0x10, ((ILIntTag) ((ILTagArrayTag) a.getValues().get(0)).getValues().get(0)).getValue());
+
+		f.setDecodeLimits(new DecodeLimits(2, 10, 100, 100));
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(nullTag);
+		});
+		assertThrows(TagTooLargeException.class, () -> {
+			f.fromBytes(ilint);
+		});
+
+		// Values without a shared instance are created by the factory
+		AtomicInteger created = new AtomicInteger();
+		TagFactory counting = new TagFactory(true) {
+			@Override
+			public ILTag createTag(long tagId) throws ILTagException {
+				created.incrementAndGet();
+				return super.createTag(tagId);
+			}
+		};
+		counting.setUsingFlyweights(true);
+		counting.fromBytes(ilint);
+		assertEquals(3, created.get());
+
+		// And they are accounted against the memory budget
+		ILTagArrayTag array = ILTagArrayTag.createStandard();
+		for (int i = 0; i < 100; i++) {
+			ILIntTag v = ILIntTag.createStandard();
+			v.setValue(1000 + i);
+			array.getValues().add(v);
+		}
+		byte[] serialized = array.toBytes();
+		TagFactory budget = new TagFactory(true);
+		budget.setUsingFlyweights(true);
+		long size = budget.fromBytes(serialized).estimateRetainedSize();
+		assertEquals(array.estimateRetainedSize(), size);
+		budget.setMemoryBudget(size);
+		assertArrayEquals(serialized, budget.fromBytes(serialized).toBytes());
+		budget.setMemoryBudget(size - 1);
+		assertThrows(MemoryBudgetExceededException.class, () -> {
+			budget.fromBytes(serialized);
+		});
 	}
 
 	@Test
@@ -240,4 +370,84 @@ class TagFactoryTest {
 			f2.createTag(32);
 		});
 	}
+
+	@Test
+	void testRawTagPolicy() throws Exception {
+		TagFactory f = new TagFactory(true);
+		f.setUsingFlyweights(true);
+		assertNull(f.getRawTagPolicy());
+		RawTagPolicy policy = RawTagPolicy.of(TagID.IL_DICTIONARY_TAG_ID, TagID.IL_BOOL_TAG_ID, 15, 1234);
+		f.setRawTagPolicy(policy);
+		assertSame(policy, f.getRawTagPolicy());
+		assertTrue(policy.isRaw(1234));
+		assertFalse(policy.isRaw(1235));
+
+		assertInstanceOf(RawTag.class, f.createTag(1234));
+		assertInstanceOf(RawTag.class, f.createTag(15));
+		assertInstanceOf(RawTag.class, f.createTag(TagID.IL_DICTIONARY_TAG_ID));
+		assertInstanceOf(Int32Tag.class, f.createTag(TagID.IL_INT32_TAG_ID));
+		assertThrows(UnsupportedTagException.class, () -> {
+			f.createTag(1235);
+		});
+
+		// Flyweights are not used for raw tags
+		ILTag t = f.fromBytes(BooleanTag.createStandard().toBytes());
+		assertInstanceOf(RawTag.class, t);
+
+		// Containers are kept raw while their parents are decoded
+		DictonaryTag dict = DictonaryTag.createStandard();
+		dict.getValues().put("a", new ILIntTag(TagID.IL_ILINT_TAG_ID));
+		ILTagArrayTag array = ILTagArrayTag.createStandard();
+		array.getValues().add(dict);
+		array.getValues().add(Int32Tag.createStandardSigned());
+		byte[] serialized = array.toBytes();
+		t = f.fromBytes(serialized);
+		assertInstanceOf(ILTagArrayTag.class, t);
+		assertInstanceOf(RawTag.class, ((ILTagArrayTag) t).getValues().get(0));
+		assertArrayEquals(dict.toBytes(), ((ILTagArrayTag) t).getValues().get(0).toBytes());
+		assertArrayEquals(serialized, t.toBytes());
+
+		f.setRawTagPolicy(null);
+		assertInstanceOf(DictonaryTag.class, f.createTag(TagID.IL_DICTIONARY_TAG_ID));
+	}
+
+	@Test
+	void testMemoryBudget() throws Exception {
+		TagFactory f = new TagFactory(false);
+		assertEquals(0, f.getMemoryBudget());
+		assertThrows(IllegalArgumentException.class, () -> {
+			f.setMemoryBudget(-1);
+		});
+
+		ILTagArrayTag array = ILTagArrayTag.createStandard();
+		for (int i = 0; i < 100; i++) {
+			DictonaryTag dict = DictonaryTag.createStandard();
+			dict.getValues().put("v", Int32Tag.createStandardSigned());
+			array.getValues().add(dict);
+		}
+		byte[] serialized = array.toBytes();
+		// The decoded dictionaries do not retain any scratch object
+		long size = f.fromBytes(serialized).estimateRetainedSize();
+		assertEquals(array.estimateRetainedSize(), size);
+
+		f.setMemoryBudget(size);
+		assertEquals(size, f.getMemoryBudget());
+		assertArrayEquals(serialized, f.fromBytes(serialized).toBytes());
+		f.setMemoryBudget(size - 1);
+		assertThrows(MemoryBudgetExceededException.class, () -> {
+			f.fromBytes(serialized);
+		});
+		// The usage is not carried over to the next deserialization
+		Int32Tag small = Int32Tag.createStandardSigned();
+		assertArrayEquals(small.toBytes(), f.fromBytes(small.toBytes()).toBytes());
+
+		// Large values are rejected before being read
+		f.setMemoryBudget(500);
+		assertThrows(MemoryBudgetExceededException.class, () -> {
+			f.fromBytes(new byte[] { 16, (byte) 0xF9, 0x10, 0x00 });
+		});
+
+		f.setMemoryBudget(0);
+		assertArrayEquals(serialized, f.fromBytes(serialized).toBytes());
+	}
 }
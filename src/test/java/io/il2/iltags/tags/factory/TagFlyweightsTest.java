@@ -0,0 +1,138 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.factory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ByteBufferDataInput;
+import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.TagID;
+import io.il2.iltags.tags.basic.ILIntTag;
+import io.il2.iltags.tags.basic.Int8Tag;
+
+class TagFlyweightsTest {
+
+	@Test
+	void testInstances() throws Exception {
+		assertTrue(TagFlyweights.NULL.isFrozen());
+		assertArrayEquals(new byte[] { 0 }, TagFlyweights.NULL.toBytes());
+		assertTrue(TagFlyweights.TRUE.isFrozen());
+		assertTrue(TagFlyweights.TRUE.getValue());
+		assertTrue(TagFlyweights.FALSE.isFrozen());
+		assertFalse(TagFlyweights.FALSE.getValue());
+		assertTrue(TagFlyweights.EMPTY_STRING.isFrozen());
+		assertEquals("", TagFlyweights.EMPTY_STRING.getValue());
+		assertTrue(TagFlyweights.EMPTY_BYTES.isFrozen());
+		assertEquals(0, TagFlyweights.EMPTY_BYTES.getValue().length);
+
+		assertThrows(UnsupportedOperationException.class, () -> {
+			TagFlyweights.TRUE.setValue(false);
+		});
+		assertThrows(UnsupportedOperationException.class, () -> {
+			TagFlyweights.EMPTY_STRING.setValue("x");
+		});
+	}
+
+	@Test
+	void testGetBoolean() {
+		assertSame(TagFlyweights.TRUE, TagFlyweights.getBoolean(true));
+		assertSame(TagFlyweights.FALSE, TagFlyweights.getBoolean(false));
+	}
+
+	@Test
+	void testGetInt8() {
+		for (int i = -128; i < 128; i++) {
+			Int8Tag t = TagFlyweights.getInt8((byte) i);
+			assertEquals(TagID.IL_INT8_TAG_ID, t.getTagID());
+			assertEquals((byte) i, t.getValue());
+			assertTrue(t.isFrozen());
+			assertSame(t, TagFlyweights.getInt8((byte) i));
+		}
+	}
+
+	@Test
+	void testGetUInt8() {
+		for (int i = 0; i < 256; i++) {
+			Int8Tag t = TagFlyweights.getUInt8(i);
+			assertEquals(TagID.IL_UINT8_TAG_ID, t.getTagID());
+			assertEquals(i, t.getUnsignedValue());
+			assertTrue(t.isFrozen());
+			assertSame(t, TagFlyweights.getUInt8(i));
+		}
+	}
+
+	@Test
+	void testGetILInt() {
+		for (int i = 0; i <= TagFlyweights.MAX_CACHED_ILINT; i++) {
+			ILIntTag t = TagFlyweights.getILInt(i);
+			assertEquals(TagID.IL_ILINT_TAG_ID, t.getTagID());
+			assertEquals(i, t.getValue());
+			assertTrue(t.isFrozen());
+		}
+		assertNull(TagFlyweights.getILInt(TagFlyweights.MAX_CACHED_ILINT + 1));
+		assertNull(TagFlyweights.getILInt(-1));
+	}
+
+	@Test
+	void testDeserialize() throws Exception {
+		assertSame(TagFlyweights.NULL,
+				TagFlyweights.deserialize(TagID.IL_NULL_TAG_ID, 0, new ByteBufferDataInput(new byte[0])));
+		assertSame(TagFlyweights.TRUE,
+				TagFlyweights.deserialize(TagID.IL_BOOL_TAG_ID, 1, new ByteBufferDataInput(new byte[] { 1 })));
+		assertSame(TagFlyweights.FALSE,
+				TagFlyweights.deserialize(TagID.IL_BOOL_TAG_ID, 1, new ByteBufferDataInput(new byte[] { 0 })));
+		assertThrows(CorruptedTagException.class, () -> {
+			TagFlyweights.deserialize(TagID.IL_BOOL_TAG_ID, 1, new ByteBufferDataInput(new byte[] { 2 }));
+		});
+		assertSame(TagFlyweights.getInt8((byte) -1), TagFlyweights.deserialize(TagID.IL_INT8_TAG_ID, 1,
+				new ByteBufferDataInput(new byte[] { (byte) 0xFF })));
+		assertSame(TagFlyweights.getUInt8(0xFF), TagFlyweights.deserialize(TagID.IL_UINT8_TAG_ID, 1,
+				new ByteBufferDataInput(new byte[] { (byte) 0xFF })));
+		assertSame(TagFlyweights.EMPTY_STRING,
+				TagFlyweights.deserialize(TagID.IL_STRING_TAG_ID, 0, new ByteBufferDataInput(new byte[0])));
+		assertSame(TagFlyweights.EMPTY_BYTES,
+				TagFlyweights.deserialize(TagID.IL_BYTES_TAG_ID, 0, new ByteBufferDataInput(new byte[0])));
+
+		// Nothing is read
+		ByteBufferDataInput in = new ByteBufferDataInput(new byte[] { 1, 2 });
+		assertNull(TagFlyweights.deserialize(TagID.IL_NULL_TAG_ID, 1, in));
+		assertNull(TagFlyweights.deserialize(TagID.IL_BOOL_TAG_ID, 2, in));
+		assertNull(TagFlyweights.deserialize(TagID.IL_STRING_TAG_ID, 2, in));
+		assertNull(TagFlyweights.deserialize(TagID.IL_BYTES_TAG_ID, 2, in));
+		assertNull(TagFlyweights.deserialize(TagID.IL_INT16_TAG_ID, 2, in));
+		assertNull(TagFlyweights.deserialize(TagID.IL_ILINT_TAG_ID, -1, in));
+		assertNull(TagFlyweights.deserialize(32, 2, in));
+		assertEquals(1, in.readByte());
+	}
+}
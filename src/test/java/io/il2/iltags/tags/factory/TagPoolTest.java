@@ -0,0 +1,165 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.factory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.io.ByteBufferDataInput;
+
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.basic.BytesTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.Int64Tag;
+import io.il2.iltags.tags.basic.LazyILTagArrayTag;
+import io.il2.iltags.tags.basic.StringTag;
+
+class TagPoolTest {
+
+	@Test
+	void testAcquireRelease() {
+		TagPool pool = new TagPool(2);
+		Int64Tag t = Int64Tag.createStandardSigned();
+
+		assertNull(pool.acquire(t.getTagID()));
+		assertEquals(0, pool.release(t));
+		assertEquals(0, pool.size(t.getTagID()));
+
+		pool.register(t);
+		assertEquals(1, pool.release(t));
+		assertEquals(1, pool.size(t.getTagID()));
+		assertEquals(1, pool.release(Int64Tag.createStandardSigned()));
+		assertEquals(0, pool.release(Int64Tag.createStandardSigned()));
+		assertEquals(2, pool.size(t.getTagID()));
+
+		assertNotNull(pool.acquire(t.getTagID()));
+		assertSame(t, pool.acquire(t.getTagID()));
+		assertNull(pool.acquire(t.getTagID()));
+	}
+
+	@Test
+	void testClassCheck() {
+		TagPool pool = new TagPool(2);
+		pool.register(new BytesTag(1234));
+		assertEquals(1, pool.release(new BytesTag(1234)));
+		// Same id, other class
+		assertEquals(0, pool.release(new StringTag(1234)));
+		assertEquals(1, pool.size(1234));
+	}
+
+	@Test
+	void testMaxOtherIds() {
+		TagPool pool = new TagPool(2);
+		for (int i = 0; i < TagPool.MAX_OTHER_IDS + 10; i++) {
+			pool.register(new BytesTag(1000 + i));
+		}
+		for (int i = 0; i < TagPool.MAX_OTHER_IDS + 10; i++) {
+			int exp = (i < TagPool.MAX_OTHER_IDS) ? 1 : 0;
+			assertEquals(exp, pool.release(new BytesTag(1000 + i)));
+		}
+	}
+
+	@Test
+	void testReleaseTree() {
+		TagPool pool = new TagPool(2);
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		Int64Tag t = Int64Tag.createStandardSigned();
+		root.getValues().add(t);
+		root.getValues().add(null);
+		pool.register(root);
+		pool.register(t);
+
+		assertEquals(2, pool.release(root));
+		assertTrue(root.getValues().isEmpty());
+		assertSame(root, pool.acquire(root.getTagID()));
+		ILTag inner = pool.acquire(t.getTagID());
+		assertSame(t, inner);
+	}
+
+	@Test
+	void testReleaseLazy() throws Exception {
+		TagPool pool = new TagPool(2);
+		TagFactory f = new TagFactory(false);
+		f.setUsingLazyContainers(true);
+		ILTagArrayTag sample = ILTagArrayTag.createStandard();
+		sample.getValues().add(Int64Tag.createStandardSigned());
+		sample.getValues().add(Int64Tag.createStandardSigned());
+
+		LazyILTagArrayTag root = (LazyILTagArrayTag) f.deserialize(new ByteBufferDataInput(sample.toBytes()));
+		ILTag inner = root.get(0);
+		pool.register(root);
+		pool.register(inner);
+
+		// The inner tags of lazy containers are not decoded
+		assertEquals(1, pool.release(root));
+		assertTrue(root.isMaterialized());
+		assertEquals(0, root.size());
+		assertSame(root, pool.acquire(root.getTagID()));
+		assertNull(pool.acquire(inner.getTagID()));
+
+		// Materialized containers are handled as usual
+		byte[] serialized = sample.toBytes();
+		int valueSize = (int) sample.getValueSize();
+		root.deserializeValue(f, valueSize,
+				new ByteBufferDataInput(serialized, serialized.length - valueSize, valueSize));
+		root.getValues();
+		assertEquals(3, pool.release(root));
+	}
+
+	@Test
+	void testReleaseTwice() {
+		TagPool pool = new TagPool(4);
+		Int64Tag t = Int64Tag.createStandardSigned();
+		pool.register(t);
+		assertEquals(1, pool.release(t));
+		assertEquals(0, pool.release(t));
+		assertEquals(1, pool.size(t.getTagID()));
+
+		// The same instance twice in the same tree
+		ILTagArrayTag a = ILTagArrayTag.createStandard();
+		pool.register(a);
+		Int64Tag v = Int64Tag.createStandardSigned();
+		a.getValues().add(v);
+		a.getValues().add(v);
+		assertEquals(2, pool.release(a));
+		assertEquals(2, pool.size(t.getTagID()));
+
+		assertSame(v, pool.acquire(t.getTagID()));
+		assertSame(t, pool.acquire(t.getTagID()));
+		assertNull(pool.acquire(t.getTagID()));
+
+		// Acquired tags can be released again
+		assertEquals(1, pool.release(t));
+		assertSame(t, pool.acquire(t.getTagID()));
+	}
+}
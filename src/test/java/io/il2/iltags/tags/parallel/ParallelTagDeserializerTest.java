@@ -0,0 +1,314 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.parallel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.CorruptedTagException;
+import io.il2.iltags.tags.DecodeLimits;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.ILTagHeader;
+import io.il2.iltags.tags.MemoryBudgetExceededException;
+import io.il2.iltags.tags.TagTooLargeException;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.Int16Tag;
+import io.il2.iltags.tags.basic.StringTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class ParallelTagDeserializerTest {
+
+	private static ILTag createSample() {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		for (int i = 0; i < 8; i++) {
+			ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+			seq.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(200)));
+			seq.getValues().add(null);
+			root.getValues().add(seq);
+			ILTagArrayTag array = ILTagArrayTag.createStandard();
+			array.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(150)));
+			root.getValues().add(array);
+			DictonaryTag dict = DictonaryTag.createStandard();
+			for (int j = 0; j < 100; j++) {
+				dict.getValues().put("key" + j, TagTestUtils.createRandomTag());
+			}
+			root.getValues().add(dict);
+			root.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(100)));
+		}
+		root.getValues().add(null);
+		root.getValues().add(ILTagSequenceTag.createStandard());
+		return root;
+	}
+
+	@Test
+	void testParallelTagDeserializer() {
+		TagFactory factory = new TagFactory(false);
+		ParallelTagDeserializer d = new ParallelTagDeserializer(factory);
+		assertSame(factory, d.getFactory());
+		assertEquals(ParallelTagDeserializer.DEFAULT_THRESHOLD, d.getThreshold());
+
+		d = new ParallelTagDeserializer(factory, ForkJoinPool.commonPool(), 1);
+		assertEquals(1, d.getThreshold());
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ParallelTagDeserializer(factory, ForkJoinPool.commonPool(), 0);
+		});
+	}
+
+	@Test
+	void testFromBytes() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		ILTag sample = createSample();
+		byte[] serialized = sample.toBytes();
+		ILTag exp = factory.fromBytes(serialized);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (long threshold : new long[] { 1, 16, 1024, 1024 * 1024 }) {
+				ParallelTagDeserializer d = new ParallelTagDeserializer(factory, pool, threshold);
+				ILTag tag = d.fromBytes(serialized);
+				TagTestUtils.assertTagEquals(exp, tag);
+				assertArrayEquals(serialized, tag.toBytes());
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		// Slice
+		ParallelTagDeserializer d = new ParallelTagDeserializer(factory, ForkJoinPool.commonPool(), 16);
+		byte[] buff = new byte[serialized.length + 4];
+		System.arraycopy(serialized, 0, buff, 2, serialized.length);
+		assertArrayEquals(serialized, d.fromBytes(buff, 2, serialized.length).toBytes());
+
+		// Sequence as the root
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		seq.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(300)));
+		serialized = seq.toBytes();
+		assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+
+		// Other tags are deserialized sequentially
+		StringTag str = StringTag.createStandard();
+		str.setValue("A long enough string...");
+		serialized = str.toBytes();
+		assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+	}
+
+	@Test
+	void testCreateTagOnce() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		TagFactory factory = new TagFactory(false) {
+			@Override
+			public ILTag createTag(long tagId) throws ILTagException {
+				created.incrementAndGet();
+				return super.createTag(tagId);
+			}
+		};
+		byte[] serialized = createSample().toBytes();
+		factory.fromBytes(serialized);
+		int expected = created.getAndSet(0);
+		ParallelTagDeserializer d = new ParallelTagDeserializer(factory, ForkJoinPool.commonPool(), 16);
+		assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+		assertEquals(expected, created.get());
+
+		// Lazy arrays are not split
+		factory.setUsingLazyContainers(true);
+		created.set(0);
+		assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+		assertEquals(1, created.get());
+	}
+
+	@Test
+	void testFromByteBuffer() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		ParallelTagDeserializer d = new ParallelTagDeserializer(factory, ForkJoinPool.commonPool(), 16);
+		byte[] serialized = createSample().toBytes();
+
+		ByteBuffer buff = ByteBuffer.allocate(serialized.length + 2);
+		buff.position(1);
+		buff.put(serialized);
+		buff.position(1);
+		buff.limit(1 + serialized.length);
+		assertArrayEquals(serialized, d.fromByteBuffer(buff).toBytes());
+		assertEquals(buff.limit(), buff.position());
+
+		buff = ByteBuffer.allocateDirect(serialized.length);
+		buff.put(serialized);
+		buff.flip();
+		assertArrayEquals(serialized, d.fromByteBuffer(buff).toBytes());
+		assertEquals(buff.limit(), buff.position());
+	}
+
+	@Test
+	void testFailures() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		ParallelTagDeserializer d = new ParallelTagDeserializer(factory, ForkJoinPool.commonPool(), 16);
+		ILTagArrayTag array = ILTagArrayTag.createStandard();
+		array.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(100)));
+		byte[] serialized = array.toBytes();
+
+		// Trailing bytes
+		byte[] longer = Arrays.copyOf(serialized, serialized.length + 1);
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(longer);
+		});
+
+		// Truncated
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(serialized, 0, serialized.length - 1);
+		});
+
+		// Bad counter
+		int counterOff = (int) ILTagHeader.getSerializedSize(array.getTagID(), array.getValueSize());
+		assertEquals(100, serialized[counterOff]);
+		byte[] bad = serialized.clone();
+		bad[counterOff] = 99;
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(bad);
+		});
+		bad[counterOff] = 101;
+		assertThrows(CorruptedTagException.class, () -> {
+			d.fromBytes(bad);
+		});
+	}
+
+	@Test
+	void testNonCanonical() throws Exception {
+		// Array with 2 tags whose ids use non-canonical ILInts (256 as F9 00 08)
+		byte[] serialized = new byte[] { 21, 11, 2, (byte) 0xF9, 0x00, 0x08, 1, 0x7A, (byte) 0xF9, 0x00, 0x08, 1,
+				0x7B };
+		TagFactory factory = new TagFactory(false);
+		byte[] exp = factory.fromBytes(serialized).toBytes();
+		for (long threshold : new long[] { 1, 1024 }) {
+			ParallelTagDeserializer d = new ParallelTagDeserializer(factory, ForkJoinPool.commonPool(), threshold);
+			assertArrayEquals(exp, d.fromBytes(serialized).toBytes());
+		}
+	}
+
+	private static ILTagArrayTag createNested(int levels) {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		ILTagArrayTag current = root;
+		for (int i = 1; i < levels; i++) {
+			ILTagArrayTag inner = ILTagArrayTag.createStandard();
+			current.getValues().add(inner);
+			current = inner;
+		}
+		current.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(4)));
+		return root;
+	}
+
+	@Test
+	void testDecodeLimits() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		byte[] nested = createNested(3).toBytes();
+		ILTagArrayTag array = ILTagArrayTag.createStandard();
+		ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+		for (int i = 0; i < 10; i++) {
+			Int16Tag t = Int16Tag.createStandardSigned();
+			t.setValue((short) i);
+			array.getValues().add(t);
+			seq.getValues().add(t);
+		}
+		byte[] serializedArray = array.toBytes();
+		byte[] serializedSeq = seq.toBytes();
+
+		for (long threshold : new long[] { 1, 1024 }) {
+			ParallelTagDeserializer d = new ParallelTagDeserializer(factory, ForkJoinPool.commonPool(), threshold);
+			// Depth
+			factory.setDecodeLimits(new DecodeLimits(4, 100, 1024, 1024));
+			assertArrayEquals(nested, d.fromBytes(nested).toBytes());
+			factory.setDecodeLimits(new DecodeLimits(3, 100, 1024, 1024));
+			assertThrows(TagTooLargeException.class, () -> {
+				d.fromBytes(nested);
+			});
+
+			// Elements
+			factory.setDecodeLimits(new DecodeLimits(4, 10, 1024, 1024));
+			assertArrayEquals(serializedArray, d.fromBytes(serializedArray).toBytes());
+			assertArrayEquals(serializedSeq, d.fromBytes(serializedSeq).toBytes());
+			factory.setDecodeLimits(new DecodeLimits(4, 9, 1024, 1024));
+			assertThrows(TagTooLargeException.class, () -> {
+				d.fromBytes(serializedArray);
+			});
+			assertThrows(TagTooLargeException.class, () -> {
+				d.fromBytes(serializedSeq);
+			});
+
+			// Total bytes
+			factory.setDecodeLimits(new DecodeLimits(4, 10, 29, 1024));
+			assertThrows(TagTooLargeException.class, () -> {
+				d.fromBytes(serializedSeq);
+			});
+			factory.setDecodeLimits(new DecodeLimits(4, 10, 30, 1024));
+			assertArrayEquals(serializedSeq, d.fromBytes(serializedSeq).toBytes());
+		}
+	}
+
+	@Test
+	void testMemoryBudget() throws Exception {
+		TagFactory factory = new TagFactory(false);
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		for (int i = 0; i < 4; i++) {
+			root.getValues().add(createNested(2));
+		}
+		byte[] serialized = root.toBytes();
+		long size = factory.fromBytes(serialized).estimateRetainedSize();
+
+		for (long threshold : new long[] { 1, 1024 }) {
+			ParallelTagDeserializer d = new ParallelTagDeserializer(factory, ForkJoinPool.commonPool(), threshold);
+			factory.setMemoryBudget(2 * size);
+			assertArrayEquals(serialized, d.fromBytes(serialized).toBytes());
+			factory.setMemoryBudget(size / 2);
+			assertThrows(MemoryBudgetExceededException.class, () -> {
+				factory.fromBytes(serialized);
+			});
+			assertThrows(MemoryBudgetExceededException.class, () -> {
+				d.fromBytes(serialized);
+			});
+			// Containers are only accounted once their inner tags are decoded
+			factory.setMemoryBudget(serialized.length / 2);
+			assertThrows(MemoryBudgetExceededException.class, () -> {
+				d.fromBytes(serialized);
+			});
+			factory.setMemoryBudget(0);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.tags.parallel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import io.il2.iltags.tags.AbstractILTag;
+import io.il2.iltags.tags.ILTag;
+import io.il2.iltags.tags.ILTagException;
+import io.il2.iltags.tags.ILTagFactory;
+import io.il2.iltags.tags.basic.DictonaryTag;
+import io.il2.iltags.tags.basic.ILTagArrayTag;
+import io.il2.iltags.tags.basic.ILTagSequenceTag;
+import io.il2.iltags.tags.basic.LazyILTagArrayTag;
+import io.il2.iltags.tags.basic.TagTestUtils;
+import io.il2.iltags.tags.factory.TagFactory;
+
+class ParallelTagSerializerTest {
+
+	private static class BrokenTag extends AbstractILTag {
+
+		public BrokenTag() {
+			super(1234);
+		}
+
+		@Override
+		public long getValueSize() {
+			return 4;
+		}
+
+		@Override
+		public void serializeValue(DataOutput out) throws IOException {
+			throw new IOException("Broken.");
+		}
+
+		@Override
+		public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in)
+				throws IOException, ILTagException {
+		}
+	}
+
+	private static ILTag createSample() {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		for (int i = 0; i < 8; i++) {
+			ILTagSequenceTag seq = ILTagSequenceTag.createStandard();
+			seq.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(200)));
+			seq.getValues().add(null);
+			root.getValues().add(seq);
+			DictonaryTag dict = DictonaryTag.createStandard();
+			for (int j = 0; j < 100; j++) {
+				dict.getValues().put("key" + j, (j % 10 == 0) ? null : TagTestUtils.createRandomTag());
+			}
+			root.getValues().add(dict);
+			root.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(100)));
+		}
+		root.getValues().add(null);
+		return root;
+	}
+
+	@Test
+	void testParallelTagSerializer() {
+		ParallelTagSerializer s = new ParallelTagSerializer();
+		assertEquals(ParallelTagSerializer.DEFAULT_THRESHOLD, s.getThreshold());
+
+		s = new ParallelTagSerializer(ForkJoinPool.commonPool(), 1);
+		assertEquals(1, s.getThreshold());
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ParallelTagSerializer(ForkJoinPool.commonPool(), 0);
+		});
+	}
+
+	@Test
+	void testToBytes() throws Exception {
+		ILTag sample = createSample();
+		byte[] exp = sample.toBytes();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (long threshold : new long[] { 1, 16, 1024, 1024 * 1024 }) {
+				ParallelTagSerializer s = new ParallelTagSerializer(pool, threshold);
+				assertArrayEquals(exp, s.toBytes(sample));
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		// Frozen inner tags are copied as they are
+		((AbstractILTag) ((ILTagArrayTag) sample).getValues().get(0)).freeze();
+		assertArrayEquals(exp, new ParallelTagSerializer(ForkJoinPool.commonPool(), 1).toBytes(sample));
+	}
+
+	@Test
+	void testToBytesLazy() throws Exception {
+		byte[] exp = createSample().toBytes();
+		TagFactory factory = new TagFactory(false);
+		factory.setUsingLazyContainers(true);
+		for (long threshold : new long[] { 1, Long.MAX_VALUE }) {
+			ParallelTagSerializer s = new ParallelTagSerializer(ForkJoinPool.commonPool(), threshold);
+			LazyILTagArrayTag lazy = (LazyILTagArrayTag) factory.fromBytes(exp);
+			assertArrayEquals(exp, s.toBytes(lazy));
+			assertFalse(lazy.isMaterialized());
+
+			// Materialized lazy containers are split like any other container
+			lazy.materialize();
+			assertArrayEquals(exp, s.toBytes(lazy));
+		}
+	}
+
+	@Test
+	void testSerialize() throws Exception {
+		ILTag sample = createSample();
+		ParallelTagSerializer s = new ParallelTagSerializer(ForkJoinPool.commonPool(), 64);
+
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bOut)) {
+			s.serialize(sample, out);
+		}
+		assertArrayEquals(sample.toBytes(), bOut.toByteArray());
+	}
+
+	@Test
+	void testFailures() throws Exception {
+		ILTagArrayTag root = ILTagArrayTag.createStandard();
+		root.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(1000)));
+		root.getValues().add(new BrokenTag());
+		root.getValues().addAll(Arrays.asList(TagTestUtils.createSampleTags(1000)));
+
+		ParallelTagSerializer s = new ParallelTagSerializer(ForkJoinPool.commonPool(), 16);
+		assertThrows(ILTagException.class, () -> {
+			s.toBytes(root);
+		});
+	}
+}
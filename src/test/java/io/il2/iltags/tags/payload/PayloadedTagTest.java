@@ -160,4 +160,35 @@ class PayloadedTagTest {
 			}
 		});
 	}
+
+	@Test
+	void testFreeze() throws Exception {
+		TagPayload p = mock(TagPayload.class);
+		when(p.getValueSize()).thenReturn(Long.valueOf(0));
+		PayloadedTag<TagPayload> t = new PayloadedTag<>(1234, p);
+		t.freeze();
+		assertTrue(t.isFrozen());
+		verify(p).freeze();
+
+		// The default implementation refuses to freeze the payload
+		TagPayload fixed = new TagPayload() {
+			@Override
+			public long getValueSize() {
+				return 0;
+			}
+
+			@Override
+			public void serializeValue(DataOutput out) throws IOException {
+			}
+
+			@Override
+			public void deserializeValue(ILTagFactory factory, long valueSize, DataInput in) {
+			}
+		};
+		PayloadedTag<TagPayload> t2 = new PayloadedTag<>(1234, fixed);
+		assertThrows(UnsupportedOperationException.class, () -> {
+			t2.freeze();
+		});
+		assertFalse(t2.isFrozen());
+	}
 }
@@ -0,0 +1,73 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class ByteArrayUtilsTest {
+
+	private static final byte[] SAMPLE = { 0, 1, 2, (byte) 0x80, (byte) 0xFF, 0, 1, 2, (byte) 0x80 };
+
+	@Test
+	void testEquals() {
+		assertTrue(ByteArrayUtils.equals(SAMPLE, 0, 4, SAMPLE, 5, 4));
+		assertTrue(ByteArrayUtils.equals(SAMPLE, 1, 3, SAMPLE, 1, 3));
+		assertTrue(ByteArrayUtils.equals(SAMPLE, 0, 0, new byte[0], 0, 0));
+		assertTrue(ByteArrayUtils.equals(SAMPLE, 0, 4, SAMPLE.clone(), 5, 4));
+		assertFalse(ByteArrayUtils.equals(SAMPLE, 0, 4, SAMPLE, 5, 3));
+		assertFalse(ByteArrayUtils.equals(SAMPLE, 0, 4, SAMPLE, 4, 4));
+	}
+
+	@Test
+	void testHashCode() {
+		assertEquals(Arrays.hashCode(new byte[0]), ByteArrayUtils.hashCode(SAMPLE, 3, 0));
+		for (int i = 0; i < SAMPLE.length; i++) {
+			assertEquals(Arrays.hashCode(Arrays.copyOfRange(SAMPLE, i, SAMPLE.length)),
+					ByteArrayUtils.hashCode(SAMPLE, i, SAMPLE.length - i));
+		}
+	}
+
+	@Test
+	void testCompareUnsigned() {
+		assertEquals(0, ByteArrayUtils.compareUnsigned(SAMPLE, 0, 4, SAMPLE, 5, 4));
+		assertTrue(ByteArrayUtils.compareUnsigned(SAMPLE, 0, 3, SAMPLE, 5, 4) < 0);
+		assertTrue(ByteArrayUtils.compareUnsigned(SAMPLE, 5, 4, SAMPLE, 0, 3) > 0);
+		// 0x80 and 0xFF are greater than 0x01
+		assertTrue(ByteArrayUtils.compareUnsigned(SAMPLE, 3, 1, SAMPLE, 1, 1) > 0);
+		assertTrue(ByteArrayUtils.compareUnsigned(SAMPLE, 3, 1, SAMPLE, 4, 1) < 0);
+		assertEquals(0, ByteArrayUtils.compareUnsigned(SAMPLE, 0, 0, SAMPLE, 3, 0));
+	}
+}
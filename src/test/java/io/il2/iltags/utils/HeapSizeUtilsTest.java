@@ -0,0 +1,121 @@
+/*
+ * BSD 3-Clause License
+ * 
+ * Copyright (c) 2021-2022, InterlockLedger
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.il2.iltags.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import org.junit.jupiter.api.Test;
+
+class HeapSizeUtilsTest {
+
+	@Test
+	void testAlign() {
+		assertEquals(0, HeapSizeUtils.align(0));
+		assertEquals(8, HeapSizeUtils.align(1));
+		assertEquals(8, HeapSizeUtils.align(8));
+		assertEquals(16, HeapSizeUtils.align(9));
+	}
+
+	@Test
+	void testObjectSize() {
+		assertEquals(16, HeapSizeUtils.objectSize(0));
+		assertEquals(16, HeapSizeUtils.objectSize(4));
+		assertEquals(24, HeapSizeUtils.objectSize(5));
+	}
+
+	@Test
+	void testArraySize() {
+		assertEquals(16, HeapSizeUtils.arraySize(0, 1));
+		assertEquals(24, HeapSizeUtils.arraySize(1, 1));
+		assertEquals(32, HeapSizeUtils.arraySize(2, 8));
+	}
+
+	@Test
+	void testSizeOfArrays() {
+		assertEquals(0, HeapSizeUtils.sizeOf((byte[]) null));
+		assertEquals(24, HeapSizeUtils.sizeOf(new byte[8]));
+		assertEquals(0, HeapSizeUtils.sizeOf((long[]) null));
+		assertEquals(32, HeapSizeUtils.sizeOf(new long[2]));
+		assertEquals(0, HeapSizeUtils.sizeOf((int[]) null));
+		assertEquals(32, HeapSizeUtils.sizeOf(new int[3]));
+		assertEquals(0, HeapSizeUtils.sizeOf((Object[]) null));
+		assertEquals(32, HeapSizeUtils.sizeOf(new Object[3]));
+	}
+
+	@Test
+	void testSizeOfString() {
+		assertEquals(0, HeapSizeUtils.sizeOf((String) null));
+		assertEquals(40, HeapSizeUtils.sizeOf(""));
+		assertEquals(48, HeapSizeUtils.sizeOf("abcd"));
+	}
+
+	@Test
+	void testSizeOfBigInteger() {
+		assertEquals(0, HeapSizeUtils.sizeOf((BigInteger) null));
+		assertEquals(56, HeapSizeUtils.sizeOf(BigInteger.ZERO));
+		assertEquals(64, HeapSizeUtils.sizeOf(BigInteger.ONE));
+		assertEquals(72, HeapSizeUtils.sizeOf(BigInteger.ONE.shiftLeft(70)));
+	}
+
+	@Test
+	void testSizeOfBigDecimal() {
+		assertEquals(0, HeapSizeUtils.sizeOf((BigDecimal) null));
+		assertEquals(40, HeapSizeUtils.sizeOf(BigDecimal.ONE));
+		assertEquals(112, HeapSizeUtils.sizeOf(new BigDecimal(BigInteger.ONE.shiftLeft(70), 2)));
+	}
+
+	@Test
+	void testListSize() {
+		assertEquals(0, HeapSizeUtils.listSize(null));
+		assertEquals(40, HeapSizeUtils.listSize(new ArrayList<>()));
+		assertEquals(56, HeapSizeUtils.listSize(Arrays.asList(1, 2, 3)));
+	}
+
+	@Test
+	void testMapSize() {
+		assertEquals(0, HeapSizeUtils.mapSize(null));
+		LinkedHashMap<String, String> m = new LinkedHashMap<>();
+		assertEquals(64, HeapSizeUtils.mapSize(m));
+		m.put("a", "b");
+		assertEquals(64 + 80 + 40, HeapSizeUtils.mapSize(m));
+		for (int i = 1; i < 13; i++) {
+			m.put("k" + i, "v");
+		}
+		assertEquals(64 + 144 + 13 * 40, HeapSizeUtils.mapSize(m));
+	}
+}
@@ -34,14 +34,18 @@ package io.il2.iltags.utils;
 import static io.il2.iltags.TestUtils.genRandomString;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CodingErrorAction;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -63,6 +67,45 @@ public class UTF8UtilsTest {
 		}
 	}
 
+	@Test
+	public void testIsValid() throws Exception {
+		for (int size = 0; size < 256; size++) {
+			ByteBuffer b = UTF8Utils.newEncoder().encode(CharBuffer.wrap(genRandomString(size)));
+			assertTrue(UTF8Utils.isValid(b.array(), 0, b.limit()));
+		}
+		for (byte[] c : WIKI_CODEPOINTS_UTF8) {
+			byte[] b = new byte[c.length + 2];
+			System.arraycopy(c, 0, b, 1, c.length);
+			assertTrue(UTF8Utils.isValid(b, 1, c.length));
+			if (c.length > 1) {
+				assertFalse(UTF8Utils.isValid(b, 1, c.length - 1));
+			}
+		}
+		// Overlong, surrogate, out of range and bad continuation
+		assertFalse(UTF8Utils.isValid(new byte[] { (byte) 0xC0, (byte) 0x80 }, 0, 2));
+		assertFalse(UTF8Utils.isValid(new byte[] { (byte) 0xE0, (byte) 0x80, (byte) 0x80 }, 0, 3));
+		assertFalse(UTF8Utils.isValid(new byte[] { (byte) 0xED, (byte) 0xA0, (byte) 0x80 }, 0, 3));
+		assertFalse(UTF8Utils.isValid(new byte[] { (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80 }, 0, 4));
+		assertFalse(UTF8Utils.isValid(new byte[] { (byte) 0xC2, (byte) 0x41 }, 0, 2));
+		assertFalse(UTF8Utils.isValid(new byte[] { (byte) 0x80 }, 0, 1));
+		assertFalse(UTF8Utils.isValid(new byte[] { (byte) 0xF8 }, 0, 1));
+
+		// Must agree with the strict decoder
+		Random random = new Random(1234);
+		for (int i = 0; i < 10000; i++) {
+			byte[] b = new byte[random.nextInt(8)];
+			random.nextBytes(b);
+			boolean valid;
+			try {
+				UTF8Utils.newDecoder().decode(ByteBuffer.wrap(b));
+				valid = true;
+			} catch (CharacterCodingException e) {
+				valid = false;
+			}
+			assertEquals(valid, UTF8Utils.isValid(b, 0, b.length));
+		}
+	}
+
 	@Test
 	public void testGetUTF8CharSize() {
 
@@ -369,4 +412,37 @@ public class UTF8UtilsTest {
 	public void testUTF8() {
 		assertEquals("UTF-8", UTF8Utils.UTF8.name());
 	}
+
+	@Test
+	void testHashCode() {
+		String[] samples = { "", "a", "abc", "\u00E7\u00E3o", "\u4E2D\u6587", "\uD83D\uDE00x\uD83D\uDE01" };
+		for (String s : samples) {
+			byte[] b = s.getBytes(UTF8Utils.UTF8);
+			byte[] padded = new byte[b.length + 2];
+			System.arraycopy(b, 0, padded, 1, b.length);
+			assertEquals(s.hashCode(), UTF8Utils.hashCode(b, 0, b.length));
+			assertEquals(s.hashCode(), UTF8Utils.hashCode(padded, 1, b.length));
+		}
+	}
+
+	@Test
+	void testContentEquals() {
+		String[] samples = { "", "a", "abc", "\u00E7\u00E3o", "\u4E2D\u6587", "\uD83D\uDE00x\uD83D\uDE01" };
+		for (String s : samples) {
+			byte[] b = s.getBytes(UTF8Utils.UTF8);
+			byte[] padded = new byte[b.length + 2];
+			System.arraycopy(b, 0, padded, 1, b.length);
+			assertTrue(UTF8Utils.contentEquals(padded, 1, b.length, s));
+			assertTrue(UTF8Utils.contentEquals(b, 0, b.length, new StringBuilder(s)));
+			assertFalse(UTF8Utils.contentEquals(b, 0, b.length, s + "x"));
+			for (String o : samples) {
+				if (!o.equals(s)) {
+					assertFalse(UTF8Utils.contentEquals(b, 0, b.length, o));
+				}
+			}
+		}
+		byte[] b = "\uD83D\uDE00".getBytes(UTF8Utils.UTF8);
+		assertFalse(UTF8Utils.contentEquals(b, 0, b.length, "\uD83D"));
+		assertFalse(UTF8Utils.contentEquals(b, 0, b.length, "\uD83D\uDE01"));
+	}
 }